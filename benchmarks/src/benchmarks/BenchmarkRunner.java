@@ -0,0 +1,40 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with allocation profiling (as by "-prof gc") and saves
+ * the results as JSON, to be compared with the results of a previous run.
+ *
+ * @author Eti and Chavi
+ */
+public class BenchmarkRunner {
+	/**
+	 * Empty private constructor to hide the public one
+	 */
+	private BenchmarkRunner() {
+	}
+
+	/**
+	 * Runs the benchmarks
+	 *
+	 * @param args optional regular expression choosing the benchmarks (all by
+	 *             default) and optional results file name (jmh-result.json by
+	 *             default)
+	 * @throws RunnerException if the benchmarks fail to run
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder() //
+				.include(args.length > 0 ? args[0] : "benchmarks\\..*") //
+				.addProfiler(GCProfiler.class) //
+				.resultFormat(ResultFormatType.JSON) //
+				.result(args.length > 1 ? args[1] : "jmh-result.json") //
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,163 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import geometries.Triangle;
+import geometries.Tube;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Micro benchmarks of ray intersections with the basic geometries, both for a
+ * ray hitting the geometry and for a ray missing it (most of the intersection
+ * tests of a render miss), and of choosing the closest intersection.
+ *
+ * @author Eti and Chavi
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntersectionBenchmark {
+	private final Ray hit = new Ray(new Point(0.1, 0.2, 10), new Vector(0, 0, -1));
+	private final Ray miss = new Ray(new Point(50, 50, 10), new Vector(0, 0.1, -1));
+
+	private final Sphere sphere = new Sphere(new Point(0, 0, 0), 2d);
+	private final Plane plane = new Plane(new Point(0, 0, -1), new Vector(0.1, 0.1, 1));
+	private final Triangle triangle = new Triangle(new Point(-3, -3, 0), new Point(3, -3, 0), new Point(0, 3, 0));
+	private final Polygon polygon = new Polygon(new Point(-3, -3, 0), new Point(3, -3, 0), new Point(4, 2, 0),
+			new Point(0, 4, 0), new Point(-4, 2, 0));
+	private final Tube tube = new Tube(new Ray(new Point(0, -10, 0), new Vector(0, 1, 0)), 2);
+
+	/** Intersections of a ray with several bodies, for choosing the closest one */
+	private List<GeoPoint> intersections;
+
+	/**
+	 * Prepares the intersections list
+	 */
+	@Setup
+	public void setup() {
+		intersections = new java.util.ArrayList<>();
+		for (int i = 0; i < 8; ++i)
+			intersections.addAll(new Sphere(new Point(0, 0, -3 * i), 1d).findGeoIntersections(hit));
+	}
+
+	/**
+	 * Ray hitting a sphere
+	 *
+	 * @return the intersections
+	 */
+	@Benchmark
+	public List<GeoPoint> sphereHit() {
+		return sphere.findGeoIntersections(hit);
+	}
+
+	/**
+	 * Ray missing a sphere
+	 *
+	 * @return the intersections (null)
+	 */
+	@Benchmark
+	public List<GeoPoint> sphereMiss() {
+		return sphere.findGeoIntersections(miss);
+	}
+
+	/**
+	 * Ray hitting a plane
+	 *
+	 * @return the intersections
+	 */
+	@Benchmark
+	public List<GeoPoint> planeHit() {
+		return plane.findGeoIntersections(hit);
+	}
+
+	/**
+	 * Ray hitting a triangle
+	 *
+	 * @return the intersections
+	 */
+	@Benchmark
+	public List<GeoPoint> triangleHit() {
+		return triangle.findGeoIntersections(hit);
+	}
+
+	/**
+	 * Ray missing a triangle
+	 *
+	 * @return the intersections (null)
+	 */
+	@Benchmark
+	public List<GeoPoint> triangleMiss() {
+		return triangle.findGeoIntersections(miss);
+	}
+
+	/**
+	 * Ray hitting a pentagon
+	 *
+	 * @return the intersections
+	 */
+	@Benchmark
+	public List<GeoPoint> polygonHit() {
+		return polygon.findGeoIntersections(hit);
+	}
+
+	/**
+	 * Ray missing a pentagon
+	 *
+	 * @return the intersections (null)
+	 */
+	@Benchmark
+	public List<GeoPoint> polygonMiss() {
+		return polygon.findGeoIntersections(miss);
+	}
+
+	/**
+	 * Ray hitting a tube
+	 *
+	 * @return the intersections
+	 */
+	@Benchmark
+	public List<GeoPoint> tubeHit() {
+		return tube.findGeoIntersections(hit);
+	}
+
+	/**
+	 * Ray missing a tube
+	 *
+	 * @return the intersections (null)
+	 */
+	@Benchmark
+	public List<GeoPoint> tubeMiss() {
+		return tube.findGeoIntersections(miss);
+	}
+
+	/**
+	 * Choosing the closest of 16 intersections
+	 *
+	 * @return the closest intersection
+	 */
+	@Benchmark
+	public GeoPoint findClosestGeoPoint() {
+		return hit.findClosestGeoPoint(intersections);
+	}
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import primitives.Point;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.ImageWriter;
+import renderer.RayTracerBasic;
+import scene.Scene;
+import scene.SceneGenerator;
+
+/**
+ * Benchmark of the many-light sampling against the exhaustive light loop -
+ * rendering a frame of a synthetic scene with many lights, shading all the
+ * lights of every point (0 light samples) or a few lights sampled from the
+ * scene's light hierarchy.
+ *
+ * The score is the time per frame.
+ *
+ * @author Eti and Chavi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LightSamplingBenchmark {
+	/** The seed of all the generated scenes */
+	private static final long SEED = 20230611;
+	/** The frame width and height in pixels */
+	private static final int RESOLUTION = 200;
+
+	/** Amount of lights in the scene */
+	@Param({ "10", "100", "1000" })
+	public int lights;
+	/** Amount of lights sampled for a point, 0 for all the lights */
+	@Param({ "0", "1", "4" })
+	public int lightSamples;
+
+	private Camera camera;
+
+	/**
+	 * Generates and prepares the scene
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		Scene scene = new SceneGenerator(SEED).setSpheres(100).setTriangles(100).setLights(lights)
+				.setReflectiveFraction(0.2).setTransparentFraction(0.2).generate("Benchmark").prepare();
+		camera = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(SceneGenerator.SIZE, SceneGenerator.SIZE).setVPDistance(-SceneGenerator.DEPTH / 2) //
+				.setImageWriter(new ImageWriter("benchmark", RESOLUTION, RESOLUTION)) //
+				.setRayTracer(new RayTracerBasic(scene).setLightSamples(lightSamples)) //
+				.setMultithreading(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Renders a frame
+	 *
+	 * @return the camera (so that the render is not optimized away)
+	 */
+	@Benchmark
+	public Camera renderFrame() {
+		return camera.renderImage();
+	}
+}
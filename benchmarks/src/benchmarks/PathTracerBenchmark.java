@@ -0,0 +1,139 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.PathTracer;
+import scene.Scene;
+import scene.SceneGenerator;
+
+/**
+ * Benchmark of the convergence of the Monte Carlo path tracer - the time it
+ * takes to render a frame of a synthetic scene with a noise below a target.
+ * The samples per pixel are doubled until the noise is low enough. The noise
+ * of a frame is estimated from two frames of different seeds: the RMS of their
+ * pixels' difference divided by the square root of 2, in 8 bit color levels.
+ *
+ * The score is the convergence time. The samples per pixel needed are
+ * reported as a secondary result.
+ *
+ * @author Eti and Chavi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PathTracerBenchmark {
+	/** The seed of the generated scene */
+	private static final long SEED = 20230611;
+	/** The frame width and height in pixels */
+	private static final int RESOLUTION = 100;
+	/** Highest amount of samples per pixel tried */
+	private static final int MAX_SAMPLES = 4096;
+
+	/** The noise target, in 8 bit color levels */
+	@Param({ "8", "4", "2" })
+	public double noise;
+	/** Amount of spheres in the scene */
+	@Param({ "100" })
+	public int spheres;
+
+	private Scene scene;
+	/** The primary rays of the frame's pixels */
+	private Ray[] rays;
+
+	/**
+	 * Secondary results of the benchmark
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Samples {
+		/** Amount of samples per pixel of the converged frame */
+		public long samples;
+	}
+
+	/**
+	 * Generates and prepares the scene, and constructs the primary rays
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		scene = new SceneGenerator(SEED).setSpheres(spheres).setTriangles(100).setLights(2)
+				.setReflectiveFraction(0.2).setTransparentFraction(0.2).generate("Benchmark").prepare();
+		Camera camera = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(SceneGenerator.SIZE, SceneGenerator.SIZE).setVPDistance(-SceneGenerator.DEPTH / 2);
+		rays = new Ray[RESOLUTION * RESOLUTION];
+		for (int i = 0; i < RESOLUTION; ++i)
+			for (int j = 0; j < RESOLUTION; ++j)
+				rays[i * RESOLUTION + j] = camera.constructRay(RESOLUTION, RESOLUTION, j, i);
+	}
+
+	/**
+	 * Renders frames with doubled samples per pixel until the noise target is
+	 * reached
+	 *
+	 * @param samples the counter of the samples per pixel
+	 * @return the samples per pixel of the converged frame
+	 */
+	@Benchmark
+	public int converge(Samples samples) {
+		int count = 1;
+		while (count < MAX_SAMPLES && noise(count) > noise)
+			count *= 2;
+		samples.samples += count;
+		return count;
+	}
+
+	/**
+	 * Estimates the noise of a frame from two frames of different seeds
+	 *
+	 * @param count the samples per pixel
+	 * @return the noise, in 8 bit color levels
+	 */
+	private double noise(int count) {
+		int[] first = render(count, 1);
+		int[] second = render(count, 2);
+		double sum = 0;
+		for (int p = 0; p < first.length; ++p)
+			for (int shift = 0; shift <= 16; shift += 8) {
+				int d = (first[p] >> shift & 0xFF) - (second[p] >> shift & 0xFF);
+				sum += d * d;
+			}
+		return Math.sqrt(sum / (3.0 * first.length) / 2);
+	}
+
+	/**
+	 * Renders a frame by all the available processors, every processor
+	 * accumulating the samples of its pixels
+	 *
+	 * @param count the samples per pixel
+	 * @param seed  the seed of the random paths
+	 * @return the pixels' RGB values
+	 */
+	private int[] render(int count, long seed) {
+		PathTracer tracer = new PathTracer(scene).setSamples(count).setSeed(seed);
+		int[] pixels = new int[rays.length];
+		IntStream.range(0, rays.length).parallel()
+				.forEach(p -> pixels[p] = tracer.traceRay(rays[p]).getColor().getRGB());
+		return pixels;
+	}
+}
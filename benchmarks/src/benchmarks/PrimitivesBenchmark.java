@@ -0,0 +1,173 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import primitives.Color;
+import primitives.Double3;
+import primitives.Point;
+import primitives.Vector;
+
+/**
+ * Micro benchmarks of the basic arithmetic of the primitives - vectors, points,
+ * triads of numbers and colors. Every operation allocates its result, so the
+ * allocation rate (by the gc profiler) is as interesting as the time.
+ *
+ * @author Eti and Chavi
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitivesBenchmark {
+	private Vector v1 = new Vector(1, 2, 3);
+	private Vector v2 = new Vector(-2, 3, -1);
+	private Point p = new Point(4, -5, 6);
+	private Double3 d1 = new Double3(0.2, 0.5, 0.8);
+	private Double3 d2 = new Double3(0.9, 0.4, 0.1);
+	private Color c1 = new Color(120, 60, 30);
+	private Color c2 = new Color(10, 200, 90);
+	private Color c3 = new Color(70, 70, 250);
+
+	/**
+	 * Vector addition
+	 *
+	 * @return the sum
+	 */
+	@Benchmark
+	public Vector vectorAdd() {
+		return v1.add(v2);
+	}
+
+	/**
+	 * Vector scaling
+	 *
+	 * @return the scaled vector
+	 */
+	@Benchmark
+	public Vector vectorScale() {
+		return v1.scale(2.5);
+	}
+
+	/**
+	 * Dot product
+	 *
+	 * @return the product
+	 */
+	@Benchmark
+	public double vectorDotProduct() {
+		return v1.dotProduct(v2);
+	}
+
+	/**
+	 * Cross product
+	 *
+	 * @return the product
+	 */
+	@Benchmark
+	public Vector vectorCrossProduct() {
+		return v1.crossProduct(v2);
+	}
+
+	/**
+	 * Vector normalization
+	 *
+	 * @return the normalized vector
+	 */
+	@Benchmark
+	public Vector vectorNormalize() {
+		return v1.normalize();
+	}
+
+	/**
+	 * Moving a point by a vector
+	 *
+	 * @return the moved point
+	 */
+	@Benchmark
+	public Point pointAdd() {
+		return p.add(v1);
+	}
+
+	/**
+	 * Vector between points
+	 *
+	 * @return the vector
+	 */
+	@Benchmark
+	public Vector pointSubtract() {
+		return p.subtract(v2);
+	}
+
+	/**
+	 * Distance between points
+	 *
+	 * @return the distance
+	 */
+	@Benchmark
+	public double pointDistance() {
+		return p.distance(v1);
+	}
+
+	/**
+	 * Element-wise product of triads (attenuation coefficients)
+	 *
+	 * @return the product
+	 */
+	@Benchmark
+	public Double3 double3Product() {
+		return d1.product(d2);
+	}
+
+	/**
+	 * Comparison of a triad with a threshold (recursion cut-off)
+	 *
+	 * @return the comparison result
+	 */
+	@Benchmark
+	public boolean double3LowerThan() {
+		return d1.product(d2).lowerThan(0.001);
+	}
+
+	/**
+	 * Adding several colors (light contributions)
+	 *
+	 * @return the sum
+	 */
+	@Benchmark
+	public Color colorAdd() {
+		return c1.add(c2, c3);
+	}
+
+	/**
+	 * Blending two colors by coefficients, as done for reflections and
+	 * refractions
+	 *
+	 * @return the blended color
+	 */
+	@Benchmark
+	public Color colorBlend() {
+		return c1.scale(d1).add(c2.scale(d2));
+	}
+
+	/**
+	 * Averaging colors, as done for super sampling
+	 *
+	 * @return the average
+	 */
+	@Benchmark
+	public Color colorAverage() {
+		return c1.add(c2, c3).reduce(3);
+	}
+}
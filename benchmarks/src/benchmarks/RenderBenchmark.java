@@ -0,0 +1,113 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import primitives.Point;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.ImageWriter;
+import renderer.RayTracerBasic;
+import scene.Scene;
+import scene.SceneGenerator;
+
+/**
+ * End to end benchmark of rendering a frame of a synthetic scene - the whole
+ * camera, ray tracer and image writer pipeline, except writing the image file.
+ * The scene size, its materials and the amount of rendering threads are
+ * parameters, so a run produces the scaling curves over the scene size and
+ * the threads count (see {@link RenderScalingRunner}).
+ *
+ * The score is the time per frame. The rays per second are reported as a
+ * secondary result, from the amount of rays of a frame counted once before
+ * the measurement (so that counting does not slow the measured renders down).
+ *
+ * @author Eti and Chavi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RenderBenchmark {
+	/** The seed of all the generated scenes */
+	private static final long SEED = 20230611;
+	/** The frame width and height in pixels */
+	private static final int RESOLUTION = 400;
+
+	/** Amount of spheres in the scene */
+	@Param({ "10", "100", "1000" })
+	public int spheres;
+	/** Amount of triangles in the scene */
+	@Param({ "100" })
+	public int triangles;
+	/** Amount of lights in the scene */
+	@Param({ "2" })
+	public int lights;
+	/** Fraction of reflective bodies */
+	@Param({ "0.2" })
+	public double reflective;
+	/** Fraction of transparent bodies */
+	@Param({ "0.2" })
+	public double transparent;
+	/** Amount of rendering threads */
+	@Param({ "1", "2", "4", "8" })
+	public int threads;
+
+	private Camera camera;
+	/** Amount of rays traced for a frame */
+	private long raysPerFrame;
+
+	/**
+	 * Secondary results of the benchmark - reported as throughput per second
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Rays {
+		/** Amount of rays traced */
+		public long rays;
+	}
+
+	/**
+	 * Generates and prepares the scene, and counts the rays of a frame
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		Scene scene = new SceneGenerator(SEED).setSpheres(spheres).setTriangles(triangles).setLights(lights)
+				.setReflectiveFraction(reflective).setTransparentFraction(transparent).generate("Benchmark")
+				.prepare();
+		camera = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(SceneGenerator.SIZE, SceneGenerator.SIZE).setVPDistance(-SceneGenerator.DEPTH / 2) //
+				.setImageWriter(new ImageWriter("benchmark", RESOLUTION, RESOLUTION)) //
+				.setRayTracer(new RayTracerBasic(scene)) //
+				.setMultithreading(threads);
+		raysPerFrame = camera.setStatistics(true).renderImage().getRenderReport().totalRays();
+		camera.setStatistics(false);
+	}
+
+	/**
+	 * Renders a frame
+	 *
+	 * @param rays the counter of the traced rays
+	 * @return the camera (so that the render is not optimized away)
+	 */
+	@Benchmark
+	public Camera renderFrame(Rays rays) {
+		rays.rays += raysPerFrame;
+		return camera.renderImage();
+	}
+}
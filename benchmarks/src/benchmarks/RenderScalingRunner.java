@@ -0,0 +1,80 @@
+package benchmarks;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the render benchmark with allocation profiling, saves the results as
+ * JSON and prints the scaling curves - time per frame, rays per second and
+ * allocation rate by scene size and threads count, and the speedup of each
+ * threads count over a single thread.
+ *
+ * @author Eti and Chavi
+ */
+public class RenderScalingRunner {
+	/**
+	 * Empty private constructor to hide the public one
+	 */
+	private RenderScalingRunner() {
+	}
+
+	/**
+	 * Runs the render benchmark
+	 *
+	 * @param args optional results file name (render-result.json by default)
+	 * @throws RunnerException if the benchmark fails to run
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder() //
+				.include(RenderBenchmark.class.getSimpleName()) //
+				.addProfiler(GCProfiler.class) //
+				.resultFormat(ResultFormatType.JSON) //
+				.result(args.length > 0 ? args[0] : "render-result.json") //
+				.build();
+		Collection<RunResult> results = new Runner(options).run();
+
+		// scene size -> threads -> result
+		Map<Integer, Map<Integer, RunResult>> curves = new TreeMap<>();
+		for (RunResult result : results) {
+			int spheres = Integer.parseInt(result.getParams().getParam("spheres"));
+			int threads = Integer.parseInt(result.getParams().getParam("threads"));
+			curves.computeIfAbsent(spheres, s -> new TreeMap<>()).put(threads, result);
+		}
+
+		System.out.printf("%n%8s %8s %12s %14s %14s %8s%n", "spheres", "threads", "ms/frame", "rays/s", "alloc MB/s",
+				"speedup");
+		curves.forEach((spheres, byThreads) -> {
+			double single = byThreads.values().iterator().next().getPrimaryResult().getScore();
+			byThreads.forEach((threads, result) -> {
+				double frame = result.getPrimaryResult().getScore();
+				System.out.printf("%8d %8d %12.1f %14.0f %14.1f %8.2f%n", spheres, threads, frame,
+						secondary(result, "rays"), secondary(result, "gc.alloc.rate"), single / frame);
+			});
+		});
+	}
+
+	/**
+	 * Returns the score of a secondary result of a benchmark run. Older JMH
+	 * versions prefix the profilers' result names by a dot.
+	 *
+	 * @param result the run result
+	 * @param name   the secondary result name
+	 * @return the score, or NaN if the result is missing
+	 */
+	private static double secondary(RunResult result, String name) {
+		Result<?> secondary = result.getSecondaryResults().get(name);
+		if (secondary == null)
+			secondary = result.getSecondaryResults().get("\u00B7" + name);
+		return secondary == null ? Double.NaN : secondary.getScore();
+	}
+}
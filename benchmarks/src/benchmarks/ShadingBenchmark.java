@@ -0,0 +1,129 @@
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import primitives.Brdf;
+import primitives.Double3;
+import primitives.Material;
+import primitives.PhongBrdf;
+import primitives.Vector;
+
+import static primitives.Util.alignZero;
+
+/**
+ * Benchmark of the shading throughput of the Phong reflectance model - the
+ * diffuse and specular factors of random light and view directions, with the
+ * shininess power evaluated by squaring ({@link PhongBrdf}) or by
+ * {@link Math#pow(double, double)} as before. {@link #shadeTable()} measures
+ * the path the ray tracers take for the Phong materials of a material table -
+ * the factors of {@link PhongBrdf} from primitive arguments scaling primitive
+ * coefficients (always by squaring).
+ *
+ * The score is the time per shaded light sample.
+ *
+ * @author Eti and Chavi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShadingBenchmark {
+	/** Amount of light samples shaded per invocation */
+	private static final int SAMPLES = 4096;
+
+	/** The Phong model with the power evaluated by {@link Math#pow} */
+	private static final Brdf POW_PHONG = new Brdf() {
+		@Override
+		public Double3 diffusive(Material material, double nl) {
+			return material.kD.scale(nl < 0 ? -nl : nl);
+		}
+
+		@Override
+		public Double3 specular(Material material, Vector normal, Vector l, double nl, Vector v) {
+			Vector reflectedVector = l.subtract(normal.scale(2 * nl));
+			double minusVR = alignZero(-v.dotProduct(reflectedVector));
+			return minusVR <= 0 ? Double3.ZERO : material.kS.scale(Math.pow(minusVR, material.nShininess));
+		}
+	};
+
+	/** The evaluation of the power - "pow" or "squaring" */
+	@Param({ "pow", "squaring" })
+	public String power;
+	/** The shininess of the material */
+	@Param({ "20", "100", "1000" })
+	public int shininess;
+
+	private Material material;
+	private final Vector[] normals = new Vector[SAMPLES];
+	private final Vector[] lights = new Vector[SAMPLES];
+	private final Vector[] views = new Vector[SAMPLES];
+	private final double[] nl = new double[SAMPLES];
+
+	/**
+	 * Builds the material and the random directions of the samples, the viewer
+	 * near the reflected light so that the specular lobe is evaluated
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		material = new Material().setKd(0.5).setKs(0.5).setShininess(shininess)
+				.setBrdf(power.equals("pow") ? POW_PHONG : PhongBrdf.PHONG);
+		Random random = new Random(20230611);
+		for (int i = 0; i < SAMPLES; ++i) {
+			normals[i] = new Vector(0, 0, 1);
+			lights[i] = new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1).normalize();
+			nl[i] = normals[i].dotProduct(lights[i]);
+			views[i] = new Vector(random.nextDouble() * 0.2 - 0.1, random.nextDouble() * 0.2 - 0.1, -1)
+					.subtract(lights[i].subtract(normals[i].scale(2 * nl[i]))).normalize();
+		}
+	}
+
+	/**
+	 * Shades the samples
+	 *
+	 * @return the sum of the factors (so that the shading is not optimized away)
+	 */
+	@Benchmark
+	@OperationsPerInvocation(SAMPLES)
+	public double shade() {
+		double sum = 0;
+		for (int i = 0; i < SAMPLES; ++i)
+			sum += material.brdf.diffusive(material, nl[i]).getD1()
+					+ material.brdf.specular(material, normals[i], lights[i], nl[i], views[i]).getD1();
+		return sum;
+	}
+
+	/**
+	 * Shades the samples from primitive coefficients, as the ray tracers shade the
+	 * Phong materials of a material table
+	 *
+	 * @return the sum of the factors (so that the shading is not optimized away)
+	 */
+	@Benchmark
+	@OperationsPerInvocation(SAMPLES)
+	public double shadeTable() {
+		double kD = material.kD.getD1();
+		double kS = material.kS.getD1();
+		double sum = 0;
+		for (int i = 0; i < SAMPLES; ++i)
+			sum += kD * PhongBrdf.PHONG.diffusive(nl[i])
+					+ kS * PhongBrdf.PHONG.specular(normals[i], lights[i], nl[i], views[i], shininess);
+		return sum;
+	}
+}
@@ -0,0 +1,25 @@
+package geometries;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of building a bounding volume hierarchy
+ *
+ * @author Eti and Chavi
+ */
+@Name("raytracer.BVHBuild")
+@Label("BVH Build")
+@Category({ "Ray Tracer", "Scene" })
+@Description("Building the bounding volume hierarchy of a geometries collection")
+class BVHBuildEvent extends jdk.jfr.Event {
+	/** Amount of bounded bodies organized in the hierarchy */
+	@Label("Bounded Bodies")
+	int boundedBodies;
+
+	/** Amount of unbounded bodies kept at the top level */
+	@Label("Unbounded Bodies")
+	int unboundedBodies;
+}
@@ -0,0 +1,171 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Axis aligned bounding box, used to skip intersection calculations of
+ * geometries which a ray cannot hit at all.
+ *
+ * @author Eti and Chavi
+ */
+public class BoundingBox {
+	/** Margin added around boxes of points, so flat boxes survive rounding */
+	private static final double MARGIN = 1e-7;
+
+	/** Lower corner coordinates of the box */
+	private final double minX, minY, minZ;
+	/** Upper corner coordinates of the box */
+	private final double maxX, maxY, maxZ;
+
+	/**
+	 * Constructs a bounding box from its lower and upper corner coordinates
+	 *
+	 * @param minX lower x coordinate
+	 * @param minY lower y coordinate
+	 * @param minZ lower z coordinate
+	 * @param maxX upper x coordinate
+	 * @param maxY upper y coordinate
+	 * @param maxZ upper z coordinate
+	 */
+	public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+		this.minX = minX;
+		this.minY = minY;
+		this.minZ = minZ;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		this.maxZ = maxZ;
+	}
+
+	/**
+	 * Constructs the smallest bounding box containing all the given points (with a
+	 * tiny margin, so that boxes of flat shapes are robust to rounding errors)
+	 *
+	 * @param points the points to enclose
+	 * @return the bounding box of the points
+	 */
+	public static BoundingBox of(Iterable<Point> points) {
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+		for (Point p : points) {
+			minX = Math.min(minX, p.getX());
+			minY = Math.min(minY, p.getY());
+			minZ = Math.min(minZ, p.getZ());
+			maxX = Math.max(maxX, p.getX());
+			maxY = Math.max(maxY, p.getY());
+			maxZ = Math.max(maxZ, p.getZ());
+		}
+		return new BoundingBox(minX - MARGIN, minY - MARGIN, minZ - MARGIN, maxX + MARGIN, maxY + MARGIN,
+				maxZ + MARGIN);
+	}
+
+	/**
+	 * Returns the smallest box containing both this box and the other one
+	 *
+	 * @param other the other box
+	 * @return the union box
+	 */
+	public BoundingBox union(BoundingBox other) {
+		return new BoundingBox(Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+				Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+	}
+
+	/**
+	 * Lower corner of the box
+	 *
+	 * @return the lower corner point
+	 */
+	public Point getMin() {
+		return new Point(minX, minY, minZ);
+	}
+
+	/**
+	 * Upper corner of the box
+	 *
+	 * @return the upper corner point
+	 */
+	public Point getMax() {
+		return new Point(maxX, maxY, maxZ);
+	}
+
+	/**
+	 * Center coordinate of the box along an axis
+	 *
+	 * @param axis 0 for x, 1 for y, 2 for z
+	 * @return the center coordinate along the axis
+	 */
+	public double center(int axis) {
+		return switch (axis) {
+		case 0 -> (minX + maxX) / 2;
+		case 1 -> (minY + maxY) / 2;
+		default -> (minZ + maxZ) / 2;
+		};
+	}
+
+	/**
+	 * Surface area of the box - the measure of the probability that a random ray
+	 * hits it
+	 *
+	 * @return the surface area
+	 */
+	public double surfaceArea() {
+		double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+		return 2 * (dx * dy + dy * dz + dz * dx);
+	}
+
+	/**
+	 * Checks whether a ray crosses the box (slabs method)
+	 *
+	 * @param ray the ray to check
+	 * @return true if the ray crosses the box in front of its head
+	 */
+	public boolean intersects(Ray ray) {
+		Point p0 = ray.getP0();
+		Vector dir = ray.getDir();
+		double tMin = 0;
+		double tMax = Double.POSITIVE_INFINITY;
+
+		// x slab
+		double p = p0.getX(), d = dir.getX();
+		if (d == 0) {
+			if (p < minX || p > maxX)
+				return false;
+		} else {
+			double t1 = (minX - p) / d, t2 = (maxX - p) / d;
+			tMin = Math.max(tMin, Math.min(t1, t2));
+			tMax = Math.min(tMax, Math.max(t1, t2));
+			if (tMin > tMax)
+				return false;
+		}
+
+		// y slab
+		p = p0.getY();
+		d = dir.getY();
+		if (d == 0) {
+			if (p < minY || p > maxY)
+				return false;
+		} else {
+			double t1 = (minY - p) / d, t2 = (maxY - p) / d;
+			tMin = Math.max(tMin, Math.min(t1, t2));
+			tMax = Math.min(tMax, Math.max(t1, t2));
+			if (tMin > tMax)
+				return false;
+		}
+
+		// z slab
+		p = p0.getZ();
+		d = dir.getZ();
+		if (d == 0)
+			return p >= minZ && p <= maxZ;
+		double t1 = (minZ - p) / d, t2 = (maxZ - p) / d;
+		tMin = Math.max(tMin, Math.min(t1, t2));
+		tMax = Math.min(tMax, Math.max(t1, t2));
+		return tMin <= tMax;
+	}
+
+	@Override
+	public String toString() {
+		return "BoundingBox{" + getMin() + ", " + getMax() + "}";
+	}
+}
@@ -1,23 +1,60 @@
 package geometries;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
 import primitives.Ray;
 
 /**
  * The Geometries class represents a collection of intersectable geometries.
- * 
+ *
  * It extends the Intersectable class and stores a list of intersectable
  * objects. This class allows for adding intersectable objects to the list and
  * finding the intersections of a ray with the geometries in the list.
- * 
+ *
+ * The collection may be reorganized into a bounding volume hierarchy (BVH) of
+ * nested Geometries, so that a ray is tested only against the bodies whose
+ * bounding boxes it crosses. When bodies move (between animation frames), the
+ * hierarchy is refitted rather than rebuilt, and only the nodes whose quality
+ * degraded too much are rebuilt.
+ *
  * @author Eti and Chavi
  *
  */
 public class Geometries extends Intersectable {
+	/** Maximal number of bodies held by a leaf node of the hierarchy */
+	private static final int MAX_LEAF_BODIES = 2;
+	/** Default growth of a node's surface area which triggers its rebuild */
+	public static final double DEFAULT_REBUILD_THRESHOLD = 2;
+
+	/**
+	 * Timing of a hierarchy update
+	 *
+	 * @param refitNanos   time spent refitting the boxes, in nanoseconds
+	 * @param rebuildNanos time spent rebuilding degraded nodes, in nanoseconds
+	 * @param rebuiltNodes amount of rebuilt subtrees
+	 */
+	public record RefitReport(long refitNanos, long rebuildNanos, int rebuiltNodes) {
+		@Override
+		public String toString() {
+			return String.format("refit %.3f ms, rebuild %.3f ms (%d nodes)", refitNanos / 1e6, rebuildNanos / 1e6,
+					rebuiltNodes);
+		}
+	}
 
 	private List<Intersectable> geometricBodies = new LinkedList<>();
 
+	/** The box bounding all the bodies (null if some body is unbounded) */
+	private BoundingBox box;
+	/** Whether the box has been calculated since the last change of the bodies */
+	private boolean boxCalculated = false;
+	/** Whether the bodies are organized as a bounding volume hierarchy */
+	private boolean hierarchical = false;
+	/** Surface area of the box when the hierarchy node was built */
+	private double builtArea = 0;
+
 	/**
 	 * Default constructor that initializes an empty list of bodies.
 	 */
@@ -35,6 +72,17 @@ public class Geometries extends Intersectable {
 		add(geometries);
 	}
 
+	/**
+	 * Constructs an inner node of the bounding volume hierarchy
+	 *
+	 * @param bodies the bodies of the node
+	 */
+	private Geometries(List<Intersectable> bodies) {
+		geometricBodies = bodies;
+		hierarchical = true;
+		builtArea = getBoundingBox().surfaceArea();
+	}
+
 	/**
 	 * Returns the list of intersectable geometries.
 	 *
@@ -52,6 +100,218 @@ public class Geometries extends Intersectable {
 	 */
 	public void add(Intersectable... geometries) {
 		geometricBodies.addAll(List.of(geometries));
+		box = null;
+		boxCalculated = false;
+		hierarchical = false;
+	}
+
+	/**
+	 * Returns the box bounding all the bodies of the collection
+	 *
+	 * @return the bounding box, or null if the collection is empty or some of its
+	 *         bodies is unbounded
+	 */
+	@Override
+	public BoundingBox getBoundingBox() {
+		if (!boxCalculated) {
+			BoundingBox union = null;
+			for (Intersectable body : geometricBodies) {
+				BoundingBox bodyBox = body.getBoundingBox();
+				if (bodyBox == null) {
+					union = null;
+					break;
+				}
+				union = union == null ? bodyBox : union.union(bodyBox);
+			}
+			box = union;
+			boxCalculated = true;
+		}
+		return box;
+	}
+
+	/**
+	 * Reorganizes the bodies into a bounding volume hierarchy. Nested collections
+	 * are flattened, unbounded bodies (such as planes) stay at the top level and
+	 * the bounded ones are split recursively by the median of their centers along
+	 * the widest axis. Does nothing if the hierarchy is already built and no body
+	 * was added since.
+	 *
+	 * @return this collection
+	 */
+	public Geometries buildBVH() {
+		if (hierarchical)
+			return this;
+		BVHBuildEvent event = new BVHBuildEvent();
+		event.begin();
+		List<Intersectable> bounded = new ArrayList<>();
+		List<Intersectable> bodies = new ArrayList<>();
+		collectLeaves(this, bounded, bodies);
+		int unbounded = bodies.size();
+		if (!bounded.isEmpty()) {
+			Intersectable root = buildNode(bounded);
+			if (bodies.isEmpty() && root instanceof Geometries node)
+				bodies = node.geometricBodies;
+			else
+				bodies.add(root);
+		}
+		geometricBodies = bodies;
+		box = null;
+		boxCalculated = false;
+		hierarchical = true;
+		BoundingBox bounds = getBoundingBox();
+		builtArea = bounds == null ? 0 : bounds.surfaceArea();
+		event.end();
+		if (event.shouldCommit()) {
+			event.boundedBodies = bounded.size();
+			event.unboundedBodies = unbounded;
+			event.commit();
+		}
+		return this;
+	}
+
+	/**
+	 * Replaces a body (at any depth of nested collections) by another one - e.g.
+	 * by a moved copy of it. The boxes containing the body stop culling rays until
+	 * the next {@link #refit(double)}, so the collection stays correct even if it
+	 * is not refitted.
+	 *
+	 * @param body    the body to replace
+	 * @param updated the body to put instead
+	 * @return true if the body was found and replaced
+	 */
+	public boolean replace(Intersectable body, Intersectable updated) {
+		ListIterator<Intersectable> iterator = geometricBodies.listIterator();
+		while (iterator.hasNext()) {
+			Intersectable current = iterator.next();
+			boolean found = current == body;
+			if (found)
+				iterator.set(updated);
+			else
+				found = current instanceof Geometries nested && nested.replace(body, updated);
+			if (found) {
+				box = null;
+				boxCalculated = false;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Refits the hierarchy with the default rebuild threshold
+	 *
+	 * @return the timing of the update
+	 * @see #refit(double)
+	 */
+	public RefitReport refit() {
+		return refit(DEFAULT_REBUILD_THRESHOLD);
+	}
+
+	/**
+	 * Updates the hierarchy after bodies have moved: the boxes are recalculated
+	 * bottom-up, then every hierarchy node whose surface area grew by more than
+	 * the threshold factor since it was built (which means rays reach it much more
+	 * often) is rebuilt from its bodies.
+	 *
+	 * @param threshold the allowed growth factor of a node's surface area
+	 * @return the timing of the update
+	 */
+	public RefitReport refit(double threshold) {
+		long start = System.nanoTime();
+		refitBoxes();
+		long refitted = System.nanoTime();
+		int rebuilt = rebuildDegraded(threshold);
+		return new RefitReport(refitted - start, System.nanoTime() - refitted, rebuilt);
+	}
+
+	/**
+	 * Recalculates the boxes of the collection and its nested collections
+	 * bottom-up
+	 */
+	private void refitBoxes() {
+		for (Intersectable body : geometricBodies)
+			if (body instanceof Geometries nested)
+				nested.refitBoxes();
+		box = null;
+		boxCalculated = false;
+		getBoundingBox();
+	}
+
+	/**
+	 * Rebuilds the topmost degraded hierarchy nodes
+	 *
+	 * @param threshold the allowed growth factor of a node's surface area
+	 * @return amount of rebuilt nodes
+	 */
+	private int rebuildDegraded(double threshold) {
+		if (builtArea > 0 && box != null && box.surfaceArea() > threshold * builtArea) {
+			hierarchical = false;
+			buildBVH();
+			return 1;
+		}
+		int rebuilt = 0;
+		for (Intersectable body : geometricBodies)
+			if (body instanceof Geometries nested)
+				rebuilt += nested.rebuildDegraded(threshold);
+		return rebuilt;
+	}
+
+	/**
+	 * Collects the non-collection bodies of a collection recursively
+	 *
+	 * @param geometries the collection to flatten
+	 * @param bounded    the list to collect bounded bodies into
+	 * @param unbounded  the list to collect unbounded bodies into
+	 */
+	private static void collectLeaves(Geometries geometries, List<Intersectable> bounded,
+			List<Intersectable> unbounded) {
+		for (Intersectable body : geometries.geometricBodies) {
+			if (body instanceof Geometries nested)
+				collectLeaves(nested, bounded, unbounded);
+			else if (body.getBoundingBox() == null)
+				unbounded.add(body);
+			else
+				bounded.add(body);
+		}
+	}
+
+	/**
+	 * Builds a hierarchy node over bounded bodies
+	 *
+	 * @param bodies the bounded bodies (the list is reordered)
+	 * @return the body itself if it is alone, otherwise a node containing the
+	 *         bodies
+	 */
+	private static Intersectable buildNode(List<Intersectable> bodies) {
+		int size = bodies.size();
+		if (size == 1)
+			return bodies.get(0);
+		if (size <= MAX_LEAF_BODIES)
+			return new Geometries(new ArrayList<>(bodies));
+
+		// choose the axis along which the bodies' centers are spread the most
+		int axis = 0;
+		double widest = -1;
+		for (int a = 0; a < 3; ++a) {
+			double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+			for (Intersectable body : bodies) {
+				double c = body.getBoundingBox().center(a);
+				min = Math.min(min, c);
+				max = Math.max(max, c);
+			}
+			if (max - min > widest) {
+				widest = max - min;
+				axis = a;
+			}
+		}
+
+		final int splitAxis = axis;
+		bodies.sort(Comparator.comparingDouble(body -> body.getBoundingBox().center(splitAxis)));
+		int half = size / 2;
+		List<Intersectable> children = new ArrayList<>(2);
+		children.add(buildNode(bodies.subList(0, half)));
+		children.add(buildNode(bodies.subList(half, size)));
+		return new Geometries(children);
 	}
 
 	/**
@@ -62,9 +322,26 @@ public class Geometries extends Intersectable {
 	 */
 	@Override
 	public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+		return findGeoIntersectionsHelper(ray, null);
+	}
+
+	/**
+	 * Finds all the intersections of the given ray with the geometries in the
+	 * list. It is the only traversal of the hierarchy, with or without counting,
+	 * so that the counting render runs the same compiled code as the plain one.
+	 *
+	 * @param ray     The ray to check for intersections.
+	 * @param counter The counter of the intersection tests, or null for no
+	 *                counting.
+	 * @return A list of intersection points, or null if there are no intersections.
+	 */
+	@Override
+	protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, IntersectionCounter counter) {
+		if (box != null && !box.intersects(ray))
+			return null;
 		List<GeoPoint> res = null;
 		for (Intersectable geometry : this.geometricBodies) {
-			var resi = geometry.findGeoIntersections(ray);
+			var resi = geometry.findGeoIntersections(ray, counter);
 			if (resi != null) {
 				if (res == null) {
 					res = new LinkedList<>();
@@ -74,4 +351,4 @@ public class Geometries extends Intersectable {
 		}
 		return res;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,264 @@
+package geometries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+/**
+ * An instance of a shared geometry placed in the scene by an affine
+ * transformation, optionally with its own material. Many instances may refer
+ * to the same geometry (e.g. a tree model made of triangles, kept in a
+ * Geometries with its own bounding volume hierarchy), so the memory grows with
+ * the amount of different models rather than with the amount of their copies.
+ * Instances are bounded bodies, so the scene's hierarchy is built over the
+ * instances, while the shared geometry keeps its own hierarchy.
+ *
+ * Rays are intersected with the shared geometry in its own (object) space, and
+ * the found points are transformed back to the scene (world) space.
+ *
+ * @author Eti and Chavi
+ */
+public class Instance extends Intersectable {
+	/** The shared geometry in its object space */
+	private final Intersectable geometry;
+	/** The transformation from the object space to the world space */
+	private Transform transform;
+	/** Material replacing the geometry's material (null - keep the material) */
+	private Material material = null;
+	/** The box bounding the instance in world space */
+	private BoundingBox box;
+	/** Whether the box has been calculated since the last transformation change */
+	private boolean boxCalculated = false;
+
+	/**
+	 * Constructs an instance of a shared geometry. If the geometry is a collection
+	 * its hierarchy is built (once for all its instances), so all its bodies must
+	 * be added before.
+	 *
+	 * @param geometry  the shared geometry
+	 * @param transform the transformation from the geometry's space to the scene
+	 */
+	public Instance(Intersectable geometry, Transform transform) {
+		if (geometry instanceof Geometries shared)
+			shared.buildBVH();
+		this.geometry = geometry;
+		this.transform = transform;
+	}
+
+	/**
+	 * Returns the shared geometry
+	 *
+	 * @return the shared geometry
+	 */
+	public Intersectable getGeometry() {
+		return geometry;
+	}
+
+	/**
+	 * Returns the transformation of the instance
+	 *
+	 * @return the transformation from the geometry's space to the scene
+	 */
+	public Transform getTransform() {
+		return transform;
+	}
+
+	/**
+	 * Moves the instance by setting its transformation. A scene hierarchy
+	 * containing the instance must be refitted afterwards.
+	 *
+	 * @param transform the new transformation
+	 * @return the instance itself
+	 */
+	public Instance setTransform(Transform transform) {
+		this.transform = transform;
+		boxCalculated = false;
+		return this;
+	}
+
+	/**
+	 * Returns the material overriding the geometry's one
+	 *
+	 * @return the overriding material, or null if the geometry's material is used
+	 */
+	public Material getMaterial() {
+		return material;
+	}
+
+	/**
+	 * Sets a material overriding the materials of the shared geometry
+	 *
+	 * @param material the overriding material, or null to use the geometry's one
+	 * @return the instance itself
+	 */
+	public Instance setMaterial(Material material) {
+		this.material = material;
+		return this;
+	}
+
+	/**
+	 * Returns the box bounding the transformed box of the geometry
+	 *
+	 * @return the bounding box, or null if the geometry is unbounded
+	 */
+	@Override
+	public BoundingBox getBoundingBox() {
+		if (!boxCalculated) {
+			BoundingBox local = geometry.getBoundingBox();
+			if (local == null)
+				box = null;
+			else {
+				Point min = local.getMin();
+				Point max = local.getMax();
+				List<Point> corners = new ArrayList<>(8);
+				for (int c = 0; c < 8; ++c)
+					corners.add(transform.apply(new Point( //
+							(c & 1) == 0 ? min.getX() : max.getX(), //
+							(c & 2) == 0 ? min.getY() : max.getY(), //
+							(c & 4) == 0 ? min.getZ() : max.getZ())));
+				box = BoundingBox.of(corners);
+			}
+			boxCalculated = true;
+		}
+		return box;
+	}
+
+	@Override
+	protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+		return findGeoIntersectionsHelper(ray, null);
+	}
+
+	@Override
+	protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, IntersectionCounter counter) {
+		Transform t = transform;
+		List<GeoPoint> intersections = geometry.findGeoIntersections(toLocal(ray, t), counter);
+		return intersections == null ? null : toWorld(intersections, t);
+	}
+
+	/**
+	 * Transforms a ray from the world space to the object space
+	 *
+	 * @param ray the ray in world space
+	 * @param t   the transformation of the instance
+	 * @return the ray in object space
+	 */
+	private static Ray toLocal(Ray ray, Transform t) {
+		return new Ray(t.applyInverse(ray.getP0()), t.applyInverseToVector(ray.getDir()));
+	}
+
+	/**
+	 * Transforms intersections with the shared geometry to the world space, hit on
+	 * the instanced views of the shared geometries. The views are made for the
+	 * intersections - consecutive hits of the same shared geometry share a view -
+	 * so the instance keeps nothing per hit geometry.
+	 *
+	 * @param intersections the intersections in object space
+	 * @param t             the transformation of the instance
+	 * @return the intersections in world space
+	 */
+	private List<GeoPoint> toWorld(List<GeoPoint> intersections, Transform t) {
+		List<GeoPoint> result = new ArrayList<>(intersections.size());
+		InstancedGeometry view = null;
+		for (GeoPoint gp : intersections) {
+			if (view == null || view.geometry != gp.geometry)
+				view = new InstancedGeometry(this, gp.geometry);
+			result.add(new GeoPoint(view, t.apply(gp.point)));
+		}
+		return result;
+	}
+
+	/**
+	 * A geometry of the shared model as it appears in a specific instance -
+	 * provides the world space normal and the instance's material. Intersecting it
+	 * intersects the shared geometry in the instance's current place. The
+	 * intersections with an instance hit these views rather than the shared
+	 * geometries. A view is a light pair of the instance and the shared geometry,
+	 * made per intersection - the views of the same pair are equal.
+	 */
+	public static final class InstancedGeometry extends Geometry {
+		private final Instance instance;
+		private final Geometry geometry;
+
+		/**
+		 * Constructs the instanced view of a shared geometry
+		 *
+		 * @param instance the instance
+		 * @param geometry the shared geometry
+		 */
+		InstancedGeometry(Instance instance, Geometry geometry) {
+			this.instance = instance;
+			this.geometry = geometry;
+		}
+
+		/**
+		 * Returns the instance the geometry appears in
+		 *
+		 * @return the instance
+		 */
+		public Instance getInstance() {
+			return instance;
+		}
+
+		/**
+		 * Returns the shared geometry
+		 *
+		 * @return the shared geometry (which may itself be a view of a nested
+		 *         instance)
+		 */
+		public Geometry getShared() {
+			return geometry;
+		}
+
+		@Override
+		public Vector getNormal(Point p) {
+			Transform t = instance.transform;
+			return t.applyToNormal(geometry.getNormal(t.applyInverse(p)));
+		}
+
+		@Override
+		public Material getMaterial() {
+			return instance.material != null ? instance.material : geometry.getMaterial();
+		}
+
+		@Override
+		public Color getEmission() {
+			return geometry.getEmission();
+		}
+
+		@Override
+		protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+			return findGeoIntersectionsHelper(ray, null);
+		}
+
+		@Override
+		protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, IntersectionCounter counter) {
+			Transform t = instance.transform;
+			List<GeoPoint> intersections = geometry.findGeoIntersections(toLocal(ray, t), counter);
+			return intersections == null ? null : instance.toWorld(intersections, t);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			return obj instanceof InstancedGeometry other && other.instance == instance
+					&& other.geometry.equals(geometry);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(instance) + geometry.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return "Instanced " + geometry;
+		}
+	}
+}
@@ -16,6 +16,8 @@ import primitives.Ray;
  * @author Eti and Chavi
  */
 public abstract class Intersectable {
+	/** The counted type of the body, see {@link IntersectionCounter} */
+	private final IntersectionCounter.Type counterType = IntersectionCounter.typeOf(getClass());
 
 	/**
 	 * Represents a geographic point with associated geometry information.
@@ -70,6 +72,16 @@ public abstract class Intersectable {
 		}
 	}
 
+	/**
+	 * Returns the axis aligned box bounding the object, used by acceleration
+	 * structures to skip objects a ray cannot hit.
+	 *
+	 * @return the bounding box, or null if the object is unbounded
+	 */
+	public BoundingBox getBoundingBox() {
+		return null;
+	}
+
 	/**
 	 * Returns all the intersections of ray with the geometry shape.
 	 *
@@ -92,6 +104,22 @@ public abstract class Intersectable {
 		return findGeoIntersectionsHelper(ray);
 	}
 
+	/**
+	 * Finds the intersection points of the ray with the surface of the object,
+	 * counting the intersection tests of the object and of its parts.
+	 *
+	 * @param ray     The ray to intersect with the GeoPoint.
+	 * @param counter The counter of the intersection tests, or null for no
+	 *                counting.
+	 * @return A list of GeoPoints that are the intersections of the ray with the
+	 *         object.
+	 */
+	public final List<GeoPoint> findGeoIntersections(Ray ray, IntersectionCounter counter) {
+		if (counter != null)
+			counter.count(counterType.index());
+		return counterType.composite() ? findGeoIntersectionsHelper(ray, counter) : findGeoIntersectionsHelper(ray);
+	}
+
 	/**
 	 * Finds the intersection points of the ray with the surface of the object. This
 	 * method should be implemented by the subclasses to provide their own
@@ -102,4 +130,21 @@ public abstract class Intersectable {
 	 *         object.
 	 */
 	protected abstract List<GeoPoint> findGeoIntersectionsHelper(Ray ray);
+
+	/**
+	 * Finds the intersection points of the ray with the surface of the object,
+	 * counting the intersection tests. Objects made of other intersectable
+	 * objects override it to pass the counter on to their parts - it is called,
+	 * with or without a counter, instead of
+	 * {@link #findGeoIntersectionsHelper(Ray)} for them only.
+	 *
+	 * @param ray     The ray to intersect with the object.
+	 * @param counter The counter of the intersection tests, or null for no
+	 *                counting.
+	 * @return A list of GeoPoints that are the intersections of the ray with the
+	 *         object.
+	 */
+	protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, IntersectionCounter counter) {
+		return findGeoIntersectionsHelper(ray);
+	}
 }
\ No newline at end of file
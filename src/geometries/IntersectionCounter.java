@@ -0,0 +1,125 @@
+package geometries;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import primitives.Ray;
+
+/**
+ * Counts ray intersection tests per geometry type, for render diagnostics. A
+ * counter belongs to a single thread of a single render - it is passed down
+ * through the intersection tests of the thread's rays (see
+ * {@link Intersectable#findGeoIntersections(Ray, IntersectionCounter)}), so
+ * counting a test is a single plain increment, without any lookup or
+ * synchronization, and renders running at the same time count separately. Counting
+ * does not change how a ray goes through the bodies - the bodies made of other
+ * bodies test their parts by the same code with or without a counter, and the
+ * other bodies are tested exactly as without counting - so it costs the
+ * increments only. Intersection tests done without a counter are not counted at
+ * all.
+ *
+ * @author Eti and Chavi
+ */
+public final class IntersectionCounter {
+	/**
+	 * A counted geometry type
+	 *
+	 * @param index     the counter index of the type
+	 * @param composite whether the type's bodies are made of other bodies, whose
+	 *                  tests are counted too (the type overrides
+	 *                  {@link Intersectable#findGeoIntersectionsHelper(Ray, IntersectionCounter)})
+	 */
+	record Type(int index, boolean composite) {
+	}
+
+	/** The counted geometry types, by their counter index */
+	private static final List<Class<?>> TYPES = new CopyOnWriteArrayList<>();
+	/** Lookup of a geometry type, done once per body */
+	private static final ClassValue<Type> TYPE = new ClassValue<>() {
+		@Override
+		protected Type computeValue(Class<?> type) {
+			synchronized (TYPES) {
+				TYPES.add(type);
+				return new Type(TYPES.size() - 1, isComposite(type));
+			}
+		}
+	};
+
+	/** The counts by geometry type index */
+	private long[] values = new long[Math.max(8, TYPES.size())];
+
+	/**
+	 * Returns the counted type of a geometry class
+	 *
+	 * @param type the geometry class
+	 * @return the counted type
+	 */
+	static Type typeOf(Class<?> type) {
+		return TYPE.get(type);
+	}
+
+	/**
+	 * Checks whether a geometry class passes the counter on to its parts
+	 *
+	 * @param type the geometry class
+	 * @return true if the class or one of its superclasses overrides the counting
+	 *         intersection helper
+	 */
+	private static boolean isComposite(Class<?> type) {
+		for (Class<?> c = type; c != Intersectable.class && c != null; c = c.getSuperclass())
+			try {
+				c.getDeclaredMethod("findGeoIntersectionsHelper", Ray.class, IntersectionCounter.class);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// not declared by this class, look in its superclass
+			}
+		return false;
+	}
+
+	/**
+	 * Counts an intersection test
+	 *
+	 * @param index the counter index of the tested body's type
+	 */
+	void count(int index) {
+		if (index >= values.length)
+			values = Arrays.copyOf(values, Math.max(index + 1, values.length * 2));
+		++values[index];
+	}
+
+	/**
+	 * Returns the amount of intersection tests counted so far. Differences of this
+	 * amount measure the cost of a piece of work (e.g. rendering a pixel).
+	 *
+	 * @return the amount of tests
+	 */
+	public long getTotal() {
+		long total = 0;
+		for (long value : values)
+			total += value;
+		return total;
+	}
+
+	/**
+	 * Sums the counts of counters. The counters' threads must have finished
+	 * counting (e.g. they have been joined).
+	 *
+	 * @param counters the counters
+	 * @return amount of intersection tests by geometry type name (types without
+	 *         tests are omitted)
+	 */
+	public static Map<String, Long> sum(Iterable<IntersectionCounter> counters) {
+		long[] totals = new long[TYPES.size()];
+		for (IntersectionCounter counter : counters)
+			for (int i = 0; i < counter.values.length && i < totals.length; ++i)
+				totals[i] += counter.values[i];
+		Map<String, Long> result = new TreeMap<>();
+		for (int i = 0; i < totals.length; ++i)
+			if (totals[i] > 0)
+				result.merge(TYPES.get(i).getSimpleName(), totals[i], Long::sum);
+		return result;
+	}
+}
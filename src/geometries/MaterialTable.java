@@ -0,0 +1,256 @@
+package geometries;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import primitives.Double3;
+import primitives.Material;
+import primitives.PhongBrdf;
+
+/**
+ * Frozen table of the materials of a scene's geometries, built once the scene
+ * is complete. Every distinct material gets an id, and the table keeps its
+ * coefficients in primitive arrays indexed by the id, with capability flags
+ * telling the renderer which effects a material has at all - so that whole
+ * code paths (e.g. the refracted ray of an opaque body) are skipped per hit.
+ *
+ * The table is a snapshot: it keeps a copy of every material (see
+ * {@link #getMaterial(int)}), so all the shading properties of a material - the
+ * coefficients, the flags, the glossiness, the blur and the reflectance model -
+ * are read as they were when the table was built. A material edited in place
+ * (e.g. by {@link Material#setkR(double)}) is shaded by its new properties once
+ * a new table is built - see {@link scene.Scene#updateMaterials()}, which only
+ * builds the table. A geometry whose material is replaced after the table is
+ * built by a material not in the table, or a geometry not in the table, has no
+ * id - it is shaded by its material itself, and its flags are calculated by
+ * {@link #flagsOf(Material)}.
+ *
+ * The ids of a table are dense - 0 to the amount of its materials - and belong
+ * to the table only, so its arrays are as long as its materials. The id of a
+ * geometry's material is found by a small open addressing index of the table,
+ * hashing the material by its identity.
+ *
+ * @author Eti and Chavi
+ */
+public class MaterialTable {
+	/** Flag of a material which is not transparent */
+	public static final int OPAQUE = 1;
+	/** Flag of a material reflecting the scene */
+	public static final int REFLECTIVE = 2;
+	/** Flag of a material reflecting the lights diffusely */
+	public static final int DIFFUSE = 4;
+	/** Flag of a material reflecting the lights specularly */
+	public static final int SPECULAR = 8;
+
+	/** Index of the diffuse coefficient, see {@link #getCoefficient(int, int, int)} */
+	public static final int KD = 0;
+	/** Index of the specular coefficient, see {@link #getCoefficient(int, int, int)} */
+	public static final int KS = 1;
+	/** Index of the transmission coefficient, see {@link #getCoefficient(int, int, int)} */
+	public static final int KT = 2;
+	/** Index of the reflection coefficient, see {@link #getCoefficient(int, int, int)} */
+	public static final int KR = 3;
+
+	/** Amount of the materials */
+	private final int size;
+	/** Copies of the materials by their ids, as they were when the table was built */
+	private final Material[] materials;
+	/** The materials of the index, null for the empty slots */
+	private final Material[] keys;
+	/** The ids of the materials of the index */
+	private final int[] slots;
+	/** The 4 coefficients of every material, 3 components each (12 per material) */
+	private final double[] coefficients;
+	/** The shininess of every material */
+	private final int[] shininess;
+	/** Whether every material uses the Phong reflectance model */
+	private final boolean[] phong;
+	/** The capability flags of every material */
+	private final int[] flags;
+
+	/**
+	 * Builds the table of the materials of geometries
+	 *
+	 * @param geometries the geometries
+	 */
+	public MaterialTable(Intersectable geometries) {
+		List<Material> list = new ArrayList<>();
+		collect(geometries, new IdentityHashMap<>(), list);
+		size = list.size();
+		materials = new Material[size];
+		// at most half of the index slots are used, so that the probe sequences are short
+		int capacity = Integer.highestOneBit(Math.max(1, 2 * size - 1)) << 1;
+		keys = new Material[capacity];
+		slots = new int[capacity];
+		coefficients = new double[12 * size];
+		shininess = new int[size];
+		phong = new boolean[size];
+		flags = new int[size];
+		for (int id = 0; id < size; ++id) {
+			int slot = hash(list.get(id)) & (capacity - 1);
+			while (keys[slot] != null)
+				slot = (slot + 1) & (capacity - 1);
+			keys[slot] = list.get(id);
+			slots[slot] = id;
+			Material material = new Material(list.get(id));
+			materials[id] = material;
+			Double3[] ks = { material.kD, material.kS, material.kT, material.kR };
+			for (int k = 0; k < 4; ++k) {
+				coefficients[12 * id + 3 * k] = ks[k].getD1();
+				coefficients[12 * id + 3 * k + 1] = ks[k].getD2();
+				coefficients[12 * id + 3 * k + 2] = ks[k].getD3();
+			}
+			shininess[id] = material.nShininess;
+			phong[id] = material.brdf == PhongBrdf.PHONG;
+			flags[id] = flagsOf(material);
+		}
+	}
+
+	/**
+	 * Finds the distinct materials of the geometries of a body, recursively
+	 *
+	 * @param body  the body
+	 * @param found the materials found so far
+	 * @param list  the materials found so far, in the order they were found
+	 */
+	private static void collect(Intersectable body, IdentityHashMap<Material, Boolean> found, List<Material> list) {
+		if (body instanceof Geometries geometries)
+			for (Intersectable child : geometries.getBodies())
+				collect(child, found, list);
+		else if (body instanceof Instance instance)
+			collect(instance.getGeometry(), found, list);
+		else if (body instanceof Geometry geometry) {
+			Material material = geometry.getMaterial();
+			if (found.put(material, Boolean.TRUE) == null)
+				list.add(material);
+		}
+	}
+
+	/**
+	 * Hashes a material by its identity, spreading the high bits of the identity
+	 * hash to the low bits used by the index
+	 *
+	 * @param material the material
+	 * @return the hash
+	 */
+	private static int hash(Material material) {
+		int h = System.identityHashCode(material);
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Calculates the capability flags of a material. A material with a reflectance
+	 * model other than Phong is taken as reflecting the lights both diffusely and
+	 * specularly.
+	 *
+	 * @param material the material
+	 * @return the flags
+	 */
+	public static int flagsOf(Material material) {
+		boolean phong = material.brdf == PhongBrdf.PHONG;
+		return (isZero(material.kT) ? OPAQUE : 0) | (isZero(material.kR) ? 0 : REFLECTIVE)
+				| (phong && isZero(material.kD) ? 0 : DIFFUSE) | (phong && isZero(material.kS) ? 0 : SPECULAR);
+	}
+
+	/**
+	 * Checks whether a coefficient is exactly zero
+	 *
+	 * @param k the coefficient
+	 * @return true if all its components are zero
+	 */
+	private static boolean isZero(Double3 k) {
+		return k.getD1() == 0 && k.getD2() == 0 && k.getD3() == 0;
+	}
+
+	/**
+	 * Returns the amount of the materials
+	 *
+	 * @return the amount of the materials
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Finds the id of a geometry's material
+	 *
+	 * @param geometry the geometry
+	 * @return the material's id, or -1 if the geometry's current material is not
+	 *         in the table
+	 */
+	public int getId(Geometry geometry) {
+		Material material = geometry.getMaterial();
+		int mask = keys.length - 1;
+		for (int slot = hash(material) & mask; keys[slot] != null; slot = (slot + 1) & mask)
+			if (keys[slot] == material)
+				return slots[slot];
+		return -1;
+	}
+
+	/**
+	 * Finds the capability flags of a geometry's material
+	 *
+	 * @param geometry the geometry
+	 * @return the flags
+	 */
+	public int getFlags(Geometry geometry) {
+		int id = getId(geometry);
+		return id < 0 ? flagsOf(geometry.getMaterial()) : flags[id];
+	}
+
+	/**
+	 * Returns the capability flags of a material
+	 *
+	 * @param id the material's id
+	 * @return the flags
+	 */
+	public int getFlags(int id) {
+		return flags[id];
+	}
+
+	/**
+	 * Returns the material of an id, as it was when the table was built - a copy
+	 * which is not changed by later edits of the material
+	 *
+	 * @param id the material's id
+	 * @return the copy of the material
+	 */
+	public Material getMaterial(int id) {
+		return materials[id];
+	}
+
+	/**
+	 * Returns a component of a coefficient of a material
+	 *
+	 * @param id          the material's id
+	 * @param coefficient the coefficient - {@link #KD}, {@link #KS}, {@link #KT}
+	 *                    or {@link #KR}
+	 * @param component   the component (0 to 2)
+	 * @return the component's value
+	 */
+	public double getCoefficient(int id, int coefficient, int component) {
+		return coefficients[12 * id + 3 * coefficient + component];
+	}
+
+	/**
+	 * Returns the shininess of a material
+	 *
+	 * @param id the material's id
+	 * @return the shininess
+	 */
+	public int getShininess(int id) {
+		return shininess[id];
+	}
+
+	/**
+	 * Checks whether a material uses the Phong reflectance model, so that its
+	 * reflections may be calculated from the table's coefficients
+	 *
+	 * @param id the material's id
+	 * @return true for the Phong model
+	 */
+	public boolean isPhong(int id) {
+		return phong[id];
+	}
+}
@@ -23,6 +23,8 @@ public class Polygon extends Geometry {
 	/** Associated plane in which the polygon lays */
 	protected final Plane plane;
 	private final int size;
+	/** The box bounding the polygon */
+	private final BoundingBox box;
 
 	/**
 	 * Polygon constructor based on vertices list. The list must be ordered by edge
@@ -50,6 +52,7 @@ public class Polygon extends Geometry {
 			throw new IllegalArgumentException("A polygon can't have less than 3 vertices");
 		this.vertices = List.of(vertices);
 		size = vertices.length;
+		box = BoundingBox.of(this.vertices);
 
 		// Generate the plane according to the first three vertices and associate the
 		// polygon with this plane.
@@ -97,6 +100,11 @@ public class Polygon extends Geometry {
 		return plane.getNormal();
 	}
 
+	@Override
+	public BoundingBox getBoundingBox() {
+		return box;
+	}
+
 	// BONUS
 	/**
 	 * Computes the intersection points between a given ray and the polygon.
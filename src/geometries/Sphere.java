@@ -19,6 +19,8 @@ public class Sphere extends RadialGeometry {
 
 	/** The center point of the sphere */
 	private final Point center;
+	/** The box bounding the sphere */
+	private final BoundingBox box;
 
 	/**
 	 * Constructs a new sphere with the specified center point and radius.
@@ -29,6 +31,8 @@ public class Sphere extends RadialGeometry {
 	public Sphere(Point center, double radius) {
 		super(radius);
 		this.center = center;
+		this.box = new BoundingBox(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+				center.getX() + radius, center.getY() + radius, center.getZ() + radius);
 	}
 
 	/**
@@ -40,6 +44,11 @@ public class Sphere extends RadialGeometry {
 		return center;
 	}
 
+	@Override
+	public BoundingBox getBoundingBox() {
+		return box;
+	}
+
 	/**
 	 * Returns the normal vector at a given point on the sphere's surface.
 	 * 
@@ -0,0 +1,124 @@
+package lighting;
+
+import static primitives.Util.isZero;
+
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+/**
+ * Abstract class representing a flat light source with an area, casting soft
+ * shadows. The light and its attenuation are those of a point light at the
+ * center of the area, while the shadow of a point is the fraction of the area
+ * visible from it. The ray tracer samples the area adaptively - a few samples
+ * on the area's boundary decide whether the point is fully lit or fully
+ * shadowed, and only points in the penumbra are sampled densely by a grid of
+ * samples.
+ *
+ * @author Eti and Chavi
+ */
+public abstract class AreaLight extends PointLight {
+	/** The center of the light's area */
+	protected final Point center;
+	/** First axis of the light's plane (normalized) */
+	protected final Vector u;
+	/** Second axis of the light's plane (normalized) */
+	protected final Vector v;
+	/** Amount of the dense samples along each axis */
+	private int samplesPerAxis = 8;
+	/** The boundary samples, built on first use */
+	private volatile Point[] boundary;
+	/** The dense samples, built on first use */
+	private volatile Point[] samples;
+
+	/**
+	 * Creates an area light in the plane of two orthogonal axes
+	 *
+	 * @param intensity the color and intensity of the light
+	 * @param center    the center of the light's area
+	 * @param u         first axis of the light's plane
+	 * @param v         second axis of the light's plane
+	 * @throws IllegalArgumentException if the axes are not orthogonal
+	 */
+	protected AreaLight(Color intensity, Point center, Vector u, Vector v) {
+		super(intensity, center);
+		if (!isZero(u.dotProduct(v)))
+			throw new IllegalArgumentException("The axes of an area light must be orthogonal");
+		this.center = center;
+		this.u = u.normalize();
+		this.v = v.normalize();
+	}
+
+	/**
+	 * Sets the amount of the dense samples along each axis of the light's area,
+	 * used for points in the penumbra
+	 *
+	 * @param samplesPerAxis amount of samples along each axis
+	 * @return the area light itself
+	 * @throws IllegalArgumentException if the amount is not positive
+	 */
+	public AreaLight setSamplesPerAxis(int samplesPerAxis) {
+		if (samplesPerAxis < 1)
+			throw new IllegalArgumentException("Samples count must be positive");
+		this.samplesPerAxis = samplesPerAxis;
+		samples = null;
+		return this;
+	}
+
+	/**
+	 * Returns the few samples on the boundary of the light's area, deciding
+	 * whether a point is fully lit, fully shadowed or in the penumbra
+	 *
+	 * @return the boundary samples
+	 */
+	public Point[] getBoundarySamples() {
+		Point[] points = boundary;
+		if (points == null)
+			boundary = points = boundaryPoints();
+		return points;
+	}
+
+	/**
+	 * Returns the dense samples of the light's area, for points in the penumbra
+	 *
+	 * @return the dense samples
+	 */
+	public Point[] getSamples() {
+		Point[] points = samples;
+		if (points == null)
+			samples = points = gridPoints(samplesPerAxis);
+		return points;
+	}
+
+	/**
+	 * Builds the boundary samples of the light's area
+	 *
+	 * @return the boundary samples
+	 */
+	protected abstract Point[] boundaryPoints();
+
+	/**
+	 * Builds the dense samples of the light's area - the centers of a grid's
+	 * cells covering the area
+	 *
+	 * @param perAxis amount of the grid's cells along each axis
+	 * @return the dense samples
+	 */
+	protected abstract Point[] gridPoints(int perAxis);
+
+	/**
+	 * Returns the point of the light's plane at given coordinates
+	 *
+	 * @param a the coordinate along the first axis
+	 * @param b the coordinate along the second axis
+	 * @return the point
+	 */
+	protected Point at(double a, double b) {
+		Point point = center;
+		if (!isZero(a))
+			point = point.add(u.scale(a));
+		if (!isZero(b))
+			point = point.add(v.scale(b));
+		return point;
+	}
+}
@@ -1,5 +1,6 @@
 package lighting;
 
+import geometries.Geometries;
 import primitives.Color;
 import primitives.Point;
 import primitives.Vector;
@@ -13,6 +14,8 @@ import primitives.Vector;
 public class DirectionalLight extends Light implements LightSource {
 	/** The direction of the light rays in a DirectionalLight object. */
 	private final Vector direction;
+	/** The resolution of the shadow map, 0 for shadows by shadow rays */
+	private int shadowMapResolution = 0;
 
 	/**
 	 * Constructs a directional light object with the given intensity and direction.
@@ -63,4 +66,29 @@ public class DirectionalLight extends Light implements LightSource {
 	public double getDistance(Point point) {
 		return Double.POSITIVE_INFINITY;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Sets the light to cast its shadows by a shadow map instead of shadow rays.
+	 * The map is an orthographic projection of the bounded geometries of the
+	 * scene, rendered when the scene is prepared. Transparent geometries cast full
+	 * shadows, and unbounded geometries (such as planes) cast no shadows.
+	 * 
+	 * @param resolution the width and height of the map in texels, or 0 for
+	 *                   shadows by shadow rays
+	 * @return the DirectionalLight object for method chaining
+	 * @throws IllegalArgumentException if the resolution is negative
+	 */
+	public DirectionalLight setShadowMap(int resolution) {
+		if (resolution < 0)
+			throw new IllegalArgumentException("Shadow map resolution must not be negative");
+		shadowMapResolution = resolution;
+		return this;
+	}
+
+	@Override
+	public ShadowMap renderShadowMap(Geometries geometries) {
+		ShadowMap map = shadowMapResolution == 0 ? null
+				: DirectionalShadowMap.of(direction, geometries, shadowMapResolution);
+		return map == null ? null : map.render(geometries);
+	}
+}
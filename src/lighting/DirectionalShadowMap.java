@@ -0,0 +1,124 @@
+package lighting;
+
+import geometries.BoundingBox;
+import geometries.Geometries;
+import geometries.Intersectable;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Shadow map of a directional light - an orthographic projection along the
+ * light's direction of the box bounding the bounded geometries of the scene.
+ * The depth is the distance from a plane in front of the box. Points projected
+ * out of the map are not shadowed by any bounded geometry, so only the
+ * unbounded geometries (such as planes) are not seen as occluders.
+ *
+ * @author Eti and Chavi
+ */
+class DirectionalShadowMap extends ShadowMap {
+	/** The direction of the light */
+	private final Vector direction;
+	/** Axes of the map, orthogonal to the direction and to each other */
+	private final Vector u, v;
+	/** Coordinates of the map's corner along its axes and along the direction */
+	private final double minU, minV, minD;
+	/** The size of a texel */
+	private final double size;
+
+	/**
+	 * Constructs the shadow map of a directional light over a bounding box
+	 *
+	 * @param direction  the direction of the light, normalized
+	 * @param box        the box bounding the geometries
+	 * @param resolution the width and height of the map in texels
+	 */
+	DirectionalShadowMap(Vector direction, BoundingBox box, int resolution) {
+		super(resolution);
+		this.direction = direction;
+		u = direction.crossProduct(Math.abs(direction.getX()) < 0.9 ? new Vector(1, 0, 0) : new Vector(0, 1, 0))
+				.normalize();
+		v = direction.crossProduct(u);
+		double u0 = Double.POSITIVE_INFINITY, v0 = u0, d0 = u0;
+		double u1 = Double.NEGATIVE_INFINITY, v1 = u1;
+		Point min = box.getMin(), max = box.getMax();
+		for (int corner = 0; corner < 8; ++corner) {
+			Point c = new Point((corner & 1) == 0 ? min.getX() : max.getX(),
+					(corner & 2) == 0 ? min.getY() : max.getY(), (corner & 4) == 0 ? min.getZ() : max.getZ());
+			u0 = Math.min(u0, dot(c, u));
+			u1 = Math.max(u1, dot(c, u));
+			v0 = Math.min(v0, dot(c, v));
+			v1 = Math.max(v1, dot(c, v));
+			d0 = Math.min(d0, dot(c, direction));
+		}
+		// a square map, with a margin of a texel around the box
+		double extent = Math.max(u1 - u0, v1 - v0);
+		size = extent / (resolution - 2 > 0 ? resolution - 2 : resolution);
+		minU = (u0 + u1 - size * resolution) / 2;
+		minV = (v0 + v1 - size * resolution) / 2;
+		minD = d0 - size;
+	}
+
+	/**
+	 * Constructs the shadow map of a directional light over the bounded
+	 * geometries of a scene
+	 *
+	 * @param direction  the direction of the light, normalized
+	 * @param geometries the geometries of the scene
+	 * @param resolution the width and height of the map in texels
+	 * @return the shadow map, or null if there are no bounded geometries
+	 */
+	static DirectionalShadowMap of(Vector direction, Geometries geometries, int resolution) {
+		BoundingBox box = boundedBox(geometries);
+		return box == null ? null : new DirectionalShadowMap(direction, box, resolution);
+	}
+
+	/**
+	 * Finds the box bounding the bounded geometries of a collection
+	 *
+	 * @param geometries the collection
+	 * @return the bounding box, or null if all the geometries are unbounded
+	 */
+	private static BoundingBox boundedBox(Geometries geometries) {
+		BoundingBox union = geometries.getBoundingBox();
+		if (union != null)
+			return union;
+		for (Intersectable body : geometries.getBodies()) {
+			BoundingBox box = body instanceof Geometries nested ? boundedBox(nested) : body.getBoundingBox();
+			if (box != null)
+				union = union == null ? box : union.union(box);
+		}
+		return union;
+	}
+
+	/**
+	 * Calculates the dot product of a point's coordinates and a vector
+	 *
+	 * @param p the point
+	 * @param w the vector
+	 * @return the dot product
+	 */
+	private static double dot(Point p, Vector w) {
+		return p.getX() * w.getX() + p.getY() * w.getY() + p.getZ() * w.getZ();
+	}
+
+	@Override
+	protected Ray texelRay(double x, double y) {
+		double a = minU + x * size, b = minV + y * size;
+		return new Ray(new Point( //
+				u.getX() * a + v.getX() * b + direction.getX() * minD, //
+				u.getY() * a + v.getY() * b + direction.getY() * minD, //
+				u.getZ() * a + v.getZ() * b + direction.getZ() * minD), direction);
+	}
+
+	@Override
+	protected double[] project(Point point) {
+		return new double[] { (dot(point, u) - minU) / size, (dot(point, v) - minV) / size,
+				dot(point, direction) - minD };
+	}
+
+	@Override
+	protected double texelSize(Point point) {
+		return size;
+	}
+}
@@ -0,0 +1,83 @@
+package lighting;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+/**
+ * Represents a disk shaped area light source, casting soft shadows.
+ *
+ * @author Eti and Chavi
+ */
+public class DiskLight extends AreaLight {
+	/** The radius of the disk */
+	private final double radius;
+
+	/**
+	 * Creates a disk light
+	 *
+	 * @param intensity the color and intensity of the light
+	 * @param center    the center of the disk
+	 * @param normal    the normal of the disk's plane
+	 * @param radius    the radius of the disk
+	 * @throws IllegalArgumentException if the radius is not positive
+	 */
+	public DiskLight(Color intensity, Point center, Vector normal, double radius) {
+		this(intensity, center, normal, orthogonal(normal), radius);
+	}
+
+	/**
+	 * Creates a disk light with the axes of its plane
+	 *
+	 * @param intensity the color and intensity of the light
+	 * @param center    the center of the disk
+	 * @param normal    the normal of the disk's plane
+	 * @param u         the first axis of the disk's plane
+	 * @param radius    the radius of the disk
+	 */
+	private DiskLight(Color intensity, Point center, Vector normal, Vector u, double radius) {
+		super(intensity, center, u, normal.crossProduct(u));
+		if (radius <= 0)
+			throw new IllegalArgumentException("The radius of a disk light must be positive");
+		this.radius = radius;
+	}
+
+	/**
+	 * Finds a vector orthogonal to a given one
+	 *
+	 * @param normal the vector
+	 * @return an orthogonal vector
+	 */
+	private static Vector orthogonal(Vector normal) {
+		return Math.abs(normal.normalize().getX()) < 0.9 ? normal.crossProduct(new Vector(1, 0, 0))
+				: normal.crossProduct(new Vector(0, 1, 0));
+	}
+
+	/**
+	 * {@inheritDoc} The boundary samples of a disk are four points on its rim.
+	 */
+	@Override
+	protected Point[] boundaryPoints() {
+		return new Point[] { at(radius, 0), at(0, radius), at(-radius, 0), at(0, -radius) };
+	}
+
+	/**
+	 * {@inheritDoc} Only the cells whose centers are inside the disk are used.
+	 */
+	@Override
+	protected Point[] gridPoints(int perAxis) {
+		List<Point> points = new ArrayList<>();
+		double d = 2 * radius / perAxis;
+		for (int i = 0; i < perAxis; ++i)
+			for (int j = 0; j < perAxis; ++j) {
+				double a = -radius + (j + 0.5) * d;
+				double b = -radius + (i + 0.5) * d;
+				if (a * a + b * b <= radius * radius)
+					points.add(at(a, b));
+			}
+		return points.toArray(new Point[0]);
+	}
+}
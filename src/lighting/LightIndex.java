@@ -0,0 +1,170 @@
+package lighting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import primitives.Point;
+
+/**
+ * Spatial index over the light sources of a scene, finding the lights that can
+ * contribute to a point. Every light has a radius of influence (see
+ * {@link LightSource#getInfluenceRadius(double)}) for a cutoff intensity. The
+ * lights reaching everywhere are candidates of every point, while the lights of
+ * bounded influence are kept in the cells of a uniform grid their spheres of
+ * influence overlap. The lights of a point keep their order in the scene, so the
+ * shading sums their contributions in the same order as without the index.
+ *
+ * @author Eti and Chavi
+ */
+public class LightIndex {
+	/** Highest amount of grid cells along an axis */
+	private static final int MAX_CELLS = 32;
+
+	/** The indexed lights, in the scene's order */
+	private final LightSource[] lights;
+	/** The position of every bounded light, null for the lights reaching everywhere */
+	private final Point[] positions;
+	/** The squared radius of influence of every light, 0 for the lights never contributing */
+	private final double[] radii2;
+	/** The lights reaching everywhere, as an unmodifiable list */
+	private final List<LightSource> global;
+	/** The indices of the candidate lights of every cell, in the scene's order */
+	private final int[][] cells;
+	/** The lowest corner of the grid */
+	private final double minX, minY, minZ;
+	/** The size of a grid cell */
+	private final double cellX, cellY, cellZ;
+	/** Amount of cells along an axis */
+	private final int n;
+
+	/**
+	 * Builds the index of a scene's lights
+	 *
+	 * @param lights the lights
+	 * @param cutoff the lowest light intensity (color component) considered
+	 */
+	public LightIndex(List<LightSource> lights, double cutoff) {
+		this.lights = lights.toArray(new LightSource[0]);
+		int count = this.lights.length;
+		positions = new Point[count];
+		radii2 = new double[count];
+		List<LightSource> globalLights = new ArrayList<>();
+		double x0 = Double.POSITIVE_INFINITY, y0 = x0, z0 = x0;
+		double x1 = Double.NEGATIVE_INFINITY, y1 = x1, z1 = x1;
+		int bounded = 0;
+		for (int i = 0; i < count; ++i) {
+			LightSource light = this.lights[i];
+			Point position = light.getPosition();
+			double radius = light.getInfluenceRadius(cutoff);
+			if (position == null || Double.isInfinite(radius)) {
+				globalLights.add(light);
+				radii2[i] = Double.POSITIVE_INFINITY;
+			} else if (radius > 0) {
+				radii2[i] = radius * radius;
+				positions[i] = position;
+				++bounded;
+				x0 = Math.min(x0, position.getX() - radius);
+				y0 = Math.min(y0, position.getY() - radius);
+				z0 = Math.min(z0, position.getZ() - radius);
+				x1 = Math.max(x1, position.getX() + radius);
+				y1 = Math.max(y1, position.getY() + radius);
+				z1 = Math.max(z1, position.getZ() + radius);
+			}
+		}
+		global = Collections.unmodifiableList(globalLights);
+
+		if (bounded == 0) {
+			n = 0;
+			cells = new int[0][];
+			minX = minY = minZ = cellX = cellY = cellZ = 0;
+			return;
+		}
+		n = Math.min(MAX_CELLS, Math.max(1, (int) Math.ceil(2 * Math.cbrt(bounded))));
+		minX = x0;
+		minY = y0;
+		minZ = z0;
+		cellX = (x1 - x0) / n;
+		cellY = (y1 - y0) / n;
+		cellZ = (z1 - z0) / n;
+
+		// the candidates of every cell - the global lights and the bounded lights
+		// whose bounding boxes overlap the cell, in the scene's order
+		List<List<Integer>> lists = new ArrayList<>(n * n * n);
+		for (int c = 0; c < n * n * n; ++c)
+			lists.add(new ArrayList<>());
+		for (int i = 0; i < count; ++i) {
+			Point p = positions[i];
+			if (p == null) {
+				if (Double.isInfinite(radii2[i]))
+					for (List<Integer> list : lists)
+						list.add(i);
+				continue;
+			}
+			double r = Math.sqrt(radii2[i]);
+			int ax = cell(p.getX() - r, minX, cellX), bx = cell(p.getX() + r, minX, cellX);
+			int ay = cell(p.getY() - r, minY, cellY), by = cell(p.getY() + r, minY, cellY);
+			int az = cell(p.getZ() - r, minZ, cellZ), bz = cell(p.getZ() + r, minZ, cellZ);
+			for (int x = ax; x <= bx; ++x)
+				for (int y = ay; y <= by; ++y)
+					for (int z = az; z <= bz; ++z)
+						lists.get((x * n + y) * n + z).add(i);
+		}
+		cells = new int[lists.size()][];
+		for (int c = 0; c < cells.length; ++c)
+			cells[c] = lists.get(c).stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Finds the grid cell of a coordinate along an axis
+	 *
+	 * @param v    the coordinate
+	 * @param min  the lowest coordinate of the grid
+	 * @param size the size of a cell
+	 * @return the cell's index, clamped into the grid
+	 */
+	private int cell(double v, double min, double size) {
+		int c = size == 0 ? 0 : (int) ((v - min) / size);
+		return c < 0 ? 0 : c >= n ? n - 1 : c;
+	}
+
+	/**
+	 * Finds the lights that can contribute to a point - the lights reaching
+	 * everywhere and the lights whose sphere of influence contains the point
+	 *
+	 * @param point the point
+	 * @return the lights, in the scene's order
+	 */
+	public List<LightSource> getLights(Point point) {
+		if (n == 0)
+			return global;
+		double x = point.getX(), y = point.getY(), z = point.getZ();
+		if (x < minX || y < minY || z < minZ || x > minX + n * cellX || y > minY + n * cellY
+				|| z > minZ + n * cellZ)
+			return global;
+		int[] candidates = cells[(cell(x, minX, cellX) * n + cell(y, minY, cellY)) * n + cell(z, minZ, cellZ)];
+		List<LightSource> result = new ArrayList<>(candidates.length);
+		for (int i : candidates)
+			if (positions[i] == null || positions[i].distanceSquared(point) <= radii2[i])
+				result.add(lights[i]);
+		return result;
+	}
+
+	/**
+	 * Returns the amount of the indexed lights
+	 *
+	 * @return the amount of lights
+	 */
+	public int size() {
+		return lights.length;
+	}
+
+	/**
+	 * Returns the amount of the lights reaching everywhere
+	 *
+	 * @return the amount of global lights
+	 */
+	public int globalCount() {
+		return global.size();
+	}
+}
@@ -1,5 +1,6 @@
 package lighting;
 
+import geometries.Geometries;
 import primitives.Color;
 import primitives.Point;
 import primitives.Vector;
@@ -37,4 +38,38 @@ public interface LightSource {
 	 * @return distance of the light source
 	 */
 	double getDistance(Point point);
+
+	/**
+	 * Returns the position of the light source, for light sources with bounded
+	 * influence
+	 * 
+	 * @return the position, or null for a light source reaching everywhere
+	 */
+	default Point getPosition() {
+		return null;
+	}
+
+	/**
+	 * Returns the radius of the light's influence - the distance beyond which the
+	 * light's intensity is below a cutoff
+	 * 
+	 * @param cutoff the lowest intensity (color component) considered
+	 * @return the radius of influence, infinity for a light source reaching
+	 *         everywhere
+	 */
+	default double getInfluenceRadius(double cutoff) {
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Renders a new shadow map of the light source for geometries. The map is
+	 * kept by the scene (or the scene's snapshot) it is rendered for, not by the
+	 * light, so that scenes sharing a light source keep their own maps.
+	 * 
+	 * @param geometries the geometries
+	 * @return the shadow map, or null if the shadows are found by shadow rays
+	 */
+	default ShadowMap renderShadowMap(Geometries geometries) {
+		return null;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,230 @@
+package lighting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import primitives.Point;
+
+/**
+ * Hierarchy of the light sources of a scene (a light BVH) for stochastic
+ * many-light sampling. The leaves are the lights with a position, and every
+ * node keeps the total power (strongest color component of the unattenuated
+ * intensity) of its lights and their bounding box. A light is sampled for a
+ * shading point by descending from the root, choosing a child with a
+ * probability proportional to its estimated contribution to the point - its
+ * power divided by the squared distance to the point. Every light of positive
+ * power has a positive probability, so dividing a sampled light's contribution
+ * by its probability is an unbiased estimate of the sum of the lights'
+ * contributions.
+ *
+ * The lights without a position (e.g. directional lights) are not in the tree -
+ * they should be evaluated for every point.
+ *
+ * @author Eti and Chavi
+ */
+public class LightTree {
+	/**
+	 * A sampled light and the probability it was sampled by
+	 *
+	 * @param light       the light
+	 * @param probability the probability of sampling the light
+	 */
+	public record Sample(LightSource light, double probability) {
+	}
+
+	/** Smallest squared distance used in the importance of a node */
+	private static final double MIN_DISTANCE2 = 1e-6;
+
+	/** The lights without a position, as an unmodifiable list */
+	private final List<LightSource> global;
+	/** The light of every leaf node, null for the inner nodes */
+	private final LightSource[] light;
+	/** The children of every inner node */
+	private final int[] left, right;
+	/** The parent of every node, -1 for the root */
+	private final int[] parent;
+	/** The power of every node */
+	private final double[] power;
+	/** The center of every node's bounding box, 3 coordinates for every node */
+	private final double[] center;
+	/** The squared half diagonal of every node's bounding box */
+	private final double[] radius2;
+	/** The leaf of every light */
+	private final Map<LightSource, Integer> leaves = new IdentityHashMap<>();
+	/** Amount of the nodes built */
+	private int nodes = 0;
+
+	/**
+	 * Builds the hierarchy of a scene's lights
+	 *
+	 * @param lights the lights
+	 */
+	public LightTree(List<LightSource> lights) {
+		List<LightSource> globalLights = new ArrayList<>();
+		List<LightSource> positioned = new ArrayList<>();
+		for (LightSource l : lights)
+			(l.getPosition() == null ? globalLights : positioned).add(l);
+		global = Collections.unmodifiableList(globalLights);
+
+		int size = Math.max(0, 2 * positioned.size() - 1);
+		light = new LightSource[size];
+		left = new int[size];
+		right = new int[size];
+		parent = new int[size];
+		power = new double[size];
+		center = new double[3 * size];
+		radius2 = new double[size];
+		if (size > 0)
+			build(positioned.toArray(new LightSource[0]), 0, positioned.size(), -1);
+	}
+
+	/**
+	 * Builds the sub-tree of a range of lights, splitting it at the median of
+	 * the longest axis of its bounding box
+	 *
+	 * @param lights the lights
+	 * @param from   the start of the range
+	 * @param to     the end of the range (exclusive)
+	 * @param up     the parent node
+	 * @return the sub-tree's root node
+	 */
+	private int build(LightSource[] lights, int from, int to, int up) {
+		int node = nodes++;
+		parent[node] = up;
+		double[] min = { Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY };
+		double[] max = { Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY };
+		for (int i = from; i < to; ++i) {
+			Point p = lights[i].getPosition();
+			double[] xyz = { p.getX(), p.getY(), p.getZ() };
+			for (int a = 0; a < 3; ++a) {
+				min[a] = Math.min(min[a], xyz[a]);
+				max[a] = Math.max(max[a], xyz[a]);
+			}
+		}
+		double r2 = 0;
+		int axis = 0;
+		for (int a = 0; a < 3; ++a) {
+			center[3 * node + a] = (min[a] + max[a]) / 2;
+			double half = (max[a] - min[a]) / 2;
+			r2 += half * half;
+			if (max[a] - min[a] > max[axis] - min[axis])
+				axis = a;
+		}
+		radius2[node] = r2;
+
+		if (to - from == 1) {
+			light[node] = lights[from];
+			power[node] = lights[from] instanceof Light l ? l.getIntensity().maxComponent() : 1;
+			leaves.put(lights[from], node);
+			return node;
+		}
+		Comparator<LightSource> order = switch (axis) {
+		case 0 -> Comparator.comparingDouble(l -> l.getPosition().getX());
+		case 1 -> Comparator.comparingDouble(l -> l.getPosition().getY());
+		default -> Comparator.comparingDouble(l -> l.getPosition().getZ());
+		};
+		Arrays.sort(lights, from, to, order);
+		int middle = (from + to) / 2;
+		left[node] = build(lights, from, middle, node);
+		right[node] = build(lights, middle, to, node);
+		power[node] = power[left[node]] + power[right[node]];
+		return node;
+	}
+
+	/**
+	 * Returns the lights without a position, which are not sampled
+	 *
+	 * @return the global lights
+	 */
+	public List<LightSource> getGlobalLights() {
+		return global;
+	}
+
+	/**
+	 * Returns the amount of the sampled lights
+	 *
+	 * @return the amount of lights in the tree
+	 */
+	public int size() {
+		return leaves.size();
+	}
+
+	/**
+	 * Estimates the contribution of a node's lights to a point
+	 *
+	 * @param node  the node
+	 * @param point the point
+	 * @return the node's importance
+	 */
+	private double importance(int node, Point point) {
+		double dx = point.getX() - center[3 * node];
+		double dy = point.getY() - center[3 * node + 1];
+		double dz = point.getZ() - center[3 * node + 2];
+		return power[node] / Math.max(MIN_DISTANCE2, Math.max(dx * dx + dy * dy + dz * dz, radius2[node]));
+	}
+
+	/**
+	 * Calculates the probability of choosing the left child of a node for a point
+	 *
+	 * @param node  the inner node
+	 * @param point the point
+	 * @return the probability of the left child
+	 */
+	private double leftProbability(int node, Point point) {
+		double l = importance(left[node], point);
+		double r = importance(right[node], point);
+		return l + r == 0 ? 0.5 : l / (l + r);
+	}
+
+	/**
+	 * Samples a light for a shading point
+	 *
+	 * @param point the shading point
+	 * @param u     a uniform random number in [0,1)
+	 * @return the sampled light and its probability, or null if there are no
+	 *         lights in the tree
+	 */
+	public Sample sample(Point point, double u) {
+		if (nodes == 0)
+			return null;
+		int node = 0;
+		double probability = 1;
+		while (light[node] == null) {
+			double p = leftProbability(node, point);
+			if (u < p || p == 1) {
+				u /= p;
+				probability *= p;
+				node = left[node];
+			} else {
+				u = (u - p) / (1 - p);
+				probability *= 1 - p;
+				node = right[node];
+			}
+		}
+		return new Sample(light[node], probability);
+	}
+
+	/**
+	 * Calculates the probability of sampling a light for a shading point
+	 *
+	 * @param light the light
+	 * @param point the shading point
+	 * @return the probability, 0 for a light not in the tree
+	 */
+	public double probability(LightSource light, Point point) {
+		Integer leaf = leaves.get(light);
+		if (leaf == null)
+			return 0;
+		double probability = 1;
+		for (int node = leaf; parent[node] >= 0; node = parent[node]) {
+			double p = leftProbability(parent[node], point);
+			probability *= left[parent[node]] == node ? p : 1 - p;
+		}
+		return probability;
+	}
+}
@@ -101,4 +101,26 @@ public class PointLight extends Light implements LightSource {
 	public double getDistance(Point point) {
 		return point.distance(position);
 	}
+
+	@Override
+	public Point getPosition() {
+		return position;
+	}
+
+	/**
+	 * {@inheritDoc} The radius is where the attenuation {@code kC + kL*d + kQ*d^2}
+	 * reduces the light's strongest component to the cutoff. A light without
+	 * linear and quadratic attenuation reaches everywhere.
+	 */
+	@Override
+	public double getInfluenceRadius(double cutoff) {
+		if (cutoff <= 0)
+			return Double.POSITIVE_INFINITY;
+		double attenuation = intensity.maxComponent() / cutoff;
+		if (kC >= attenuation)
+			return 0;
+		if (kQ > 0)
+			return (-kL + Math.sqrt(kL * kL + 4 * kQ * (attenuation - kC))) / (2 * kQ);
+		return kL > 0 ? (attenuation - kC) / kL : Double.POSITIVE_INFINITY;
+	}
 }
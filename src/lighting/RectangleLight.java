@@ -0,0 +1,57 @@
+package lighting;
+
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+/**
+ * Represents a rectangular area light source, casting soft shadows.
+ *
+ * @author Eti and Chavi
+ */
+public class RectangleLight extends AreaLight {
+	/** Half the width of the rectangle, along its first axis */
+	private final double halfWidth;
+	/** Half the height of the rectangle, along its second axis */
+	private final double halfHeight;
+
+	/**
+	 * Creates a rectangular light
+	 *
+	 * @param intensity the color and intensity of the light
+	 * @param center    the center of the rectangle
+	 * @param u         the direction of the rectangle's width
+	 * @param v         the direction of the rectangle's height, orthogonal to u
+	 * @param width     the width of the rectangle
+	 * @param height    the height of the rectangle
+	 * @throws IllegalArgumentException if the directions are not orthogonal or
+	 *                                  the size is not positive
+	 */
+	public RectangleLight(Color intensity, Point center, Vector u, Vector v, double width, double height) {
+		super(intensity, center, u, v);
+		if (width <= 0 || height <= 0)
+			throw new IllegalArgumentException("The size of a rectangle light must be positive");
+		halfWidth = width / 2;
+		halfHeight = height / 2;
+	}
+
+	/**
+	 * {@inheritDoc} The boundary samples of a rectangle are its corners.
+	 */
+	@Override
+	protected Point[] boundaryPoints() {
+		return new Point[] { at(-halfWidth, -halfHeight), at(halfWidth, -halfHeight), at(halfWidth, halfHeight),
+				at(-halfWidth, halfHeight) };
+	}
+
+	@Override
+	protected Point[] gridPoints(int perAxis) {
+		Point[] points = new Point[perAxis * perAxis];
+		double du = 2 * halfWidth / perAxis;
+		double dv = 2 * halfHeight / perAxis;
+		for (int i = 0; i < perAxis; ++i)
+			for (int j = 0; j < perAxis; ++j)
+				points[i * perAxis + j] = at(-halfWidth + (j + 0.5) * du, -halfHeight + (i + 0.5) * dv);
+		return points;
+	}
+}
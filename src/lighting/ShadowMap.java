@@ -0,0 +1,136 @@
+package lighting;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import geometries.Intersectable;
+import geometries.Intersectable.GeoPoint;
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * A shadow map of a light source - a depth buffer of the distances from the
+ * light to the nearest geometries, rendered once and then looked up instead of
+ * tracing shadow rays. A point is shadowed if it is farther from the light than
+ * the depth stored in its texel, and the lookup is filtered over the 3x3 texels
+ * around the point (percentage-closer filtering), so the shadow edges are soft
+ * instead of jagged.
+ *
+ * The depth buffer keeps the nearest geometry of any material, so transparent
+ * geometries cast full shadows. The subclasses define the projection of the
+ * map.
+ *
+ * @author Eti and Chavi
+ */
+public abstract class ShadowMap {
+	/** Width and height of the map in texels */
+	protected final int resolution;
+	/** The depth of every texel, row by row, infinity for texels seeing nothing */
+	private final double[] depths;
+
+	/**
+	 * Constructs a shadow map of a given resolution, to be rendered by
+	 * {@link #render(Intersectable)}
+	 *
+	 * @param resolution the width and height of the map in texels
+	 */
+	protected ShadowMap(int resolution) {
+		if (resolution < 1)
+			throw new IllegalArgumentException("Shadow map resolution must be positive");
+		this.resolution = resolution;
+		depths = new double[resolution * resolution];
+	}
+
+	/**
+	 * Constructs the ray from the light through a point of the map
+	 *
+	 * @param x the horizontal map coordinate, in texels
+	 * @param y the vertical map coordinate, in texels
+	 * @return the ray, or null if the point is out of the light's projection
+	 */
+	protected abstract Ray texelRay(double x, double y);
+
+	/**
+	 * Projects a point on the map
+	 *
+	 * @param point the point
+	 * @return the horizontal and vertical map coordinates of the point (in texels)
+	 *         and its depth, or null if the point is out of the light's projection
+	 */
+	protected abstract double[] project(Point point);
+
+	/**
+	 * Calculates the size of a texel at a point - the distance between the points
+	 * of neighboring texels
+	 *
+	 * @param point the point
+	 * @return the size of a texel at the point
+	 */
+	protected abstract double texelSize(Point point);
+
+	/**
+	 * Renders the map - stores the distance to the nearest geometry along the ray
+	 * of every texel
+	 *
+	 * @param geometries the geometries of the scene
+	 * @return this shadow map
+	 */
+	ShadowMap render(Intersectable geometries) {
+		IntStream.range(0, resolution).parallel().forEach(y -> {
+			for (int x = 0; x < resolution; ++x) {
+				Ray ray = texelRay(x + 0.5, y + 0.5);
+				double depth = Double.POSITIVE_INFINITY;
+				List<GeoPoint> intersections = ray == null ? null : geometries.findGeoIntersections(ray);
+				if (intersections != null)
+					for (GeoPoint gp : intersections)
+						depth = Math.min(depth, gp.point.distance(ray.getP0()));
+				depths[y * resolution + x] = depth;
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Returns the resolution of the map
+	 *
+	 * @return the width and height of the map in texels
+	 */
+	public int getResolution() {
+		return resolution;
+	}
+
+	/**
+	 * Calculates the visibility of the light from a point - the fraction of the
+	 * 3x3 texels around the point which do not shadow it. The point is moved a
+	 * texel off its surface towards the light, and is compared to the texels'
+	 * depths with a bias growing with the slope of the surface, so that the
+	 * surface does not shadow itself.
+	 *
+	 * @param point  the point
+	 * @param normal the normal of the surface at the point
+	 * @param l      the direction from the light to the point
+	 * @return the visibility as a transparency factor, between zero (shadowed)
+	 *         and one (lit)
+	 */
+	public Double3 visibility(Point point, Vector normal, Vector l) {
+		double nl = normal.dotProduct(l);
+		double size = texelSize(point);
+		Point moved = point.add(normal.scale(nl < 0 ? size : -size));
+		double[] projected = project(moved);
+		if (projected == null)
+			return Double3.ONE;
+
+		double cos = Math.max(0.1, Math.abs(nl));
+		double bias = size * (1 + 2 * Math.sqrt(1 - cos * cos) / cos);
+		int cx = (int) Math.floor(projected[0]), cy = (int) Math.floor(projected[1]);
+		int lit = 0;
+		for (int y = cy - 1; y <= cy + 1; ++y)
+			for (int x = cx - 1; x <= cx + 1; ++x)
+				if (x < 0 || y < 0 || x >= resolution || y >= resolution
+						|| projected[2] - bias <= depths[y * resolution + x])
+					++lit;
+		return lit == 9 ? Double3.ONE : lit == 0 ? Double3.ZERO : new Double3(lit / 9d);
+	}
+}
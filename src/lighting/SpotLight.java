@@ -1,5 +1,6 @@
 package lighting;
 
+import geometries.Geometries;
 import primitives.Color;
 import primitives.Point;
 import primitives.Vector;
@@ -22,6 +23,8 @@ public class SpotLight extends PointLight {
 	 * narrower beam.
 	 */
 	private double narrowBeam = 1;// from 4253
+	/** The resolution of the shadow map, 0 for shadows by shadow rays */
+	private int shadowMapResolution = 0;
 
 	/**
 	 * Creates a new SpotLight with the specified intensity, position, and
@@ -67,4 +70,26 @@ public class SpotLight extends PointLight {
 
 	}
 
+	/**
+	 * Sets the light to cast its shadows by a shadow map instead of shadow rays.
+	 * The map is a fisheye projection of the hemisphere lit by the spot, rendered
+	 * when the scene is prepared. Transparent geometries cast full shadows.
+	 * 
+	 * @param resolution the width and height of the map in texels, or 0 for
+	 *                   shadows by shadow rays
+	 * @return the SpotLight object for method chaining
+	 * @throws IllegalArgumentException if the resolution is negative
+	 */
+	public SpotLight setShadowMap(int resolution) {
+		if (resolution < 0)
+			throw new IllegalArgumentException("Shadow map resolution must not be negative");
+		shadowMapResolution = resolution;
+		return this;
+	}
+
+	@Override
+	public ShadowMap renderShadowMap(Geometries geometries) {
+		return shadowMapResolution == 0 ? null
+				: new SpotShadowMap(getPosition(), direction, shadowMapResolution).render(geometries);
+	}
 }
@@ -0,0 +1,80 @@
+package lighting;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Shadow map of a spot light - an equidistant fisheye projection of the
+ * hemisphere around the spot's direction, the distance of a texel from the
+ * map's center being proportional to the angle from the direction. The depth
+ * is the distance from the light.
+ *
+ * @author Eti and Chavi
+ */
+class SpotShadowMap extends ShadowMap {
+	/** The position of the light */
+	private final Point position;
+	/** The direction of the spot */
+	private final Vector direction;
+	/** Axes of the map, orthogonal to the direction and to each other */
+	private final Vector u, v;
+
+	/**
+	 * Constructs the shadow map of a spot light
+	 *
+	 * @param position   the position of the light
+	 * @param direction  the direction of the spot, normalized
+	 * @param resolution the width and height of the map in texels
+	 */
+	SpotShadowMap(Point position, Vector direction, int resolution) {
+		super(resolution);
+		this.position = position;
+		this.direction = direction;
+		u = direction.crossProduct(Math.abs(direction.getX()) < 0.9 ? new Vector(1, 0, 0) : new Vector(0, 1, 0))
+				.normalize();
+		v = direction.crossProduct(u);
+	}
+
+	@Override
+	protected Ray texelRay(double x, double y) {
+		double a = 2 * x / resolution - 1, b = 2 * y / resolution - 1;
+		double rho = Math.sqrt(a * a + b * b);
+		if (rho > 1)
+			return null;
+		if (rho == 0)
+			return new Ray(position, direction);
+		double theta = rho * Math.PI / 2;
+		double cos = Math.cos(theta), sin = Math.sin(theta) / rho;
+		return new Ray(position, new Vector( //
+				direction.getX() * cos + (u.getX() * a + v.getX() * b) * sin, //
+				direction.getY() * cos + (u.getY() * a + v.getY() * b) * sin, //
+				direction.getZ() * cos + (u.getZ() * a + v.getZ() * b) * sin));
+	}
+
+	@Override
+	protected double[] project(Point point) {
+		double x = point.getX() - position.getX();
+		double y = point.getY() - position.getY();
+		double z = point.getZ() - position.getZ();
+		double distance = Math.sqrt(x * x + y * y + z * z);
+		if (distance == 0)
+			return null;
+		double d = x * direction.getX() + y * direction.getY() + z * direction.getZ();
+		double a = x * u.getX() + y * u.getY() + z * u.getZ();
+		double b = x * v.getX() + y * v.getY() + z * v.getZ();
+		double side = Math.sqrt(a * a + b * b);
+		if (d <= 0 && side == 0)
+			return null;
+		double rho = Math.atan2(side, d) / (Math.PI / 2);
+		if (rho > 1)
+			return null;
+		double scale = side == 0 ? 0 : rho / side;
+		return new double[] { (1 + a * scale) * resolution / 2, (1 + b * scale) * resolution / 2, distance };
+	}
+
+	@Override
+	protected double texelSize(Point point) {
+		return point.distance(position) * Math.PI / resolution;
+	}
+}
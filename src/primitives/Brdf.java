@@ -0,0 +1,31 @@
+package primitives;
+
+/**
+ * A reflectance model (bidirectional reflectance distribution function) of a
+ * material - the fractions of a light's intensity reflected diffusely and
+ * specularly towards the viewer at a point, by the material's coefficients.
+ *
+ * @author Eti and Chavi
+ */
+public interface Brdf {
+	/**
+	 * Calculates the diffuse reflection factor
+	 *
+	 * @param material the material
+	 * @param nl       the dot product of the normal and the light vector
+	 * @return the diffuse factor
+	 */
+	Double3 diffusive(Material material, double nl);
+
+	/**
+	 * Calculates the specular reflection factor
+	 *
+	 * @param material the material
+	 * @param normal   the normal at the point
+	 * @param l        the light vector (from the light to the point)
+	 * @param nl       the dot product of the normal and the light vector
+	 * @param v        the direction of the viewing ray
+	 * @return the specular factor
+	 */
+	Double3 specular(Material material, Vector normal, Vector l, double nl, Vector v);
+}
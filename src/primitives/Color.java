@@ -71,6 +71,15 @@ public class Color {
 		return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
 	}
 
+	/**
+	 * Returns the largest of the color's components
+	 * 
+	 * @return the largest component
+	 */
+	public double maxComponent() {
+		return Math.max(rgb.d1, Math.max(rgb.d2, rgb.d3));
+	}
+
 	/**
 	 * Operation of adding this and one or more other colors (by component)
 	 * 
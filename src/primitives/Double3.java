@@ -46,6 +46,33 @@ public class Double3 {
 		this.d3 = value;
 	}
 
+	/**
+	 * Returns the first number of this triad.
+	 * 
+	 * @return the first number
+	 */
+	public double getD1() {
+		return d1;
+	}
+
+	/**
+	 * Returns the second number of this triad.
+	 * 
+	 * @return the second number
+	 */
+	public double getD2() {
+		return d2;
+	}
+
+	/**
+	 * Returns the third number of this triad.
+	 * 
+	 * @return the third number
+	 */
+	public double getD3() {
+		return d3;
+	}
+
 	/**
 	 * Adds another Double3 to this Double3 and returns the result as a new Double3
 	 * object. Each corresponding pair of numbers is added together.
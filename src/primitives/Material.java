@@ -18,6 +18,40 @@ public class Material {
 
 	/** Shininess exponent for the material. */
 	public int nShininess = 0;
+	/**
+	 * Glossiness of the reflection - the radius of the reflected beam at distance
+	 * 1 from the surface, 0 for a perfect mirror.
+	 */
+	public double glossiness = 0;
+	/**
+	 * Blur of the refraction - the radius of the refracted beam at distance 1 from
+	 * the surface, 0 for a clear material.
+	 */
+	public double blur = 0;
+	/** The reflectance model evaluating the diffuse and specular reflections */
+	public Brdf brdf = PhongBrdf.PHONG;
+
+	/**
+	 * Constructs a material with the default properties - black and opaque.
+	 */
+	public Material() {
+	}
+
+	/**
+	 * Constructs a copy of a material, not changed by later edits of the material.
+	 * 
+	 * @param material the material to copy
+	 */
+	public Material(Material material) {
+		kD = material.kD;
+		kS = material.kS;
+		kT = material.kT;
+		kR = material.kR;
+		nShininess = material.nShininess;
+		glossiness = material.glossiness;
+		blur = material.blur;
+		brdf = material.brdf;
+	}
 
 	/**
 	 * Sets the diffuse reflection coefficient of the material using a
@@ -127,4 +161,46 @@ public class Material {
 
 	}
 
+	/**
+	 * Sets the reflectance model of the material.
+	 * 
+	 * @param brdf the reflectance model
+	 * @return this {@code Material} object for method chaining
+	 * @throws IllegalArgumentException if the model is null
+	 */
+	public Material setBrdf(Brdf brdf) {
+		if (brdf == null)
+			throw new IllegalArgumentException("Reflectance model must not be null");
+		this.brdf = brdf;
+		return this;
+	}
+
+	/**
+	 * Sets the glossiness of the reflection (e.g. brushed metal).
+	 * 
+	 * @param glossiness the radius of the reflected beam at distance 1
+	 * @return this {@code Material} object for method chaining
+	 * @throws IllegalArgumentException if the glossiness is negative
+	 */
+	public Material setGlossiness(double glossiness) {
+		if (glossiness < 0)
+			throw new IllegalArgumentException("Glossiness must not be negative");
+		this.glossiness = glossiness;
+		return this;
+	}
+
+	/**
+	 * Sets the blur of the refraction (e.g. frosted glass).
+	 * 
+	 * @param blur the radius of the refracted beam at distance 1
+	 * @return this {@code Material} object for method chaining
+	 * @throws IllegalArgumentException if the blur is negative
+	 */
+	public Material setBlur(double blur) {
+		if (blur < 0)
+			throw new IllegalArgumentException("Blur must not be negative");
+		this.blur = blur;
+		return this;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package primitives;
+
+import static primitives.Util.alignZero;
+
+/**
+ * The Phong reflectance model - Lambertian diffuse reflection and a specular
+ * lobe of the cosine between the reflected light and the viewer raised to the
+ * material's shininess. The shininess is an integer, so the power is evaluated
+ * by squaring - a few multiplications instead of the logarithm and exponent of
+ * {@link Math#pow(double, double)}. The factors are also evaluated from
+ * primitive arguments (see {@link #diffusive(double)} and
+ * {@link #specular(Vector, Vector, double, Vector, int)}), for coefficients kept
+ * outside of a material, e.g. by a material table.
+ *
+ * @author Eti and Chavi
+ */
+public class PhongBrdf implements Brdf {
+	/** The Phong model, shared by all the materials using it */
+	public static final PhongBrdf PHONG = new PhongBrdf();
+
+	/** Constructs the Phong model - use the shared {@link #PHONG} instance */
+	private PhongBrdf() {
+	}
+
+	@Override
+	public Double3 diffusive(Material material, double nl) {
+		return material.kD.scale(diffusive(nl));
+	}
+
+	@Override
+	public Double3 specular(Material material, Vector normal, Vector l, double nl, Vector v) {
+		double factor = specular(normal, l, nl, v, material.nShininess);
+		return factor == 0 ? Double3.ZERO : material.kS.scale(factor);
+	}
+
+	/**
+	 * Calculates the diffuse reflection factor of a unit diffuse coefficient -
+	 * the factor the coefficient is scaled by
+	 *
+	 * @param nl the dot product of the normal and the light vector
+	 * @return the diffuse factor
+	 */
+	public double diffusive(double nl) {
+		return nl < 0 ? -nl : nl;
+	}
+
+	/**
+	 * Calculates the specular reflection factor of a unit specular coefficient -
+	 * the factor the coefficient is scaled by - without allocating the reflected
+	 * light vector
+	 *
+	 * @param normal    the normal at the point
+	 * @param l         the light vector (from the light to the point)
+	 * @param nl        the dot product of the normal and the light vector
+	 * @param v         the direction of the viewing ray
+	 * @param shininess the shininess of the material
+	 * @return the specular factor, 0 if the viewer is outside the specular lobe
+	 */
+	public double specular(Vector normal, Vector l, double nl, Vector v, int shininess) {
+		// the reflected light is l - 2(n.l)n
+		double scale = 2 * nl;
+		double minusVR = alignZero(-(v.getX() * (l.getX() - normal.getX() * scale)
+				+ v.getY() * (l.getY() - normal.getY() * scale) + v.getZ() * (l.getZ() - normal.getZ() * scale)));
+		return minusVR <= 0 ? 0 : power(minusVR, shininess);
+	}
+
+	/**
+	 * Raises a number to an integer power by repeated squaring
+	 *
+	 * @param base     the number
+	 * @param exponent the power
+	 * @return the number raised to the power
+	 */
+	public static double power(double base, int exponent) {
+		// a long exponent, so that negating Integer.MIN_VALUE does not overflow
+		long n = exponent;
+		if (n < 0) {
+			base = 1 / base;
+			n = -n;
+		}
+		double result = 1;
+		while (n != 0) {
+			if ((n & 1) != 0)
+				result *= base;
+			base *= base;
+			n >>>= 1;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,214 @@
+package primitives;
+
+/**
+ * Immutable affine transformation of the 3D space - a linear transformation
+ * (rotation, scaling...) followed by a translation. The inverse transformation
+ * is kept along, so that points may be transformed in both directions without
+ * inverting a matrix each time.
+ *
+ * @author Eti and Chavi
+ */
+public class Transform {
+	/** The identity transformation */
+	public static final Transform IDENTITY = new Transform( //
+			new double[] { 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0 }, //
+			new double[] { 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0 });
+
+	/**
+	 * The transformation matrix - 3 rows of 4 values (the 4th column is the
+	 * translation)
+	 */
+	private final double[] m;
+	/** The inverse transformation matrix in the same layout */
+	private final double[] inv;
+
+	/**
+	 * Constructs a transformation from its matrix and the inverse one
+	 *
+	 * @param m   the transformation matrix
+	 * @param inv the inverse matrix
+	 */
+	private Transform(double[] m, double[] inv) {
+		this.m = m;
+		this.inv = inv;
+	}
+
+	/**
+	 * Constructs a translation
+	 *
+	 * @param v the translation vector
+	 * @return the translation transformation
+	 */
+	public static Transform translation(Vector v) {
+		double x = v.getX(), y = v.getY(), z = v.getZ();
+		return new Transform(new double[] { 1, 0, 0, x, 0, 1, 0, y, 0, 0, 1, z },
+				new double[] { 1, 0, 0, -x, 0, 1, 0, -y, 0, 0, 1, -z });
+	}
+
+	/**
+	 * Constructs a uniform scaling around the origin
+	 *
+	 * @param s the scale factor
+	 * @return the scaling transformation
+	 */
+	public static Transform scaling(double s) {
+		return scaling(s, s, s);
+	}
+
+	/**
+	 * Constructs a scaling around the origin along the axes
+	 *
+	 * @param sx the scale factor along x
+	 * @param sy the scale factor along y
+	 * @param sz the scale factor along z
+	 * @return the scaling transformation
+	 * @throws IllegalArgumentException if a factor is zero
+	 */
+	public static Transform scaling(double sx, double sy, double sz) {
+		if (sx == 0 || sy == 0 || sz == 0)
+			throw new IllegalArgumentException("Scale factor must not be zero");
+		return new Transform(new double[] { sx, 0, 0, 0, 0, sy, 0, 0, 0, 0, sz, 0 },
+				new double[] { 1 / sx, 0, 0, 0, 0, 1 / sy, 0, 0, 0, 0, 1 / sz, 0 });
+	}
+
+	/**
+	 * Constructs a rotation around an axis through the origin
+	 *
+	 * @param axis  the rotation axis direction
+	 * @param angle the rotation angle in degrees (counter clockwise when looking
+	 *              against the axis direction)
+	 * @return the rotation transformation
+	 */
+	public static Transform rotation(Vector axis, double angle) {
+		Vector k = axis.normalize();
+		double x = k.getX(), y = k.getY(), z = k.getZ();
+		double rad = Math.toRadians(angle);
+		double c = Math.cos(rad), s = Math.sin(rad), t = 1 - c;
+		double[] r = { //
+				t * x * x + c, t * x * y - s * z, t * x * z + s * y, 0, //
+				t * x * y + s * z, t * y * y + c, t * y * z - s * x, 0, //
+				t * x * z - s * y, t * y * z + s * x, t * z * z + c, 0 };
+		// the inverse of a rotation is its transpose
+		double[] rt = { r[0], r[4], r[8], 0, r[1], r[5], r[9], 0, r[2], r[6], r[10], 0 };
+		return new Transform(r, rt);
+	}
+
+	/**
+	 * Composes this transformation with another one, applied after it
+	 *
+	 * @param next the transformation to apply after this one
+	 * @return the composed transformation
+	 */
+	public Transform then(Transform next) {
+		return new Transform(multiply(next.m, m), multiply(inv, next.inv));
+	}
+
+	/**
+	 * Returns the inverse transformation
+	 *
+	 * @return the inverse transformation
+	 */
+	public Transform inverse() {
+		return new Transform(inv, m);
+	}
+
+	/**
+	 * Product of two affine matrices (as 4x4 matrices with last row 0,0,0,1)
+	 *
+	 * @param a the left matrix
+	 * @param b the right matrix
+	 * @return the product matrix
+	 */
+	private static double[] multiply(double[] a, double[] b) {
+		double[] r = new double[12];
+		for (int row = 0; row < 3; ++row) {
+			int i = row * 4;
+			for (int col = 0; col < 4; ++col)
+				r[i + col] = a[i] * b[col] + a[i + 1] * b[4 + col] + a[i + 2] * b[8 + col];
+			r[i + 3] += a[i + 3];
+		}
+		return r;
+	}
+
+	/**
+	 * Transforms a point
+	 *
+	 * @param p the point
+	 * @return the transformed point
+	 */
+	public Point apply(Point p) {
+		return transformPoint(m, p);
+	}
+
+	/**
+	 * Transforms a point by the inverse transformation
+	 *
+	 * @param p the point
+	 * @return the point before this transformation
+	 */
+	public Point applyInverse(Point p) {
+		return transformPoint(inv, p);
+	}
+
+	/**
+	 * Transforms a direction vector (the translation does not affect it)
+	 *
+	 * @param v the vector
+	 * @return the transformed vector (not normalized)
+	 */
+	public Vector applyToVector(Vector v) {
+		return transformVector(m, v);
+	}
+
+	/**
+	 * Transforms a direction vector by the inverse transformation
+	 *
+	 * @param v the vector
+	 * @return the vector before this transformation (not normalized)
+	 */
+	public Vector applyInverseToVector(Vector v) {
+		return transformVector(inv, v);
+	}
+
+	/**
+	 * Transforms a surface normal - by the transposed inverse of the linear part,
+	 * which keeps it orthogonal to the transformed surface
+	 *
+	 * @param n the normal
+	 * @return the transformed normal, normalized
+	 */
+	public Vector applyToNormal(Vector n) {
+		double x = n.getX(), y = n.getY(), z = n.getZ();
+		return new Vector(inv[0] * x + inv[4] * y + inv[8] * z, //
+				inv[1] * x + inv[5] * y + inv[9] * z, //
+				inv[2] * x + inv[6] * y + inv[10] * z).normalize();
+	}
+
+	/**
+	 * Multiplies a point by an affine matrix
+	 *
+	 * @param a the matrix
+	 * @param p the point
+	 * @return the transformed point
+	 */
+	private static Point transformPoint(double[] a, Point p) {
+		double x = p.getX(), y = p.getY(), z = p.getZ();
+		return new Point(a[0] * x + a[1] * y + a[2] * z + a[3], //
+				a[4] * x + a[5] * y + a[6] * z + a[7], //
+				a[8] * x + a[9] * y + a[10] * z + a[11]);
+	}
+
+	/**
+	 * Multiplies a vector by the linear part of an affine matrix
+	 *
+	 * @param a the matrix
+	 * @param v the vector
+	 * @return the transformed vector
+	 */
+	private static Vector transformVector(double[] a, Vector v) {
+		double x = v.getX(), y = v.getY(), z = v.getZ();
+		return new Vector(a[0] * x + a[1] * y + a[2] * z, //
+				a[4] * x + a[5] * y + a[6] * z, //
+				a[8] * x + a[9] * y + a[10] * z);
+	}
+}
@@ -0,0 +1,149 @@
+package renderer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous output stage for rendered images. Finished frame buffers are
+ * copied into a bounded queue which is drained by dedicated writer threads that
+ * perform the png encoding and the disk I/O, so that writing frame N overlaps
+ * rendering of frame N+1. When the queue is full, submitting a frame blocks
+ * the caller until a writer frees a slot (backpressure), which bounds the
+ * memory held by pending frames.
+ *
+ * @author Eti and Chavi
+ */
+public class AsyncImageWriter implements AutoCloseable {
+	/** A pending frame and the future to complete once it has been written */
+	private record Frame(ImageWriter image, CompletableFuture<Void> written) {
+	}
+
+	/** Marker telling a writer thread to stop */
+	private static final Frame END = new Frame(null, null);
+
+	/** Finished frames waiting to be written */
+	private final BlockingQueue<Frame> queue;
+	/** The writer threads draining the queue */
+	private final Thread[] writers;
+	/** Whether the writer has been closed for new frames */
+	private volatile boolean closed = false;
+	/** The error that broke a writer thread, null while the writers are sound */
+	private volatile Throwable failure = null;
+
+	/**
+	 * Constructs an asynchronous writer with a single writer thread
+	 *
+	 * @param capacity maximal number of frames waiting to be written
+	 */
+	public AsyncImageWriter(int capacity) {
+		this(capacity, 1);
+	}
+
+	/**
+	 * Constructs an asynchronous writer and starts its writer threads
+	 *
+	 * @param capacity     maximal number of frames waiting to be written
+	 * @param writersCount number of writer threads
+	 * @throws IllegalArgumentException if capacity or writers count is not
+	 *                                  positive
+	 */
+	public AsyncImageWriter(int capacity, int writersCount) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Queue capacity must be positive");
+		if (writersCount < 1)
+			throw new IllegalArgumentException("Writers count must be positive");
+		queue = new ArrayBlockingQueue<>(capacity);
+		writers = new Thread[writersCount];
+		for (int i = 0; i < writersCount; ++i) {
+			writers[i] = new Thread(this::drain, "AsyncImageWriter-" + i);
+			writers[i].setDaemon(true);
+			writers[i].start();
+		}
+	}
+
+	/**
+	 * Queues a copy of the image writer's current pixel matrix to be written under
+	 * the image writer's name. Blocks while the queue is full.
+	 *
+	 * @param imageWriter the image writer holding the finished frame
+	 * @return future completed when the frame has been written to disk
+	 */
+	public CompletableFuture<Void> submit(ImageWriter imageWriter) {
+		return submit(imageWriter, imageWriter.getImageName());
+	}
+
+	/**
+	 * Queues a copy of the image writer's current pixel matrix to be written under
+	 * the given name. Blocks while the queue is full.
+	 *
+	 * @param imageWriter the image writer holding the finished frame
+	 * @param imageName   the name of the png file to write
+	 * @return future completed when the frame has been written to disk, or
+	 *         completed exceptionally if writing failed
+	 * @throws IllegalStateException if the writer is already closed, or failed by
+	 *                               an error (such as running out of memory)
+	 */
+	public synchronized CompletableFuture<Void> submit(ImageWriter imageWriter, String imageName) {
+		if (closed)
+			throw new IllegalStateException("Asynchronous image writer is closed");
+		if (failure != null)
+			throw new IllegalStateException("Asynchronous image writer failed", failure);
+		Frame frame = new Frame(imageWriter.snapshot(imageName), new CompletableFuture<>());
+		try {
+			queue.put(frame);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			frame.written.completeExceptionally(e);
+		}
+		return frame.written;
+	}
+
+	/**
+	 * Writer thread loop - writes queued frames until the end marker arrives. A
+	 * failed frame completes its future exceptionally. After an error (such as
+	 * running out of memory) the queued frames are not written but failed, so
+	 * that neither their futures nor blocked submitters wait forever.
+	 */
+	private void drain() {
+		try {
+			for (Frame frame = queue.take(); frame != END; frame = queue.take()) {
+				Throwable error = failure;
+				if (error != null) {
+					frame.written.completeExceptionally(error);
+					continue;
+				}
+				try {
+					frame.image.writeToImage();
+					frame.written.complete(null);
+				} catch (RuntimeException e) {
+					frame.written.completeExceptionally(e);
+				} catch (Throwable e) {
+					failure = e;
+					frame.written.completeExceptionally(e);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Stops accepting new frames, waits until all queued frames are written and
+	 * stops the writer threads
+	 */
+	@Override
+	public synchronized void close() {
+		if (closed)
+			return;
+		closed = true;
+		try {
+			for (int i = 0; i < writers.length; ++i)
+				queue.put(END);
+			for (Thread writer : writers)
+				writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -7,7 +7,14 @@ import primitives.Color;
 
 import static primitives.Util.*;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.MissingResourceException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import geometries.Plane;
 
@@ -36,6 +43,24 @@ public class Camera {
 	private ImageWriter imageWriter;
 	/** The ray tracer used to trace the rays from the camera to the scene */
 	private RayTracerBase rayTracerBase;
+	/** Amount of rendering threads (0 or 1 - render in the calling thread) */
+	private int threadsCount = 0;
+	/** The width and height of a render tile */
+	private int tileSize = 32;
+	/** Whether to collect render statistics */
+	private boolean collectStatistics = false;
+	/** The statistics report of the last render (if collected) */
+	private RenderReport renderReport = null;
+	/** The per-pixel cost measured by the heatmap pass (null - no heatmap) */
+	private Heatmap.Metric heatmapMetric = null;
+	/** The per-pixel costs of the last render (if measured) */
+	private Heatmap heatmap = null;
+	/** The checkpoint file of the render (null - no checkpoints) */
+	private Path checkpointFile = null;
+	/** The time between checkpoint writes, in milliseconds */
+	private long checkpointInterval;
+	/** The cache of the pixels' primary hits (null - no cache) */
+	private PrimaryHitCache hitCache = null;
 
 	/**
 	 * Sets the image writer for the camera.
@@ -59,6 +84,125 @@ public class Camera {
 		return this;
 	}
 
+	/**
+	 * Sets the amount of threads rendering the image's tiles concurrently.
+	 * 
+	 * @param threadsCount the amount of threads, 0 or 1 to render in the calling
+	 *                     thread
+	 * @return This camera instance.
+	 */
+	public Camera setMultithreading(int threadsCount) {
+		if (threadsCount < 0)
+			throw new IllegalArgumentException("Threads count must not be negative");
+		this.threadsCount = threadsCount;
+		return this;
+	}
+
+	/**
+	 * Sets the width and height (in pixels) of the tiles the image is rendered
+	 * by.
+	 * 
+	 * @param tileSize the tile size
+	 * @return This camera instance.
+	 */
+	public Camera setTileSize(int tileSize) {
+		if (tileSize < 1)
+			throw new IllegalArgumentException("Tile size must be positive");
+		this.tileSize = tileSize;
+		return this;
+	}
+
+	/**
+	 * Sets whether to collect statistics (ray counts, intersection tests and
+	 * stage times) while rendering. Collecting statistics slows the render down
+	 * slightly, there is no overhead when it is off.
+	 * 
+	 * @param collectStatistics true to collect statistics
+	 * @return This camera instance.
+	 */
+	public Camera setStatistics(boolean collectStatistics) {
+		this.collectStatistics = collectStatistics;
+		return this;
+	}
+
+	/**
+	 * Returns the statistics report of the last render
+	 * 
+	 * @return the report, or null if the statistics were not collected
+	 */
+	public RenderReport getRenderReport() {
+		return renderReport;
+	}
+
+	/**
+	 * Sets a diagnostic pass measuring the cost of every pixel while rendering.
+	 * The costs are written as a false colour image named after the rendered
+	 * image with a "_heatmap" suffix, next to it.
+	 * 
+	 * @param metric the measured cost of a pixel, or null for no heatmap
+	 * @return This camera instance.
+	 */
+	public Camera setHeatmap(Heatmap.Metric metric) {
+		this.heatmapMetric = metric;
+		return this;
+	}
+
+	/**
+	 * Returns the per-pixel costs of the last render
+	 * 
+	 * @return the heatmap, or null if the costs were not measured
+	 */
+	public Heatmap getHeatmap() {
+		return heatmap;
+	}
+
+	/**
+	 * Sets periodic checkpoints of the completed tiles while rendering. If the
+	 * checkpoint file exists when a render starts (and belongs to a render of the
+	 * same image size and tile size), its tiles are restored and only the missing
+	 * tiles are rendered. The checkpoint is written periodically in the
+	 * background and when a render fails; it is deleted when the render
+	 * completes. The heatmap and the statistics of a resumed render cover the
+	 * rendered tiles only.
+	 * 
+	 * @param file     the checkpoint file, or null for no checkpoints
+	 * @param interval the time between checkpoint writes, in milliseconds (ignored
+	 *                 with no checkpoints)
+	 * @return This camera instance.
+	 * @throws IllegalArgumentException if the file is given and the interval is
+	 *                                  not positive
+	 */
+	public Camera setCheckpoint(Path file, long interval) {
+		if (file != null && interval < 1)
+			throw new IllegalArgumentException("Checkpoint interval must be positive");
+		this.checkpointFile = file;
+		this.checkpointInterval = interval;
+		return this;
+	}
+
+	/**
+	 * Sets a cache of the pixels' primary hits, so that renders after edits which
+	 * do not move geometry (see {@link PrimaryHitCache}) shade again only the
+	 * invalidated pixels, without tracing their primary rays. The cache is not
+	 * used with depth of field.
+	 * 
+	 * @param hitCache the cache, or null for no cache
+	 * @return This camera instance.
+	 */
+	public Camera setPrimaryHitCache(PrimaryHitCache hitCache) {
+		this.hitCache = hitCache;
+		return this;
+	}
+
+	/**
+	 * Returns the image writer of the camera
+	 * 
+	 * @return the image writer
+	 */
+	ImageWriter getImageWriter() {
+		return imageWriter;
+	}
+
 	/**
 	 * Returns the point P0 of the camera.
 	 *
@@ -194,43 +338,391 @@ public class Camera {
 	/**
 	 * Renders the image by iterating through each pixel in the image writer and
 	 * casting a ray for each pixel, then writing the resulting color to the image
-	 * writer. Throws a MissingResourceException if either the image writer or the
-	 * ray tracer base are not set.
+	 * writer. The image is rendered tile by tile, by several threads if
+	 * multithreading is set. Throws a MissingResourceException if either the image
+	 * writer or the ray tracer base are not set.
 	 * 
 	 * @return camera object itself
 	 */
 	public Camera renderImage() {
+		return render(null);
+	}
+
+	/**
+	 * Starts rendering the image by submitting its tiles to the given executor,
+	 * without waiting for them. Several images may be rendered by the same
+	 * executor at once - the tiles of an image submitted later are queued after
+	 * the tiles of the earlier ones. Throws a MissingResourceException if either
+	 * the image writer or the ray tracer base are not set.
+	 * 
+	 * @param executor the executor running the tiles
+	 * @return future completed with this camera when all the tiles are rendered
+	 */
+	public CompletableFuture<Camera> renderImageAsync(Executor executor) {
+		return renderAsync(null, executor);
+	}
+
+	/**
+	 * Renders only the given pixel rectangles of the image, leaving the other
+	 * pixels of the image writer as they are - e.g. to fix an area of an image
+	 * read by {@link ImageWriter#read(String)}. The rays are the same as the rays
+	 * of a full render, so the rendered pixels match it exactly. The rectangles
+	 * are rendered tile by tile, by several threads if multithreading is set, and
+	 * pixels covered by several rectangles are rendered once for each. Checkpoints
+	 * are not written for region renders. Throws a MissingResourceException if
+	 * either the image writer or the ray tracer base are not set.
+	 * 
+	 * @param regions the pixel rectangles
+	 * @return camera object itself
+	 * @throws IllegalArgumentException if a rectangle exceeds the image
+	 */
+	public Camera renderRegions(List<Tile> regions) {
+		return render(List.copyOf(regions));
+	}
+
+	/**
+	 * Starts rendering the given pixel rectangles of the image by submitting their
+	 * tiles to the given executor, without waiting for them (see
+	 * {@link #renderRegions(List)}).
+	 * 
+	 * @param regions  the pixel rectangles
+	 * @param executor the executor running the tiles
+	 * @return future completed with this camera when all the tiles are rendered
+	 * @throws IllegalArgumentException if a rectangle exceeds the image
+	 */
+	public CompletableFuture<Camera> renderRegionsAsync(List<Tile> regions, Executor executor) {
+		return renderAsync(List.copyOf(regions), executor);
+	}
+
+	/**
+	 * Renders the image or its regions
+	 * 
+	 * @param regions the pixel rectangles to render, or null for the whole image
+	 * @return camera object itself
+	 */
+	private Camera render(List<Tile> regions) {
+		checkRenderResources();
+		if (threadsCount < 2) {
+			int nX = imageWriter.getNx();
+			int nY = imageWriter.getNy();
+			RenderCheckpoint checkpoint = regions == null ? startCheckpoint() : null;
+			List<Tile> tiles = renderedTiles(regions, checkpoint);
+			FrameRenderEvent frame = new FrameRenderEvent();
+			frame.begin();
+			long start = System.nanoTime();
+			RenderStatistics statistics = startStatistics();
+			startHeatmap(nX, nY, statistics);
+			PrimaryHitCache cache = startHitCache(nX, nY);
+			try {
+				for (Tile tile : tiles)
+					renderTile(tile, nX, nY, statistics, cache, checkpoint);
+			} catch (RuntimeException e) {
+				if (checkpoint != null)
+					checkpoint.abort();
+				throw e;
+			}
+			if (checkpoint != null)
+				checkpoint.complete();
+			finishStatistics(statistics, start);
+			finishFrame(frame, tiles.size());
+			return this;
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(threadsCount);
+		try {
+			renderAsync(regions, pool).join();
+		} finally {
+			pool.shutdown();
+		}
+		return this;
+	}
+
+	/**
+	 * Starts rendering the image or its regions by submitting the tiles to the
+	 * given executor
+	 * 
+	 * @param regions  the pixel rectangles to render, or null for the whole image
+	 * @param executor the executor running the tiles
+	 * @return future completed with this camera when all the tiles are rendered
+	 */
+	private CompletableFuture<Camera> renderAsync(List<Tile> regions, Executor executor) {
+		checkRenderResources();
+		int nX = imageWriter.getNx();
+		int nY = imageWriter.getNy();
+		RenderCheckpoint checkpoint = regions == null ? startCheckpoint() : null;
+		List<Tile> tiles = renderedTiles(regions, checkpoint);
+		FrameRenderEvent frame = new FrameRenderEvent();
+		frame.begin();
+		long start = System.nanoTime();
+		RenderStatistics statistics = startStatistics();
+		startHeatmap(nX, nY, statistics);
+		PrimaryHitCache cache = startHitCache(nX, nY);
+		CompletableFuture<?>[] rendered = new CompletableFuture<?>[tiles.size()];
+		for (int t = 0; t < rendered.length; ++t) {
+			Tile tile = tiles.get(t);
+			rendered[t] = CompletableFuture.runAsync(() -> renderTile(tile, nX, nY, statistics, cache, checkpoint),
+					executor);
+		}
+		return CompletableFuture.allOf(rendered).whenComplete((v, e) -> {
+			if (checkpoint == null)
+				return;
+			if (e == null)
+				checkpoint.complete();
+			else
+				checkpoint.abort();
+		}).thenApply(v -> {
+			finishStatistics(statistics, start);
+			finishFrame(frame, tiles.size());
+			return this;
+		});
+	}
+
+	/**
+	 * Splits the rendered pixels into tiles
+	 * 
+	 * @param regions    the pixel rectangles to render, or null for the whole image
+	 * @param checkpoint the render's checkpoint, or null if checkpoints are off
+	 * @return the tiles to render
+	 * @throws IllegalArgumentException if a rectangle exceeds the image
+	 */
+	private List<Tile> renderedTiles(List<Tile> regions, RenderCheckpoint checkpoint) {
+		int nX = imageWriter.getNx();
+		int nY = imageWriter.getNy();
+		if (regions == null)
+			return pendingTiles(Tile.split(nX, nY, tileSize), checkpoint);
+		List<Tile> tiles = new ArrayList<>();
+		for (Tile region : regions) {
+			if (region.x() < 0 || region.y() < 0 || region.width() < 1 || region.height() < 1
+					|| region.x() + region.width() > nX || region.y() + region.height() > nY)
+				throw new IllegalArgumentException("Region " + region + " exceeds the image");
+			tiles.addAll(region.split(tileSize));
+		}
+		return tiles;
+	}
+
+	/**
+	 * Amount of rays cast from the camera through each pixel
+	 * 
+	 * @return the amount of samples per pixel
+	 */
+	private int samplesPerPixel() {
+		return useDOFFlag ? aperturePointsArr.length : 1;
+	}
+
+	/**
+	 * Commits the flight recorder event of a rendered image, if it is recorded
+	 * 
+	 * @param frame the event started before the rendering
+	 * @param tiles amount of the image's tiles
+	 */
+	private void finishFrame(FrameRenderEvent frame, int tiles) {
+		frame.end();
+		if (!frame.shouldCommit())
+			return;
+		frame.image = imageWriter.getImageName();
+		frame.width = imageWriter.getNx();
+		frame.height = imageWriter.getNy();
+		frame.tiles = tiles;
+		frame.samples = samplesPerPixel();
+		frame.rays = (long) frame.width * frame.height * frame.samples;
+		frame.commit();
+	}
+
+	/**
+	 * Starts collecting statistics of a render if they are requested, or if the
+	 * heatmap counts intersection tests
+	 * 
+	 * @return the statistics being collected, or null if they are off
+	 */
+	private RenderStatistics startStatistics() {
+		return collectStatistics || heatmapMetric == Heatmap.Metric.INTERSECTIONS ? new RenderStatistics() : null;
+	}
+
+	/**
+	 * Produces the report of a render's statistics if they are requested
+	 * 
+	 * @param statistics the collected statistics, or null if they are off
+	 * @param start      the render start time (by System.nanoTime)
+	 */
+	private void finishStatistics(RenderStatistics statistics, long start) {
+		if (statistics != null && collectStatistics)
+			renderReport = statistics.report(System.nanoTime() - start);
+	}
+
+	/**
+	 * Prepares the primary hit cache for a render if it is set
+	 * 
+	 * @param nX amount of pixel columns in the image
+	 * @param nY amount of pixel rows in the image
+	 * @return the cache to record the render's touched geometries into, or null
+	 *         if it is not used
+	 * @throws IllegalStateException if the ray tracer cannot use the cache
+	 */
+	private PrimaryHitCache startHitCache(int nX, int nY) {
+		if (hitCache == null || useDOFFlag)
+			return null;
+		if (!(rayTracerBase instanceof RayTracerBasic))
+			throw new IllegalStateException("Primary hit cache requires RayTracerBasic");
+		hitCache.start(nX, nY, rayTracerBase.scene);
+		return hitCache;
+	}
+
+	/**
+	 * Starts measuring the pixels' costs if a heatmap is requested
+	 * 
+	 * @param nX         amount of pixel columns in the image
+	 * @param nY         amount of pixel rows in the image
+	 * @param statistics the render's statistics, counting the intersection tests
+	 */
+	private void startHeatmap(int nX, int nY, RenderStatistics statistics) {
+		heatmap = heatmapMetric == null ? null : new Heatmap(heatmapMetric, nX, nY, statistics);
+	}
+
+	/**
+	 * Checks that the resources needed for rendering are set
+	 * 
+	 * @throws MissingResourceException if the image writer or the ray tracer is
+	 *                                  missing
+	 */
+	private void checkRenderResources() {
 		if (imageWriter == null)
 			throw new MissingResourceException("Camera resource not set", "Camera", "imageWriter");
 
 		if (rayTracerBase == null)
 			throw new MissingResourceException("Camera resource not set", "Camera", "rayTracerBase");
+	}
 
-		int nX = imageWriter.getNx();
-		int nY = imageWriter.getNy();
+	/**
+	 * Opens the checkpoint of a render if checkpoints are set, restoring the
+	 * completed tiles into the image writer
+	 * 
+	 * @return the checkpoint, or null if checkpoints are off
+	 */
+	private RenderCheckpoint startCheckpoint() {
+		if (checkpointFile == null)
+			return null;
+		RenderCheckpoint checkpoint = new RenderCheckpoint(checkpointFile, imageWriter, tileSize);
+		checkpoint.start(checkpointInterval);
+		return checkpoint;
+	}
+
+	/**
+	 * Filters out the tiles completed by a resumed render
+	 * 
+	 * @param tiles      the image's tiles
+	 * @param checkpoint the render's checkpoint, or null if checkpoints are off
+	 * @return the tiles to render
+	 */
+	private static List<Tile> pendingTiles(List<Tile> tiles, RenderCheckpoint checkpoint) {
+		return checkpoint == null ? tiles : tiles.stream().filter(tile -> !checkpoint.isDone(tile)).toList();
+	}
+
+	/**
+	 * Renders a single tile in the current thread and records it in the
+	 * checkpoint
+	 * 
+	 * @param tile       the tile to render
+	 * @param nX         amount of pixel columns in the whole image
+	 * @param nY         amount of pixel rows in the whole image
+	 * @param statistics the render's statistics, or null if they are off
+	 * @param cache      the render's primary hit cache, or null if it is not used
+	 * @param checkpoint the render's checkpoint, or null if checkpoints are off
+	 */
+	private void renderTile(Tile tile, int nX, int nY, RenderStatistics statistics, PrimaryHitCache cache,
+			RenderCheckpoint checkpoint) {
+		renderTile(rayTracerBase.forThread(statistics, cache), tile, nX, nY);
+		if (checkpoint != null)
+			checkpoint.tileDone(tile);
+	}
+
+	/**
+	 * Renders the pixels of a single tile into the image writer
+	 * 
+	 * @param tile the tile to render
+	 * @param nX   amount of pixel columns in the whole image
+	 * @param nY   amount of pixel rows in the whole image
+	 */
+	void renderTile(Tile tile, int nX, int nY) {
+		renderTile(rayTracerBase, tile, nX, nY);
+	}
 
-		for (int j = 0; j < nX; j++) {
-			for (int i = 0; i < nY; i++) {
-				Color color = castRay(j, i, nX, nY);
-				this.imageWriter.writePixel(j, i, color);
+	/**
+	 * Renders the pixels of a single tile into the image writer
+	 * 
+	 * @param tracer the ray tracer of the render
+	 * @param tile   the tile to render
+	 * @param nX     amount of pixel columns in the whole image
+	 * @param nY     amount of pixel rows in the whole image
+	 */
+	private void renderTile(RayTracerBase tracer, Tile tile, int nX, int nY) {
+		TileRenderEvent event = new TileRenderEvent();
+		event.begin();
+		Heatmap costs = heatmap;
+		if (costs == null && !useDOFFlag && hitCache == null)
+			renderTileBatch(tracer, tile, nX, nY);
+		else
+			for (int j = tile.x(); j < tile.x() + tile.width(); j++) {
+				for (int i = tile.y(); i < tile.y() + tile.height(); i++) {
+					if (costs == null)
+						this.imageWriter.writePixel(j, i, castRay(tracer, j, i, nX, nY));
+					else {
+						long start = costs.startPixel();
+						Color color = castRay(tracer, j, i, nX, nY);
+						costs.finishPixel(j, i, start);
+						this.imageWriter.writePixel(j, i, color);
+					}
+				}
 			}
+		event.end();
+		if (event.shouldCommit()) {
+			event.x = tile.x();
+			event.y = tile.y();
+			event.width = tile.width();
+			event.height = tile.height();
+			event.samples = samplesPerPixel();
+			event.rays = (long) tile.size() * event.samples;
+			event.commit();
 		}
-		return this;
+	}
+
+	/**
+	 * Renders the pixels of a tile by tracing all the tile's rays as one batch
+	 * 
+	 * @param tracer the ray tracer of the render
+	 * @param tile   the tile to render
+	 * @param nX     amount of pixel columns in the whole image
+	 * @param nY     amount of pixel rows in the whole image
+	 */
+	private void renderTileBatch(RayTracerBase tracer, Tile tile, int nX, int nY) {
+		Ray[] rays = new Ray[tile.size()];
+		int r = 0;
+		for (int j = tile.x(); j < tile.x() + tile.width(); j++)
+			for (int i = tile.y(); i < tile.y() + tile.height(); i++)
+				rays[r++] = constructRay(nX, nY, j, i);
+		Color[] colors = new Color[rays.length];
+		tracer.traceRays(rays, colors);
+		r = 0;
+		for (int j = tile.x(); j < tile.x() + tile.width(); j++)
+			for (int i = tile.y(); i < tile.y() + tile.height(); i++)
+				imageWriter.writePixel(j, i, colors[r++]);
 	}
 
 	/**
 	 * Casts a ray through the given pixel (i,j) on the view plane and returns the
 	 * color that results from tracing the ray.
 	 * 
-	 * @param i the x-coordinate of the pixel on the view plane
-	 * @param j the y-coordinate of the pixel on the view plane
+	 * @param tracer the ray tracer of the render
+	 * @param i      the x-coordinate of the pixel on the view plane
+	 * @param j      the y-coordinate of the pixel on the view plane
 	 * @return the color resulting from tracing the ray through the given pixel
 	 */
-	private Color castRay(int j, int i, int nX, int nY) {
+	private Color castRay(RayTracerBase tracer, int j, int i, int nX, int nY) {
 		Ray ray = constructRay(nX, nY, j, i);
 		if (useDOFFlag)
-			return beamAveColor(ray);
-		return this.rayTracerBase.traceRay(ray);
+			return beamAveColor(tracer, ray);
+		if (hitCache != null)
+			return hitCache.castRay((RayTracerBasic) tracer, ray, j, i);
+		return tracer.traceRay(ray);
 	}
 
 	/**
@@ -256,13 +748,44 @@ public class Camera {
 	}
 
 	/**
-	 * Writes the image to file using the image writer. Throws a
-	 * MissingResourceException if the image writer is not set.
+	 * Writes the image to file using the image writer, along with the heatmap
+	 * image if the pixels' costs were measured. Throws a MissingResourceException
+	 * if the image writer is not set.
 	 */
 	public void writeToImage() throws MissingResourceException {
 		if (imageWriter == null)
 			throw new MissingResourceException("Camera resource not set", "Camera", "Image writer");
 		imageWriter.writeToImage();
+		if (heatmap != null)
+			heatmap.toImage(heatmapName()).writeToImage();
+	}
+
+	/**
+	 * Name of the heatmap image of the rendered image
+	 * 
+	 * @return the heatmap image name
+	 */
+	private String heatmapName() {
+		return imageWriter.getImageName() + "_heatmap";
+	}
+
+	/**
+	 * Hands a copy of the rendered image to an asynchronous writer, so that the
+	 * camera may start rendering the next image while this one is being encoded
+	 * and written to disk. The heatmap image is queued as well if the pixels'
+	 * costs were measured. Throws a MissingResourceException if the image writer
+	 * is not set.
+	 * 
+	 * @param asyncWriter the asynchronous writer to queue the image in
+	 * @return future completed when the image (and the heatmap) has been written
+	 */
+	public CompletableFuture<Void> writeToImage(AsyncImageWriter asyncWriter) throws MissingResourceException {
+		if (imageWriter == null)
+			throw new MissingResourceException("Camera resource not set", "Camera", "Image writer");
+		if (heatmap == null)
+			return asyncWriter.submit(imageWriter);
+		return CompletableFuture.allOf(asyncWriter.submit(imageWriter),
+				asyncWriter.submit(heatmap.toImage(heatmapName())));
 	}
 
 	/**
@@ -345,10 +868,11 @@ public class Camera {
 	/**
 	 * Calculates the average color of the beam of rays for Depth of Field effect.
 	 *
-	 * @param ray the primary ray
+	 * @param tracer the ray tracer of the render
+	 * @param ray    the primary ray
 	 * @return the average color of the beam of rays
 	 */
-	private Color beamAveColor(Ray ray) {
+	private Color beamAveColor(RayTracerBase tracer, Ray ray) {
 		Color aveColor = Color.BLACK;
 		Ray apertureRay;
 		Color apertureColor;
@@ -360,7 +884,7 @@ public class Camera {
 			apertureRay = new Ray(p, focalPoint.subtract(p));
 
 			// Trace the aperture ray to get the color
-			apertureColor = rayTracerBase.traceRay(apertureRay);
+			apertureColor = tracer.traceRay(apertureRay);
 
 			// Accumulate the color for averaging
 			aveColor = aveColor.add(apertureColor.reduce(numPoints));
@@ -0,0 +1,247 @@
+package renderer;
+
+import static primitives.Util.isZero;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import primitives.Point;
+import primitives.Vector;
+
+/**
+ * A camera path for animations - a sequence of keyframes, each holding the
+ * camera position and orientation at some time. The position between keyframes
+ * is interpolated along a Catmull-Rom spline passing through the keyframes'
+ * positions, and the orientation by spherical interpolation of the keyframes'
+ * direction vectors.
+ *
+ * @author Eti and Chavi
+ */
+public class CameraPath {
+	/**
+	 * Camera position and orientation at a given time
+	 *
+	 * @param time     the time of the keyframe
+	 * @param position the camera position
+	 * @param vTo      the direction the camera is facing (normalized)
+	 * @param vUp      the up direction of the camera (normalized)
+	 */
+	public record Keyframe(double time, Point position, Vector vTo, Vector vUp) {
+	}
+
+	/** The keyframes ordered by their times */
+	private final List<Keyframe> keyframes = new ArrayList<>();
+
+	/**
+	 * Adds a keyframe after the existing ones
+	 *
+	 * @param time     the time of the keyframe - later than the last keyframe's
+	 * @param position the camera position
+	 * @param vTo      the direction the camera is facing
+	 * @param vUp      the up direction of the camera, orthogonal to vTo
+	 * @return this camera path
+	 * @throws IllegalArgumentException if the time is not later than the last
+	 *                                  keyframe's, if vUp and vTo are not
+	 *                                  orthogonal or if vTo is opposite to the
+	 *                                  previous keyframe's direction
+	 */
+	public CameraPath addKeyframe(double time, Point position, Vector vTo, Vector vUp) {
+		if (!isZero(vTo.dotProduct(vUp)))
+			throw new IllegalArgumentException("vUp and vTo are not orthogonal");
+		Keyframe keyframe = new Keyframe(time, position, vTo.normalize(), vUp.normalize());
+		if (!keyframes.isEmpty()) {
+			Keyframe last = keyframes.get(keyframes.size() - 1);
+			if (time <= last.time)
+				throw new IllegalArgumentException("Keyframes must be added in increasing time order");
+			if (last.vTo.dotProduct(keyframe.vTo) < -0.9995 || last.vUp.dotProduct(keyframe.vUp) < -0.9995)
+				throw new IllegalArgumentException("Orientation between consecutive keyframes is ambiguous");
+		}
+		keyframes.add(keyframe);
+		return this;
+	}
+
+	/**
+	 * Builds a turntable path - the camera orbits once around an axis through the
+	 * target, always looking at the target, with the axis as the up direction
+	 *
+	 * @param target   the point the camera looks at
+	 * @param start    the camera position at the beginning of the orbit
+	 * @param axis     the direction of the axis of rotation
+	 * @param duration the time of a full orbit
+	 * @return the turntable camera path starting at time 0
+	 * @throws IllegalArgumentException if the start lies on the axis
+	 */
+	public static CameraPath orbit(Point target, Point start, Vector axis, double duration) {
+		final int steps = 24;
+		Vector k = axis.normalize();
+		if (start.equals(target))
+			throw new IllegalArgumentException("Orbit start must not lie on the axis");
+		Vector arm = start.subtract(target);
+		double along = arm.dotProduct(k);
+		if (isZero((arm.lengthSquared() - along * along) / arm.lengthSquared()))
+			throw new IllegalArgumentException("Orbit start must not lie on the axis");
+		CameraPath path = new CameraPath();
+		for (int s = 0; s <= steps; ++s) {
+			double angle = 2 * Math.PI * s / steps;
+			Point position = target.add(rotate(arm, k, angle));
+			Vector vTo = target.subtract(position).normalize();
+			path.addKeyframe(duration * s / steps, position, vTo, orthogonalize(k, vTo));
+		}
+		return path;
+	}
+
+	/**
+	 * Returns the time of the first keyframe
+	 *
+	 * @return the start time of the path
+	 */
+	public double getStartTime() {
+		checkKeyframes();
+		return keyframes.get(0).time;
+	}
+
+	/**
+	 * Returns the time of the last keyframe
+	 *
+	 * @return the end time of the path
+	 */
+	public double getEndTime() {
+		checkKeyframes();
+		return keyframes.get(keyframes.size() - 1).time;
+	}
+
+	/**
+	 * Calculates the camera position and orientation at a given time. Times before
+	 * the first keyframe or after the last one are clamped to the path's ends.
+	 *
+	 * @param time the time
+	 * @return the interpolated keyframe
+	 */
+	public Keyframe keyframeAt(double time) {
+		checkKeyframes();
+		int last = keyframes.size() - 1;
+		if (time <= keyframes.get(0).time)
+			return keyframes.get(0);
+		if (time >= keyframes.get(last).time)
+			return keyframes.get(last);
+
+		int i = 0;
+		while (keyframes.get(i + 1).time < time)
+			++i;
+		Keyframe k1 = keyframes.get(i);
+		Keyframe k2 = keyframes.get(i + 1);
+		double f = (time - k1.time) / (k2.time - k1.time);
+		Point p0 = keyframes.get(Math.max(i - 1, 0)).position;
+		Point p3 = keyframes.get(Math.min(i + 2, last)).position;
+
+		Vector vTo = slerp(k1.vTo, k2.vTo, f);
+		return new Keyframe(time, catmullRom(p0, k1.position, k2.position, p3, f), vTo,
+				orthogonalize(slerp(k1.vUp, k2.vUp, f), vTo));
+	}
+
+	/**
+	 * Constructs a camera located and oriented as the path defines at a given time
+	 *
+	 * @param time the time
+	 * @return new camera (without view plane, image writer and ray tracer)
+	 */
+	public Camera cameraAt(double time) {
+		Keyframe keyframe = keyframeAt(time);
+		return new Camera(keyframe.position, keyframe.vTo, keyframe.vUp);
+	}
+
+	/**
+	 * Checks that the path has keyframes
+	 *
+	 * @throws IllegalStateException if there are no keyframes
+	 */
+	private void checkKeyframes() {
+		if (keyframes.isEmpty())
+			throw new IllegalStateException("Camera path has no keyframes");
+	}
+
+	/**
+	 * Catmull-Rom spline point between p1 and p2
+	 *
+	 * @param p0 the point before p1
+	 * @param p1 the segment start
+	 * @param p2 the segment end
+	 * @param p3 the point after p2
+	 * @param t  the fraction of the segment (0..1)
+	 * @return the point on the spline
+	 */
+	private static Point catmullRom(Point p0, Point p1, Point p2, Point p3, double t) {
+		return new Point(catmullRom(p0.getX(), p1.getX(), p2.getX(), p3.getX(), t),
+				catmullRom(p0.getY(), p1.getY(), p2.getY(), p3.getY(), t),
+				catmullRom(p0.getZ(), p1.getZ(), p2.getZ(), p3.getZ(), t));
+	}
+
+	/**
+	 * Catmull-Rom spline value of a single coordinate
+	 *
+	 * @param c0 the coordinate before the segment
+	 * @param c1 the coordinate at the segment start
+	 * @param c2 the coordinate at the segment end
+	 * @param c3 the coordinate after the segment
+	 * @param t  the fraction of the segment (0..1)
+	 * @return the interpolated coordinate
+	 */
+	private static double catmullRom(double c0, double c1, double c2, double c3, double t) {
+		return 0.5 * (2 * c1 + (c2 - c0) * t + (2 * c0 - 5 * c1 + 4 * c2 - c3) * t * t
+				+ (3 * c1 - c0 - 3 * c2 + c3) * t * t * t);
+	}
+
+	/**
+	 * Spherical interpolation between unit vectors
+	 *
+	 * @param a the vector at fraction 0
+	 * @param b the vector at fraction 1
+	 * @param f the fraction (0..1)
+	 * @return the interpolated unit vector
+	 */
+	private static Vector slerp(Vector a, Vector b, double f) {
+		double dot = Math.min(1, a.dotProduct(b));
+		double wa, wb;
+		if (dot > 0.9995) { // almost the same direction - linear interpolation is accurate enough
+			wa = 1 - f;
+			wb = f;
+		} else {
+			double theta = Math.acos(dot);
+			double sin = Math.sin(theta);
+			wa = Math.sin((1 - f) * theta) / sin;
+			wb = Math.sin(f * theta) / sin;
+		}
+		return new Vector(wa * a.getX() + wb * b.getX(), wa * a.getY() + wb * b.getY(), wa * a.getZ() + wb * b.getZ())
+				.normalize();
+	}
+
+	/**
+	 * Removes from a vector its component along a unit direction
+	 *
+	 * @param v   the vector to orthogonalize
+	 * @param dir the unit direction
+	 * @return unit vector orthogonal to the direction
+	 */
+	private static Vector orthogonalize(Vector v, Vector dir) {
+		double d = v.dotProduct(dir);
+		return new Vector(v.getX() - d * dir.getX(), v.getY() - d * dir.getY(), v.getZ() - d * dir.getZ())
+				.normalize();
+	}
+
+	/**
+	 * Rotates a vector around a unit axis (Rodrigues' rotation formula)
+	 *
+	 * @param v     the vector to rotate
+	 * @param k     the unit axis
+	 * @param angle the rotation angle in radians
+	 * @return the rotated vector
+	 */
+	private static Vector rotate(Vector v, Vector k, double angle) {
+		double cos = Math.cos(angle);
+		double sin = Math.sin(angle);
+		double kv = k.dotProduct(v) * (1 - cos);
+		return new Vector(v.getX() * cos + (k.getY() * v.getZ() - k.getZ() * v.getY()) * sin + k.getX() * kv,
+				v.getY() * cos + (k.getZ() * v.getX() - k.getX() * v.getZ()) * sin + k.getY() * kv,
+				v.getZ() * cos + (k.getX() * v.getY() - k.getY() * v.getX()) * sin + k.getZ() * kv);
+	}
+}
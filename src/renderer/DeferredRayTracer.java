@@ -0,0 +1,194 @@
+package renderer;
+
+import static primitives.Util.alignZero;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.MaterialTable;
+import lighting.LightSource;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.SceneView;
+
+/**
+ * Ray tracer shading a batch of primary rays (the pixels of a tile, see
+ * {@link #traceRays(Ray[], Color[])}) in two phases. The visibility phase
+ * traces all the primary rays and stores their hits in a G-buffer - the hit,
+ * the normal and the id of the material in the scene's material table, built
+ * once per pixel and shared by all the lights. The shading
+ * phase shades the whole batch light after light, so that every light and its
+ * shadow rays are processed together, skipping the lights a pixel's hit does
+ * not get (see {@link SceneView#getLights(Point)}) and the negligible ones, and
+ * then adds the reflections and the refractions of every pixel. When the
+ * lights are sampled (see {@link #setLightSamples(int)}), every pixel samples
+ * its own lights, so the pixels are shaded one by one in the second phase,
+ * without the light by light shading. The colors are the same as the colors of
+ * {@link RayTracerBasic}.
+ *
+ * @author Eti and Chavi
+ */
+public class DeferredRayTracer extends RayTracerBasic {
+	/**
+	 * The G-buffer of a batch - the primary hits of its rays. The hits and the
+	 * normals are kept as objects, since the lights, the shadow rays and the
+	 * secondary rays take them as such.
+	 */
+	private static final class GBuffer {
+		/** The hit of every ray, null if the ray misses the scene */
+		final GeoPoint[] hit;
+		/**
+		 * The id of every ray's hit material in the scene's material table, -1 if it
+		 * is not in the table
+		 */
+		final int[] material;
+		/** The normals at the hit points */
+		final Vector[] normal;
+		/** The dot products of the normals and the rays' directions */
+		final double[] nv;
+		/**
+		 * The lights of every ray's hit, in the scene's order, or null if all the
+		 * lights get all the hits (there is no light cutoff)
+		 */
+		final List<List<LightSource>> lights;
+		/** The index of the next light of every ray's hit in its lights */
+		final int[] nextLight;
+
+		/**
+		 * Constructs a G-buffer
+		 *
+		 * @param size   amount of rays in the batch
+		 * @param cutoff whether the scene has a light cutoff
+		 */
+		GBuffer(int size, boolean cutoff) {
+			hit = new GeoPoint[size];
+			material = new int[size];
+			normal = new Vector[size];
+			nv = new double[size];
+			lights = cutoff ? new ArrayList<>(size) : null;
+			nextLight = cutoff ? new int[size] : null;
+		}
+	}
+
+	/**
+	 * Constructs a deferred ray tracer of a scene
+	 *
+	 * @param scene the scene
+	 */
+	public DeferredRayTracer(SceneView scene) {
+		super(scene);
+	}
+
+	@Override
+	public Color traceRay(Ray ray) {
+		Color[] colors = new Color[1];
+		traceRays(new Ray[] { ray }, colors);
+		return colors[0];
+	}
+
+	@Override
+	public void traceRays(Ray[] rays, Color[] colors) {
+		GBuffer buffer = new GBuffer(rays.length, scene.getLightCutoff() > 0);
+		findHits(rays, colors, buffer);
+		boolean sampling = samplesLights();
+		if (!sampling)
+			for (LightSource light : scene.getLights())
+				addLight(light, rays, colors, buffer);
+		Color ambient = scene.getAmbientLight().getIntensity();
+		for (int i = 0; i < rays.length; ++i) {
+			if (statistics != null)
+				statistics.startTree();
+			if (buffer.hit[i] == null)
+				colors[i] = scene.getBackground();
+			else {
+				if (statistics != null)
+					statistics.reachDepth(1);
+				startRayTree(rays[i]);
+				if (sampling)
+					colors[i] = calcLocalEffects(buffer.hit[i], buffer.normal[i], rays[i], INIT_CALC_COLOR_K);
+				colors[i] = colors[i].add(calcGlobalEffects(buffer.hit[i], buffer.normal[i], rays[i],
+						MAX_CALC_COLOR_LEVEL, INIT_CALC_COLOR_K)).add(ambient);
+			}
+			if (statistics != null)
+				statistics.finishTree();
+		}
+	}
+
+	/**
+	 * The visibility phase - traces the primary rays into the G-buffer, starting
+	 * the colors of the hits with their geometries' emission
+	 *
+	 * @param rays   the primary rays
+	 * @param colors the rays' colors
+	 * @param buffer the G-buffer
+	 */
+	private void findHits(Ray[] rays, Color[] colors, GBuffer buffer) {
+		MaterialTable table = scene.getMaterialTable();
+		for (int i = 0; i < rays.length; ++i) {
+			GeoPoint hit = findPrimaryHit(rays[i]);
+			buffer.hit[i] = hit;
+			if (buffer.lights != null)
+				buffer.lights.add(hit == null ? List.of() : scene.getLights(hit.point));
+			if (hit == null)
+				continue;
+			Vector n = hit.geometry.getNormal(hit.point);
+			buffer.material[i] = materialId(table, hit.geometry);
+			buffer.normal[i] = n;
+			buffer.nv[i] = alignZero(n.dotProduct(rays[i].getDir()));
+			colors[i] = hit.geometry.getEmission();
+		}
+	}
+
+	/**
+	 * The shading phase of a light - adds the diffuse and the specular light of a
+	 * light source to all the hits of the batch getting the light, unless the
+	 * contribution is below the light cutoff. The hits and the normals of the
+	 * G-buffer are used as they are, so the light allocates nothing per pixel but
+	 * its own light vector and intensity.
+	 *
+	 * @param light  the light source
+	 * @param rays   the primary rays
+	 * @param colors the rays' colors
+	 * @param buffer the G-buffer
+	 */
+	private void addLight(LightSource light, Ray[] rays, Color[] colors, GBuffer buffer) {
+		MaterialTable table = scene.getMaterialTable();
+		for (int i = 0; i < rays.length; ++i) {
+			GeoPoint hit = buffer.hit[i];
+			if (hit == null)
+				continue;
+			if (buffer.lights != null) {
+				// the lights come in the scene's order, so the hit gets the light only if it is its next one
+				List<LightSource> lights = buffer.lights.get(i);
+				int next = buffer.nextLight[i];
+				if (next == lights.size() || lights.get(next) != light)
+					continue;
+				buffer.nextLight[i] = next + 1;
+			}
+			double nv = buffer.nv[i];
+			if (nv == 0)
+				continue;
+			Vector n = buffer.normal[i];
+			Vector l = light.getL(hit.point);
+			double nl = alignZero(n.dotProduct(l));
+			if (nl * nv <= 0)
+				continue;
+			int id = buffer.material[i];
+			Material material = material(table, id, hit.geometry);
+			if (buffer.lights != null
+					&& negligible(light, hit, table, id, material, n, l, nl, rays[i].getDir(), INIT_CALC_COLOR_K))
+				continue;
+			Double3 ktr = transparency(hit, l, n, nv, light);
+			if (ktr.lowerThan(MIN_CALC_COLOR_K))
+				continue;
+			Color intensity = light.getIntensity(hit.point).scale(ktr);
+			colors[i] = colors[i]
+					.add(intensity.scale(calcReflectance(table, id, material, true, n, l, nl, rays[i].getDir())));
+		}
+	}
+}
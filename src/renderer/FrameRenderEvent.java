@@ -0,0 +1,41 @@
+package renderer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of rendering a whole image
+ *
+ * @author Eti and Chavi
+ */
+@Name("raytracer.FrameRender")
+@Label("Frame Render")
+@Category({ "Ray Tracer", "Rendering" })
+@Description("Rendering all the tiles of an image")
+class FrameRenderEvent extends jdk.jfr.Event {
+	/** The image name */
+	@Label("Image")
+	String image;
+
+	/** The image width in pixels */
+	@Label("Width")
+	int width;
+
+	/** The image height in pixels */
+	@Label("Height")
+	int height;
+
+	/** Amount of tiles */
+	@Label("Tiles")
+	int tiles;
+
+	/** Amount of rays cast from the camera per pixel */
+	@Label("Samples Per Pixel")
+	int samples;
+
+	/** Amount of rays cast from the camera */
+	@Label("Primary Rays")
+	long rays;
+}
@@ -0,0 +1,159 @@
+package renderer;
+
+import java.util.Arrays;
+
+import primitives.Color;
+
+/**
+ * Per-pixel rendering cost of an image - the time spent on each pixel or the
+ * amount of intersection tests done for it. The costs are shown as a false
+ * colour image, from dark blue for the cheapest pixels through cyan, green and
+ * yellow to red for the most expensive ones, so that expensive regions of a
+ * scene (deep recursion through glass, dense geometry...) are visible at a
+ * glance.
+ *
+ * Every pixel is rendered by a single thread, so the costs are recorded
+ * without synchronization.
+ *
+ * @author Eti and Chavi
+ */
+public class Heatmap {
+	/** The measured cost of a pixel */
+	public enum Metric {
+		/** Rendering time in nanoseconds */
+		TIME,
+		/** Amount of ray intersection tests */
+		INTERSECTIONS
+	}
+
+	/**
+	 * The costs above this fraction of the pixels are shown as the most expensive
+	 * ones, so that a few outliers (e.g. pixels interrupted by the garbage
+	 * collector) do not darken the whole image
+	 */
+	private static final double SCALE_PERCENTILE = 0.99;
+
+	/** The colours of the scale from the cheapest to the most expensive cost */
+	private static final Color[] SCALE = { new Color(0, 0, 64), new Color(0, 0, 255), new Color(0, 255, 255),
+			new Color(0, 255, 0), new Color(255, 255, 0), new Color(255, 0, 0) };
+
+	private final Metric metric;
+	private final int nX;
+	private final int nY;
+	/** The costs by pixel - row after row */
+	private final long[] costs;
+	/** The statistics of the render counting the intersection tests (null - none) */
+	private final RenderStatistics statistics;
+
+	/**
+	 * Constructs an empty heatmap
+	 *
+	 * @param metric the measured cost
+	 * @param nX     amount of pixel columns
+	 * @param nY     amount of pixel rows
+	 * @throws IllegalArgumentException if the metric is
+	 *                                  {@link Metric#INTERSECTIONS} - the
+	 *                                  intersection tests are counted by a render
+	 *                                  (see {@link Camera#setHeatmap(Metric)})
+	 */
+	public Heatmap(Metric metric, int nX, int nY) {
+		this(metric, nX, nY, null);
+	}
+
+	/**
+	 * Constructs an empty heatmap of a render
+	 *
+	 * @param metric     the measured cost
+	 * @param nX         amount of pixel columns
+	 * @param nY         amount of pixel rows
+	 * @param statistics the statistics of the render, counting its intersection
+	 *                   tests (required by {@link Metric#INTERSECTIONS})
+	 */
+	Heatmap(Metric metric, int nX, int nY, RenderStatistics statistics) {
+		if (metric == Metric.INTERSECTIONS && statistics == null)
+			throw new IllegalArgumentException("Intersection tests are counted by render statistics");
+		this.metric = metric;
+		this.nX = nX;
+		this.nY = nY;
+		costs = new long[nX * nY];
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Returns the measured cost
+	 *
+	 * @return the metric
+	 */
+	public Metric getMetric() {
+		return metric;
+	}
+
+	/**
+	 * Returns the cost of a pixel
+	 *
+	 * @param xIndex X axis index of the pixel
+	 * @param yIndex Y axis index of the pixel
+	 * @return the cost
+	 */
+	public long getCost(int xIndex, int yIndex) {
+		return costs[yIndex * nX + xIndex];
+	}
+
+	/**
+	 * Starts measuring the cost of a pixel in the current thread
+	 *
+	 * @return the measure at the start of the pixel
+	 */
+	long startPixel() {
+		return metric == Metric.TIME ? System.nanoTime() : statistics.counters().intersections().getTotal();
+	}
+
+	/**
+	 * Records the cost of a pixel rendered by the current thread
+	 *
+	 * @param xIndex X axis index of the pixel
+	 * @param yIndex Y axis index of the pixel
+	 * @param start  the value returned by {@link #startPixel()} for the pixel
+	 */
+	void finishPixel(int xIndex, int yIndex, long start) {
+		costs[yIndex * nX + xIndex] = startPixel() - start;
+	}
+
+	/**
+	 * Produces the false colour image of the costs
+	 *
+	 * @param imageName the name of the image file
+	 * @return image writer holding the heatmap image
+	 */
+	public ImageWriter toImage(String imageName) {
+		long[] sorted = costs.clone();
+		Arrays.sort(sorted);
+		long min = sorted[0];
+		long max = sorted[(int) ((sorted.length - 1) * SCALE_PERCENTILE)];
+		double range = max > min ? max - min : 1;
+
+		ImageWriter image = new ImageWriter(imageName, nX, nY);
+		for (int i = 0; i < nY; ++i)
+			for (int j = 0; j < nX; ++j)
+				image.writePixel(j, i, falseColor((costs[i * nX + j] - min) / range));
+		return image;
+	}
+
+	/**
+	 * Maps a relative cost to its colour on the scale
+	 *
+	 * @param t the relative cost - 0 for the cheapest, 1 (or more) for the most
+	 *          expensive
+	 * @return the colour
+	 */
+	public static Color falseColor(double t) {
+		if (t <= 0)
+			return SCALE[0];
+		if (t >= 1)
+			return SCALE[SCALE.length - 1];
+		double position = t * (SCALE.length - 1);
+		int index = (int) position;
+		double fraction = position - index;
+		return SCALE[index].scale(1 - fraction).add(SCALE[index + 1].scale(fraction));
+	}
+}
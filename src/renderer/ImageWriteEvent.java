@@ -0,0 +1,29 @@
+package renderer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of encoding and writing an image file
+ *
+ * @author Eti and Chavi
+ */
+@Name("raytracer.ImageWrite")
+@Label("Image Write")
+@Category({ "Ray Tracer", "Output" })
+@Description("Encoding an image and writing it to its file")
+class ImageWriteEvent extends jdk.jfr.Event {
+	/** The image name */
+	@Label("Image")
+	String image;
+
+	/** The image width in pixels */
+	@Label("Width")
+	int width;
+
+	/** The image height in pixels */
+	@Label("Height")
+	int height;
+}
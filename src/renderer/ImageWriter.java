@@ -44,6 +44,30 @@ public class ImageWriter {
 		image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
 	}
 
+	/**
+	 * Reads an existing png image from the images directory (e.g. to render some
+	 * of its pixels again), its size is the image's size
+	 * 
+	 * @param imageName the name of the png file (without folder and extension)
+	 * @return image writer holding the image's pixels
+	 * @throws IllegalStateException if the image cannot be read
+	 */
+	public static ImageWriter read(String imageName) {
+		BufferedImage existing;
+		try {
+			existing = ImageIO.read(new File(FOLDER_PATH + '/' + imageName + ".png"));
+		} catch (IOException e) {
+			throw new IllegalStateException("I/O error reading image " + imageName, e);
+		}
+		if (existing == null)
+			throw new IllegalStateException("Not an image: " + imageName);
+		int width = existing.getWidth();
+		int height = existing.getHeight();
+		ImageWriter writer = new ImageWriter(imageName, width, height);
+		writer.image.setRGB(0, 0, width, height, existing.getRGB(0, 0, width, height, null, 0, width), 0, width);
+		return writer;
+	}
+
 	// ***************** Getters/Setters ********************** //
 	/**
 	 * View Plane Y axis resolution
@@ -63,13 +87,38 @@ public class ImageWriter {
 		return nX;
 	}
 
+	/**
+	 * Name of the produced image file (without folder and extension)
+	 * 
+	 * @return the image name
+	 */
+	public String getImageName() {
+		return imageName;
+	}
+
 	// ***************** Operations ******************** //
 
+	/**
+	 * Produces a detached copy of the current pixel color matrix under the given
+	 * image name. The copy is not affected by further writes into this image
+	 * writer, so it may be encoded while the next image is being rendered
+	 * 
+	 * @param imageName the name of the copy's png file
+	 * @return new image writer holding a copy of the pixel matrix
+	 */
+	public ImageWriter snapshot(String imageName) {
+		ImageWriter copy = new ImageWriter(imageName, nX, nY);
+		image.copyData(copy.image.getRaster());
+		return copy;
+	}
+
 	/**
 	 * Function writeToImage produces unoptimized png file of the image according to
 	 * pixel color matrix in the directory of the project
 	 */
 	public void writeToImage() {
+		ImageWriteEvent event = new ImageWriteEvent();
+		event.begin();
 		try {
 			File file = new File(FOLDER_PATH + '/' + imageName + ".png");
 			ImageIO.write(image, "png", file);
@@ -77,6 +126,13 @@ public class ImageWriter {
 			logger.log(Level.SEVERE, "I/O error", e);
 			throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
 		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.image = imageName;
+			event.width = nX;
+			event.height = nY;
+			event.commit();
+		}
 	}
 
 	/**
@@ -91,4 +147,26 @@ public class ImageWriter {
 		image.setRGB(xIndex, yIndex, color.getColor().getRGB());
 	}
 
+	/**
+	 * Reads the packed RGB value of a pixel (e.g. to send it to another process)
+	 * 
+	 * @param xIndex X axis index of the pixel
+	 * @param yIndex Y axis index of the pixel
+	 * @return the pixel's RGB value
+	 */
+	int readRGB(int xIndex, int yIndex) {
+		return image.getRGB(xIndex, yIndex);
+	}
+
+	/**
+	 * Writes the packed RGB value of a pixel (e.g. received from another process)
+	 * 
+	 * @param xIndex X axis index of the pixel
+	 * @param yIndex Y axis index of the pixel
+	 * @param rgb    the pixel's RGB value
+	 */
+	void writeRGB(int xIndex, int yIndex, int rgb) {
+		image.setRGB(xIndex, yIndex, rgb);
+	}
+
 }
@@ -0,0 +1,266 @@
+package renderer;
+
+import static primitives.Util.alignZero;
+
+import java.util.SplittableRandom;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.RenderStatistics.RayType;
+import scene.SceneView;
+
+/**
+ * Monte Carlo path tracer - adds global illumination (light bounced between
+ * diffuse surfaces, e.g. color bleeding) to the direct light of
+ * {@link RayTracerBasic}. Every pixel's color is the average of several random
+ * paths. At every hit of a path:
+ * <ul>
+ * <li>next event estimation - the emission and the direct light of the scene's
+ * light sources (with their shadow rays) are added, exactly as the local
+ * effects of {@link RayTracerBasic}</li>
+ * <li>the path continues in a single direction chosen by the material - a
+ * reflection (by kR), a refraction (by kT), each spread randomly over its
+ * glossy or blurry beam, or a cosine weighted diffuse bounce (by kD), weighted
+ * by the choice's probability, or it is absorbed</li>
+ * <li>after a few bounces, Russian roulette ends paths of low throughput,
+ * weighting the surviving ones</li>
+ * </ul>
+ * The ambient light is not used - bounced light replaces it. The background is
+ * the color of primary rays missing the scene, as in {@link RayTracerBasic}.
+ *
+ * The random numbers of a pixel depend on the seed and its primary ray only,
+ * so an image is the same whatever the order and the threads of its pixels.
+ * The pixels are traced by the camera's rendering threads, each accumulating
+ * the samples of its pixels.
+ *
+ * @author Eti and Chavi
+ */
+public class PathTracer extends RayTracerBasic {
+	/** Amount of bounces after which Russian roulette starts */
+	private static final int ROULETTE_DEPTH = 3;
+	/** Highest survival probability of Russian roulette */
+	private static final double MAX_SURVIVAL = 0.95;
+
+	/** Amount of paths per pixel */
+	private int samples = 16;
+	/** Highest amount of bounces of a path */
+	private int maxDepth = MAX_CALC_COLOR_LEVEL;
+	/** The seed of the random paths */
+	private long seed = 0;
+
+	/**
+	 * Constructs a path tracer of a scene
+	 *
+	 * @param scene the scene
+	 */
+	public PathTracer(SceneView scene) {
+		super(scene);
+	}
+
+	/**
+	 * Sets the amount of paths traced for every pixel
+	 *
+	 * @param samples the amount of paths
+	 * @return the path tracer itself
+	 */
+	public PathTracer setSamples(int samples) {
+		if (samples < 1)
+			throw new IllegalArgumentException("Samples count must be positive");
+		this.samples = samples;
+		return this;
+	}
+
+	/**
+	 * Sets the highest amount of bounces of a path
+	 *
+	 * @param maxDepth the amount of bounces
+	 * @return the path tracer itself
+	 */
+	public PathTracer setMaxDepth(int maxDepth) {
+		if (maxDepth < 1)
+			throw new IllegalArgumentException("Path depth must be positive");
+		this.maxDepth = maxDepth;
+		return this;
+	}
+
+	/**
+	 * Sets the seed of the random paths
+	 *
+	 * @param seed the seed
+	 * @return the path tracer itself
+	 */
+	public PathTracer setSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	@Override
+	public Color traceRay(Ray ray) {
+		startRayTree(ray);
+		SplittableRandom random = new SplittableRandom(raySeed(seed, ray));
+
+		Color sum = Color.BLACK;
+		for (int s = 0; s < samples; ++s)
+			sum = sum.add(tracePath(ray, random));
+		return samples == 1 ? sum : sum.reduce(samples);
+	}
+
+	/**
+	 * Traces a single random path
+	 *
+	 * @param primary the primary ray
+	 * @param random  the random numbers of the pixel
+	 * @return the light the path brings
+	 */
+	private Color tracePath(Ray primary, SplittableRandom random) {
+		if (statistics != null)
+			statistics.startTree();
+		Color radiance = Color.BLACK;
+		Double3 throughput = Double3.ONE;
+		Ray ray = primary;
+		for (int depth = 0; depth < maxDepth; ++depth) {
+			GeoPoint hit = findClosestIntersection(ray);
+			if (hit == null) {
+				if (depth == 0)
+					radiance = scene.getBackground();
+				break;
+			}
+			if (statistics != null)
+				statistics.reachDepth(depth + 1);
+			Vector n = hit.geometry.getNormal(hit.point);
+			radiance = radiance.add(calcLocalEffects(hit, n, ray, throughput).scale(throughput));
+
+			// choose how the path continues
+			Material material = hit.geometry.getMaterial();
+			double pR = average(material.kR);
+			double pT = average(material.kT);
+			double pD = average(material.kD);
+			double total = pR + pT + pD;
+			if (total > 1) {
+				pR /= total;
+				pT /= total;
+				pD /= total;
+			}
+			double u = random.nextDouble();
+			Vector v = ray.getDir();
+			if (u < pR) {
+				throughput = throughput.product(material.kR).reduce(pR);
+				ray = countRay(spread(hit, n, constructReflectedRay(hit, v, n), material.glossiness, random),
+						RayType.REFLECTION);
+			} else if (u < pR + pT) {
+				throughput = throughput.product(material.kT).reduce(pT);
+				ray = countRay(spread(hit, n, constructRefractedRay(hit, v, n), material.blur, random),
+						RayType.REFRACTION);
+			} else if (u < pR + pT + pD) {
+				throughput = throughput.product(material.kD).reduce(pD);
+				ray = countRay(constructDiffuseRay(hit, v, n, random), RayType.REFLECTION);
+			} else
+				break;
+
+			if (depth + 1 >= ROULETTE_DEPTH) {
+				double survival = Math.min(MAX_SURVIVAL, max(throughput));
+				if (survival <= 0 || random.nextDouble() >= survival)
+					break;
+				throughput = throughput.reduce(survival);
+			}
+		}
+		if (statistics != null)
+			statistics.finishTree();
+		return radiance;
+	}
+
+	/**
+	 * Counts a secondary ray in the statistics
+	 *
+	 * @param ray  the ray
+	 * @param type the ray type
+	 * @return the ray
+	 */
+	private Ray countRay(Ray ray, RayType type) {
+		if (statistics != null)
+			statistics.countRay(type);
+		return ray;
+	}
+
+	/**
+	 * Constructs a diffuse bounce ray - a random direction in the hemisphere the
+	 * incoming ray came from, with a cosine weighted distribution
+	 *
+	 * @param hit    the hit
+	 * @param v      the direction of the incoming ray
+	 * @param n      the normal at the hit point
+	 * @param random the random numbers
+	 * @return the bounce ray
+	 */
+	private static Ray constructDiffuseRay(GeoPoint hit, Vector v, Vector n, SplittableRandom random) {
+		Vector w = alignZero(v.dotProduct(n)) < 0 ? n : n.scale(-1);
+		Vector helper = Math.abs(w.getX()) < 0.9 ? new Vector(1, 0, 0) : new Vector(0, 1, 0);
+		Vector a = w.crossProduct(helper).normalize();
+		Vector b = w.crossProduct(a);
+		double phi = 2 * Math.PI * random.nextDouble();
+		double r2 = random.nextDouble();
+		double r = Math.sqrt(r2);
+		double x = r * Math.cos(phi);
+		double y = r * Math.sin(phi);
+		double z = Math.sqrt(1 - r2);
+		Vector dir = new Vector(x * a.getX() + y * b.getX() + z * w.getX(), //
+				x * a.getY() + y * b.getY() + z * w.getY(), //
+				x * a.getZ() + y * b.getZ() + z * w.getZ()).normalize();
+		return new Ray(hit.point, dir, n);
+	}
+
+	/**
+	 * Spreads a reflected or a refracted ray randomly over its glossy or blurry
+	 * beam
+	 *
+	 * @param hit    the hit
+	 * @param n      the normal at the hit point
+	 * @param ray    the perfect ray
+	 * @param spread the radius of the beam at distance 1, 0 for the perfect ray
+	 * @param random the random numbers
+	 * @return a random ray of the beam, or the perfect ray if the random one goes
+	 *         to the other side of the surface
+	 */
+	private static Ray spread(GeoPoint hit, Vector n, Ray ray, double spread, SplittableRandom random) {
+		if (spread == 0)
+			return ray;
+		Vector dir = ray.getDir();
+		Vector a = (Math.abs(dir.getX()) < 0.9 ? new Vector(1, 0, 0) : new Vector(0, 1, 0)).crossProduct(dir)
+				.normalize();
+		Vector b = dir.crossProduct(a);
+		double r = spread * Math.sqrt(random.nextDouble());
+		double phi = 2 * Math.PI * random.nextDouble();
+		double x = r * Math.cos(phi);
+		double y = r * Math.sin(phi);
+		Vector d = new Vector(dir.getX() + x * a.getX() + y * b.getX(), //
+				dir.getY() + x * a.getY() + y * b.getY(), //
+				dir.getZ() + x * a.getZ() + y * b.getZ());
+		double nd = alignZero(d.dotProduct(n));
+		double nr = alignZero(dir.dotProduct(n));
+		return nd == 0 || nd > 0 != nr > 0 ? ray : new Ray(hit.point, d.normalize(), n);
+	}
+
+	/**
+	 * Average of a triad's components
+	 *
+	 * @param triad the triad
+	 * @return the average
+	 */
+	private static double average(Double3 triad) {
+		return (triad.getD1() + triad.getD2() + triad.getD3()) / 3;
+	}
+
+	/**
+	 * Largest of a triad's components
+	 *
+	 * @param triad the triad
+	 * @return the largest component
+	 */
+	private static double max(Double3 triad) {
+		return Math.max(triad.getD1(), Math.max(triad.getD2(), triad.getD3()));
+	}
+}
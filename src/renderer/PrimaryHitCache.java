@@ -0,0 +1,250 @@
+package renderer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import geometries.Geometry;
+import geometries.Instance;
+import geometries.Instance.InstancedGeometry;
+import geometries.Intersectable;
+import geometries.Intersectable.GeoPoint;
+import primitives.Color;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+import scene.SceneView;
+
+/**
+ * Cache of the primary hits of a camera's pixels, for fast re-renders after
+ * edits that do not move geometry. For every pixel the cache keeps the primary
+ * ray (its direction is the view vector), the hit geometry and point, the
+ * normal at the point, the pixel's color and the geometries touched by the
+ * pixel's ray tree (the hits of the primary and the secondary rays and the
+ * occluders of the shadow rays).
+ *
+ * After an edit, the affected pixels are invalidated:
+ * <ul>
+ * <li>{@link #invalidate(Geometry)} after changing a geometry's material or
+ * emission - only the pixels whose ray trees touch it are shaded again, also
+ * through the instances sharing it. The next render builds the scene's
+ * material table again (see {@link Scene#updateMaterials()}), so that a
+ * material edited in place is shaded by its new properties</li>
+ * <li>{@link #invalidate(Instance)} after changing an instance's material -
+ * only the pixels whose ray trees touch the instance are shaded again</li>
+ * <li>{@link #invalidateShading()} after changing the lights, the ambient light
+ * or the background - all the pixels are shaded again</li>
+ * <li>{@link #clear()} after moving geometry or the camera - all the pixels are
+ * traced again</li>
+ * </ul>
+ * A shaded again pixel skips the traversal of its primary ray, its secondary
+ * and shadow rays are traced. The other pixels keep their colors.
+ *
+ * The cache belongs to a single camera (see
+ * {@link Camera#setPrimaryHitCache(PrimaryHitCache)}), it is not used with
+ * depth of field and requires a {@link RayTracerBasic}.
+ *
+ * @author Eti and Chavi
+ */
+public class PrimaryHitCache {
+	/** State of a pixel not cached yet - its ray must be traced */
+	private static final byte EMPTY = 0;
+	/** State of a pixel whose primary hit is cached but must be shaded again */
+	private static final byte SHADE = 1;
+	/** State of a pixel whose color is cached */
+	private static final byte VALID = 2;
+
+	private int nX = 0;
+	private int nY = 0;
+	private byte[] state = new byte[0];
+	private Ray[] rays;
+	private GeoPoint[] hits;
+	private Vector[] normals;
+	private Color[] colors;
+	/** The ids of the geometries touched by every pixel's ray tree */
+	private int[][] touched;
+
+	/**
+	 * Ids of the touched geometries, and of the instances and the shared
+	 * geometries of the touched instanced geometries
+	 */
+	private final Map<Intersectable, Integer> ids = new ConcurrentHashMap<>();
+	private final AtomicInteger lastId = new AtomicInteger();
+	/** The geometries touched by the ray tree being traced in every thread */
+	private final ThreadLocal<List<Geometry>> tree = ThreadLocal.withInitial(ArrayList::new);
+
+	/** Whether materials were edited since the last render */
+	private boolean materialsEdited = false;
+
+	private final AtomicInteger traced = new AtomicInteger();
+	private final AtomicInteger shaded = new AtomicInteger();
+
+	/**
+	 * Prepares the cache for a render, clearing it if the image size changed, and
+	 * builds the material table of the rendered scene again if materials were
+	 * edited. A compiled snapshot keeps its own materials.
+	 *
+	 * @param nX    amount of pixel columns
+	 * @param nY    amount of pixel rows
+	 * @param scene the rendered scene
+	 */
+	synchronized void start(int nX, int nY, SceneView scene) {
+		traced.set(0);
+		shaded.set(0);
+		if (materialsEdited && scene instanceof Scene editable)
+			editable.updateMaterials();
+		materialsEdited = false;
+		if (nX == this.nX && nY == this.nY)
+			return;
+		this.nX = nX;
+		this.nY = nY;
+		state = new byte[nX * nY];
+		rays = new Ray[nX * nY];
+		hits = new GeoPoint[nX * nY];
+		normals = new Vector[nX * nY];
+		colors = new Color[nX * nY];
+		touched = new int[nX * nY][];
+	}
+
+	/**
+	 * Records a geometry touched by the ray tree being traced in this thread
+	 *
+	 * @param geometry the geometry
+	 */
+	void touch(Geometry geometry) {
+		List<Geometry> geometries = tree.get();
+		if (!geometries.contains(geometry))
+			geometries.add(geometry);
+	}
+
+	/**
+	 * Returns the color of a pixel - the cached one, or shaded again from the
+	 * cached primary hit, or traced
+	 *
+	 * @param tracer the ray tracer
+	 * @param ray    the primary ray of the pixel
+	 * @param x      the pixel column
+	 * @param y      the pixel row
+	 * @return the pixel's color
+	 */
+	Color castRay(RayTracerBasic tracer, Ray ray, int x, int y) {
+		int p = y * nX + x;
+		if (state[p] == VALID)
+			return colors[p];
+
+		List<Geometry> geometries = tree.get();
+		geometries.clear();
+		if (state[p] == EMPTY) {
+			traced.incrementAndGet();
+			GeoPoint hit = tracer.findPrimaryHit(ray);
+			rays[p] = ray;
+			hits[p] = hit;
+			normals[p] = hit == null ? null : hit.geometry.getNormal(hit.point);
+		} else {
+			shaded.incrementAndGet();
+			if (hits[p] != null)
+				touch(hits[p].geometry);
+		}
+		colors[p] = tracer.shadePrimaryHit(hits[p], normals[p], rays[p]);
+
+		List<Intersectable> keys = new ArrayList<>(geometries.size());
+		for (Geometry geometry : geometries) {
+			keys.add(geometry);
+			while (geometry instanceof InstancedGeometry instanced) {
+				keys.add(instanced.getInstance());
+				geometry = instanced.getShared();
+				keys.add(geometry);
+			}
+		}
+		int[] pixelIds = new int[keys.size()];
+		for (int g = 0; g < pixelIds.length; ++g)
+			pixelIds[g] = ids.computeIfAbsent(keys.get(g), k -> lastId.incrementAndGet());
+		geometries.clear();
+		touched[p] = pixelIds;
+		state[p] = VALID;
+		return colors[p];
+	}
+
+	/**
+	 * Invalidates the pixels whose ray trees touch a geometry, after a change of
+	 * its material or emission. A geometry shared by instances invalidates the
+	 * pixels touching it in any of the instances. The pixels are shaded again by
+	 * the next render.
+	 *
+	 * @param geometry the changed geometry
+	 */
+	public void invalidate(Geometry geometry) {
+		invalidateTouching(geometry);
+	}
+
+	/**
+	 * Invalidates the pixels whose ray trees touch an instance, after a change of
+	 * its material. The pixels are shaded again by the next render.
+	 *
+	 * @param instance the changed instance
+	 */
+	public void invalidate(Instance instance) {
+		invalidateTouching(instance);
+	}
+
+	/**
+	 * Invalidates the pixels whose ray trees touch a geometry or an instance
+	 *
+	 * @param body the geometry or the instance
+	 */
+	private synchronized void invalidateTouching(Intersectable body) {
+		materialsEdited = true;
+		Integer id = ids.get(body);
+		if (id == null)
+			return;
+		for (int p = 0; p < state.length; ++p)
+			if (state[p] == VALID)
+				for (int touchedId : touched[p])
+					if (touchedId == id) {
+						state[p] = SHADE;
+						break;
+					}
+	}
+
+	/**
+	 * Invalidates the colors of all the pixels, after a change of the lights, the
+	 * ambient light or the background. The pixels are shaded again by the next
+	 * render.
+	 */
+	public synchronized void invalidateShading() {
+		for (int p = 0; p < state.length; ++p)
+			if (state[p] == VALID)
+				state[p] = SHADE;
+	}
+
+	/**
+	 * Clears the cache, after moving geometry or the camera. The pixels are traced
+	 * again by the next render.
+	 */
+	public synchronized void clear() {
+		Arrays.fill(state, EMPTY);
+		ids.clear();
+	}
+
+	/**
+	 * Amount of pixels whose rays were traced by the last render
+	 *
+	 * @return the amount of traced pixels
+	 */
+	public int getTracedPixels() {
+		return traced.get();
+	}
+
+	/**
+	 * Amount of pixels shaded again from their cached primary hits by the last
+	 * render
+	 *
+	 * @return the amount of shaded pixels
+	 */
+	public int getShadedPixels() {
+		return shaded.get();
+	}
+}
@@ -3,7 +3,8 @@
  */
 package renderer;
 
-import scene.Scene;
+import geometries.IntersectionCounter;
+import scene.SceneView;
 import primitives.Ray;
 import primitives.Color;
 
@@ -14,19 +15,61 @@ import primitives.Color;
  * @author Eti and Chavi
  *
  */
-public abstract class RayTracerBase {
+public abstract class RayTracerBase implements Cloneable {
 	/** The scene to trace rays in. */
-	protected final Scene scene;
+	protected final SceneView scene;
+	/** The thread's counters of the statistics collected while tracing (null - statistics are off) */
+	protected RenderStatistics.Counters statistics = null;
+	/** Cache recording the geometries the traced rays touch (null - no cache) */
+	protected PrimaryHitCache hitCache = null;
 
 	/**
-	 * Constructs a RayTracerBase object with the given scene.
+	 * Constructs a RayTracerBase object with the given scene - an editable
+	 * {@link scene.Scene}, whose content is read live, or an immutable
+	 * {@link scene.CompiledScene} snapshot.
 	 * 
 	 * @param scene the scene to trace rays in
 	 */
-	public RayTracerBase(Scene scene) {
+	public RayTracerBase(SceneView scene) {
 		this.scene = scene;
 	}
 
+	/**
+	 * Returns the ray tracer of a single thread of a render - a copy of this ray
+	 * tracer collecting into the thread's counters of the render's statistics and
+	 * into the render's cache, so that renders sharing the ray tracer (e.g.
+	 * frames rendered at the same time) do not collect into each other's. It
+	 * must be used by the current thread only.
+	 * 
+	 * @param statistics the statistics to collect into, or null for none
+	 * @param hitCache   the cache to record the touched geometries into, or null
+	 *                   for none
+	 * @return the ray tracer of the thread (this ray tracer if there is nothing
+	 *         to collect)
+	 */
+	RayTracerBase forThread(RenderStatistics statistics, PrimaryHitCache hitCache) {
+		if (statistics == null && hitCache == null)
+			return this;
+		try {
+			RayTracerBase copy = (RayTracerBase) clone();
+			copy.statistics = statistics == null ? null : statistics.counters();
+			copy.hitCache = hitCache;
+			return copy;
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError("Ray tracers are cloneable", e);
+		}
+	}
+
+	/**
+	 * Returns the intersection test counter, to be passed to the intersection
+	 * tests of a ray
+	 * 
+	 * @return the counter, or null if the statistics are off
+	 */
+	protected IntersectionCounter intersectionCounter() {
+		return statistics == null ? null : statistics.intersections();
+	}
+
 	/**
 	 * Traces a given ray and returns the color of the first hit object in the
 	 * scene, or black if there is no hit.
@@ -37,4 +80,17 @@ public abstract class RayTracerBase {
 	 */
 	public abstract Color traceRay(Ray ray);
 
+	/**
+	 * Traces a batch of rays (e.g. the primary rays of a tile) and stores their
+	 * colors. Ray tracers may process the whole batch stage after stage - by
+	 * default the rays are traced one by one.
+	 * 
+	 * @param rays   the rays to trace
+	 * @param colors the array receiving the color of every ray (by its index)
+	 */
+	public void traceRays(Ray[] rays, Color[] colors) {
+		for (int i = 0; i < rays.length; ++i)
+			colors[i] = traceRay(rays[i]);
+	}
+
 }
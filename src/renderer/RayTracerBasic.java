@@ -1,14 +1,26 @@
 package renderer;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+
+import geometries.Geometry;
 import geometries.Intersectable.GeoPoint;
+import geometries.MaterialTable;
+import lighting.AreaLight;
 import lighting.LightSource;
+import lighting.LightTree;
+import lighting.ShadowMap;
 import primitives.Color;
 import primitives.Double3;
+import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
-import scene.Scene;
+import scene.SceneView;
 import primitives.Material;
+import primitives.PhongBrdf;
+import renderer.RenderStatistics.RayType;
+import renderer.RenderStatistics.Stage;
 
 import static primitives.Util.alignZero;
 
@@ -24,19 +36,100 @@ import static primitives.Util.alignZero;
  *
  */
 public class RayTracerBasic extends RayTracerBase {
-	private static final int MAX_CALC_COLOR_LEVEL = 10;
-	private static final double MIN_CALC_COLOR_K = 0.001;
-	private static final Double3 INIT_CALC_COLOR_K = Double3.ONE;
+	static final int MAX_CALC_COLOR_LEVEL = 10;
+	static final double MIN_CALC_COLOR_K = 0.001;
+	static final Double3 INIT_CALC_COLOR_K = Double3.ONE;
+	/** Amount of the probe rays of a beam - its center and 4 rays on its rim */
+	private static final int BEAM_PROBES = 5;
+	/** Largest difference of the probes' colors (per component) of a uniform beam */
+	private static final int BEAM_TOLERANCE = 2;
+	/** The offsets of the probe rays on the rim of a beam, along its first axis */
+	private static final double[] RIM_X = { 1, 0, -1, 0 };
+	/** The offsets of the probe rays on the rim of a beam, along its second axis */
+	private static final double[] RIM_Y = { 0, 1, 0, -1 };
+	/** The golden angle, spreading the rays of a beam evenly */
+	private static final double GOLDEN_ANGLE = Math.PI * (3 - Math.sqrt(5));
+
+	/** Amount of rays of a glossy or blurry beam at the first bounce */
+	private int beamSize = 16;
+	/** Amount of beam rays allowed for the ray tree of a pixel */
+	private int beamBudget = 64;
+	/** The beam rays left for the ray tree being traced by the thread */
+	private final ThreadLocal<int[]> beamRaysLeft = ThreadLocal.withInitial(() -> new int[1]);
+	/** Amount of lights sampled for a point, 0 for shading all the lights */
+	private int lightSamples = 0;
+	/** The random numbers of the light sampling of the ray tree being traced by the thread */
+	private final ThreadLocal<SplittableRandom[]> lightRandom = ThreadLocal
+			.withInitial(() -> new SplittableRandom[] { new SplittableRandom() });
 
 	/**
 	 * Constructs a RayTracerBasic object with the given scene.
 	 * 
 	 * @param scene the scene to be rendered.
 	 */
-	public RayTracerBasic(Scene scene) {
+	public RayTracerBasic(SceneView scene) {
 		super(scene);
 	}
 
+	/**
+	 * Sets the amount of rays of a glossy reflection or a blurry refraction beam
+	 * at the first bounce. Deeper and weaker beams have fewer rays.
+	 *
+	 * @param beamSize the amount of rays
+	 * @return the ray tracer itself
+	 * @throws IllegalArgumentException if the amount is not positive
+	 */
+	public RayTracerBasic setBeamSize(int beamSize) {
+		if (beamSize < 1)
+			throw new IllegalArgumentException("Beam size must be positive");
+		this.beamSize = beamSize;
+		return this;
+	}
+
+	/**
+	 * Sets the amount of lights sampled for a shading point from the scene's light
+	 * hierarchy, in proportion to their estimated contribution. The sampled
+	 * lights' contributions are weighted by their probabilities, so that the
+	 * average over many samples (e.g. of a pixel's rays) equals the contribution
+	 * of all the lights. The lights without a position are always shaded. 0
+	 * shades all the lights.
+	 *
+	 * @param lightSamples the amount of lights sampled
+	 * @return the ray tracer itself
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public RayTracerBasic setLightSamples(int lightSamples) {
+		if (lightSamples < 0)
+			throw new IllegalArgumentException("Light samples count must not be negative");
+		this.lightSamples = lightSamples;
+		return this;
+	}
+
+	/**
+	 * Sets the amount of glossy and blurry beam rays allowed for the ray tree of a
+	 * pixel. When the budget is spent, the beams are replaced by single rays.
+	 *
+	 * @param beamBudget the amount of rays
+	 * @return the ray tracer itself
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public RayTracerBasic setBeamBudget(int beamBudget) {
+		if (beamBudget < 0)
+			throw new IllegalArgumentException("Beam budget must not be negative");
+		this.beamBudget = beamBudget;
+		return this;
+	}
+
+	/**
+	 * Returns the amount of glossy and blurry beam rays allowed for the ray tree
+	 * of a pixel
+	 *
+	 * @return the amount of rays
+	 */
+	int getBeamBudget() {
+		return beamBudget;
+	}
+
 	/**
 	 * Traces a given ray and returns the color of the closest point of intersection
 	 * with an object in the scene. If there are no intersections, returns the
@@ -48,8 +141,45 @@ public class RayTracerBasic extends RayTracerBase {
 	 */
 	@Override
 	public Color traceRay(Ray ray) {
+		if (statistics != null)
+			statistics.startTree();
 		GeoPoint closestPoint = findClosestIntersection(ray);
-		return closestPoint == null ? scene.background : calcColor(closestPoint, ray);
+		Color color = closestPoint == null ? scene.getBackground() : calcColor(closestPoint, ray);
+		if (statistics != null)
+			statistics.finishTree();
+		return color;
+	}
+
+	/**
+	 * Finds the closest hit of a primary ray, without shading it
+	 *
+	 * @param ray the primary ray
+	 * @return the closest hit, or null if the ray misses the scene
+	 */
+	GeoPoint findPrimaryHit(Ray ray) {
+		return findClosestIntersection(ray);
+	}
+
+	/**
+	 * Shades a known hit of a primary ray (found earlier by
+	 * {@link #findPrimaryHit(Ray)}), tracing the secondary and the shadow rays
+	 *
+	 * @param hit    the closest hit of the ray, or null if the ray misses the scene
+	 * @param normal the geometry's normal at the hit point
+	 * @param ray    the primary ray
+	 * @return the color of the ray
+	 */
+	Color shadePrimaryHit(GeoPoint hit, Vector normal, Ray ray) {
+		if (hit == null)
+			return scene.getBackground();
+		if (statistics != null)
+			statistics.startTree();
+		startRayTree(ray);
+		Color color = calcColor(hit, normal, ray, MAX_CALC_COLOR_LEVEL, INIT_CALC_COLOR_K)
+				.add(scene.getAmbientLight().getIntensity());
+		if (statistics != null)
+			statistics.finishTree();
+		return color;
 	}
 
 	/**
@@ -60,9 +190,15 @@ public class RayTracerBasic extends RayTracerBase {
 	 * @return the closest GeoPoint of intersection, or null if there are no
 	 *         intersections.
 	 */
-	private GeoPoint findClosestIntersection(Ray ray) {
-		List<GeoPoint> intersections = scene.geometries.findGeoIntersections(ray);
-		return intersections == null ? null : ray.findClosestGeoPoint(intersections);
+	GeoPoint findClosestIntersection(Ray ray) {
+		long start = statistics == null ? 0 : statistics.startStage(Stage.CLOSEST_HIT);
+		List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(ray, intersectionCounter());
+		GeoPoint closest = intersections == null ? null : ray.findClosestGeoPoint(intersections);
+		if (hitCache != null && closest != null)
+			hitCache.touch(closest.geometry);
+		if (statistics != null)
+			statistics.finishStage(Stage.CLOSEST_HIT, start);
+		return closest;
 	}
 
 	/**
@@ -73,7 +209,8 @@ public class RayTracerBasic extends RayTracerBase {
 	 * @return the color at the given point
 	 */
 	private Color calcColor(GeoPoint geoPoint, Ray ray) {
-		return calcColor(geoPoint, ray, MAX_CALC_COLOR_LEVEL, INIT_CALC_COLOR_K).add(scene.ambientLight.getIntensity());
+		startRayTree(ray);
+		return calcColor(geoPoint, ray, MAX_CALC_COLOR_LEVEL, INIT_CALC_COLOR_K).add(scene.getAmbientLight().getIntensity());
 	}
 
 	/**
@@ -87,8 +224,25 @@ public class RayTracerBasic extends RayTracerBase {
 	 * @return The calculated color at the given point.
 	 */
 	private Color calcColor(GeoPoint geoPoint, Ray ray, int level, Double3 k) {
-		Color color = calcLocalEffects(geoPoint, ray, k);
-		return 1 == level ? color : color.add(calcGlobalEffects(geoPoint, ray, level, k));
+		return calcColor(geoPoint, geoPoint.geometry.getNormal(geoPoint.point), ray, level, k);
+	}
+
+	/**
+	 * Calculates the color at a given point in the scene, taking into account local
+	 * and global effects.
+	 * 
+	 * @param geoPoint The geometric point in the scene.
+	 * @param normal   The normal of the geometry at the point.
+	 * @param ray      The ray that intersects the geometric point.
+	 * @param level    The recursion level for global effects.
+	 * @param k        The coefficient values for global effects.
+	 * @return The calculated color at the given point.
+	 */
+	private Color calcColor(GeoPoint geoPoint, Vector normal, Ray ray, int level, Double3 k) {
+		if (statistics != null)
+			statistics.reachDepth(MAX_CALC_COLOR_LEVEL - level + 1);
+		Color color = calcLocalEffects(geoPoint, normal, ray, k);
+		return 1 == level ? color : color.add(calcGlobalEffects(geoPoint, normal, ray, level, k));
 	}
 
 	/**
@@ -96,45 +250,362 @@ public class RayTracerBasic extends RayTracerBase {
 	 * geometric point.
 	 * 
 	 * @param gp    The geometric point in the scene.
+	 * @param n     The normal of the geometry at the point.
 	 * @param ray   The ray that intersects the geometric point.
 	 * @param level The recursion level for global effects.
 	 * @param k     The coefficient values for global effects.
 	 * @return The calculated color due to global effects at the given point.
 	 */
-	private Color calcGlobalEffects(GeoPoint gp, Ray ray, int level, Double3 k) {
-		Color color = Color.BLACK;
+	Color calcGlobalEffects(GeoPoint gp, Vector n, Ray ray, int level, Double3 k) {
+		MaterialTable table = scene.getMaterialTable();
+		int id = materialId(table, gp.geometry);
+		Material material = material(table, id, gp.geometry);
+		int flags = id < 0 ? MaterialTable.flagsOf(material) : table.getFlags(id);
 		Vector v = ray.getDir();
-		Vector n = gp.geometry.getNormal(gp.point);
-		Material material = gp.geometry.getMaterial();
-		return calcGlobalEffects(gp, level, color, material.kR, k, constructReflectedRay(gp, v, n))
-				.add(calcGlobalEffects(gp, level, color, material.kT, k, constructRefractedRay(gp, v, n)));
+		Color color = Color.BLACK;
+		if ((flags & MaterialTable.REFLECTIVE) != 0)
+			color = calcGlobalEffects(gp, n, level, material.kR, k, constructReflectedRay(gp, v, n),
+					material.glossiness, RayType.REFLECTION);
+		if ((flags & MaterialTable.OPAQUE) == 0)
+			color = color.add(calcGlobalEffects(gp, n, level, material.kT, k, constructRefractedRay(gp, v, n),
+					material.blur, RayType.REFRACTION));
+		return color;
+	}
+
+	/**
+	 * Finds the id of a geometry's material in the scene's material table
+	 *
+	 * @param table    the material table of the scene, null if it is not prepared
+	 * @param geometry the geometry
+	 * @return the id, or -1 if there is no table or the material is not in it
+	 */
+	static int materialId(MaterialTable table, Geometry geometry) {
+		return table == null ? -1 : table.getId(geometry);
+	}
+
+	/**
+	 * Returns the material a geometry is shaded by - the material table's copy of
+	 * the material if it is in the table, so that all its properties are read as
+	 * they were when the table was built, or the material itself otherwise
+	 *
+	 * @param table    the material table of the scene
+	 * @param id       the id of the geometry's material, -1 if it is not in the
+	 *                 table
+	 * @param geometry the geometry
+	 * @return the material
+	 */
+	static Material material(MaterialTable table, int id, Geometry geometry) {
+		return id < 0 ? geometry.getMaterial() : table.getMaterial(id);
 	}
-	
-	
 
 	/**
 	 * Calculates the global effects (reflection and refraction) at a given
 	 * geometric point.
 	 *
 	 * @param geoPoint The geometric point in the scene.
+	 * @param n        The normal of the geometry at the point.
 	 * @param level    The recursion level for global effects.
-	 * @param color    The current color at the point.
 	 * @param kx       The coefficient values for the specific effect (reflection or
 	 *                 refraction).
 	 * @param k        The overall coefficient values for global effects.
 	 * @param ray      The ray used for the specific effect (reflection or
 	 *                 refraction).
-	 * @return The updated color after considering the global effects.
+	 * @param spread   The radius of the effect's beam at distance 1, 0 for a
+	 *                 single ray.
+	 * @param type     The type of the ray (for the statistics).
+	 * @return The color due to the effect.
 	 */
-	private Color calcGlobalEffects(GeoPoint geoPoint, int level, Color color, Double3 kx, Double3 k, Ray ray) {
+	private Color calcGlobalEffects(GeoPoint geoPoint, Vector n, int level, Double3 kx, Double3 k, Ray ray,
+			double spread, RayType type) {
 		Double3 kkx = kx.product(k);
 		if (kkx.lowerThan(MIN_CALC_COLOR_K))
 			return Color.BLACK;
-		GeoPoint reflectedPoint = findClosestIntersection(ray);
-		if (reflectedPoint != null) {
-			color = color.add(calcColor(reflectedPoint, ray, level - 1, kkx).scale(kx));
+		int rays = spread == 0 ? 1 : takeBeamRays(beamSize(level, kkx));
+		Color color = rays < 2 ? calcRayColor(ray, level, kkx, type)
+				: calcBeamColor(geoPoint, n, ray, spread, rays, level, kkx, type);
+		return color.scale(kx);
+	}
+
+	/**
+	 * Calculates the color brought by a secondary ray
+	 *
+	 * @param ray   the ray
+	 * @param level the recursion level of the ray's hit
+	 * @param kkx   the attenuation of the ray's contribution
+	 * @param type  the type of the ray (for the statistics)
+	 * @return the color brought by the ray, black if it misses the scene
+	 */
+	private Color calcRayColor(Ray ray, int level, Double3 kkx, RayType type) {
+		if (statistics != null)
+			statistics.countRay(type);
+		GeoPoint hit = findClosestIntersection(ray);
+		return hit == null ? Color.BLACK : calcColor(hit, ray, level - 1, kkx);
+	}
+
+	/**
+	 * Calculates the average color brought by a beam of rays around a secondary
+	 * ray, sampled adaptively. The probe rays - the beam's center and 4 rays on its
+	 * rim - are traced first. If their colors are about the same, the beam is
+	 * uniform and their average is its color. Otherwise, the rest of the beam's
+	 * rays, spread evenly over its cross section, are traced as well. Rays going
+	 * to the other side of the surface than the central ray are skipped.
+	 *
+	 * @param gp     the geometric point of the beam's origin
+	 * @param n      the normal at the point
+	 * @param ray    the central ray of the beam
+	 * @param spread the radius of the beam at distance 1
+	 * @param rays   amount of the beam's rays, taken from the budget
+	 * @param level  the recursion level of the rays' hits
+	 * @param kkx    the attenuation of the rays' contribution
+	 * @param type   the type of the rays (for the statistics)
+	 * @return the average color of the beam
+	 */
+	private Color calcBeamColor(GeoPoint gp, Vector n, Ray ray, double spread, int rays, int level, Double3 kkx,
+			RayType type) {
+		Vector dir = ray.getDir();
+		boolean side = alignZero(dir.dotProduct(n)) > 0;
+		Vector a = beamAxis(dir, spread);
+		Vector b = dir.crossProduct(a);
+
+		Color sum = calcRayColor(ray, level, kkx, type);
+		int traced = 1;
+		if (rays > BEAM_PROBES) {
+			Color center = sum;
+			boolean uniform = true;
+			for (int p = 0; p < BEAM_PROBES - 1; ++p) {
+				Ray probe = beamRay(gp, n, offset(dir, a, b, RIM_X[p], RIM_Y[p]), side);
+				if (probe == null)
+					continue;
+				Color color = calcRayColor(probe, level, kkx, type);
+				uniform = uniform && similar(center, color);
+				sum = sum.add(color);
+				++traced;
+			}
+			if (uniform) {
+				beamRaysLeft.get()[0] += rays - BEAM_PROBES;
+				return sum.reduce(traced);
+			}
+			rays -= BEAM_PROBES;
+		} else
+			--rays;
+
+		// the rest of the beam - a spiral of rays evenly covering the beam's disk
+		for (int i = 0; i < rays; ++i) {
+			Ray beamRay = spiralRay(gp, n, dir, a, b, i, rays, side);
+			if (beamRay != null) {
+				sum = sum.add(calcRayColor(beamRay, level, kkx, type));
+				++traced;
+			}
 		}
-		return color;
+		return sum.reduce(traced);
+	}
+
+	/**
+	 * Constructs all the rays of a beam around a secondary ray at once, for
+	 * tracers tracing the rays later rather than sampling the beam adaptively -
+	 * the central ray and a spiral of the rest of the rays evenly covering the
+	 * beam's disk (as a beam of {@link #BEAM_PROBES} rays at most is traced). Rays
+	 * going to the other side of the surface than the central ray are skipped.
+	 *
+	 * @param gp     the geometric point of the beam's origin
+	 * @param n      the normal at the point
+	 * @param ray    the central ray of the beam
+	 * @param spread the radius of the beam at distance 1
+	 * @param rays   amount of the beam's rays, taken from the budget
+	 * @return the rays of the beam, the central ray first
+	 */
+	List<Ray> constructBeam(GeoPoint gp, Vector n, Ray ray, double spread, int rays) {
+		Vector dir = ray.getDir();
+		boolean side = alignZero(dir.dotProduct(n)) > 0;
+		Vector a = beamAxis(dir, spread);
+		Vector b = dir.crossProduct(a);
+		List<Ray> beam = new ArrayList<>(rays);
+		beam.add(ray);
+		for (int i = 0; i < rays - 1; ++i) {
+			Ray beamRay = spiralRay(gp, n, dir, a, b, i, rays - 1, side);
+			if (beamRay != null)
+				beam.add(beamRay);
+		}
+		return beam;
+	}
+
+	/**
+	 * Calculates the first axis of the cross section of a beam
+	 *
+	 * @param dir    the direction of the beam's central ray
+	 * @param spread the radius of the beam at distance 1
+	 * @return the axis, orthogonal to the direction and as long as the radius
+	 */
+	private static Vector beamAxis(Vector dir, double spread) {
+		return (Math.abs(dir.getX()) < 0.9 ? new Vector(1, 0, 0) : new Vector(0, 1, 0)).crossProduct(dir).normalize()
+				.scale(spread);
+	}
+
+	/**
+	 * Constructs a ray of the spiral evenly covering the disk of a beam
+	 *
+	 * @param gp    the geometric point of the beam's origin
+	 * @param n     the normal at the point
+	 * @param dir   the direction of the beam's central ray
+	 * @param a     the first axis of the beam's cross section
+	 * @param b     the second axis of the beam's cross section
+	 * @param i     the index of the ray in the spiral
+	 * @param count amount of rays of the spiral
+	 * @param side  whether the beam goes to the normal's side of the surface
+	 * @return the ray, or null if it goes to the other side of the surface
+	 */
+	private static Ray spiralRay(GeoPoint gp, Vector n, Vector dir, Vector a, Vector b, int i, int count,
+			boolean side) {
+		double r = Math.sqrt((i + 0.5) / count);
+		double theta = i * GOLDEN_ANGLE;
+		return beamRay(gp, n, offset(dir, a, b, r * Math.cos(theta), r * Math.sin(theta)), side);
+	}
+
+	/**
+	 * Offsets a direction in the plane of two vectors
+	 *
+	 * @param dir the direction
+	 * @param a   the first vector
+	 * @param b   the second vector
+	 * @param x   the offset along the first vector
+	 * @param y   the offset along the second vector
+	 * @return the offset direction (not normalized)
+	 */
+	private static Vector offset(Vector dir, Vector a, Vector b, double x, double y) {
+		return new Vector(dir.getX() + x * a.getX() + y * b.getX(), //
+				dir.getY() + x * a.getY() + y * b.getY(), //
+				dir.getZ() + x * a.getZ() + y * b.getZ());
+	}
+
+	/**
+	 * Constructs a ray of a beam
+	 *
+	 * @param gp   the geometric point of the beam's origin
+	 * @param n    the normal at the point
+	 * @param d    the direction of the ray
+	 * @param side whether the beam goes to the normal's side of the surface
+	 * @return the ray, or null if it goes to the other side of the surface
+	 */
+	private static Ray beamRay(GeoPoint gp, Vector n, Vector d, boolean side) {
+		double nd = alignZero(d.dotProduct(n));
+		return nd == 0 || nd > 0 != side ? null : new Ray(gp.point, d.normalize(), n);
+	}
+
+	/**
+	 * Checks whether two colors are about the same
+	 *
+	 * @param c1 the first color
+	 * @param c2 the second color
+	 * @return true if their components differ by the beam tolerance at most
+	 */
+	private static boolean similar(Color c1, Color c2) {
+		java.awt.Color a1 = c1.getColor();
+		java.awt.Color a2 = c2.getColor();
+		return Math.abs(a1.getRed() - a2.getRed()) <= BEAM_TOLERANCE
+				&& Math.abs(a1.getGreen() - a2.getGreen()) <= BEAM_TOLERANCE
+				&& Math.abs(a1.getBlue() - a2.getBlue()) <= BEAM_TOLERANCE;
+	}
+
+	/**
+	 * Calculates the amount of rays of a beam - the beam size at the first bounce,
+	 * reduced by the attenuation of the beam's contribution and halved at every
+	 * bounce
+	 *
+	 * @param level the recursion level of the beam's hits
+	 * @param kkx   the attenuation of the beam's contribution
+	 * @return amount of rays
+	 */
+	int beamSize(int level, Double3 kkx) {
+		double k = Math.max(kkx.getD1(), Math.max(kkx.getD2(), kkx.getD3()));
+		return (int) Math.ceil(beamSize * k) >> (MAX_CALC_COLOR_LEVEL - level);
+	}
+
+	/**
+	 * Starts the ray tree of a primary ray - its beam rays budget and its light
+	 * sampling random numbers
+	 *
+	 * @param ray the primary ray
+	 */
+	void startRayTree(Ray ray) {
+		beamRaysLeft.get()[0] = beamBudget;
+		if (lightSamples > 0)
+			lightRandom.get()[0] = new SplittableRandom(raySeed(0, ray));
+	}
+
+	/**
+	 * Checks whether the lights are sampled (see {@link #setLightSamples(int)})
+	 *
+	 * @return true if the lights are sampled, false if all of them are shaded
+	 */
+	boolean samplesLights() {
+		return lightSamples > 0;
+	}
+
+	/**
+	 * Returns the light sampling random numbers of the ray tree being traced by
+	 * the thread, as started by {@link #startRayTree(Ray)}
+	 *
+	 * @return the random numbers
+	 */
+	SplittableRandom getLightRandom() {
+		return lightRandom.get()[0];
+	}
+
+	/**
+	 * Switches the thread to the light sampling random numbers of another ray
+	 * tree, for tracers interleaving the trees of several pixels
+	 *
+	 * @param random the random numbers of the ray tree
+	 */
+	void setLightRandom(SplittableRandom random) {
+		lightRandom.get()[0] = random;
+	}
+
+	/**
+	 * Hashes a seed with a ray, so that the random numbers of a primary ray
+	 * depend on the ray only and not on the order and the threads of the rays
+	 *
+	 * @param seed the seed
+	 * @param ray  the ray
+	 * @return the seed of the ray
+	 */
+	static long raySeed(long seed, Ray ray) {
+		Vector dir = ray.getDir();
+		Point p0 = ray.getP0();
+		long hash = seed;
+		hash = 31 * hash + Double.doubleToLongBits(dir.getX());
+		hash = 31 * hash + Double.doubleToLongBits(dir.getY());
+		hash = 31 * hash + Double.doubleToLongBits(dir.getZ());
+		hash = 31 * hash + Double.doubleToLongBits(p0.getX());
+		hash = 31 * hash + Double.doubleToLongBits(p0.getY());
+		hash = 31 * hash + Double.doubleToLongBits(p0.getZ());
+		return hash;
+	}
+
+	/**
+	 * Takes rays of a beam from the budget of the ray tree being traced
+	 *
+	 * @param rays amount of rays wanted
+	 * @return amount of rays granted
+	 */
+	private int takeBeamRays(int rays) {
+		return takeBeamRays(beamRaysLeft.get(), 0, rays);
+	}
+
+	/**
+	 * Takes rays of a beam from the budget of a ray tree
+	 *
+	 * @param left  the beam rays left for ray trees
+	 * @param index the index of the ray tree's budget
+	 * @param rays  amount of rays wanted
+	 * @return amount of rays granted
+	 */
+	static int takeBeamRays(int[] left, int index, int rays) {
+		int granted = Math.min(rays, left[index]);
+		if (granted < 2)
+			return 1;
+		left[index] -= granted;
+		return granted;
 	}
 
 	/**
@@ -145,7 +616,7 @@ public class RayTracerBasic extends RayTracerBase {
 	 * @param n  The normal vector at the point.
 	 * @return The reflected ray.
 	 */
-	private Ray constructReflectedRay(GeoPoint gp, Vector v, Vector n) {
+	Ray constructReflectedRay(GeoPoint gp, Vector v, Vector n) {
 		Vector reflectedVector = v.subtract(n.scale(2 * v.dotProduct(n)));
 		return new Ray(gp.point, reflectedVector, n);
 	}
@@ -158,7 +629,7 @@ public class RayTracerBasic extends RayTracerBase {
 	 * @param n  The normal vector at the point.
 	 * @return The refracted ray.
 	 */
-	private Ray constructRefractedRay(GeoPoint gp, Vector v, Vector n) {
+	Ray constructRefractedRay(GeoPoint gp, Vector v, Vector n) {
 		return new Ray(gp.point, v, n);
 	}
 
@@ -167,35 +638,159 @@ public class RayTracerBasic extends RayTracerBase {
 	 * geometric point.
 	 *
 	 * @param geoPoint The geometric point in the scene.
+	 * @param normal   The normal of the geometry at the point.
 	 * @param ray      The ray that intersects the geometric point.
 	 * @param k        The coefficient values for local effects.
 	 * @return The calculated color due to local effects at the given point.
 	 */
-	private Color calcLocalEffects(GeoPoint geoPoint, Ray ray, Double3 k) {
+	Color calcLocalEffects(GeoPoint geoPoint, Vector normal, Ray ray, Double3 k) {
+		long start = statistics == null ? 0 : statistics.startStage(Stage.SHADING);
+		Color color = calcLocalEffectsHelper(geoPoint, normal, ray, k);
+		if (statistics != null)
+			statistics.finishStage(Stage.SHADING, start);
+		return color;
+	}
+
+	/**
+	 * Calculates the local effects (diffuse and specular reflection) at a given
+	 * geometric point.
+	 *
+	 * @param geoPoint The geometric point in the scene.
+	 * @param normal   The normal of the geometry at the point.
+	 * @param ray      The ray that intersects the geometric point.
+	 * @param k        The coefficient values for local effects.
+	 * @return The calculated color due to local effects at the given point.
+	 */
+	private Color calcLocalEffectsHelper(GeoPoint geoPoint, Vector normal, Ray ray, Double3 k) {
 		Color color = geoPoint.geometry.getEmission();
 		Vector vector = ray.getDir();
-		Vector normal = geoPoint.geometry.getNormal(geoPoint.point);
 		double nv = alignZero(normal.dotProduct(vector));
 		if (nv == 0)
 			return color;
-		Material material = geoPoint.geometry.getMaterial();
-		for (LightSource lightSource : scene.lights) {
-			Vector lightVector = lightSource.getL(geoPoint.point);
-			double nl = alignZero(normal.dotProduct(lightVector));
-			if (nl * nv > 0) {
-				Double3 ktr = transparency(geoPoint, lightVector, normal, nv, lightSource);
-				if (!(ktr.product(k).lowerThan(MIN_CALC_COLOR_K))) {
-					Color lightIntensity = lightSource.getIntensity(geoPoint.point).scale(ktr);
-					color = color.add(lightIntensity.scale(calcDiffusive(material, nl)),
-							lightIntensity.scale(calcSpecular(material, normal, lightVector, nl, vector)));
-				}
-			}
+		MaterialTable table = scene.getMaterialTable();
+		int id = materialId(table, geoPoint.geometry);
+		Material material = material(table, id, geoPoint.geometry);
+		int flags = id < 0 ? MaterialTable.flagsOf(material) : table.getFlags(id);
+		if ((flags & (MaterialTable.DIFFUSE | MaterialTable.SPECULAR)) == 0)
+			return color;
+		boolean specular = (flags & MaterialTable.SPECULAR) != 0;
+		LightTree tree = lightSamples == 0 ? null : scene.getLightTree();
+		if (tree == null) {
+			for (LightSource lightSource : scene.getLights(geoPoint.point))
+				color = addLight(color, lightSource, 1, geoPoint, normal, table, id, material, specular, nv, vector, k);
+			return color;
+		}
+
+		// many-light sampling - the lights without a position are always shaded
+		for (LightSource lightSource : tree.getGlobalLights())
+			color = addLight(color, lightSource, 1, geoPoint, normal, table, id, material, specular, nv, vector, k);
+		SplittableRandom random = lightRandom.get()[0];
+		for (int s = 0; s < lightSamples; ++s) {
+			LightTree.Sample sample = tree.sample(geoPoint.point, random.nextDouble());
+			if (sample != null)
+				color = addLight(color, sample.light(), 1 / (sample.probability() * lightSamples), geoPoint, normal,
+						table, id, material, specular, nv, vector, k);
 		}
 		return color;
 	}
 
 	/**
-	 * Calculates the specular color at a point on a geometry.
+	 * Adds the diffuse and the specular light of a light source at a point,
+	 * tracing the light's shadow ray
+	 *
+	 * @param color       the color of the point so far
+	 * @param lightSource the light source
+	 * @param weight      the weight of the light's contribution
+	 * @param geoPoint    the geometric point
+	 * @param normal      the normal at the point
+	 * @param table       the material table of the scene
+	 * @param id          the id of the geometry's material, -1 if it is not in
+	 *                    the table
+	 * @param material    the material of the geometry
+	 * @param specular    whether the material reflects the lights specularly
+	 * @param nv          the dot product of the normal and the ray direction
+	 * @param vector      the direction of the ray
+	 * @param k           the attenuation of the point's contribution
+	 * @return the color of the point with the light's contribution
+	 */
+	private Color addLight(Color color, LightSource lightSource, double weight, GeoPoint geoPoint, Vector normal,
+			MaterialTable table, int id, Material material, boolean specular, double nv, Vector vector, Double3 k) {
+		Vector lightVector = lightSource.getL(geoPoint.point);
+		double nl = alignZero(normal.dotProduct(lightVector));
+		if (nl * nv <= 0)
+			return color;
+		if (scene.getLightCutoff() > 0
+				&& negligible(lightSource, geoPoint, table, id, material, normal, lightVector, nl, vector, k))
+			return color;
+		Double3 ktr = transparency(geoPoint, lightVector, normal, nv, lightSource);
+		if (ktr.product(k).lowerThan(MIN_CALC_COLOR_K))
+			return color;
+		Color lightIntensity = lightSource.getIntensity(geoPoint.point).scale(ktr);
+		if (weight != 1)
+			lightIntensity = lightIntensity.scale(weight);
+		return color.add(
+				lightIntensity.scale(calcReflectance(table, id, material, specular, normal, lightVector, nl, vector)));
+	}
+
+	/**
+	 * Checks whether the unshadowed contribution of a light to a point is below
+	 * the scene's light cutoff, so that its shadow ray may be skipped
+	 *
+	 * @param light    the light source
+	 * @param geoPoint the geometric point
+	 * @param table    the material table of the scene
+	 * @param id       the id of the geometry's material, -1 if it is not in the
+	 *                 table
+	 * @param material the material of the geometry
+	 * @param normal   the normal at the point
+	 * @param l        the light vector
+	 * @param nl       the dot product of the normal and the light vector
+	 * @param v        the direction of the ray
+	 * @param k        the attenuation of the point's contribution
+	 * @return true if the contribution is negligible
+	 */
+	boolean negligible(LightSource light, GeoPoint geoPoint, MaterialTable table, int id, Material material,
+			Vector normal, Vector l, double nl, Vector v, Double3 k) {
+		Double3 factor = calcReflectance(table, id, material, true, normal, l, nl, v).product(k);
+		return light.getIntensity(geoPoint.point).scale(factor).maxComponent() < scene.getLightCutoff();
+	}
+
+	/**
+	 * Calculates the fraction of a light reflected diffusely and specularly
+	 * towards the viewer, by the material's reflectance model. The Phong model of
+	 * a material of the material table scales the table's primitive coefficients
+	 * by its factors, without allocating the material's scaled coefficients.
+	 *
+	 * @param table    the material table of the scene
+	 * @param id       the id of the material, -1 if it is not in the table
+	 * @param material the material - the table's copy of it if it is in the table
+	 * @param specular whether the specular reflection is added
+	 * @param normal   the normal at the point
+	 * @param l        the light vector
+	 * @param nl       the dot product of the normal and the light vector
+	 * @param v        the direction of the ray
+	 * @return the reflected fraction
+	 */
+	Double3 calcReflectance(MaterialTable table, int id, Material material, boolean specular, Vector normal,
+			Vector l, double nl, Vector v) {
+		if (id < 0 || !table.isPhong(id)) {
+			Double3 diffuse = calcDiffusive(material, nl);
+			return specular ? diffuse.add(calcSpecular(material, normal, l, nl, v)) : diffuse;
+		}
+		double diffuse = PhongBrdf.PHONG.diffusive(nl);
+		double power = specular ? PhongBrdf.PHONG.specular(normal, l, nl, v, table.getShininess(id)) : 0;
+		return new Double3(
+				diffuse * table.getCoefficient(id, MaterialTable.KD, 0)
+						+ power * table.getCoefficient(id, MaterialTable.KS, 0),
+				diffuse * table.getCoefficient(id, MaterialTable.KD, 1)
+						+ power * table.getCoefficient(id, MaterialTable.KS, 1),
+				diffuse * table.getCoefficient(id, MaterialTable.KD, 2)
+						+ power * table.getCoefficient(id, MaterialTable.KS, 2));
+	}
+
+	/**
+	 * Calculates the specular color at a point on a geometry, by the material's
+	 * reflectance model.
 	 * 
 	 * @param material    the material of the geometry
 	 * @param normal      the normal of the geometry
@@ -204,21 +799,20 @@ public class RayTracerBasic extends RayTracerBase {
 	 * @param vector      the direction of the ray
 	 * @return the specular color at the given point
 	 */
-	private Double3 calcSpecular(Material material, Vector normal, Vector lightVector, double nl, Vector vector) {
-		Vector reflectedVector = lightVector.subtract(normal.scale(2 * nl));
-		double minusVR = alignZero(-vector.dotProduct(reflectedVector));
-		return minusVR <= 0 ? Double3.ZERO : material.kS.scale(Math.pow(minusVR, material.nShininess));
+	Double3 calcSpecular(Material material, Vector normal, Vector lightVector, double nl, Vector vector) {
+		return material.brdf.specular(material, normal, lightVector, nl, vector);
 	}
 
 	/**
-	 * Calculates the diffusive color at a point on a geometry.
+	 * Calculates the diffusive color at a point on a geometry, by the material's
+	 * reflectance model.
 	 * 
 	 * @param material the material of the geometry
 	 * @param nl       the dot product of the normal and light vector
 	 * @return the diffusive color at the given point
 	 */
-	private Double3 calcDiffusive(Material material, double nl) {
-		return material.kD.scale(nl < 0 ? -nl : nl);
+	Double3 calcDiffusive(Material material, double nl) {
+		return material.brdf.diffusive(material, nl);
 	}
 
 	/**
@@ -232,22 +826,125 @@ public class RayTracerBasic extends RayTracerBase {
 	 * @param light The light source.
 	 * @return The transparency factor (ktr) as a Double3 vector.
 	 */
-	private Double3 transparency(GeoPoint gp, Vector l, Vector n, double nv, LightSource light) {
-		Vector lightDirection = l.scale(-1); // from point to light source
-		Ray lightRay = new Ray(gp.point, lightDirection, n);
-		List<GeoPoint> intersections = scene.geometries.findGeoIntersections(lightRay);
+	Double3 transparency(GeoPoint gp, Vector l, Vector n, double nv, LightSource light) {
+		if (statistics == null)
+			return transparencyHelper(gp, l, n, light);
+		long start = statistics.startStage(Stage.SHADOW);
+		Double3 ktr = transparencyHelper(gp, l, n, light);
+		statistics.finishStage(Stage.SHADOW, start);
+		return ktr;
+	}
+
+	/**
+	 * Calculates the transparency factor for a given geometric point and light
+	 * source by tracing a shadow ray, or several shadow rays for an area light, or
+	 * by looking up the light's shadow map if it has one.
+	 * 
+	 * @param gp    The geometric point in the scene.
+	 * @param l     The direction from the point to the light source.
+	 * @param n     The normal vector at the point.
+	 * @param light The light source.
+	 * @return The transparency factor (ktr) as a Double3 vector.
+	 */
+	private Double3 transparencyHelper(GeoPoint gp, Vector l, Vector n, LightSource light) {
+		ShadowMap map = scene.getShadowMap(light);
+		if (map != null)
+			return map.visibility(gp.point, n, l);
+		if (light instanceof AreaLight area)
+			return areaTransparency(gp, l, n, area);
+		return shadowRay(gp, new Ray(gp.point, l.scale(-1), n), light.getDistance(gp.point));
+	}
+
+	/**
+	 * Calculates the transparency factor of an area light - the average of the
+	 * shadow rays to its samples. The shadow rays to the boundary samples are
+	 * traced first: if they all have the same transparency the point is fully lit
+	 * or fully shadowed, otherwise it is in the penumbra and the dense samples are
+	 * traced.
+	 * 
+	 * @param gp   The geometric point in the scene.
+	 * @param l    The direction from the light's center to the point.
+	 * @param n    The normal vector at the point.
+	 * @param area The area light.
+	 * @return The transparency factor (ktr) as a Double3 vector.
+	 */
+	private Double3 areaTransparency(GeoPoint gp, Vector l, Vector n, AreaLight area) {
+		boolean side = alignZero(l.dotProduct(n)) < 0;
+		Point[] boundary = area.getBoundarySamples();
+		Double3 first = sampleTransparency(gp, n, side, boundary[0]);
+		boolean uniform = true;
+		for (int i = 1; i < boundary.length && uniform; ++i)
+			uniform = sampleTransparency(gp, n, side, boundary[i]).equals(first);
+		if (uniform)
+			return first;
+
+		Point[] samples = area.getSamples();
+		Double3 sum = Double3.ZERO;
+		for (Point sample : samples)
+			sum = sum.add(sampleTransparency(gp, n, side, sample));
+		return sum.reduce(samples.length);
+	}
+
+	/**
+	 * Calculates the transparency factor along a shadow ray to a sample of an
+	 * area light
+	 * 
+	 * @param gp     The geometric point in the scene.
+	 * @param n      The normal vector at the point.
+	 * @param side   Whether the light is on the side of the normal.
+	 * @param sample The sample point of the light.
+	 * @return The transparency factor (ktr) as a Double3 vector, zero if the
+	 *         sample is behind the surface.
+	 */
+	private Double3 sampleTransparency(GeoPoint gp, Vector n, boolean side, Point sample) {
+		Vector toSample = sample.subtract(gp.point);
+		double nl = alignZero(toSample.dotProduct(n));
+		if (nl == 0 || nl > 0 != side)
+			return Double3.ZERO;
+		return shadowRay(gp, new Ray(gp.point, toSample.normalize(), n), toSample.length());
+	}
+
+	/**
+	 * Calculates the transparency factor along a shadow ray - the product of the
+	 * transparencies of the geometries between the point and the light
+	 * 
+	 * @param gp            The geometric point in the scene.
+	 * @param lightRay      The shadow ray from the point towards the light.
+	 * @param lightDistance The distance from the point to the light.
+	 * @return The transparency factor (ktr) as a Double3 vector.
+	 */
+	private Double3 shadowRay(GeoPoint gp, Ray lightRay, double lightDistance) {
+		if (statistics != null)
+			statistics.countRay(RayType.SHADOW);
+		List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(lightRay, intersectionCounter());
 		if (intersections == null)
 			return Double3.ONE;
-		Double3 ktr = Double3.ONE;
-		double lightDistance = light.getDistance(gp.point);
+		MaterialTable table = scene.getMaterialTable();
+		double kt1 = 1, kt2 = 1, kt3 = 1;
 		for (GeoPoint gp1 : intersections) {
 			if (alignZero(gp1.point.distance(gp.point) - lightDistance) <= 0) {
-				ktr = ktr.product(gp1.geometry.getMaterial().kT);
-				if (ktr.lowerThan(MIN_CALC_COLOR_K))
+				if (hitCache != null)
+					hitCache.touch(gp1.geometry);
+				int id = materialId(table, gp1.geometry);
+				if (id < 0) {
+					Material material = gp1.geometry.getMaterial();
+					if ((MaterialTable.flagsOf(material) & MaterialTable.OPAQUE) != 0)
+						return Double3.ZERO;
+					kt1 *= material.kT.getD1();
+					kt2 *= material.kT.getD2();
+					kt3 *= material.kT.getD3();
+				} else {
+					if ((table.getFlags(id) & MaterialTable.OPAQUE) != 0)
+						return Double3.ZERO;
+					kt1 *= table.getCoefficient(id, MaterialTable.KT, 0);
+					kt2 *= table.getCoefficient(id, MaterialTable.KT, 1);
+					kt3 *= table.getCoefficient(id, MaterialTable.KT, 2);
+				}
+				if (kt1 < MIN_CALC_COLOR_K && kt2 < MIN_CALC_COLOR_K && kt3 < MIN_CALC_COLOR_K)
 					return Double3.ZERO;
 			}
 		}
-		return ktr;
+		return new Double3(kt1, kt2, kt3);
 	}
 
 	/**
@@ -262,7 +959,7 @@ public class RayTracerBasic extends RayTracerBase {
 	private boolean unshaded(GeoPoint gp, Vector l, Vector n, LightSource lightSource) {
 		Vector lightDirection = l.scale(-1); // from point to light source
 		Ray lightRay = new Ray(gp.point, lightDirection, n);
-		List<GeoPoint> intersections = scene.geometries.findGeoIntersections(lightRay);
+		List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(lightRay);
 
 		if (intersections == null)
 			return true;
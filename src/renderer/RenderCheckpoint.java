@@ -0,0 +1,246 @@
+package renderer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Checkpoint of a long render - the tiles completed so far and their pixels,
+ * saved periodically to a compact binary file (compressed), so that a render
+ * interrupted by a crash or by preemption may be resumed by rendering only the
+ * missing tiles. The rendering threads only copy the pixels of a completed
+ * tile, the file is written by a background thread. The file is replaced
+ * atomically, so an interrupted write leaves the previous checkpoint intact.
+ *
+ * A checkpoint is resumed only by a render of the same image size and tile
+ * size. It does not identify the scene - a checkpoint of a changed scene must
+ * be deleted.
+ *
+ * @author Eti and Chavi
+ */
+class RenderCheckpoint {
+	/** The first value of a checkpoint file - identifies the format version */
+	private static final int MAGIC = 0x52434B31;
+
+	private final Logger logger = Logger.getLogger("RenderCheckpoint");
+
+	private final Path file;
+	private final ImageWriter image;
+	private final int tileSize;
+	/** Amount of tile columns */
+	private final int columns;
+	/** Amount of 64 bit words of the completed tiles' bits in the file */
+	private final int words;
+	/** The completed tiles, by their index */
+	private final BitSet done;
+	/** The pixels of the completed tiles - row after row */
+	private final int[] pixels;
+	/** Whether tiles were completed since the last write */
+	private boolean dirty = false;
+	/** The background thread writing the checkpoint */
+	private ScheduledExecutorService writer = null;
+
+	/**
+	 * Opens the checkpoint of a render, restoring the completed tiles into the
+	 * image if a matching checkpoint file exists
+	 *
+	 * @param file     the checkpoint file
+	 * @param image    the rendered image
+	 * @param tileSize the render's tile size
+	 */
+	RenderCheckpoint(Path file, ImageWriter image, int tileSize) {
+		this.file = file;
+		this.image = image;
+		this.tileSize = tileSize;
+		int nX = image.getNx();
+		int nY = image.getNy();
+		columns = (nX + tileSize - 1) / tileSize;
+		words = (columns * ((nY + tileSize - 1) / tileSize) + 63) / 64;
+		done = new BitSet();
+		pixels = new int[nX * nY];
+		if (Files.exists(file))
+			try {
+				load();
+			} catch (IOException e) {
+				logger.log(Level.WARNING, "Ignoring checkpoint " + file + ": " + e.getMessage());
+				done.clear();
+			}
+	}
+
+	/**
+	 * Index of a tile
+	 *
+	 * @param tile the tile
+	 * @return the index
+	 */
+	private int index(Tile tile) {
+		return tile.y() / tileSize * columns + tile.x() / tileSize;
+	}
+
+	/**
+	 * Checks whether a tile was completed
+	 *
+	 * @param tile the tile
+	 * @return true if the tile is completed
+	 */
+	synchronized boolean isDone(Tile tile) {
+		return done.get(index(tile));
+	}
+
+	/**
+	 * Records a completed tile - copies its pixels from the image
+	 *
+	 * @param tile the tile
+	 */
+	void tileDone(Tile tile) {
+		int nX = image.getNx();
+		int[] tilePixels = new int[tile.size()];
+		int p = 0;
+		for (int i = tile.y(); i < tile.y() + tile.height(); ++i)
+			for (int j = tile.x(); j < tile.x() + tile.width(); ++j)
+				tilePixels[p++] = image.readRGB(j, i);
+		synchronized (this) {
+			p = 0;
+			for (int i = tile.y(); i < tile.y() + tile.height(); ++i)
+				for (int j = tile.x(); j < tile.x() + tile.width(); ++j)
+					pixels[i * nX + j] = tilePixels[p++];
+			done.set(index(tile));
+			dirty = true;
+		}
+	}
+
+	/**
+	 * Starts writing the checkpoint periodically in the background
+	 *
+	 * @param interval the time between writes in milliseconds
+	 */
+	void start(long interval) {
+		writer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "checkpoint-writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		writer.scheduleWithFixedDelay(this::write, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the periodic writes, waiting for a running write to finish
+	 */
+	private void stop() {
+		if (writer == null)
+			return;
+		writer.shutdown();
+		try {
+			writer.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Stops writing the checkpoint and deletes it - the render is complete
+	 */
+	void complete() {
+		stop();
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Failed deleting checkpoint " + file, e);
+		}
+	}
+
+	/**
+	 * Stops writing the checkpoint periodically and writes the tiles completed so
+	 * far - the render failed
+	 */
+	void abort() {
+		stop();
+		write();
+	}
+
+	/**
+	 * Writes the checkpoint file if tiles were completed since the last write
+	 */
+	void write() {
+		long[] tiles;
+		int[] snapshot;
+		synchronized (this) {
+			if (!dirty)
+				return;
+			tiles = Arrays.copyOf(done.toLongArray(), words);
+			snapshot = pixels.clone();
+			dirty = false;
+		}
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary))))) {
+				out.writeInt(MAGIC);
+				out.writeInt(image.getNx());
+				out.writeInt(image.getNy());
+				out.writeInt(tileSize);
+				out.writeInt(tiles.length);
+				for (long word : tiles)
+					out.writeLong(word);
+				BitSet completed = BitSet.valueOf(tiles);
+				for (Tile tile : Tile.split(image.getNx(), image.getNy(), tileSize))
+					if (completed.get(index(tile)))
+						for (int i = tile.y(); i < tile.y() + tile.height(); ++i)
+							for (int j = tile.x(); j < tile.x() + tile.width(); ++j)
+								out.writeInt(snapshot[i * image.getNx() + j]);
+			}
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Failed writing checkpoint " + file, e);
+		}
+	}
+
+	/**
+	 * Restores the completed tiles from the checkpoint file into the image
+	 *
+	 * @throws IOException if the file cannot be read or belongs to another render
+	 */
+	private void load() throws IOException {
+		int nX = image.getNx();
+		int nY = image.getNy();
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+			if (in.readInt() != MAGIC)
+				throw new IOException("Not a render checkpoint");
+			if (in.readInt() != nX || in.readInt() != nY || in.readInt() != tileSize)
+				throw new IOException("Checkpoint of another image size or tile size");
+			if (in.readInt() != words)
+				throw new IOException("Corrupt checkpoint - wrong amount of tiles");
+			long[] tiles = new long[words];
+			for (int w = 0; w < tiles.length; ++w)
+				tiles[w] = in.readLong();
+			done.or(BitSet.valueOf(tiles));
+			for (Tile tile : Tile.split(nX, nY, tileSize))
+				if (done.get(index(tile)))
+					for (int i = tile.y(); i < tile.y() + tile.height(); ++i)
+						for (int j = tile.x(); j < tile.x() + tile.width(); ++j)
+							pixels[i * nX + j] = in.readInt();
+		}
+		// the pixels are restored only when the whole file is read correctly
+		for (Tile tile : Tile.split(nX, nY, tileSize))
+			if (done.get(index(tile)))
+				for (int i = tile.y(); i < tile.y() + tile.height(); ++i)
+					for (int j = tile.x(); j < tile.x() + tile.width(); ++j)
+						image.writeRGB(j, i, pixels[i * nX + j]);
+		logger.info("Resuming render from checkpoint " + file + " with " + done.cardinality() + " tiles done");
+	}
+}
@@ -0,0 +1,131 @@
+package renderer;
+
+import java.nio.file.Path;
+import java.util.Properties;
+
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+/**
+ * A request to render an image of a scene file. Jobs are described by
+ * properties (e.g. the body of a request to the {@link RenderService}):
+ *
+ * <pre>
+ * scene=scenes/example.xml
+ * image=example
+ * position=0 0 1000
+ * to=0 0 -1
+ * up=0 1 0
+ * vp-size=150 150
+ * vp-distance=1000
+ * resolution=500 500
+ * priority=5
+ * </pre>
+ *
+ * The image is written to the images folder under the given name. The priority
+ * is optional (0 by default) - jobs with a higher priority are rendered first.
+ *
+ * @param scene      the scene file (see {@link scene.SceneParser})
+ * @param image      the name of the image file, without any folder
+ * @param position   the camera position
+ * @param to         the camera direction
+ * @param up         the camera up direction (orthogonal to the direction)
+ * @param vpWidth    the view plane width
+ * @param vpHeight   the view plane height
+ * @param vpDistance the view plane distance
+ * @param nX         amount of pixel columns
+ * @param nY         amount of pixel rows
+ * @param priority   the job priority
+ *
+ * @author Eti and Chavi
+ */
+public record RenderJob(Path scene, String image, Point position, Vector to, Vector up, double vpWidth,
+		double vpHeight, double vpDistance, int nX, int nY, int priority) {
+
+	/**
+	 * Constructs a job, checking that its image stays in the images folder and
+	 * that its resolution is bounded
+	 *
+	 * @throws IllegalArgumentException if the image name is empty, contains a path
+	 *                                  separator or contains "..", or if the
+	 *                                  resolution is not positive or larger than
+	 *                                  {@link TileProtocol#MAX_RESOLUTION}
+	 */
+	public RenderJob {
+		if (image == null || image.isBlank() || image.indexOf('/') >= 0 || image.indexOf('\\') >= 0
+				|| image.contains(".."))
+			throw new IllegalArgumentException("Invalid image name: " + image);
+		if (nX < 1 || nY < 1 || nX > TileProtocol.MAX_RESOLUTION || nY > TileProtocol.MAX_RESOLUTION)
+			throw new IllegalArgumentException("Invalid resolution: " + nX + "x" + nY);
+	}
+
+	/**
+	 * Parses a job description
+	 *
+	 * @param properties the job properties
+	 * @return the job
+	 * @throws IllegalArgumentException if a property is missing or invalid
+	 */
+	public static RenderJob parse(Properties properties) {
+		double[] position = numbers(properties, "position", 3);
+		double[] to = numbers(properties, "to", 3);
+		double[] up = numbers(properties, "up", 3);
+		double[] vpSize = numbers(properties, "vp-size", 2);
+		double[] resolution = numbers(properties, "resolution", 2);
+		return new RenderJob(Path.of(required(properties, "scene")), required(properties, "image"),
+				new Point(position[0], position[1], position[2]), new Vector(to[0], to[1], to[2]),
+				new Vector(up[0], up[1], up[2]), vpSize[0], vpSize[1], numbers(properties, "vp-distance", 1)[0],
+				(int) resolution[0], (int) resolution[1],
+				properties.containsKey("priority") ? (int) numbers(properties, "priority", 1)[0] : 0);
+	}
+
+	/**
+	 * Constructs the camera rendering the job's image of a scene
+	 *
+	 * @param prepared the job's scene, prepared
+	 * @return the camera, ready for rendering
+	 */
+	public Camera camera(Scene prepared) {
+		return new Camera(position, to, up) //
+				.setVPSize(vpWidth, vpHeight).setVPDistance(vpDistance) //
+				.setImageWriter(new ImageWriter(image, nX, nY)) //
+				.setRayTracer(new RayTracerBasic(prepared));
+	}
+
+	/**
+	 * Returns a required property
+	 *
+	 * @param properties the job properties
+	 * @param key        the property name
+	 * @return the property value
+	 */
+	private static String required(Properties properties, String key) {
+		String value = properties.getProperty(key);
+		if (value == null || value.isBlank())
+			throw new IllegalArgumentException("Missing job property: " + key);
+		return value.trim();
+	}
+
+	/**
+	 * Parses a property of numbers separated by spaces
+	 *
+	 * @param properties the job properties
+	 * @param key        the property name
+	 * @param count      the expected amount of numbers
+	 * @return the numbers
+	 */
+	private static double[] numbers(Properties properties, String key, int count) {
+		String[] parts = required(properties, key).split("\\s+");
+		if (parts.length != count)
+			throw new IllegalArgumentException("Expected " + count + " numbers in job property " + key);
+		double[] values = new double[count];
+		try {
+			for (int i = 0; i < count; ++i)
+				values[i] = Double.parseDouble(parts[i]);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid number in job property " + key, e);
+		}
+		return values;
+	}
+}
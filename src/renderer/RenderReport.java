@@ -0,0 +1,60 @@
+package renderer;
+
+import java.util.Map;
+
+/**
+ * Structured report of a render's statistics. Stage times are summed over all
+ * the rendering threads, the render time is the wall time.
+ *
+ * @param primaryRays       amount of rays from the camera
+ * @param reflectionRays    amount of reflected rays
+ * @param refractionRays    amount of refracted rays
+ * @param shadowRays        amount of shadow rays
+ * @param intersectionTests amount of intersection tests by geometry type
+ * @param averageTreeDepth  average depth of the ray trees of primary rays
+ *                          (0 for a ray hitting nothing, 1 for a ray with no
+ *                          secondary hits)
+ * @param closestHitNanos   time spent finding closest intersections
+ * @param shadingNanos      time spent in local shading, except shadow rays
+ * @param shadowNanos       time spent tracing shadow rays
+ * @param renderNanos       wall time of the whole render
+ *
+ * @author Eti and Chavi
+ */
+public record RenderReport(long primaryRays, long reflectionRays, long refractionRays, long shadowRays,
+		Map<String, Long> intersectionTests, double averageTreeDepth, long closestHitNanos, long shadingNanos,
+		long shadowNanos, long renderNanos) {
+
+	/**
+	 * Total amount of traced rays of all types
+	 *
+	 * @return the amount of rays
+	 */
+	public long totalRays() {
+		return primaryRays + reflectionRays + refractionRays + shadowRays;
+	}
+
+	/**
+	 * Traced rays per second of wall time
+	 *
+	 * @return the rays throughput
+	 */
+	public double raysPerSecond() {
+		return renderNanos == 0 ? 0 : totalRays() * 1e9 / renderNanos;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("Render time:        %10.1f ms%n", renderNanos / 1e6));
+		sb.append(String.format("Rays: primary %d, reflection %d, refraction %d, shadow %d (%.0f rays/s)%n",
+				primaryRays, reflectionRays, refractionRays, shadowRays, raysPerSecond()));
+		sb.append(String.format("Average tree depth: %10.2f%n", averageTreeDepth));
+		sb.append(String.format("Closest hit:        %10.1f ms%n", closestHitNanos / 1e6));
+		sb.append(String.format("Shading:            %10.1f ms%n", shadingNanos / 1e6));
+		sb.append(String.format("Shadow rays:        %10.1f ms%n", shadowNanos / 1e6));
+		sb.append("Intersection tests:");
+		intersectionTests.forEach((type, count) -> sb.append(String.format("%n  %-16s %12d", type, count)));
+		return sb.toString();
+	}
+}
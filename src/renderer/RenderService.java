@@ -0,0 +1,396 @@
+package renderer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import scene.Scene;
+import scene.SceneParser;
+
+/**
+ * Long running render service - renders jobs submitted over a local HTTP
+ * endpoint in a single JVM, so that the JIT compiled code, the rendering
+ * threads and the prepared scenes are reused between the jobs.
+ *
+ * <ul>
+ * <li>POST /jobs with a job description (see {@link RenderJob}) as the body
+ * queues the job and responds with its id</li>
+ * <li>GET /jobs/{id} responds with the job state (QUEUED, RUNNING, DONE or
+ * FAILED) and a message</li>
+ * </ul>
+ *
+ * The jobs are rendered one at a time, by priority (and by submission order
+ * among equal priorities), each by all the threads of the shared worker pool.
+ * The prepared scenes are cached by their files, and reloaded when a file
+ * changes. Only the statuses of the latest finished jobs are kept - older
+ * finished jobs are forgotten, as if they had never been submitted.
+ *
+ * @author Eti and Chavi
+ */
+public class RenderService implements AutoCloseable {
+	/** Amount of prepared scenes kept in the cache */
+	private static final int SCENE_CACHE_SIZE = 16;
+	/** Default amount of finished jobs whose statuses are kept */
+	private static final int KEPT_JOBS = 1000;
+
+	/** States of a job */
+	public enum State {
+		/** Waiting in the queue */
+		QUEUED,
+		/** Being rendered */
+		RUNNING,
+		/** The image has been written */
+		DONE,
+		/** The job could not be rendered */
+		FAILED
+	}
+
+	/**
+	 * Status of a job
+	 *
+	 * @param id      the job id
+	 * @param state   the job state
+	 * @param message details of the state (e.g. the failure reason)
+	 */
+	public record JobStatus(long id, State state, String message) {
+		@Override
+		public String toString() {
+			return message.isEmpty() ? state.toString() : state + " " + message;
+		}
+	}
+
+	/**
+	 * A submitted job and its state
+	 */
+	private static final class QueuedJob implements Comparable<QueuedJob> {
+		private final long id;
+		private final RenderJob job;
+		private volatile JobStatus status;
+		private final CompletableFuture<JobStatus> completion = new CompletableFuture<>();
+
+		/**
+		 * Constructs a queued job
+		 *
+		 * @param id  the job id
+		 * @param job the job
+		 */
+		QueuedJob(long id, RenderJob job) {
+			this.id = id;
+			this.job = job;
+			status = new JobStatus(id, State.QUEUED, "");
+		}
+
+		/**
+		 * Updates the job state, completing the job when it is finished
+		 *
+		 * @param state   the new state
+		 * @param message details of the state
+		 */
+		void setStatus(State state, String message) {
+			status = new JobStatus(id, state, message);
+			if (state == State.DONE || state == State.FAILED)
+				completion.complete(status);
+		}
+
+		@Override
+		public int compareTo(QueuedJob other) {
+			return job.priority() != other.job.priority() ? Integer.compare(other.job.priority(), job.priority())
+					: Long.compare(id, other.id);
+		}
+	}
+
+	/**
+	 * A prepared scene and the modification time of its file
+	 *
+	 * @param modified the modification time of the file when it was loaded
+	 * @param scene    the prepared scene
+	 */
+	private record CachedScene(FileTime modified, Scene scene) {
+	}
+
+	private final Logger logger = Logger.getLogger("RenderService");
+
+	private final HttpServer server;
+	/** The rendering threads shared by all the jobs */
+	private final ExecutorService workers;
+	/** The thread taking the jobs from the queue and rendering them */
+	private final Thread dispatcher;
+	private final PriorityBlockingQueue<QueuedJob> queue = new PriorityBlockingQueue<>();
+	private final Map<Long, QueuedJob> jobs = new ConcurrentHashMap<>();
+	private final AtomicLong lastId = new AtomicLong();
+	/** Amount of finished jobs whose statuses are kept */
+	private final int keptJobs;
+	/** The ids of the kept finished jobs, oldest first - used by the dispatcher only */
+	private final Deque<Long> finished = new ArrayDeque<>();
+	/** The prepared scenes by their files - used by the dispatcher only */
+	private final Map<Path, CachedScene> scenes = new LinkedHashMap<>(SCENE_CACHE_SIZE, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Path, CachedScene> eldest) {
+			return size() > SCENE_CACHE_SIZE;
+		}
+	};
+	/** Guards closing against submitting, so that no job is queued after the queue is drained */
+	private final Object lock = new Object();
+	private volatile boolean closed = false;
+
+	/**
+	 * Starts a render service listening on the loopback interface
+	 *
+	 * @param port         the port to listen on, 0 for any free port
+	 * @param threadsCount amount of rendering threads
+	 * @throws IOException if the port cannot be listened on
+	 */
+	public RenderService(int port, int threadsCount) throws IOException {
+		this(port, threadsCount, KEPT_JOBS);
+	}
+
+	/**
+	 * Starts a render service listening on the loopback interface
+	 *
+	 * @param port         the port to listen on, 0 for any free port
+	 * @param threadsCount amount of rendering threads
+	 * @param keptJobs     amount of finished jobs whose statuses are kept
+	 * @throws IOException if the port cannot be listened on
+	 */
+	public RenderService(int port, int threadsCount, int keptJobs) throws IOException {
+		if (keptJobs < 1)
+			throw new IllegalArgumentException("At least one finished job must be kept");
+		this.keptJobs = keptJobs;
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		server.createContext("/jobs", this::handle);
+		workers = Executors.newFixedThreadPool(threadsCount);
+		dispatcher = new Thread(this::dispatch, "render-dispatcher");
+		dispatcher.start();
+		server.start();
+	}
+
+	/**
+	 * Returns the port the service listens on
+	 *
+	 * @return the port
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Queues a job
+	 *
+	 * @param job the job
+	 * @return the job id
+	 * @throws IllegalStateException if the service is closed
+	 */
+	public long submit(RenderJob job) {
+		synchronized (lock) {
+			if (closed)
+				throw new IllegalStateException("Render service is closed");
+			QueuedJob queued = new QueuedJob(lastId.incrementAndGet(), job);
+			jobs.put(queued.id, queued);
+			queue.add(queued);
+			return queued.id;
+		}
+	}
+
+	/**
+	 * Returns the status of a job
+	 *
+	 * @param id the job id
+	 * @return the status, or null if there is no such job
+	 */
+	public JobStatus getStatus(long id) {
+		QueuedJob job = jobs.get(id);
+		return job == null ? null : job.status;
+	}
+
+	/**
+	 * Returns a future completed when a job is finished
+	 *
+	 * @param id the job id
+	 * @return future completed with the final status of the job, or null if there
+	 *         is no such job
+	 */
+	public CompletableFuture<JobStatus> getCompletion(long id) {
+		QueuedJob job = jobs.get(id);
+		return job == null ? null : job.completion;
+	}
+
+	/**
+	 * Takes the jobs from the queue and renders them until the service is closed.
+	 * Any failure of a job - even an error such as running out of memory - fails
+	 * only that job, so that the jobs after it are still rendered.
+	 */
+	private void dispatch() {
+		while (!closed) {
+			QueuedJob job;
+			try {
+				job = queue.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			job.setStatus(State.RUNNING, "");
+			try {
+				long start = System.nanoTime();
+				Camera camera = job.job.camera(loadScene(job.job.scene()));
+				camera.renderImageAsync(workers).join().writeToImage();
+				finish(job, State.DONE, String.format("%.1f ms", (System.nanoTime() - start) / 1e6));
+			} catch (Throwable e) {
+				logger.log(Level.WARNING, "Job " + job.id + " failed", e);
+				finish(job, State.FAILED, String.valueOf(e.getMessage()));
+			}
+		}
+	}
+
+	/**
+	 * Finishes a job, forgetting the oldest finished jobs beyond the kept amount
+	 *
+	 * @param job     the job
+	 * @param state   the final state
+	 * @param message details of the state
+	 */
+	private void finish(QueuedJob job, State state, String message) {
+		finished.add(job.id);
+		while (finished.size() > keptJobs)
+			jobs.remove(finished.poll());
+		job.setStatus(state, message);
+	}
+
+	/**
+	 * Returns the prepared scene of a file, from the cache if the file has not
+	 * changed since it was loaded
+	 *
+	 * @param file the scene file
+	 * @return the prepared scene
+	 * @throws IOException if the file cannot be read
+	 */
+	private Scene loadScene(Path file) throws IOException {
+		Path key = file.toAbsolutePath().normalize();
+		FileTime modified = Files.getLastModifiedTime(key);
+		CachedScene cached = scenes.get(key);
+		if (cached == null || !cached.modified().equals(modified)) {
+			cached = new CachedScene(modified, SceneParser.parse(key).prepare());
+			scenes.put(key, cached);
+		}
+		return cached.scene();
+	}
+
+	/**
+	 * Handles an HTTP request
+	 *
+	 * @param exchange the request and its response
+	 * @throws IOException if the response cannot be sent
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			String path = exchange.getRequestURI().getPath();
+			String method = exchange.getRequestMethod();
+			if (method.equals("POST") && path.equals("/jobs")) {
+				Properties properties = new Properties();
+				try (InputStream body = exchange.getRequestBody()) {
+					properties.load(new StringReader(new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+				}
+				try {
+					respond(exchange, 202, Long.toString(submit(RenderJob.parse(properties))));
+				} catch (IllegalArgumentException e) {
+					respond(exchange, 400, e.getMessage());
+				} catch (IllegalStateException e) {
+					respond(exchange, 503, e.getMessage());
+				}
+			} else if (method.equals("GET") && path.startsWith("/jobs/")) {
+				JobStatus status;
+				try {
+					status = getStatus(Long.parseLong(path.substring("/jobs/".length())));
+				} catch (NumberFormatException e) {
+					status = null;
+				}
+				if (status == null)
+					respond(exchange, 404, "No such job");
+				else
+					respond(exchange, 200, status.toString());
+			} else
+				respond(exchange, 404, "Unknown request");
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Sends a text response
+	 *
+	 * @param exchange the request and its response
+	 * @param code     the response status code
+	 * @param text     the response body
+	 * @throws IOException if the response cannot be sent
+	 */
+	private static void respond(HttpExchange exchange, int code, String text) throws IOException {
+		byte[] body = (text + "\n").getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(code, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	/**
+	 * Stops the service - the running job is finished, the queued ones fail
+	 */
+	@Override
+	public void close() {
+		synchronized (lock) {
+			closed = true;
+		}
+		server.stop(0);
+		dispatcher.interrupt();
+		try {
+			dispatcher.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		workers.shutdown();
+		synchronized (lock) {
+			for (QueuedJob job : queue)
+				job.setStatus(State.FAILED, "Render service closed");
+			queue.clear();
+		}
+	}
+
+	/**
+	 * Runs a render service until the process is stopped
+	 *
+	 * @param args optional port (8090 by default) and amount of rendering threads
+	 *             (the amount of processors by default)
+	 * @throws IOException if the port cannot be listened on
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 8090;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		RenderService service = new RenderService(port, threads);
+		Runtime.getRuntime().addShutdownHook(new Thread(service::close));
+		Logger.getLogger("RenderService").info("Render service listening on port " + service.getPort());
+	}
+}
@@ -0,0 +1,179 @@
+package renderer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import geometries.IntersectionCounter;
+
+/**
+ * Collects counters of a render - rays by type, intersection tests, ray tree
+ * depths and the time spent in the ray tracer's stages. Every rendering thread
+ * counts into its own counters (plain fields, no atomic operations), held by
+ * the thread's copy of the ray tracer and summed only when the report is
+ * produced, so the threads do not contend on them, and renders sharing a ray
+ * tracer count separately. The stage times are sampled - every thread measures
+ * one of each {@value #SAMPLING_PERIOD} calls of a stage and scales it up,
+ * since reading the clock on every call would cost more than some of the
+ * measured stages. A ray tracer collects statistics only while it has
+ * counters, so there is no overhead when the statistics are off.
+ *
+ * @author Eti and Chavi
+ */
+public class RenderStatistics {
+	/** Types of traced rays */
+	public enum RayType {
+		/** Rays from the camera */
+		PRIMARY,
+		/** Rays reflected from surfaces */
+		REFLECTION,
+		/** Rays refracted through surfaces */
+		REFRACTION,
+		/** Rays from surfaces towards light sources */
+		SHADOW
+	}
+
+	/** Stages of the ray tracer whose time is measured */
+	public enum Stage {
+		/** Finding the closest intersection of a ray */
+		CLOSEST_HIT,
+		/** Local shading, excluding the shadow rays */
+		SHADING,
+		/** Tracing shadow rays */
+		SHADOW
+	}
+
+	/** One of how many calls of a stage is timed (a power of 2) */
+	private static final int SAMPLING_PERIOD = 64;
+
+	/**
+	 * The counters of a single rendering thread. A ray tracer collecting
+	 * statistics holds the counters of its thread (see
+	 * {@link RayTracerBase#forThread(RenderStatistics, PrimaryHitCache)}), so
+	 * counting does not look the thread up.
+	 */
+	static final class Counters {
+		private final long[] rays = new long[RayType.values().length];
+		private final long[] stageNanos = new long[Stage.values().length];
+		private final int[] stageCalls = new int[Stage.values().length];
+		private final IntersectionCounter intersections = new IntersectionCounter();
+		private long treeDepthSum = 0;
+		private long trees = 0;
+		/** The deepest level reached by the ray tree currently traced */
+		private int treeDepth = 0;
+
+		/**
+		 * Returns the intersection test counter, to be passed down through the
+		 * intersection tests of a ray
+		 *
+		 * @return the counter
+		 */
+		IntersectionCounter intersections() {
+			return intersections;
+		}
+
+		/**
+		 * Counts a traced ray
+		 *
+		 * @param type the ray type
+		 */
+		void countRay(RayType type) {
+			++rays[type.ordinal()];
+		}
+
+		/**
+		 * Starts a call of a stage
+		 *
+		 * @param stage the stage
+		 * @return the start time if the call is timed, or 0 otherwise
+		 */
+		long startStage(Stage stage) {
+			return (++stageCalls[stage.ordinal()] & (SAMPLING_PERIOD - 1)) == 0 ? System.nanoTime() : 0;
+		}
+
+		/**
+		 * Finishes a call of a stage
+		 *
+		 * @param stage the stage
+		 * @param start the value returned by {@link #startStage(Stage)} for the call
+		 */
+		void finishStage(Stage stage, long start) {
+			if (start != 0)
+				stageNanos[stage.ordinal()] += (System.nanoTime() - start) * SAMPLING_PERIOD;
+		}
+
+		/**
+		 * Counts a primary ray and starts its ray tree
+		 */
+		void startTree() {
+			++rays[RayType.PRIMARY.ordinal()];
+			treeDepth = 0;
+		}
+
+		/**
+		 * Records that the current ray tree reached a depth
+		 *
+		 * @param depth the depth (1 for the primary ray hit)
+		 */
+		void reachDepth(int depth) {
+			if (depth > treeDepth)
+				treeDepth = depth;
+		}
+
+		/**
+		 * Finishes the ray tree of a primary ray
+		 */
+		void finishTree() {
+			treeDepthSum += treeDepth;
+			++trees;
+		}
+	}
+
+	/** The counters of all the threads which have counted anything */
+	private final Queue<Counters> allCounters = new ConcurrentLinkedQueue<>();
+	/** The counters of the current thread */
+	private final ThreadLocal<Counters> counters = ThreadLocal.withInitial(() -> {
+		Counters threadCounters = new Counters();
+		allCounters.add(threadCounters);
+		return threadCounters;
+	});
+
+	/**
+	 * Returns the counters of the current thread
+	 *
+	 * @return the counters
+	 */
+	Counters counters() {
+		return counters.get();
+	}
+
+	/**
+	 * Produces the report of the collected statistics. The rendering must be
+	 * finished (the rendering threads must have been joined).
+	 *
+	 * @param renderNanos the wall time of the render
+	 * @return the report
+	 */
+	public RenderReport report(long renderNanos) {
+		long[] rays = new long[RayType.values().length];
+		long[] stageNanos = new long[Stage.values().length];
+		long treeDepthSum = 0;
+		long trees = 0;
+		List<IntersectionCounter> intersections = new ArrayList<>();
+		for (Counters threadCounters : allCounters) {
+			intersections.add(threadCounters.intersections);
+			for (int i = 0; i < rays.length; ++i)
+				rays[i] += threadCounters.rays[i];
+			for (int i = 0; i < stageNanos.length; ++i)
+				stageNanos[i] += threadCounters.stageNanos[i];
+			treeDepthSum += threadCounters.treeDepthSum;
+			trees += threadCounters.trees;
+		}
+		long shadow = stageNanos[Stage.SHADOW.ordinal()];
+		return new RenderReport(rays[RayType.PRIMARY.ordinal()], rays[RayType.REFLECTION.ordinal()],
+				rays[RayType.REFRACTION.ordinal()], rays[RayType.SHADOW.ordinal()],
+				IntersectionCounter.sum(intersections), trees == 0 ? 0 : (double) treeDepthSum / trees,
+				stageNanos[Stage.CLOSEST_HIT.ordinal()], Math.max(0, stageNanos[Stage.SHADING.ordinal()] - shadow), shadow, renderNanos);
+	}
+}
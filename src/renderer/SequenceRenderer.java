@@ -0,0 +1,271 @@
+package renderer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Logger;
+
+import geometries.Geometries;
+import geometries.Geometries.RefitReport;
+import scene.Scene;
+
+/**
+ * Renders an animation - a sequence of frames of a scene seen by a camera
+ * moving along a camera path. The scene is prepared once and the same ray
+ * tracer (and therefore the same acceleration structure) serves all the
+ * frames. The frames are pipelined through a single thread pool: the tiles of
+ * the next frames are queued behind the tiles of the current one, and a
+ * finished frame is written by an asynchronous image writer while the
+ * following frames are being rendered.
+ * 
+ * If a frame updater is set, it may move bodies of the scene before each frame
+ * - the first frame is updated before the scene is prepared, then each
+ * following frame waits for the previous one to be rendered, and the scene is
+ * updated by {@link Scene#refit(double)}: the acceleration structure is
+ * refitted instead of being rebuilt, and the material table and the lights'
+ * shadow maps are built again for the moved bodies. The ray tracer must then
+ * trace the scene itself - not a {@link scene.CompiledScene} snapshot of it,
+ * which would never see the bodies move.
+ *
+ * @author Eti and Chavi
+ */
+public class SequenceRenderer {
+	/**
+	 * Summary of a rendered sequence
+	 *
+	 * @param frames          amount of rendered frames
+	 * @param nanos           total rendering time (including writing the last
+	 *                        frames) in nanoseconds
+	 * @param framesPerMinute the achieved throughput
+	 * @param refits          timing of the acceleration structure update before
+	 *                        each frame after the first one (the first frame's
+	 *                        bodies are placed before the scene is prepared;
+	 *                        empty if there is no frame updater)
+	 */
+	public record SequenceReport(int frames, long nanos, double framesPerMinute, List<RefitReport> refits) {
+		@Override
+		public String toString() {
+			return String.format("%d frames in %.2f s - %.1f frames per minute", frames, nanos / 1e9, framesPerMinute);
+		}
+	}
+
+	/**
+	 * Changes the scene before a frame is rendered - typically moves bodies by
+	 * {@link Geometries#replace(geometries.Intersectable, geometries.Intersectable)}
+	 * or by {@link geometries.Instance#setTransform(primitives.Transform)}
+	 */
+	@FunctionalInterface
+	public interface FrameUpdater {
+		/**
+		 * Updates the scene for a frame
+		 *
+		 * @param frame the frame number
+		 * @param time  the time of the frame on the camera path
+		 */
+		void update(int frame, double time);
+	}
+
+	private final Scene scene;
+	private final RayTracerBase rayTracer;
+	private final CameraPath path;
+
+	private double width;
+	private double height;
+	private double distance;
+	private int nX;
+	private int nY;
+	private String imageName = "frame";
+	private int threadsCount = Runtime.getRuntime().availableProcessors();
+	/** Maximal amount of frames rendered or waiting to be written at once */
+	private int framesInFlight = 2;
+	private FrameUpdater frameUpdater = null;
+	/** Growth of a hierarchy node's surface area which triggers its rebuild */
+	private double rebuildThreshold = Geometries.DEFAULT_REBUILD_THRESHOLD;
+
+	private Logger logger = Logger.getLogger("SequenceRenderer");
+
+	/**
+	 * Constructs a sequence renderer of a scene seen along a camera path
+	 *
+	 * @param scene     the scene to render - changed only by the frame updater
+	 * @param rayTracer the ray tracer shared by all the frames
+	 * @param path      the camera path
+	 */
+	public SequenceRenderer(Scene scene, RayTracerBase rayTracer, CameraPath path) {
+		this.scene = scene;
+		this.rayTracer = rayTracer;
+		this.path = path;
+	}
+
+	/**
+	 * Sets the size of the view plane of every frame
+	 *
+	 * @param width  the width of the view plane
+	 * @param height the height of the view plane
+	 * @return this sequence renderer
+	 */
+	public SequenceRenderer setVPSize(double width, double height) {
+		this.width = width;
+		this.height = height;
+		return this;
+	}
+
+	/**
+	 * Sets the distance between the camera and the view plane of every frame
+	 *
+	 * @param distance the view plane distance
+	 * @return this sequence renderer
+	 */
+	public SequenceRenderer setVPDistance(double distance) {
+		this.distance = distance;
+		return this;
+	}
+
+	/**
+	 * Sets the resolution of the frames
+	 *
+	 * @param nX amount of pixels by width
+	 * @param nY amount of pixels by height
+	 * @return this sequence renderer
+	 */
+	public SequenceRenderer setResolution(int nX, int nY) {
+		this.nX = nX;
+		this.nY = nY;
+		return this;
+	}
+
+	/**
+	 * Sets the name prefix of the frames' image files - the frame number is
+	 * appended to it
+	 *
+	 * @param imageName the image name prefix
+	 * @return this sequence renderer
+	 */
+	public SequenceRenderer setImageName(String imageName) {
+		this.imageName = imageName;
+		return this;
+	}
+
+	/**
+	 * Sets the amount of threads in the rendering pool
+	 *
+	 * @param threadsCount the amount of rendering threads
+	 * @return this sequence renderer
+	 */
+	public SequenceRenderer setMultithreading(int threadsCount) {
+		if (threadsCount < 1)
+			throw new IllegalArgumentException("Threads count must be positive");
+		this.threadsCount = threadsCount;
+		return this;
+	}
+
+	/**
+	 * Sets the maximal amount of frames being rendered or waiting to be written at
+	 * once
+	 *
+	 * @param framesInFlight the amount of pipelined frames
+	 * @return this sequence renderer
+	 */
+	public SequenceRenderer setFramesInFlight(int framesInFlight) {
+		if (framesInFlight < 1)
+			throw new IllegalArgumentException("Frames in flight must be positive");
+		this.framesInFlight = framesInFlight;
+		return this;
+	}
+
+	/**
+	 * Sets the updater changing the scene before each frame
+	 *
+	 * @param frameUpdater the frame updater
+	 * @return this sequence renderer
+	 */
+	public SequenceRenderer setFrameUpdater(FrameUpdater frameUpdater) {
+		this.frameUpdater = frameUpdater;
+		return this;
+	}
+
+	/**
+	 * Sets the growth factor of a hierarchy node's surface area which triggers
+	 * its rebuild when the hierarchy is refitted between frames
+	 *
+	 * @param rebuildThreshold the rebuild threshold
+	 * @return this sequence renderer
+	 */
+	public SequenceRenderer setRebuildThreshold(double rebuildThreshold) {
+		this.rebuildThreshold = rebuildThreshold;
+		return this;
+	}
+
+	/**
+	 * Name of the image file of a frame
+	 *
+	 * @param frame the frame number
+	 * @return the image name
+	 */
+	public String frameName(int frame) {
+		return String.format("%s%04d", imageName, frame);
+	}
+
+	/**
+	 * Renders the frames evenly spread over the camera path's time range and
+	 * writes them to image files
+	 *
+	 * @param frames amount of frames
+	 * @return summary of the rendering
+	 * @throws IllegalStateException if there is a frame updater and the ray tracer
+	 *                               does not trace the sequence's scene (e.g. it
+	 *                               traces a compiled snapshot of it)
+	 */
+	public SequenceReport render(int frames) {
+		if (frames < 1)
+			throw new IllegalArgumentException("Frames count must be positive");
+		if (frameUpdater != null && rayTracer.scene != scene)
+			throw new IllegalStateException("A sequence with a frame updater must be traced in its own scene");
+		double start = path.getStartTime();
+		double step = frames == 1 ? 0 : (path.getEndTime() - start) / (frames - 1);
+		// the first frame's bodies are placed before the scene is prepared, so that
+		// they are not refitted right after being built
+		if (frameUpdater != null)
+			frameUpdater.update(0, start);
+		scene.prepare();
+
+		long begin = System.nanoTime();
+		ExecutorService pool = Executors.newFixedThreadPool(threadsCount);
+		Semaphore inFlight = new Semaphore(framesInFlight);
+		CompletableFuture<?>[] written = new CompletableFuture<?>[frames];
+		List<RefitReport> refits = new ArrayList<>();
+		try (AsyncImageWriter writer = new AsyncImageWriter(framesInFlight)) {
+			CompletableFuture<Camera> rendered = null;
+			for (int frame = 0; frame < frames; ++frame) {
+				inFlight.acquireUninterruptibly();
+				double time = start + frame * step;
+				if (frameUpdater != null && frame > 0) {
+					// bodies must not move under a frame which is still being rendered
+					rendered.join();
+					frameUpdater.update(frame, time);
+					RefitReport refit = scene.refit(rebuildThreshold);
+					refits.add(refit);
+					logger.info("Frame " + frame + ": " + refit);
+				}
+				Camera camera = path.cameraAt(time) //
+						.setVPSize(width, height).setVPDistance(distance) //
+						.setImageWriter(new ImageWriter(frameName(frame), nX, nY)) //
+						.setRayTracer(rayTracer);
+				rendered = camera.renderImageAsync(pool);
+				written[frame] = rendered.thenCompose(c -> c.writeToImage(writer)) //
+						.whenComplete((v, e) -> inFlight.release());
+			}
+			CompletableFuture.allOf(written).join();
+		} finally {
+			pool.shutdown();
+		}
+
+		long nanos = System.nanoTime() - begin;
+		SequenceReport report = new SequenceReport(frames, nanos, frames * 60e9 / nanos, refits);
+		logger.info(report.toString());
+		return report;
+	}
+}
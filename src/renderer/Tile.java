@@ -0,0 +1,60 @@
+package renderer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A rectangular block of pixels of the view plane - the unit of work of a
+ * render
+ *
+ * @param x      column of the tile's upper left pixel
+ * @param y      row of the tile's upper left pixel
+ * @param width  amount of pixel columns in the tile
+ * @param height amount of pixel rows in the tile
+ *
+ * @author Eti and Chavi
+ */
+public record Tile(int x, int y, int width, int height) {
+
+	/**
+	 * Splits a view plane into tiles, row of tiles after row of tiles. The tiles of
+	 * the last column and the last row are cut to the view plane's size.
+	 *
+	 * @param nX   amount of pixel columns in the view plane
+	 * @param nY   amount of pixel rows in the view plane
+	 * @param size the width and height of a full tile
+	 * @return the tiles covering the view plane
+	 */
+	public static List<Tile> split(int nX, int nY, int size) {
+		if (size < 1)
+			throw new IllegalArgumentException("Tile size must be positive");
+		List<Tile> tiles = new ArrayList<>();
+		for (int y = 0; y < nY; y += size)
+			for (int x = 0; x < nX; x += size)
+				tiles.add(new Tile(x, y, Math.min(size, nX - x), Math.min(size, nY - y)));
+		return tiles;
+	}
+
+	/**
+	 * Splits the tile into smaller tiles, row after row. The tiles of the last
+	 * column and the last row are cut to this tile's size.
+	 *
+	 * @param size the width and height of a full tile
+	 * @return the tiles covering this tile
+	 */
+	public List<Tile> split(int size) {
+		List<Tile> tiles = new ArrayList<>();
+		for (Tile tile : split(width, height, size))
+			tiles.add(new Tile(x + tile.x, y + tile.y, tile.width, tile.height));
+		return tiles;
+	}
+
+	/**
+	 * Amount of pixels in the tile
+	 *
+	 * @return the amount of pixels
+	 */
+	public int size() {
+		return width * height;
+	}
+}
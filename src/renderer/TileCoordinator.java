@@ -0,0 +1,164 @@
+package renderer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.MissingResourceException;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Coordinator of distributed rendering - splits a camera's image into tiles
+ * and sends them to {@link TileWorker} processes over TCP (see
+ * {@link TileProtocol}), writing the rendered tiles into the camera's image
+ * writer. Every worker connection renders one tile at a time, so faster
+ * workers render more tiles. A worker that fails, or does not answer a tile in
+ * time, is dropped and its tile is given to another worker.
+ *
+ * The workers must hold the same scene. The camera's depth of field settings
+ * are not sent to the workers.
+ *
+ * @author Eti and Chavi
+ */
+public class TileCoordinator {
+	private final Logger logger = Logger.getLogger("TileCoordinator");
+
+	/** The workers' addresses, an address may appear several times */
+	private final List<InetSocketAddress> workers;
+	/** The width and height of a tile */
+	private int tileSize = 32;
+	/** Time to wait for a worker to connect or to answer a tile, in milliseconds */
+	private int timeout = 30000;
+
+	/**
+	 * Constructs a coordinator. Every address gets its own connection, so a worker
+	 * may appear several times to render several tiles at once.
+	 *
+	 * @param workers the workers' addresses
+	 */
+	public TileCoordinator(List<InetSocketAddress> workers) {
+		if (workers.isEmpty())
+			throw new IllegalArgumentException("No workers");
+		this.workers = List.copyOf(workers);
+	}
+
+	/**
+	 * Sets the width and height of the tiles
+	 *
+	 * @param tileSize the tile size in pixels
+	 * @return the coordinator itself
+	 */
+	public TileCoordinator setTileSize(int tileSize) {
+		if (tileSize < 1)
+			throw new IllegalArgumentException("Tile size must be positive");
+		this.tileSize = tileSize;
+		return this;
+	}
+
+	/**
+	 * Sets the time to wait for a worker to connect or to answer a tile, after
+	 * which the worker is dropped
+	 *
+	 * @param timeout the time in milliseconds
+	 * @return the coordinator itself
+	 */
+	public TileCoordinator setTimeout(int timeout) {
+		if (timeout < 1)
+			throw new IllegalArgumentException("Timeout must be positive");
+		this.timeout = timeout;
+		return this;
+	}
+
+	/**
+	 * Renders the camera's image by the workers into the camera's image writer
+	 *
+	 * @param camera the camera (its ray tracer is not used)
+	 * @return the camera
+	 * @throws MissingResourceException if the camera's image writer is not set
+	 * @throws IllegalStateException    if all the workers failed before the image
+	 *                                  was done
+	 */
+	public Camera render(Camera camera) {
+		ImageWriter image = camera.getImageWriter();
+		if (image == null)
+			throw new MissingResourceException("Camera resource not set", "Camera", "Image writer");
+		List<Tile> tiles = Tile.split(image.getNx(), image.getNy(), tileSize);
+		BlockingDeque<Tile> queue = new LinkedBlockingDeque<>(tiles);
+		AtomicInteger remaining = new AtomicInteger(tiles.size());
+
+		ExecutorService connections = Executors.newFixedThreadPool(workers.size());
+		try {
+			CompletableFuture<?>[] finished = new CompletableFuture<?>[workers.size()];
+			for (int w = 0; w < finished.length; ++w) {
+				InetSocketAddress worker = workers.get(w);
+				finished[w] = CompletableFuture.runAsync(() -> serve(worker, camera, queue, remaining), connections);
+			}
+			CompletableFuture.allOf(finished).join();
+		} finally {
+			connections.shutdownNow();
+		}
+		if (remaining.get() > 0)
+			throw new IllegalStateException("All the workers failed, " + remaining.get() + " tiles not rendered");
+		return camera;
+	}
+
+	/**
+	 * Sends tiles to a worker until all the tiles are rendered or the worker fails
+	 *
+	 * @param worker    the worker's address
+	 * @param camera    the rendering camera
+	 * @param queue     the tiles to render
+	 * @param remaining amount of tiles not rendered yet
+	 */
+	private void serve(InetSocketAddress worker, Camera camera, BlockingDeque<Tile> queue,
+			AtomicInteger remaining) {
+		ImageWriter image = camera.getImageWriter();
+		try (Socket socket = new Socket()) {
+			socket.connect(worker, timeout);
+			socket.setSoTimeout(timeout);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			TileProtocol.writeCamera(out, camera);
+			out.flush();
+			while (remaining.get() > 0) {
+				// a tile given back by a failed worker may still come, so wait a little
+				Tile tile = queue.poll(10, TimeUnit.MILLISECONDS);
+				if (tile == null)
+					continue;
+				try {
+					TileProtocol.writeTile(out, tile);
+					out.flush();
+					if (!TileProtocol.readTile(in).equals(tile))
+						throw new IOException("Worker answered another tile");
+					int[] pixels = new int[tile.size()];
+					for (int p = 0; p < pixels.length; ++p)
+						pixels[p] = in.readInt();
+					int p = 0;
+					for (int i = tile.y(); i < tile.y() + tile.height(); ++i)
+						for (int j = tile.x(); j < tile.x() + tile.width(); ++j)
+							image.writeRGB(j, i, pixels[p++]);
+					remaining.decrementAndGet();
+				} catch (IOException e) {
+					queue.addFirst(tile);
+					throw e;
+				}
+			}
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Worker " + worker + " dropped: " + e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
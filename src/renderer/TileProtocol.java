@@ -0,0 +1,138 @@
+package renderer;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+/**
+ * The protocol between a {@link TileCoordinator} and its {@link TileWorker}s.
+ * The coordinator opens a connection with the protocol's magic number and the
+ * camera setup, then sends tiles (x, y, width and height) one at a time. The
+ * worker answers each tile by the tile and the RGB values of its pixels, row
+ * after row. The coordinator closes the connection when the image is done.
+ *
+ * @author Eti and Chavi
+ */
+final class TileProtocol {
+	/** The first value sent on a connection - identifies the protocol version */
+	static final int MAGIC = 0x52544C31;
+	/** The largest image width or height accepted from a connection, in pixels */
+	static final int MAX_RESOLUTION = 16384;
+
+	/**
+	 * Empty private constructor to hide the public one
+	 */
+	private TileProtocol() {
+	}
+
+	/**
+	 * Sends the setup of a camera
+	 *
+	 * @param out    the connection
+	 * @param camera the camera
+	 * @throws IOException if the connection fails
+	 */
+	static void writeCamera(DataOutputStream out, Camera camera) throws IOException {
+		out.writeInt(MAGIC);
+		writeTriad(out, camera.getP0());
+		writeTriad(out, camera.getvTo());
+		writeTriad(out, camera.getvUp());
+		out.writeDouble(camera.getWidth());
+		out.writeDouble(camera.getHeight());
+		out.writeDouble(camera.getDistance());
+		out.writeInt(camera.getImageWriter().getNx());
+		out.writeInt(camera.getImageWriter().getNy());
+	}
+
+	/**
+	 * Receives the setup of a camera and constructs the camera
+	 *
+	 * @param in    the connection
+	 * @param scene the prepared scene the camera renders
+	 * @return the camera
+	 * @throws IOException if the connection fails or does not follow the protocol,
+	 *                     e.g. sends an image size which is not positive or is
+	 *                     larger than {@link #MAX_RESOLUTION}
+	 */
+	static Camera readCamera(DataInputStream in, Scene scene) throws IOException {
+		if (in.readInt() != MAGIC)
+			throw new IOException("Not a tile rendering connection");
+		Point p0 = readPoint(in);
+		Vector to = readVector(in);
+		Vector up = readVector(in);
+		double width = in.readDouble();
+		double height = in.readDouble();
+		double distance = in.readDouble();
+		int nX = in.readInt();
+		int nY = in.readInt();
+		if (nX < 1 || nY < 1 || nX > MAX_RESOLUTION || nY > MAX_RESOLUTION)
+			throw new IOException("Bad image size " + nX + "x" + nY);
+		return new Camera(p0, to, up).setVPSize(width, height).setVPDistance(distance) //
+				.setImageWriter(new ImageWriter("tiles", nX, nY)) //
+				.setRayTracer(new RayTracerBasic(scene));
+	}
+
+	/**
+	 * Sends a tile
+	 *
+	 * @param out  the connection
+	 * @param tile the tile
+	 * @throws IOException if the connection fails
+	 */
+	static void writeTile(DataOutputStream out, Tile tile) throws IOException {
+		out.writeInt(tile.x());
+		out.writeInt(tile.y());
+		out.writeInt(tile.width());
+		out.writeInt(tile.height());
+	}
+
+	/**
+	 * Receives a tile
+	 *
+	 * @param in the connection
+	 * @return the tile
+	 * @throws IOException if the connection fails
+	 */
+	static Tile readTile(DataInputStream in) throws IOException {
+		return new Tile(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+	}
+
+	/**
+	 * Sends the coordinates of a point (or a vector)
+	 *
+	 * @param out   the connection
+	 * @param point the point
+	 * @throws IOException if the connection fails
+	 */
+	private static void writeTriad(DataOutputStream out, Point point) throws IOException {
+		out.writeDouble(point.getX());
+		out.writeDouble(point.getY());
+		out.writeDouble(point.getZ());
+	}
+
+	/**
+	 * Receives the coordinates of a point
+	 *
+	 * @param in the connection
+	 * @return the point
+	 * @throws IOException if the connection fails
+	 */
+	private static Point readPoint(DataInputStream in) throws IOException {
+		return new Point(in.readDouble(), in.readDouble(), in.readDouble());
+	}
+
+	/**
+	 * Receives the coordinates of a vector
+	 *
+	 * @param in the connection
+	 * @return the vector
+	 * @throws IOException if the connection fails
+	 */
+	private static Vector readVector(DataInputStream in) throws IOException {
+		return new Vector(in.readDouble(), in.readDouble(), in.readDouble());
+	}
+}
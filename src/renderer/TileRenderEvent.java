@@ -0,0 +1,41 @@
+package renderer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of rendering a tile of an image
+ *
+ * @author Eti and Chavi
+ */
+@Name("raytracer.TileRender")
+@Label("Tile Render")
+@Category({ "Ray Tracer", "Rendering" })
+@Description("Rendering the pixels of a tile")
+class TileRenderEvent extends jdk.jfr.Event {
+	/** X axis index of the tile's first pixel */
+	@Label("X")
+	int x;
+
+	/** Y axis index of the tile's first pixel */
+	@Label("Y")
+	int y;
+
+	/** The tile width in pixels */
+	@Label("Width")
+	int width;
+
+	/** The tile height in pixels */
+	@Label("Height")
+	int height;
+
+	/** Amount of rays cast from the camera per pixel */
+	@Label("Samples Per Pixel")
+	int samples;
+
+	/** Amount of rays cast from the camera */
+	@Label("Primary Rays")
+	long rays;
+}
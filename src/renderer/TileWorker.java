@@ -0,0 +1,147 @@
+package renderer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import scene.Scene;
+import scene.SceneParser;
+
+/**
+ * Worker process of distributed rendering - holds a prepared scene and renders
+ * the tiles sent by {@link TileCoordinator}s over TCP connections (see
+ * {@link TileProtocol}). Every connection is served by its own thread, so a
+ * coordinator may open several connections to the same worker to use several
+ * of its processors.
+ *
+ * @author Eti and Chavi
+ */
+public class TileWorker implements AutoCloseable {
+	private final Logger logger = Logger.getLogger("TileWorker");
+
+	private final Scene scene;
+	private final ServerSocket server;
+	/** The open connections */
+	private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Starts a worker listening for coordinators
+	 *
+	 * @param scene the scene to render, it is prepared by the worker
+	 * @param port  the port to listen on, 0 for any free port
+	 * @throws IOException if the port cannot be listened on
+	 */
+	public TileWorker(Scene scene, int port) throws IOException {
+		this.scene = scene.prepare();
+		server = new ServerSocket(port);
+		new Thread(this::accept, "tile-worker-" + server.getLocalPort()).start();
+	}
+
+	/**
+	 * Returns the port the worker listens on
+	 *
+	 * @return the port
+	 */
+	public int getPort() {
+		return server.getLocalPort();
+	}
+
+	/**
+	 * Accepts connections until the worker is closed
+	 */
+	private void accept() {
+		while (!server.isClosed()) {
+			try {
+				Socket socket = server.accept();
+				connections.add(socket);
+				Thread connection = new Thread(() -> serve(socket), "tile-connection-" + socket.getPort());
+				connection.setDaemon(true);
+				connection.start();
+			} catch (IOException e) {
+				if (!server.isClosed())
+					logger.log(Level.WARNING, "Failed accepting a connection", e);
+			}
+		}
+	}
+
+	/**
+	 * Renders the tiles requested over a connection until the coordinator closes
+	 * it
+	 *
+	 * @param socket the connection
+	 */
+	private void serve(Socket socket) {
+		try (socket) {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			Camera camera = TileProtocol.readCamera(in, scene);
+			ImageWriter image = camera.getImageWriter();
+			int nX = image.getNx();
+			int nY = image.getNy();
+			while (true) {
+				Tile tile;
+				try {
+					tile = TileProtocol.readTile(in);
+				} catch (EOFException e) {
+					return; // the coordinator is done
+				}
+				if (tile.x() < 0 || tile.y() < 0 || tile.width() < 1 || tile.height() < 1
+						|| tile.x() + tile.width() > nX || tile.y() + tile.height() > nY)
+					throw new IOException("Tile out of the image: " + tile);
+				camera.renderTile(tile, nX, nY);
+				TileProtocol.writeTile(out, tile);
+				for (int i = tile.y(); i < tile.y() + tile.height(); ++i)
+					for (int j = tile.x(); j < tile.x() + tile.width(); ++j)
+						out.writeInt(image.readRGB(j, i));
+				out.flush();
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			if (!server.isClosed())
+				logger.log(Level.WARNING, "Connection failed", e);
+		} finally {
+			connections.remove(socket);
+		}
+	}
+
+	/**
+	 * Stops the worker, dropping the open connections
+	 */
+	@Override
+	public void close() {
+		try {
+			server.close();
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Failed closing the server socket", e);
+		}
+		for (Socket socket : connections)
+			try {
+				socket.close();
+			} catch (IOException ignore) {
+				// the connection is dropped anyway
+			}
+	}
+
+	/**
+	 * Runs a worker until the process is stopped
+	 *
+	 * @param args the scene file and the port to listen on
+	 * @throws IOException if the scene cannot be read or the port cannot be
+	 *                     listened on
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2)
+			throw new IllegalArgumentException("Usage: TileWorker <scene file> <port>");
+		TileWorker worker = new TileWorker(SceneParser.parse(Path.of(args[0])), Integer.parseInt(args[1]));
+		Logger.getLogger("TileWorker").info("Tile worker listening on port " + worker.getPort());
+	}
+}
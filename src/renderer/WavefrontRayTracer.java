@@ -0,0 +1,393 @@
+package renderer;
+
+import static primitives.Util.alignZero;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.MaterialTable;
+import lighting.LightSource;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.RenderStatistics.RayType;
+import scene.SceneView;
+
+/**
+ * Ray tracer processing a batch of primary rays (the pixels of a tile, see
+ * {@link #traceRays(Ray[], Color[])}) in waves of rays of the same depth
+ * instead of recursively pixel after pixel. Every wave passes through stages,
+ * each stage processes the whole wave before the next one starts:
+ * <ol>
+ * <li>intersect - finds the closest hits of the wave's rays</li>
+ * <li>shade - spawns the shadow rays of the hits (to the lights they get and
+ * whose contribution is above the light cutoff), traces them all and adds the
+ * local effects of the hits to their pixels</li>
+ * <li>spawn - creates the next wave of the reflected and the refracted rays,
+ * and of the beams of the glossy reflections and the blurry refractions</li>
+ * </ol>
+ * The first wave is generated from the primary rays. The colors are the same as
+ * the colors of {@link RayTracerBasic}, up to rounding, since the contributions
+ * of a ray tree are summed in another order. A glossy or blurry beam is taken
+ * from its pixel's beam budget as by {@link RayTracerBasic}, but all its rays
+ * are spawned at once, each contributing its share of the beam - the colors of
+ * a beam's rays are known only after the next wave, so the beam is not probed
+ * for uniformity first, and the beams of a pixel take the budget breadth first.
+ * The colors of the beams are therefore the same up to their sampling. When the
+ * lights are sampled (see {@link #setLightSamples(int)}), every hit samples its
+ * lights with the random numbers of its pixel, as by {@link RayTracerBasic};
+ * since the hits of a pixel are shaded in another order, the lights sampled by
+ * the reflections and the refractions differ, with the same expected colors.
+ * The batches of different tiles are processed by the camera's rendering
+ * threads.
+ *
+ * @author Eti and Chavi
+ */
+public class WavefrontRayTracer extends RayTracerBasic {
+	/**
+	 * A queue of rays of a wave and the pixels they contribute to. The rays are
+	 * kept as objects rather than as coordinates in primitive arrays, since the
+	 * geometries intersect {@link Ray} objects - the stages would only make the
+	 * same rays again from the coordinates.
+	 */
+	private static final class RayQueue {
+		/** Amount of rays in the queue */
+		int size = 0;
+		Ray[] rays;
+		/** The pixel (index in the batch) of every ray */
+		int[] pixels;
+		/** The attenuation of every ray's contribution to its pixel */
+		Double3[] k;
+		/** The share of every ray in its beams' contribution, 1 for a single ray */
+		double[] weight;
+
+		/**
+		 * Constructs a queue
+		 *
+		 * @param capacity the initial capacity
+		 */
+		RayQueue(int capacity) {
+			rays = new Ray[capacity];
+			pixels = new int[capacity];
+			k = new Double3[capacity];
+			weight = new double[capacity];
+		}
+
+		/**
+		 * Adds a ray to the queue
+		 *
+		 * @param ray         the ray
+		 * @param pixel       the pixel of the ray
+		 * @param attenuation the attenuation of the ray's contribution
+		 * @param share       the share of the ray in its beams' contribution
+		 */
+		void add(Ray ray, int pixel, Double3 attenuation, double share) {
+			if (size == rays.length) {
+				int capacity = Math.max(16, 2 * size);
+				rays = Arrays.copyOf(rays, capacity);
+				pixels = Arrays.copyOf(pixels, capacity);
+				k = Arrays.copyOf(k, capacity);
+				weight = Arrays.copyOf(weight, capacity);
+			}
+			rays[size] = ray;
+			pixels[size] = pixel;
+			k[size] = attenuation;
+			weight[size++] = share;
+		}
+	}
+
+	/**
+	 * A queue of shadow rays - a hit and a light source it faces
+	 */
+	private static final class ShadowQueue {
+		/** Amount of shadow rays in the queue */
+		int size = 0;
+		/** The hit (index in the wave) of every shadow ray */
+		int[] hits;
+		/** The light source of every shadow ray */
+		LightSource[] lights;
+		/** The direction from the light to the hit point */
+		Vector[] l;
+		/** The dot product of the normal and the light direction */
+		double[] nl;
+
+		/**
+		 * Constructs a queue
+		 *
+		 * @param capacity the initial capacity
+		 */
+		ShadowQueue(int capacity) {
+			hits = new int[capacity];
+			lights = new LightSource[capacity];
+			l = new Vector[capacity];
+			nl = new double[capacity];
+		}
+
+		/**
+		 * Adds a shadow ray to the queue
+		 *
+		 * @param hit        the hit index
+		 * @param light      the light source
+		 * @param lightToHit the direction from the light to the hit point
+		 * @param dot        the dot product of the normal and the light direction
+		 */
+		void add(int hit, LightSource light, Vector lightToHit, double dot) {
+			if (size == hits.length) {
+				int capacity = Math.max(16, 2 * size);
+				hits = Arrays.copyOf(hits, capacity);
+				lights = Arrays.copyOf(lights, capacity);
+				l = Arrays.copyOf(l, capacity);
+				nl = Arrays.copyOf(nl, capacity);
+			}
+			hits[size] = hit;
+			lights[size] = light;
+			l[size] = lightToHit;
+			nl[size++] = dot;
+		}
+	}
+
+	/**
+	 * Constructs a wavefront ray tracer of a scene
+	 *
+	 * @param scene the scene
+	 */
+	public WavefrontRayTracer(SceneView scene) {
+		super(scene);
+	}
+
+	@Override
+	public Color traceRay(Ray ray) {
+		Color[] colors = new Color[1];
+		traceRays(new Ray[] { ray }, colors);
+		return colors[0];
+	}
+
+	@Override
+	public void traceRays(Ray[] rays, Color[] colors) {
+		int[] depths = new int[rays.length];
+		// generate
+		RayQueue wave = new RayQueue(rays.length);
+		for (int i = 0; i < rays.length; ++i)
+			wave.add(rays[i], i, INIT_CALC_COLOR_K, 1);
+		int[] beamRaysLeft = new int[rays.length];
+		Arrays.fill(beamRaysLeft, getBeamBudget());
+		SplittableRandom[] randoms = null;
+		if (samplesLights()) {
+			randoms = new SplittableRandom[rays.length];
+			for (int i = 0; i < rays.length; ++i) {
+				startRayTree(rays[i]);
+				randoms[i] = getLightRandom();
+			}
+		}
+
+		for (int level = MAX_CALC_COLOR_LEVEL; wave.size > 0; --level) {
+			GeoPoint[] hits = intersect(wave);
+			Vector[] normals = new Vector[wave.size];
+			for (int h = 0; h < wave.size; ++h)
+				if (hits[h] != null) {
+					normals[h] = hits[h].geometry.getNormal(hits[h].point);
+					depths[wave.pixels[h]] = MAX_CALC_COLOR_LEVEL - level + 1;
+				} else if (level == MAX_CALC_COLOR_LEVEL)
+					colors[wave.pixels[h]] = scene.getBackground();
+			shade(wave, hits, normals, randoms, colors);
+			wave = level == 1 ? new RayQueue(0) : spawn(wave, hits, normals, level, beamRaysLeft);
+		}
+
+		Color ambient = scene.getAmbientLight().getIntensity();
+		for (int i = 0; i < rays.length; ++i) {
+			if (depths[i] > 0)
+				colors[i] = colors[i].add(ambient);
+			if (statistics != null) {
+				statistics.startTree();
+				statistics.reachDepth(depths[i]);
+				statistics.finishTree();
+			}
+		}
+	}
+
+	/**
+	 * The intersect stage - finds the closest hits of a wave's rays
+	 *
+	 * @param wave the wave
+	 * @return the closest hit of every ray, null if it misses the scene
+	 */
+	private GeoPoint[] intersect(RayQueue wave) {
+		GeoPoint[] hits = new GeoPoint[wave.size];
+		for (int r = 0; r < wave.size; ++r)
+			hits[r] = findClosestIntersection(wave.rays[r]);
+		return hits;
+	}
+
+	/**
+	 * The shade stage - spawns the shadow rays of a wave's hits, traces them and
+	 * adds the hits' local effects (emission, diffuse and specular light) to their
+	 * pixels
+	 *
+	 * @param wave    the wave
+	 * @param hits    the closest hits of the wave's rays
+	 * @param normals the normals at the hits
+	 * @param randoms the light sampling random numbers of the pixels, null if the
+	 *                lights are not sampled
+	 * @param colors  the pixels' colors
+	 */
+	private void shade(RayQueue wave, GeoPoint[] hits, Vector[] normals, SplittableRandom[] randoms,
+			Color[] colors) {
+		Color[] local = randoms == null ? shadeLights(wave, hits, normals) : sampleLights(wave, hits, normals, randoms);
+		for (int h = 0; h < wave.size; ++h) {
+			if (hits[h] == null)
+				continue;
+			int pixel = wave.pixels[h];
+			Color contribution = local[h].scale(wave.k[h]);
+			if (wave.weight[h] != 1)
+				contribution = contribution.scale(wave.weight[h]);
+			colors[pixel] = colors[pixel] == null ? contribution : colors[pixel].add(contribution);
+		}
+	}
+
+	/**
+	 * Shades a wave's hits by sampling their lights, every hit with the random
+	 * numbers of its pixel
+	 *
+	 * @param wave    the wave
+	 * @param hits    the closest hits of the wave's rays
+	 * @param normals the normals at the hits
+	 * @param randoms the light sampling random numbers of the pixels
+	 * @return the local effects of the hits
+	 */
+	private Color[] sampleLights(RayQueue wave, GeoPoint[] hits, Vector[] normals, SplittableRandom[] randoms) {
+		Color[] local = new Color[wave.size];
+		for (int h = 0; h < wave.size; ++h)
+			if (hits[h] != null) {
+				setLightRandom(randoms[wave.pixels[h]]);
+				local[h] = calcLocalEffects(hits[h], normals[h], wave.rays[h], wave.k[h]);
+			}
+		return local;
+	}
+
+	/**
+	 * Shades a wave's hits by all their lights - spawns the shadow rays of the
+	 * hits, traces them all and then adds the lights
+	 *
+	 * @param wave    the wave
+	 * @param hits    the closest hits of the wave's rays
+	 * @param normals the normals at the hits
+	 * @return the local effects of the hits
+	 */
+	private Color[] shadeLights(RayQueue wave, GeoPoint[] hits, Vector[] normals) {
+		// spawn the shadow rays
+		boolean cutoff = scene.getLightCutoff() > 0;
+		// the lights a hit gets are found per hit (e.g. culled by the cutoff), so the queue grows on demand
+		ShadowQueue shadows = new ShadowQueue(wave.size);
+		MaterialTable table = scene.getMaterialTable();
+		int[] ids = new int[wave.size];
+		double[] nv = new double[wave.size];
+		for (int h = 0; h < wave.size; ++h) {
+			if (hits[h] == null)
+				continue;
+			ids[h] = materialId(table, hits[h].geometry);
+			Vector v = wave.rays[h].getDir();
+			nv[h] = alignZero(normals[h].dotProduct(v));
+			if (nv[h] == 0)
+				continue;
+			Material material = material(table, ids[h], hits[h].geometry);
+			for (LightSource light : scene.getLights(hits[h].point)) {
+				Vector l = light.getL(hits[h].point);
+				double nl = alignZero(normals[h].dotProduct(l));
+				if (nl * nv[h] > 0 && !(cutoff
+						&& negligible(light, hits[h], table, ids[h], material, normals[h], l, nl, v, wave.k[h])))
+					shadows.add(h, light, l, nl);
+			}
+		}
+
+		// trace the shadow rays
+		Double3[] ktr = new Double3[shadows.size];
+		for (int s = 0; s < shadows.size; ++s) {
+			int h = shadows.hits[s];
+			ktr[s] = transparency(hits[h], shadows.l[s], normals[h], nv[h], shadows.lights[s]);
+		}
+
+		// add the local effects
+		Color[] local = new Color[wave.size];
+		for (int h = 0; h < wave.size; ++h)
+			if (hits[h] != null)
+				local[h] = hits[h].geometry.getEmission();
+		for (int s = 0; s < shadows.size; ++s) {
+			int h = shadows.hits[s];
+			if (ktr[s].product(wave.k[h]).lowerThan(MIN_CALC_COLOR_K))
+				continue;
+			LightSource light = shadows.lights[s];
+			Point point = hits[h].point;
+			Material material = material(table, ids[h], hits[h].geometry);
+			Color intensity = light.getIntensity(point).scale(ktr[s]);
+			local[h] = local[h].add(intensity.scale(calcReflectance(table, ids[h], material, true, normals[h],
+					shadows.l[s], shadows.nl[s], wave.rays[h].getDir())));
+		}
+		return local;
+	}
+
+	/**
+	 * The spawn stage - creates the next wave of the reflected and the refracted
+	 * rays (or beams) of a wave's hits, skipping rays contributing too little
+	 *
+	 * @param wave         the wave
+	 * @param hits         the closest hits of the wave's rays
+	 * @param normals      the normals at the hits
+	 * @param level        the recursion level of the hits
+	 * @param beamRaysLeft the beam rays left for every pixel's ray tree
+	 * @return the next wave
+	 */
+	private RayQueue spawn(RayQueue wave, GeoPoint[] hits, Vector[] normals, int level, int[] beamRaysLeft) {
+		RayQueue next = new RayQueue(wave.size);
+		MaterialTable table = scene.getMaterialTable();
+		for (int h = 0; h < wave.size; ++h) {
+			if (hits[h] == null)
+				continue;
+			Material material = material(table, materialId(table, hits[h].geometry), hits[h].geometry);
+			Vector v = wave.rays[h].getDir();
+			Double3 kkr = material.kR.product(wave.k[h]);
+			if (!kkr.lowerThan(MIN_CALC_COLOR_K))
+				spawnBeam(next, wave, h, hits[h], normals[h], constructReflectedRay(hits[h], v, normals[h]),
+						material.glossiness, level, kkr, beamRaysLeft, RayType.REFLECTION);
+			Double3 kkt = material.kT.product(wave.k[h]);
+			if (!kkt.lowerThan(MIN_CALC_COLOR_K))
+				spawnBeam(next, wave, h, hits[h], normals[h], constructRefractedRay(hits[h], v, normals[h]),
+						material.blur, level, kkt, beamRaysLeft, RayType.REFRACTION);
+		}
+		return next;
+	}
+
+	/**
+	 * Adds a secondary ray of a hit to the next wave - or the rays of its beam,
+	 * if it is glossy or blurry and its pixel's budget grants the beam rays
+	 *
+	 * @param next         the next wave
+	 * @param wave         the wave of the hit
+	 * @param h            the index of the hit in its wave
+	 * @param hit          the hit
+	 * @param normal       the normal at the hit
+	 * @param ray          the secondary ray
+	 * @param spread       the radius of the ray's beam at distance 1, 0 for a
+	 *                     single ray
+	 * @param level        the recursion level of the hit
+	 * @param kkx          the attenuation of the ray's contribution
+	 * @param beamRaysLeft the beam rays left for every pixel's ray tree
+	 * @param type         the type of the ray (for the statistics)
+	 */
+	private void spawnBeam(RayQueue next, RayQueue wave, int h, GeoPoint hit, Vector normal, Ray ray, double spread,
+			int level, Double3 kkx, int[] beamRaysLeft, RayType type) {
+		int pixel = wave.pixels[h];
+		int rays = spread == 0 ? 1 : takeBeamRays(beamRaysLeft, pixel, beamSize(level, kkx));
+		List<Ray> beam = rays < 2 ? List.of(ray) : constructBeam(hit, normal, ray, spread, rays);
+		double share = wave.weight[h] / beam.size();
+		for (Ray beamRay : beam) {
+			if (statistics != null)
+				statistics.countRay(type);
+			next.add(beamRay, pixel, kkx, share);
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package scene;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import geometries.Geometries;
+import geometries.Intersectable;
+import geometries.MaterialTable;
+import lighting.AmbientLight;
+import lighting.LightIndex;
+import lighting.LightSource;
+import lighting.LightTree;
+import lighting.ShadowMap;
+import primitives.Color;
+import primitives.Point;
+
+/**
+ * Immutable, render-ready snapshot of a scene, made by {@link Scene#compile()}.
+ * It has its own acceleration structure over the scene's bodies, an unmodifiable
+ * array-backed list of the lights, and the light index, the light hierarchy,
+ * the material table and the lights' shadow maps built once - so that it may be
+ * shared by any number of threads, cameras and ray tracers, while the scene
+ * itself goes on being edited, prepared and compiled again.
+ *
+ * The bodies, the materials and the light sources themselves are shared with
+ * the scene, so they should not be changed while the snapshot is rendered. The
+ * snapshot keeps its shadow maps and its materials' ids and coefficients to
+ * itself, without storing them in the shared lights, bodies and materials.
+ *
+ * @author Eti and Chavi
+ */
+public final class CompiledScene implements SceneView {
+	/** The name of the scene */
+	private final String name;
+	/** The background color */
+	private final Color background;
+	/** The ambient light */
+	private final AmbientLight ambientLight;
+	/** The hierarchy of the bodies */
+	private final Geometries geometries;
+	/** The light sources, unmodifiable */
+	private final List<LightSource> lights;
+	/** The light cutoff */
+	private final double lightCutoff;
+	/** The spatial index of the lights, null without a light cutoff */
+	private final LightIndex lightIndex;
+	/** The hierarchy of the lights */
+	private final LightTree lightTree;
+	/** The table of the bodies' materials */
+	private final MaterialTable materialTable;
+	/** The shadow maps of the lights having them, by their lights */
+	private final Map<LightSource, ShadowMap> shadowMaps = new IdentityHashMap<>();
+
+	/**
+	 * Compiles a snapshot of a scene's current content. The lights' shadow maps
+	 * are rendered for the snapshot's geometries.
+	 *
+	 * @param scene the scene
+	 */
+	CompiledScene(Scene scene) {
+		name = scene.name;
+		background = scene.background;
+		ambientLight = scene.ambientLight;
+		geometries = new Geometries(scene.geometries.getBodies().toArray(new Intersectable[0])).buildBVH();
+		lights = List.copyOf(scene.lights);
+		lightCutoff = scene.lightCutoff;
+		materialTable = new MaterialTable(geometries);
+		for (LightSource light : lights) {
+			ShadowMap map = light.renderShadowMap(geometries);
+			if (map != null)
+				shadowMaps.put(light, map);
+		}
+		lightIndex = lightCutoff > 0 ? new LightIndex(lights, lightCutoff) : null;
+		lightTree = new LightTree(lights);
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public Color getBackground() {
+		return background;
+	}
+
+	@Override
+	public AmbientLight getAmbientLight() {
+		return ambientLight;
+	}
+
+	@Override
+	public Intersectable getGeometries() {
+		return geometries;
+	}
+
+	@Override
+	public List<LightSource> getLights() {
+		return lights;
+	}
+
+	@Override
+	public List<LightSource> getLights(Point point) {
+		return lightIndex == null ? lights : lightIndex.getLights(point);
+	}
+
+	@Override
+	public ShadowMap getShadowMap(LightSource light) {
+		return shadowMaps.isEmpty() ? null : shadowMaps.get(light);
+	}
+
+	@Override
+	public double getLightCutoff() {
+		return lightCutoff;
+	}
+
+	@Override
+	public LightTree getLightTree() {
+		return lightTree;
+	}
+
+	@Override
+	public MaterialTable getMaterialTable() {
+		return materialTable;
+	}
+}
@@ -4,12 +4,22 @@
 package scene;
 
 import primitives.Color;
+import primitives.Point;
 import lighting.AmbientLight;
+import lighting.LightIndex;
 import lighting.LightSource;
+import lighting.LightTree;
+import lighting.ShadowMap;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import geometries.Geometries;
+import geometries.Geometries.RefitReport;
+import geometries.Intersectable;
+import geometries.MaterialTable;
 
 /**
  * The Scene class represents a 3D scene that includes a name, background color,
@@ -18,17 +28,44 @@ import geometries.Geometries;
  * 
  * @author Eti and Chavi
  */
-public class Scene {
+public class Scene implements SceneView {
 	/** The name of the scene. */
 	public final String name;
 	/** The background color of the scene. */
 	public Color background = Color.BLACK;
 	/** The ambient light of the scene. */
 	public AmbientLight ambientLight = AmbientLight.NONE;
-	/** The geometries of the scene. */
+	/**
+	 * The geometries of the scene - kept as built, {@link #prepare()} builds the
+	 * acceleration structure over them separately
+	 */
 	public Geometries geometries = new Geometries();
 	/** The lights list contains all the light sources in the scene. */
 	public List<LightSource> lights = new LinkedList<>();
+	/**
+	 * The lowest light intensity (color component) considered in shading - lights
+	 * and shadow rays contributing less are skipped. 0 considers all the lights.
+	 */
+	public double lightCutoff = 0;
+	/** The spatial index of the lights, built by {@link #prepare()} */
+	private LightIndex lightIndex = null;
+	/** The hierarchy of the lights for sampling, built by {@link #prepare()} */
+	private LightTree lightTree = null;
+	/** The table of the geometries' materials, built by {@link #prepare()} */
+	private MaterialTable materialTable = null;
+	/**
+	 * The acceleration structure (bounding volume hierarchy) over the geometries,
+	 * built by {@link #prepare()}
+	 */
+	private Geometries hierarchy = null;
+	/** The bodies the hierarchy was built of, as found in the geometries */
+	private List<Intersectable> bodies = null;
+	/**
+	 * The shadow maps of the lights having them, by their lights, rendered by
+	 * {@link #prepare()} - kept by the scene, so that scenes sharing a light
+	 * source keep their own maps
+	 */
+	private Map<LightSource, ShadowMap> shadowMaps = new IdentityHashMap<>();
 
 	/**
 	 * Constructs a new scene with the given name.
@@ -61,6 +98,23 @@ public class Scene {
 		return this;
 	}
 
+	/**
+	 * Sets the lowest light intensity (color component) considered in shading.
+	 * With a positive cutoff, {@link #prepare()} indexes the lights by their
+	 * influence radius, and the shading skips the lights and the shadow rays
+	 * contributing less than the cutoff.
+	 *
+	 * @param lightCutoff the cutoff intensity
+	 * @return this scene
+	 * @throws IllegalArgumentException if the cutoff is negative
+	 */
+	public Scene setLightCutoff(double lightCutoff) {
+		if (lightCutoff < 0)
+			throw new IllegalArgumentException("Light cutoff must not be negative");
+		this.lightCutoff = lightCutoff;
+		return this;
+	}
+
 	/**
 	 * Sets the ambient light of the scene.
 	 *
@@ -80,6 +134,225 @@ public class Scene {
 	 */
 	public Scene setGeometries(Geometries geometries) {
 		this.geometries = geometries;
+		hierarchy = null;
+		bodies = null;
+		return this;
+	}
+
+	/**
+	 * Prepares the scene for rendering by building the acceleration structure of
+	 * its geometries, the table of their materials, the shadow maps of its
+	 * lights, the hierarchy of its lights, and the index of its lights if there is
+	 * a light cutoff. Should be called once all the geometries and the lights are
+	 * added - a scene prepared once may be shared by any number of
+	 * cameras and ray tracers. The acceleration structure is built over the
+	 * bodies of {@link #geometries} (nested collections flattened) and kept
+	 * apart, so the geometries collection stays as the user built it; bodies
+	 * added to it later are rendered after the next preparation.
+	 *
+	 * @return this scene
+	 */
+	public Scene prepare() {
+		ScenePrepareEvent event = new ScenePrepareEvent();
+		event.begin();
+		buildHierarchy(collectBodies(geometries, new ArrayList<>()));
+		materialTable = new MaterialTable(hierarchy);
+		renderShadowMaps();
+		lightIndex = lightCutoff > 0 ? new LightIndex(lights, lightCutoff) : null;
+		lightTree = new LightTree(lights);
+		event.end();
+		if (event.shouldCommit()) {
+			event.scene = name;
+			event.lights = lights.size();
+			event.commit();
+		}
 		return this;
 	}
+
+	/**
+	 * Builds again the table of the geometries' materials, after materials were
+	 * edited in place or replaced - the part of {@link #prepare()} reading the
+	 * materials, without rebuilding the acceleration structure and the shadow
+	 * maps. The materials are shaded as they were when the table was last built
+	 * (see {@link MaterialTable}).
+	 *
+	 * @return this scene
+	 */
+	public Scene updateMaterials() {
+		materialTable = new MaterialTable(getGeometries());
+		return this;
+	}
+
+	/**
+	 * Updates the prepared scene after bodies have moved (e.g. between the frames
+	 * of an animation): puts the bodies replaced in the geometries (see
+	 * {@link Geometries#replace(Intersectable, Intersectable)}) into the
+	 * acceleration structure and refits it (see {@link Geometries#refit(double)}) -
+	 * or builds it again if bodies were added or removed - and builds again what
+	 * {@link #prepare()}
+	 * built from the bodies - the table of their materials and the shadow maps of
+	 * the lights. The lights' index and hierarchy do not depend on the bodies and
+	 * are kept.
+	 *
+	 * @param rebuildThreshold the allowed growth factor of a hierarchy node's
+	 *                         surface area before it is rebuilt
+	 * @return the timing of the acceleration structure update
+	 */
+	public RefitReport refit(double rebuildThreshold) {
+		List<Intersectable> current = collectBodies(geometries, new ArrayList<>());
+		RefitReport report;
+		if (hierarchy == null || current.size() != bodies.size()) {
+			long start = System.nanoTime();
+			buildHierarchy(current);
+			report = new RefitReport(0, System.nanoTime() - start, 1);
+		} else {
+			for (int i = 0; i < current.size(); ++i)
+				if (current.get(i) != bodies.get(i))
+					hierarchy.replace(bodies.get(i), current.get(i));
+			bodies = current;
+			report = hierarchy.refit(rebuildThreshold);
+		}
+		materialTable = new MaterialTable(hierarchy);
+		renderShadowMaps();
+		return report;
+	}
+
+	/**
+	 * Renders the shadow maps of the lights for the hierarchy. The maps replace
+	 * the previous ones at once, so a render reading them never sees a partial
+	 * set.
+	 */
+	private void renderShadowMaps() {
+		Map<LightSource, ShadowMap> maps = new IdentityHashMap<>();
+		for (LightSource light : lights) {
+			ShadowMap map = light.renderShadowMap(hierarchy);
+			if (map != null)
+				maps.put(light, map);
+		}
+		shadowMaps = maps;
+	}
+
+	/**
+	 * Builds the acceleration structure over bodies
+	 *
+	 * @param current the bodies of the geometries
+	 */
+	private void buildHierarchy(List<Intersectable> current) {
+		hierarchy = new Geometries(current.toArray(new Intersectable[0])).buildBVH();
+		bodies = current;
+	}
+
+	/**
+	 * Collects the bodies of a collection and of its nested collections, in order
+	 *
+	 * @param collection the collection
+	 * @param result     the list to collect the bodies into
+	 * @return the list
+	 */
+	private static List<Intersectable> collectBodies(Geometries collection, List<Intersectable> result) {
+		for (Intersectable body : collection.getBodies())
+			if (body instanceof Geometries nested)
+				collectBodies(nested, result);
+			else
+				result.add(body);
+		return result;
+	}
+
+	/**
+	 * Finds the lights that can contribute to a point - all the lights, unless the
+	 * scene was prepared with a light cutoff
+	 *
+	 * @param point the point
+	 * @return the lights, in the scene's order
+	 */
+	@Override
+	public List<LightSource> getLights(Point point) {
+		return lightIndex == null ? lights : lightIndex.getLights(point);
+	}
+
+	/**
+	 * Returns the shadow map of a light source, as rendered by {@link #prepare()}
+	 *
+	 * @param light the light source
+	 * @return the shadow map, or null if the shadows are found by shadow rays
+	 */
+	@Override
+	public ShadowMap getShadowMap(LightSource light) {
+		return shadowMaps.get(light);
+	}
+
+	/**
+	 * Returns the hierarchy of the lights, for sampling lights in proportion to
+	 * their contribution
+	 *
+	 * @return the light hierarchy, or null if the scene is not prepared
+	 */
+	@Override
+	public LightTree getLightTree() {
+		return lightTree;
+	}
+
+	/**
+	 * Returns the table of the geometries' materials, with their capability flags
+	 *
+	 * @return the material table, or null if the scene is not prepared
+	 */
+	@Override
+	public MaterialTable getMaterialTable() {
+		return materialTable;
+	}
+
+	/**
+	 * Compiles an immutable snapshot of the scene's current content for
+	 * rendering, with its own acceleration structure, light list, light data and
+	 * material table. Adding or removing bodies and lights, or changing the
+	 * scene's background, ambient light or light cutoff, does not affect the
+	 * snapshot, which may be shared by all the render threads and reused by any
+	 * number of cameras. The bodies and the light sources themselves are shared
+	 * with the scene, so they must not be changed (e.g. an instance moved by
+	 * {@link geometries.Instance#setTransform(primitives.Transform)}) while the
+	 * snapshot is rendered - see {@link CompiledScene}.
+	 *
+	 * @return the compiled scene
+	 */
+	public CompiledScene compile() {
+		return new CompiledScene(this);
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public Color getBackground() {
+		return background;
+	}
+
+	@Override
+	public AmbientLight getAmbientLight() {
+		return ambientLight;
+	}
+
+	/**
+	 * Returns the geometries to trace rays in - the acceleration structure built
+	 * by {@link #prepare()}, or the geometries themselves if the scene is not
+	 * prepared
+	 *
+	 * @return the geometries
+	 */
+	@Override
+	public Geometries getGeometries() {
+		return hierarchy == null ? geometries : hierarchy;
+	}
+
+	@Override
+	public List<LightSource> getLights() {
+		return lights;
+	}
+
+	@Override
+	public double getLightCutoff() {
+		return lightCutoff;
+	}
 }
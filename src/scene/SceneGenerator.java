@@ -0,0 +1,181 @@
+package scene;
+
+import java.util.Random;
+
+import geometries.Geometry;
+import geometries.Plane;
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.AmbientLight;
+import lighting.PointLight;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+
+/**
+ * Generator of synthetic scenes for benchmarks - random spheres and triangles
+ * lit by random point lights, above a floor. The scene content is determined
+ * by the seed, so the same generator settings always produce the same scene.
+ *
+ * The bodies are spread in a cube of {@value #SIZE} units around the point
+ * (0,0,{@value #DEPTH}), in front of a camera at the origin looking towards -z.
+ * Their size shrinks as their amount grows, so that the scene density stays
+ * similar.
+ *
+ * @author Eti and Chavi
+ */
+public class SceneGenerator {
+	/** The edge length of the cube containing the bodies */
+	public static final double SIZE = 200;
+	/** The z coordinate of the center of the cube containing the bodies */
+	public static final double DEPTH = -300;
+
+	private final long seed;
+	private int spheres = 0;
+	private int triangles = 0;
+	private int lights = 1;
+	private double reflectiveFraction = 0;
+	private double transparentFraction = 0;
+
+	/**
+	 * Constructs a generator of an empty scene lit by a single light
+	 *
+	 * @param seed the seed of the random scene content
+	 */
+	public SceneGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Sets the amount of spheres
+	 *
+	 * @param spheres the amount of spheres
+	 * @return the generator itself
+	 */
+	public SceneGenerator setSpheres(int spheres) {
+		this.spheres = spheres;
+		return this;
+	}
+
+	/**
+	 * Sets the amount of triangles
+	 *
+	 * @param triangles the amount of triangles
+	 * @return the generator itself
+	 */
+	public SceneGenerator setTriangles(int triangles) {
+		this.triangles = triangles;
+		return this;
+	}
+
+	/**
+	 * Sets the amount of point lights
+	 *
+	 * @param lights the amount of lights
+	 * @return the generator itself
+	 */
+	public SceneGenerator setLights(int lights) {
+		this.lights = lights;
+		return this;
+	}
+
+	/**
+	 * Sets the fraction of the bodies with a reflective material
+	 *
+	 * @param reflectiveFraction the fraction (0 to 1)
+	 * @return the generator itself
+	 */
+	public SceneGenerator setReflectiveFraction(double reflectiveFraction) {
+		this.reflectiveFraction = reflectiveFraction;
+		return this;
+	}
+
+	/**
+	 * Sets the fraction of the bodies with a transparent material
+	 *
+	 * @param transparentFraction the fraction (0 to 1, with the reflective
+	 *                            fraction not more than 1)
+	 * @return the generator itself
+	 */
+	public SceneGenerator setTransparentFraction(double transparentFraction) {
+		this.transparentFraction = transparentFraction;
+		return this;
+	}
+
+	/**
+	 * Generates the scene. The scene is not prepared, so that more content may be
+	 * added to it.
+	 *
+	 * @param name the scene name
+	 * @return the generated scene
+	 * @throws IllegalArgumentException if the fractions of the special materials
+	 *                                  sum to more than 1
+	 */
+	public Scene generate(String name) {
+		if (reflectiveFraction + transparentFraction > 1)
+			throw new IllegalArgumentException("Reflective and transparent fractions sum to more than 1");
+		Random random = new Random(seed);
+		Scene scene = new Scene(name).setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+		scene.geometries.add(new Plane(new Point(0, -SIZE / 2, 0), new Vector(0, 1, 0))
+				.setEmission(new Color(30, 30, 30)).setMaterial(new Material().setKd(0.5).setKs(0.2).setShininess(20)));
+
+		double bodySize = SIZE / 4 / Math.cbrt(Math.max(1, spheres + triangles));
+		for (int i = 0; i < spheres; ++i)
+			scene.geometries.add(decorate(new Sphere(randomPoint(random), bodySize * (0.5 + random.nextDouble() / 2)),
+					random));
+		for (int i = 0; i < triangles; ++i) {
+			Point center = randomPoint(random);
+			scene.geometries.add(decorate(new Triangle(near(center, bodySize, random), near(center, bodySize, random),
+					near(center, bodySize, random)), random));
+		}
+
+		Color intensity = new Color(800, 700, 600).reduce(Math.max(1, lights));
+		for (int i = 0; i < lights; ++i)
+			scene.lights.add(new PointLight(intensity, new Point((random.nextDouble() - 0.5) * SIZE * 2, SIZE,
+					DEPTH + SIZE + random.nextDouble() * SIZE)).setkL(0.0001).setkQ(0.000005));
+		return scene;
+	}
+
+	/**
+	 * Gives a body a random color and material
+	 *
+	 * @param body   the body
+	 * @param random the random generator
+	 * @return the body
+	 */
+	private Geometry decorate(Geometry body, Random random) {
+		Material material = new Material().setKd(0.5).setKs(0.3).setShininess(30);
+		double kind = random.nextDouble();
+		if (kind < reflectiveFraction)
+			material.setkR(0.5);
+		else if (kind < reflectiveFraction + transparentFraction)
+			material.setkT(0.6);
+		return body.setMaterial(material).setEmission(
+				new Color(random.nextInt(20, 120), random.nextInt(20, 120), random.nextInt(20, 120)));
+	}
+
+	/**
+	 * Random point in the cube containing the bodies
+	 *
+	 * @param random the random generator
+	 * @return the point
+	 */
+	private static Point randomPoint(Random random) {
+		return new Point((random.nextDouble() - 0.5) * SIZE, (random.nextDouble() - 0.5) * SIZE,
+				DEPTH + (random.nextDouble() - 0.5) * SIZE);
+	}
+
+	/**
+	 * Random point near a center
+	 *
+	 * @param center the center
+	 * @param size   the maximal distance along each axis
+	 * @param random the random generator
+	 * @return the point
+	 */
+	private static Point near(Point center, double size, Random random) {
+		return center.add(new Vector((random.nextDouble() - 0.5) * 2 * size, (random.nextDouble() - 0.5) * 2 * size,
+				(random.nextDouble() - 0.5) * 2 * size));
+	}
+}
@@ -0,0 +1,323 @@
+package scene;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import geometries.Cylinder;
+import geometries.Geometry;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import geometries.Triangle;
+import geometries.Tube;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Parser of scene description files in XML. A scene file looks like:
+ *
+ * <pre>
+ * &lt;scene name="Example" background-color="0 0 0"&gt;
+ *   &lt;ambient-light color="255 255 255" ka="0.1"/&gt;
+ *   &lt;geometries&gt;
+ *     &lt;sphere center="0 0 -100" radius="50" emission="0 0 255" kd="0.5" ks="0.5" shininess="30"/&gt;
+ *     &lt;triangle p0="-100 0 -100" p1="100 0 -100" p2="0 100 -100" kr="0.3"/&gt;
+ *     &lt;polygon p0="..." p1="..." p2="..." p3="..."/&gt;
+ *     &lt;plane point="0 -50 0" normal="0 1 0"/&gt;
+ *     &lt;tube axis-point="0 0 0" axis-direction="0 1 0" radius="5"/&gt;
+ *     &lt;cylinder axis-point="0 0 0" axis-direction="0 1 0" radius="5" height="20"/&gt;
+ *   &lt;/geometries&gt;
+ *   &lt;lights&gt;
+ *     &lt;point-light color="500 300 0" position="0 100 0" kl="0.001" kq="0.0001"/&gt;
+ *     &lt;spot-light color="500 300 0" position="0 100 0" direction="0 -1 0" narrow-beam="10"/&gt;
+ *     &lt;directional-light color="100 100 100" direction="1 -1 -1"/&gt;
+ *   &lt;/lights&gt;
+ * &lt;/scene&gt;
+ * </pre>
+ *
+ * Colors, points and vectors are 3 numbers separated by spaces. The material
+ * attributes (kd, ks, shininess, kt, kr) and the emission of a geometry are
+ * optional, as are all the attributes of the scene element, the ambient light
+ * and the attenuation factors (kc, kl, kq) of the lights.
+ *
+ * @author Eti and Chavi
+ */
+public class SceneParser {
+	/**
+	 * Empty private constructor to hide the public one
+	 */
+	private SceneParser() {
+	}
+
+	/**
+	 * Parses a scene file
+	 *
+	 * @param file the scene file
+	 * @return the scene (not prepared)
+	 * @throws IOException              if the file cannot be read
+	 * @throws IllegalArgumentException if the file is not a valid scene
+	 *                                  description
+	 */
+	public static Scene parse(Path file) throws IOException {
+		try (InputStream in = Files.newInputStream(file)) {
+			return parse(in, file.getFileName().toString());
+		}
+	}
+
+	/**
+	 * Parses a scene description
+	 *
+	 * @param in          the scene description
+	 * @param defaultName the scene name if the description does not name it
+	 * @return the scene (not prepared)
+	 * @throws IOException              if the description cannot be read
+	 * @throws IllegalArgumentException if the description is not a valid scene
+	 *                                  description
+	 */
+	public static Scene parse(InputStream in, String defaultName) throws IOException {
+		Element root;
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			// scene files may come from other processes - no external entities
+			factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+			DocumentBuilder builder = factory.newDocumentBuilder();
+			root = builder.parse(in).getDocumentElement();
+		} catch (ParserConfigurationException | SAXException e) {
+			throw new IllegalArgumentException("Invalid scene description: " + e.getMessage(), e);
+		}
+		if (!root.getTagName().equals("scene"))
+			throw new IllegalArgumentException("Scene description must start with a scene element");
+
+		Scene scene = new Scene(root.hasAttribute("name") ? root.getAttribute("name") : defaultName);
+		if (root.hasAttribute("background-color"))
+			scene.setBackground(parseColor(root, "background-color"));
+		for (Element element : children(root))
+			switch (element.getTagName()) {
+			case "ambient-light" -> scene.setAmbientLight(new AmbientLight(parseColor(element, "color"),
+					element.hasAttribute("ka") ? parseDouble(element, "ka") : 1));
+			case "geometries" -> {
+				for (Element body : children(element))
+					scene.geometries.add(parseGeometry(body));
+			}
+			case "lights" -> {
+				for (Element light : children(element))
+					scene.lights.add(parseLight(light));
+			}
+			default -> throw new IllegalArgumentException("Unknown scene element: " + element.getTagName());
+			}
+		return scene;
+	}
+
+	/**
+	 * Parses a geometry element
+	 *
+	 * @param element the element
+	 * @return the geometry
+	 */
+	private static Geometry parseGeometry(Element element) {
+		Geometry geometry = switch (element.getTagName()) {
+		case "sphere" -> new Sphere(parsePoint(element, "center"), parseDouble(element, "radius"));
+		case "triangle" -> new Triangle(parsePoint(element, "p0"), parsePoint(element, "p1"),
+				parsePoint(element, "p2"));
+		case "polygon" -> {
+			List<Point> vertices = new ArrayList<>();
+			for (int i = 0; element.hasAttribute("p" + i); ++i)
+				vertices.add(parsePoint(element, "p" + i));
+			yield new Polygon(vertices.toArray(new Point[0]));
+		}
+		case "plane" -> new Plane(parsePoint(element, "point"), parseVector(element, "normal"));
+		case "tube" -> new Tube(parseAxis(element), parseDouble(element, "radius"));
+		case "cylinder" -> new Cylinder(parseDouble(element, "height"), parseAxis(element),
+				parseDouble(element, "radius"));
+		default -> throw new IllegalArgumentException("Unknown geometry: " + element.getTagName());
+		};
+
+		if (element.hasAttribute("emission"))
+			geometry.setEmission(parseColor(element, "emission"));
+		Material material = new Material();
+		if (element.hasAttribute("kd"))
+			material.setKd(parseDouble(element, "kd"));
+		if (element.hasAttribute("ks"))
+			material.setKs(parseDouble(element, "ks"));
+		if (element.hasAttribute("shininess"))
+			material.setShininess((int) parseDouble(element, "shininess"));
+		if (element.hasAttribute("kt"))
+			material.setkT(parseDouble(element, "kt"));
+		if (element.hasAttribute("kr"))
+			material.setkR(parseDouble(element, "kr"));
+		return geometry.setMaterial(material);
+	}
+
+	/**
+	 * Parses a light source element
+	 *
+	 * @param element the element
+	 * @return the light source
+	 */
+	private static LightSource parseLight(Element element) {
+		Color color = parseColor(element, "color");
+		return switch (element.getTagName()) {
+		case "directional-light" -> new DirectionalLight(color, parseVector(element, "direction"));
+		case "point-light" -> parseAttenuation(new PointLight(color, parsePoint(element, "position")), element);
+		case "spot-light" -> {
+			SpotLight spot = new SpotLight(color, parsePoint(element, "position"), parseVector(element, "direction"));
+			if (element.hasAttribute("narrow-beam"))
+				spot.setNarrowBeam(parseDouble(element, "narrow-beam"));
+			yield parseAttenuation(spot, element);
+		}
+		default -> throw new IllegalArgumentException("Unknown light: " + element.getTagName());
+		};
+	}
+
+	/**
+	 * Sets the attenuation factors of a light from its element
+	 *
+	 * @param light   the light
+	 * @param element the element
+	 * @return the light
+	 */
+	private static PointLight parseAttenuation(PointLight light, Element element) {
+		if (element.hasAttribute("kc"))
+			light.setkC(parseDouble(element, "kc"));
+		if (element.hasAttribute("kl"))
+			light.setkL(parseDouble(element, "kl"));
+		if (element.hasAttribute("kq"))
+			light.setkQ(parseDouble(element, "kq"));
+		return light;
+	}
+
+	/**
+	 * Returns the child elements of an element
+	 *
+	 * @param element the element
+	 * @return the child elements
+	 */
+	private static List<Element> children(Element element) {
+		List<Element> children = new ArrayList<>();
+		NodeList nodes = element.getChildNodes();
+		for (int i = 0; i < nodes.getLength(); ++i)
+			if (nodes.item(i).getNodeType() == Node.ELEMENT_NODE)
+				children.add((Element) nodes.item(i));
+		return children;
+	}
+
+	/**
+	 * Parses an axis ray given by the axis-point and axis-direction attributes
+	 *
+	 * @param element the element
+	 * @return the axis ray
+	 */
+	private static Ray parseAxis(Element element) {
+		return new Ray(parsePoint(element, "axis-point"), parseVector(element, "axis-direction"));
+	}
+
+	/**
+	 * Parses a number attribute
+	 *
+	 * @param element   the element
+	 * @param attribute the attribute name
+	 * @return the number
+	 */
+	private static double parseDouble(Element element, String attribute) {
+		String value = required(element, attribute);
+		try {
+			return Double.parseDouble(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(
+					"Invalid number in " + element.getTagName() + " " + attribute + ": " + value, e);
+		}
+	}
+
+	/**
+	 * Parses an attribute of 3 numbers
+	 *
+	 * @param element   the element
+	 * @param attribute the attribute name
+	 * @return the numbers
+	 */
+	private static double[] parseTriad(Element element, String attribute) {
+		String value = required(element, attribute);
+		String[] parts = value.trim().split("\\s+");
+		if (parts.length != 3)
+			throw new IllegalArgumentException(
+					"Expected 3 numbers in " + element.getTagName() + " " + attribute + ": " + value);
+		try {
+			return new double[] { Double.parseDouble(parts[0]), Double.parseDouble(parts[1]),
+					Double.parseDouble(parts[2]) };
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(
+					"Invalid number in " + element.getTagName() + " " + attribute + ": " + value, e);
+		}
+	}
+
+	/**
+	 * Parses a color attribute
+	 *
+	 * @param element   the element
+	 * @param attribute the attribute name
+	 * @return the color
+	 */
+	private static Color parseColor(Element element, String attribute) {
+		double[] rgb = parseTriad(element, attribute);
+		return new Color(rgb[0], rgb[1], rgb[2]);
+	}
+
+	/**
+	 * Parses a point attribute
+	 *
+	 * @param element   the element
+	 * @param attribute the attribute name
+	 * @return the point
+	 */
+	private static Point parsePoint(Element element, String attribute) {
+		double[] xyz = parseTriad(element, attribute);
+		return new Point(xyz[0], xyz[1], xyz[2]);
+	}
+
+	/**
+	 * Parses a vector attribute
+	 *
+	 * @param element   the element
+	 * @param attribute the attribute name
+	 * @return the vector
+	 */
+	private static Vector parseVector(Element element, String attribute) {
+		double[] xyz = parseTriad(element, attribute);
+		return new Vector(xyz[0], xyz[1], xyz[2]);
+	}
+
+	/**
+	 * Returns a required attribute
+	 *
+	 * @param element   the element
+	 * @param attribute the attribute name
+	 * @return the attribute value
+	 * @throws IllegalArgumentException if the attribute is missing
+	 */
+	private static String required(Element element, String attribute) {
+		if (!element.hasAttribute(attribute))
+			throw new IllegalArgumentException("Missing " + attribute + " in " + element.getTagName());
+		return element.getAttribute(attribute);
+	}
+}
@@ -0,0 +1,25 @@
+package scene;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of preparing a scene for rendering
+ *
+ * @author Eti and Chavi
+ */
+@Name("raytracer.ScenePrepare")
+@Label("Scene Prepare")
+@Category({ "Ray Tracer", "Scene" })
+@Description("Preparing a scene for rendering")
+class ScenePrepareEvent extends jdk.jfr.Event {
+	/** The scene name */
+	@Label("Scene")
+	String scene;
+
+	/** Amount of light sources */
+	@Label("Lights")
+	int lights;
+}
@@ -0,0 +1,95 @@
+package scene;
+
+import java.util.List;
+
+import geometries.Intersectable;
+import geometries.MaterialTable;
+import lighting.AmbientLight;
+import lighting.LightSource;
+import lighting.LightTree;
+import lighting.ShadowMap;
+import primitives.Color;
+import primitives.Point;
+
+/**
+ * Read access to the content of a scene, as needed by the ray tracers. It is
+ * implemented by the editable {@link Scene}, whose content is read live, and by
+ * the immutable {@link CompiledScene} snapshot.
+ *
+ * @author Eti and Chavi
+ */
+public interface SceneView {
+	/**
+	 * Returns the name of the scene
+	 *
+	 * @return the name
+	 */
+	String getName();
+
+	/**
+	 * Returns the background color of the scene
+	 *
+	 * @return the background color
+	 */
+	Color getBackground();
+
+	/**
+	 * Returns the ambient light of the scene
+	 *
+	 * @return the ambient light
+	 */
+	AmbientLight getAmbientLight();
+
+	/**
+	 * Returns the geometries of the scene, to intersect rays with
+	 *
+	 * @return the geometries
+	 */
+	Intersectable getGeometries();
+
+	/**
+	 * Returns all the light sources of the scene
+	 *
+	 * @return the lights, in the scene's order
+	 */
+	List<LightSource> getLights();
+
+	/**
+	 * Finds the lights that can contribute to a point
+	 *
+	 * @param point the point
+	 * @return the lights, in the scene's order
+	 */
+	List<LightSource> getLights(Point point);
+
+	/**
+	 * Returns the shadow map of a light source of the scene, looked up instead of
+	 * tracing shadow rays
+	 *
+	 * @param light the light source
+	 * @return the shadow map, or null if the shadows are found by shadow rays
+	 */
+	ShadowMap getShadowMap(LightSource light);
+
+	/**
+	 * Returns the lowest light intensity (color component) considered in shading
+	 *
+	 * @return the light cutoff, 0 for all the lights
+	 */
+	double getLightCutoff();
+
+	/**
+	 * Returns the hierarchy of the lights, for sampling lights in proportion to
+	 * their contribution
+	 *
+	 * @return the light hierarchy, or null if it is not built
+	 */
+	LightTree getLightTree();
+
+	/**
+	 * Returns the table of the geometries' materials, with their capability flags
+	 *
+	 * @return the material table, or null if it is not built
+	 */
+	MaterialTable getMaterialTable();
+}
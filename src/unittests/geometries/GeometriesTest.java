@@ -3,6 +3,7 @@ package unittests.geometries;
 import org.junit.jupiter.api.Test;
 
 import geometries.Geometries;
+import geometries.Plane;
 import geometries.Polygon;
 import geometries.Sphere;
 import geometries.Triangle;
@@ -55,4 +56,84 @@ public class GeometriesTest {
 				"Empty list of geometries");
 
 	}
+
+	/**
+	 * Test method for {@link geometries.Geometries#buildBVH()}.
+	 */
+	@Test
+	public void testBuildBVH() {
+		Geometries flat = new Geometries();
+		Geometries bvh = new Geometries();
+		for (int i = 0; i < 10; ++i)
+			for (int j = 0; j < 10; ++j) {
+				Sphere sphere = new Sphere(new Point(i * 3, j * 3, 0), 1);
+				Triangle triangle = new Triangle(new Point(i * 3, j * 3, 2), new Point(i * 3 + 1, j * 3, 2),
+						new Point(i * 3, j * 3 + 1, 2));
+				flat.add(sphere, triangle);
+				bvh.add(sphere, triangle);
+			}
+		Plane plane = new Plane(new Point(0, 0, -5), new Vector(0, 0, 1));
+		flat.add(plane);
+		bvh.add(plane);
+		bvh.buildBVH();
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Ray through a sphere, a triangle and the plane
+		Ray ray = new Ray(new Point(9.2, 12.2, 10), new Vector(0, 0, -1));
+		assertEquals(4, bvh.findIntersections(ray).size(), "Wrong intersections through the hierarchy");
+		assertEquals(flat.findIntersections(ray).size(), bvh.findIntersections(ray).size(),
+				"Hierarchy changed the intersections");
+
+		// TC02: Ray between the bounded bodies - only the unbounded plane is hit
+		ray = new Ray(new Point(1.5, 1.5, 10), new Vector(0, 0, -1));
+		assertEquals(1, bvh.findIntersections(ray).size(), "Wrong intersections between bodies");
+
+		// TC03: Ray missing everything
+		assertNull(bvh.findIntersections(new Ray(new Point(1.5, 1.5, 10), new Vector(0, 0, 1))),
+				"Ray away from all the bodies");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Ray along the row of spheres hits all of them
+		ray = new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0));
+		assertEquals(20, bvh.findIntersections(ray).size(), "Ray along a row of spheres");
+	}
+
+	/**
+	 * Test method for {@link geometries.Geometries#refit(double)}.
+	 */
+	@Test
+	public void testRefit() {
+		Geometries geometries = new Geometries();
+		Sphere[] spheres = new Sphere[16];
+		for (int i = 0; i < spheres.length; ++i) {
+			spheres[i] = new Sphere(new Point(i * 3, 0, 0), 1);
+			geometries.add(spheres[i]);
+		}
+		geometries.buildBVH();
+		Ray oldPlace = new Ray(new Point(0, 0, 10), new Vector(0, 0, -1));
+		Ray newPlace = new Ray(new Point(100, 100, 10), new Vector(0, 0, -1));
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Moved body is found at its new place even before refitting
+		Sphere moved = new Sphere(new Point(100, 100, 0), 1);
+		assertTrue(geometries.replace(spheres[0], moved), "Body was not replaced");
+		assertEquals(2, geometries.findIntersections(newPlace).size(), "Moved body before refit");
+		assertNull(geometries.findIntersections(oldPlace), "Body left at its old place");
+
+		// TC02: Small refit below the threshold - boxes are refitted, nothing is rebuilt
+		Sphere nudged = new Sphere(new Point(100.5, 100, 0), 1);
+		geometries.replace(moved, nudged);
+		geometries.refit(Double.POSITIVE_INFINITY);
+		assertEquals(2, geometries.findIntersections(newPlace).size(), "Moved body after refit");
+
+		// TC03: Far move degrades the hierarchy - the degraded nodes are rebuilt
+		assertTrue(geometries.refit(1.5).rebuiltNodes() > 0, "Degraded hierarchy was not rebuilt");
+		assertEquals(2, geometries.findIntersections(newPlace).size(), "Moved body after rebuild");
+		assertEquals(2, geometries.findIntersections(new Ray(new Point(45, 0, 10), new Vector(0, 0, -1))).size(),
+				"Unmoved body after rebuild");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Replacing a body which is not in the collection
+		assertFalse(geometries.replace(spheres[0], moved), "Replaced a missing body");
+	}
 }
@@ -0,0 +1,88 @@
+package unittests.geometries;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import geometries.Intersectable.GeoPoint;
+import primitives.*;
+
+/**
+ * Unit tests for {@link geometries.Instance} class.
+ *
+ * @author Eti and Chavi
+ */
+class InstanceTests {
+	/** A unit sphere model shared by the instances */
+	private final Sphere model = (Sphere) new Sphere(Point.ZERO, 1)
+			.setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30));
+
+	/**
+	 * Test method for {@link geometries.Instance#findGeoIntersections(Ray)}.
+	 */
+	@Test
+	public void testFindGeoIntersections() {
+		Instance instance = new Instance(model,
+				Transform.scaling(2).then(Transform.translation(new Vector(10, 0, 0))));
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Ray through the transformed sphere
+		List<GeoPoint> result = instance.findGeoIntersections(new Ray(new Point(10, 0, 10), new Vector(0, 0, -1)));
+		assertEquals(2, result.size(), "Wrong number of points");
+		assertEquals(new Point(10, 0, 2), result.get(0).point, "Wrong world space point");
+		assertEquals(new Vector(0, 0, 1), result.get(0).geometry.getNormal(result.get(0).point),
+				"Wrong world space normal");
+		assertSame(model.getMaterial(), result.get(0).geometry.getMaterial(), "Model material expected");
+
+		// TC02: Ray through the untransformed model place misses the instance
+		assertNull(instance.findGeoIntersections(new Ray(new Point(0, 0, 10), new Vector(0, 0, -1))),
+				"Ray at the model place");
+
+		// TC03: Material override
+		Material override = new Material().setkR(1);
+		instance.setMaterial(override);
+		result = instance.findGeoIntersections(new Ray(new Point(10, 0, 10), new Vector(0, 0, -1)));
+		assertSame(override, result.get(0).geometry.getMaterial(), "Overriding material expected");
+
+		// TC04: The hit geometry is the instance's view of the model, shared by the
+		// hits and intersected in the instance's place
+		Geometry view = result.get(0).geometry;
+		assertSame(view, result.get(1).geometry, "Hits on the same model do not share its view");
+		List<GeoPoint> direct = view.findGeoIntersections(new Ray(new Point(10, 0, 10), new Vector(0, 0, -1)));
+		assertEquals(List.of(new Point(10, 0, 2), new Point(10, 0, -2)), direct.stream().map(gp -> gp.point).toList(),
+				"Wrong points of the instanced view");
+		assertEquals(view, direct.get(0).geometry, "Wrong geometry of the instanced view's hit");
+		assertNotEquals(view, new Instance(model, Transform.translation(new Vector(10, 0, 0)))
+				.findGeoIntersections(new Ray(new Point(10, 0, 10), new Vector(0, 0, -1))).get(0).geometry,
+				"Views of different instances are equal");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Moved instance
+		instance.setTransform(Transform.translation(new Vector(0, 5, 0)));
+		result = instance.findGeoIntersections(new Ray(new Point(0, 5, 10), new Vector(0, 0, -1)));
+		assertEquals(new Point(0, 5, 1), result.get(0).point, "Wrong point of the moved instance");
+	}
+
+	/**
+	 * Test method for {@link geometries.Instance#getBoundingBox()} in a scene
+	 * hierarchy.
+	 */
+	@Test
+	public void testHierarchyOfInstances() {
+		Geometries scene = new Geometries();
+		for (int i = 0; i < 20; ++i)
+			scene.add(new Instance(model, Transform.translation(new Vector(i * 4 + 1, 0, 0))));
+		scene.buildBVH();
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Ray along the row of instances
+		assertEquals(40, scene.findIntersections(new Ray(new Point(-10, 0, 0), new Vector(1, 0, 0))).size(),
+				"Ray along the instances");
+		// TC02: Ray between instances
+		assertNull(scene.findIntersections(new Ray(new Point(3, 0, 10), new Vector(0, 0, -1))),
+				"Ray between the instances");
+	}
+}
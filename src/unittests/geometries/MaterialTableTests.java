@@ -0,0 +1,128 @@
+package unittests.geometries;
+
+import static geometries.MaterialTable.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Unit tests for {@link geometries.MaterialTable} class.
+ *
+ * @author Eti and Chavi
+ */
+class MaterialTableTests {
+	/** Test method for {@link geometries.MaterialTable#MaterialTable(Intersectable)}. */
+	@Test
+	void testTable() {
+		Material shiny = new Material().setKd(0.5).setKs(new Double3(0.1, 0.2, 0.3)).setShininess(40);
+		Material glass = new Material().setkT(0.7).setkR(0.2);
+		Geometry a = new Sphere(new Point(0, 0, -100), 10d).setMaterial(shiny);
+		Geometry b = new Sphere(new Point(30, 0, -100), 10d).setMaterial(shiny);
+		Geometry c = new Sphere(new Point(60, 0, -100), 10d).setMaterial(glass);
+		Geometry floor = new Plane(Point.ZERO, new Vector(0, 1, 0));
+		MaterialTable table = new MaterialTable(new Geometries(a, new Geometries(b, c), floor));
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: A shared material has a single id
+		assertEquals(3, table.size(), "Wrong amount of materials");
+		assertEquals(table.getId(a), table.getId(b), "Shared material with different ids");
+		assertEquals(glass.kT, table.getMaterial(table.getId(c)).kT, "Wrong material of id");
+		for (Geometry geometry : new Geometry[] { a, c, floor })
+			assertTrue(table.getId(geometry) >= 0 && table.getId(geometry) < table.size(), "Id out of the table");
+		// TC02: The flags of the materials
+		assertEquals(OPAQUE | DIFFUSE | SPECULAR, table.getFlags(a), "Wrong flags of a shiny material");
+		assertEquals(REFLECTIVE, table.getFlags(c), "Wrong flags of glass");
+		assertEquals(OPAQUE, table.getFlags(floor), "Wrong flags of the default material");
+		// TC03: A reflectance model other than Phong may reflect any light
+		Material custom = new Material().setBrdf(new Brdf() {
+			@Override
+			public Double3 diffusive(Material material, double nl) {
+				return Double3.ONE;
+			}
+
+			@Override
+			public Double3 specular(Material material, Vector normal, Vector l, double nl, Vector v) {
+				return Double3.ZERO;
+			}
+		});
+		assertEquals(OPAQUE | DIFFUSE | SPECULAR, flagsOf(custom), "Wrong flags of a custom model");
+		// TC04: The coefficients of the materials
+		int shinyId = table.getId(a);
+		assertEquals(0.5, table.getCoefficient(shinyId, KD, 1), "Wrong diffuse coefficient");
+		assertEquals(0.3, table.getCoefficient(shinyId, KS, 2), "Wrong specular coefficient");
+		assertEquals(0.7, table.getCoefficient(table.getId(c), KT, 0), "Wrong transmission coefficient");
+		assertEquals(40, table.getShininess(shinyId), "Wrong shininess");
+		assertTrue(table.isPhong(shinyId), "Phong material not found");
+		// TC05: A material edited in place keeps its table's state until a new table
+		// is built
+		Material edited = new Material().setKd(0.5);
+		Geometry d = new Sphere(new Point(90, 0, -100), 10d).setMaterial(edited);
+		MaterialTable frozenTable = new MaterialTable(d);
+		edited.setkR(0.8).setkT(0.1).setGlossiness(0.2).setBlur(0.3).setBrdf(custom.brdf);
+		assertEquals(OPAQUE | DIFFUSE, frozenTable.getFlags(d), "Table changed by an edit");
+		assertEquals(0, frozenTable.getCoefficient(frozenTable.getId(d), KR, 0), "Table changed by an edit");
+		Material frozen = frozenTable.getMaterial(frozenTable.getId(d));
+		assertEquals(0, frozen.glossiness + frozen.blur, "Beams changed by an edit");
+		assertSame(PhongBrdf.PHONG, frozen.brdf, "Reflectance model changed by an edit");
+		assertTrue(frozenTable.isPhong(frozenTable.getId(d)), "Reflectance model changed by an edit");
+		MaterialTable editedTable = new MaterialTable(d);
+		assertEquals(REFLECTIVE | DIFFUSE | SPECULAR, editedTable.getFlags(d), "Stale flags of an edited material");
+		assertSame(custom.brdf, editedTable.getMaterial(editedTable.getId(d)).brdf, "Stale reflectance model");
+		assertEquals(0.8, editedTable.getCoefficient(editedTable.getId(d), KR, 0), "Stale coefficient");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: A material replaced after the table is built by another material of
+		// the table has its id, by a material not in the table has no id
+		b.setMaterial(glass);
+		assertEquals(table.getId(c), table.getId(b), "Wrong id of a replaced material");
+		b.setMaterial(new Material().setkR(0.5));
+		assertEquals(-1, table.getId(b), "Stale id");
+		assertEquals(OPAQUE | REFLECTIVE, table.getFlags(b), "Wrong flags of a replaced material");
+		// TC12: A geometry not in the table
+		assertEquals(-1, table.getId(new Sphere(Point.ZERO, 1d)), "Id of a geometry not in the table");
+	}
+
+	/** Test of the shading paths skipped by the material flags */
+	@Test
+	void testSkippedPaths() {
+		Scene scene = new Scene("Lamps").setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+		Material floorMaterial = new Material().setKd(0.5);
+		scene.geometries.add(new Sphere(new Point(0, 0, -100), 30d).setEmission(new Color(255, 255, 0)),
+				new Plane(new Point(0, -30, 0), new Vector(0, 1, 0)).setMaterial(floorMaterial));
+		scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(0, 100, 0)));
+		Camera camera = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0)).setVPSize(100, 100)
+				.setVPDistance(100).setImageWriter(new ImageWriter("materialFlags", 20, 20));
+		RenderReport report = camera.setRayTracer(new RayTracerBasic(scene.prepare())) //
+				.setStatistics(true) //
+				.renderImage() //
+				.getRenderReport();
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Only the floor (reflecting the light) traces shadow rays
+		int floor = 0;
+		for (int i = 0; i < 20; ++i)
+			for (int j = 0; j < 20; ++j) {
+				Ray ray = camera.constructRay(20, 20, j, i);
+				Intersectable.GeoPoint hit = ray.findClosestGeoPoint(scene.geometries.findGeoIntersections(ray));
+				if (hit != null && hit.geometry instanceof Plane)
+					++floor;
+			}
+		assertEquals(floor, report.shadowRays(), "Wrong amount of shadow rays");
+		// TC02: No secondary rays of opaque materials without reflection
+		assertEquals(0, report.reflectionRays() + report.refractionRays(), "Secondary rays traced");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: The floor reflects the scene once its material is edited in place and
+		// the scene's materials are updated
+		floorMaterial.setkR(0.8);
+		scene.updateMaterials();
+		report = camera.renderImage().getRenderReport();
+		assertEquals(floor, report.reflectionRays(), "Wrong amount of reflection rays");
+	}
+}
@@ -0,0 +1,155 @@
+package unittests.lighting;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing the area lights and their soft shadows
+ *
+ * @author Eti and Chavi
+ */
+class AreaLightTests {
+	/** The camera looking down at the floor */
+	private final Camera camera = new Camera(new Point(0, 0, 300), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+			.setVPSize(200, 200).setVPDistance(300);
+
+	/**
+	 * Builds a scene of a white floor, a square occluder and a light above them
+	 *
+	 * @param light the light
+	 * @return the scene, prepared
+	 */
+	private static Scene scene(LightSource light) {
+		Scene scene = new Scene("Soft shadow").setAmbientLight(new AmbientLight(new Color(WHITE), 0));
+		scene.geometries.add(new Plane(Point.ZERO, new Vector(0, 0, 1)).setMaterial(new Material().setKd(1)),
+				new Polygon(new Point(-20, -20, 50), new Point(20, -20, 50), new Point(20, 20, 50),
+						new Point(-20, 20, 50)).setMaterial(new Material().setKd(1)));
+		scene.lights.add(light);
+		return scene.prepare();
+	}
+
+	/** Test method for {@link lighting.RectangleLight#getSamples()}. */
+	@Test
+	void testRectangleSamples() {
+		RectangleLight light = new RectangleLight(new Color(WHITE), new Point(0, 0, 100), new Vector(1, 0, 0),
+				new Vector(0, 1, 0), 40, 20);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: The boundary samples are the corners
+		assertArrayEquals(new Point[] { new Point(-20, -10, 100), new Point(20, -10, 100), new Point(20, 10, 100),
+				new Point(-20, 10, 100) }, light.getBoundarySamples(), "Wrong corners");
+		// TC02: The dense samples are the centers of a grid's cells
+		light.setSamplesPerAxis(2);
+		assertArrayEquals(new Point[] { new Point(-10, -5, 100), new Point(10, -5, 100), new Point(-10, 5, 100),
+				new Point(10, 5, 100) }, light.getSamples(), "Wrong samples");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: A single sample is the center
+		assertArrayEquals(new Point[] { new Point(0, 0, 100) }, light.setSamplesPerAxis(1).getSamples(),
+				"Wrong single sample");
+		// TC12: Invalid lights
+		assertThrows(IllegalArgumentException.class, () -> light.setSamplesPerAxis(0), "Zero samples");
+		assertThrows(IllegalArgumentException.class, () -> new RectangleLight(new Color(WHITE), Point.ZERO,
+				new Vector(1, 0, 0), new Vector(1, 1, 0), 1, 1), "Axes not orthogonal");
+		assertThrows(IllegalArgumentException.class, () -> new RectangleLight(new Color(WHITE), Point.ZERO,
+				new Vector(1, 0, 0), new Vector(0, 1, 0), 0, 1), "Zero width");
+	}
+
+	/** Test method for {@link lighting.DiskLight#getSamples()}. */
+	@Test
+	void testDiskSamples() {
+		DiskLight light = new DiskLight(new Color(WHITE), new Point(0, 0, 100), new Vector(0, 0, -1), 10);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: The boundary samples are on the rim
+		for (Point p : light.getBoundarySamples())
+			assertEquals(10, p.distance(new Point(0, 0, 100)), 1e-10, "Boundary sample not on the rim");
+		// TC02: The dense samples are inside the disk, in its plane
+		Point[] samples = light.setSamplesPerAxis(10).getSamples();
+		assertTrue(samples.length > 60 && samples.length < 100, "Wrong amount of samples " + samples.length);
+		for (Point p : samples) {
+			assertTrue(p.distance(new Point(0, 0, 100)) <= 10, "Sample outside the disk");
+			assertEquals(100, p.getZ(), 1e-10, "Sample outside the plane");
+		}
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Invalid radius
+		assertThrows(IllegalArgumentException.class,
+				() -> new DiskLight(new Color(WHITE), Point.ZERO, new Vector(0, 0, 1), 0), "Zero radius");
+	}
+
+	/** Test of the adaptive soft shadows of the ray tracer */
+	@Test
+	void testSoftShadow() {
+		Color intensity = new Color(200, 200, 200);
+		Point center = new Point(0, 0, 100);
+		Scene point = scene(new PointLight(intensity, center));
+		Scene area = scene(new RectangleLight(intensity, center, new Vector(1, 0, 0), new Vector(0, 1, 0), 40, 40)
+				.setSamplesPerAxis(8));
+		RayTracerBase pointTracer = new RayTracerBasic(point);
+		RayTracerBase areaTracer = new RayTracerBasic(area);
+		Ray lit = new Ray(new Point(90, 0, 300), new Vector(0, 0, -1));
+		Ray top = new Ray(new Point(5, 5, 300), new Vector(-0.01, 0, -1));
+		Ray penumbra = new Ray(new Point(50, 0, 300), new Vector(0, 0, -1));
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: A point seeing the whole light is lit as by a point light
+		assertEquals(pointTracer.traceRay(lit).getColor(), areaTracer.traceRay(lit).getColor(), "Wrong full light");
+		// TC02: A point hidden from the whole light is shadowed as by a point light
+		Ray under = new Ray(new Point(0, 0, 30), new Vector(0.01, 0.01, -1));
+		assertEquals(BLACK, areaTracer.traceRay(under).getColor(), "Wrong umbra");
+		// TC03: A point in the penumbra is lit partially
+		java.awt.Color full = pointTracer.traceRay(penumbra).getColor();
+		java.awt.Color partial = areaTracer.traceRay(penumbra).getColor();
+		assertTrue(partial.getRed() > 0 && partial.getRed() < full.getRed(), "Wrong penumbra " + partial);
+
+		// =============== Boundary Values Tests ==================
+		// TC11: The occluder itself sees the whole light
+		assertEquals(pointTracer.traceRay(top).getColor(), areaTracer.traceRay(top).getColor(),
+				"Wrong occluder light");
+	}
+
+	/** Test that only the penumbra is sampled densely */
+	@Test
+	void testAdaptiveSampling() {
+		Scene scene = scene(new RectangleLight(new Color(200, 200, 200), new Point(0, 0, 100), new Vector(1, 0, 0),
+				new Vector(0, 1, 0), 40, 40).setSamplesPerAxis(8));
+		RenderReport report = camera.setImageWriter(new ImageWriter("adaptive", 50, 50)) //
+				.setRayTracer(new RayTracerBasic(scene)) //
+				.setStatistics(true) //
+				.renderImage() //
+				.getRenderReport();
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: The points out of the penumbra need the boundary samples only
+		assertTrue(report.shadowRays() < 50 * 50 * (4 + 64) / 2, "Too many shadow rays " + report.shadowRays());
+		assertTrue(report.shadowRays() > 50 * 50 * 4, "Penumbra not sampled " + report.shadowRays());
+	}
+
+	/** Produce a picture of soft shadows of a rectangle and a disk light */
+	@Test
+	void softShadowRender() {
+		Scene scene = new Scene("Soft shadows").setAmbientLight(new AmbientLight(new Color(WHITE), 0.05));
+		scene.geometries.add(new Plane(Point.ZERO, new Vector(0, 0, 1)).setMaterial(new Material().setKd(0.8)),
+				new Sphere(new Point(-40, 0, 30), 20d).setEmission(new Color(BLUE))
+						.setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)),
+				new Sphere(new Point(40, 0, 30), 20d).setEmission(new Color(RED))
+						.setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)));
+		scene.lights.add(new RectangleLight(new Color(300, 300, 300), new Point(-40, 60, 120), new Vector(1, 0, 0),
+				new Vector(0, 1, 0), 50, 50).setSamplesPerAxis(10));
+		scene.lights.add(
+				new DiskLight(new Color(200, 200, 200), new Point(60, -60, 120), new Vector(0, 0, -1), 20));
+		camera.setImageWriter(new ImageWriter("softShadows", 400, 400)) //
+				.setRayTracer(new RayTracerBasic(scene.prepare())) //
+				.setMultithreading(2) //
+				.renderImage() //
+				.writeToImage();
+	}
+}
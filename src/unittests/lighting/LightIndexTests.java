@@ -0,0 +1,148 @@
+package unittests.lighting;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing the light culling by the lights' influence radius
+ *
+ * @author Eti and Chavi
+ */
+class LightIndexTests {
+	/** Test method for {@link lighting.PointLight#getInfluenceRadius(double)}. */
+	@Test
+	void testInfluenceRadius() {
+		Color intensity = new Color(100, 50, 20);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Quadratic attenuation
+		assertEquals(Math.sqrt(9900),
+				new PointLight(intensity, Point.ZERO).setkQ(0.01).setkL(0).getInfluenceRadius(1), 1e-9,
+				"Wrong quadratic radius");
+		// TC02: Linear and quadratic attenuation - the intensity at the radius is
+		// the cutoff
+		PointLight light = new PointLight(intensity, Point.ZERO).setkL(0.5).setkQ(0.02);
+		double radius = light.getInfluenceRadius(2);
+		assertEquals(2, light.getIntensity(new Point(radius, 0, 0)).maxComponent(), 1e-9, "Wrong radius");
+		// TC03: Linear attenuation
+		assertEquals(99, new PointLight(intensity, Point.ZERO).setkL(1).getInfluenceRadius(1), 1e-9,
+				"Wrong linear radius");
+		// TC04: A spot light is bounded as its point light
+		assertEquals(99,
+				new SpotLight(intensity, Point.ZERO, new Vector(0, 0, -1)).setkL(1).getInfluenceRadius(1), 1e-9,
+				"Wrong spot light radius");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: No attenuation reaches everywhere
+		assertEquals(Double.POSITIVE_INFINITY, new PointLight(intensity, Point.ZERO).getInfluenceRadius(1),
+				"Wrong radius without attenuation");
+		// TC12: No cutoff reaches everywhere
+		assertEquals(Double.POSITIVE_INFINITY,
+				new PointLight(intensity, Point.ZERO).setkQ(1).getInfluenceRadius(0), "Wrong radius without cutoff");
+		// TC13: A light weaker than the cutoff reaches nowhere
+		assertEquals(0, new PointLight(intensity, Point.ZERO).setkC(200).setkQ(1).getInfluenceRadius(1),
+				"Wrong radius of a weak light");
+		// TC14: A directional light reaches everywhere
+		assertEquals(Double.POSITIVE_INFINITY,
+				new DirectionalLight(intensity, new Vector(0, 0, -1)).getInfluenceRadius(1),
+				"Wrong directional light radius");
+	}
+
+	/** Test method for {@link lighting.LightIndex#getLights(Point)}. */
+	@Test
+	void testGetLights() {
+		Color intensity = new Color(100, 100, 100);
+		// influence radius 99 at cutoff 1
+		LightSource a = new PointLight(intensity, new Point(-200, 0, 0)).setkL(1);
+		LightSource b = new PointLight(intensity, new Point(200, 0, 0)).setkL(1);
+		LightSource c = new PointLight(intensity, new Point(250, 0, 0)).setkL(1);
+		LightSource sun = new DirectionalLight(intensity, new Vector(0, -1, 0));
+		LightSource weak = new PointLight(intensity, new Point(0, 0, 0)).setkC(200).setkL(1);
+		LightIndex index = new LightIndex(List.of(a, b, sun, c, weak), 1);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: A point near a light
+		assertEquals(List.of(a, sun), index.getLights(new Point(-150, 0, 0)), "Wrong lights near a");
+		// TC02: A point near two lights - in the scene's order
+		assertEquals(List.of(b, sun, c), index.getLights(new Point(220, 10, 0)), "Wrong lights near b and c");
+		// TC03: A point in the grid, far from the lights
+		assertEquals(List.of(sun), index.getLights(new Point(0, 50, 0)), "Wrong lights far from the lights");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: A point out of the grid
+		assertEquals(List.of(sun), index.getLights(new Point(0, 1000, 0)), "Wrong lights out of the grid");
+		// TC12: A point on the edge of a light's influence
+		assertEquals(List.of(a, sun), index.getLights(new Point(-101, 0, 0)), "Wrong lights on the edge");
+		// TC13: No bounded lights
+		assertEquals(List.of(sun), new LightIndex(List.of(sun), 1).getLights(Point.ZERO), "Wrong global lights");
+		assertEquals(5, index.size(), "Wrong size");
+		assertEquals(1, index.globalCount(), "Wrong global count");
+	}
+
+	/** Test of the shading with a light cutoff - a town of far streets of lamps */
+	@Test
+	void testCulledShading() {
+		Camera camera = new Camera(new Point(0, 300, 600), new Vector(0, -0.5, -1), new Vector(0, 1, -0.5)) //
+				.setVPSize(400, 300).setVPDistance(400);
+		RenderReport all = camera.setImageWriter(new ImageWriter("nightStreet", 80, 60)) //
+				.setRayTracer(new RayTracerBasic(town(0))) //
+				.setStatistics(true) //
+				.renderImage() //
+				.getRenderReport();
+		Scene culledScene = town(0.01);
+		RenderReport culled = camera.setRayTracer(new RayTracerBasic(culledScene)) //
+				.renderImage() //
+				.getRenderReport();
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Only the lights of the street in view are shaded
+		assertTrue(culled.shadowRays() * 3 < all.shadowRays(),
+				"Too many shadow rays " + culled.shadowRays() + " of " + all.shadowRays());
+		// TC02: The colors are about the same
+		RayTracerBase full = new RayTracerBasic(town(0));
+		RayTracerBase cut = new RayTracerBasic(culledScene);
+		for (int i = 0; i < 60; i += 7)
+			for (int j = 0; j < 80; j += 7) {
+				Ray ray = camera.constructRay(80, 60, j, i);
+				java.awt.Color expected = full.traceRay(ray).getColor();
+				java.awt.Color actual = cut.traceRay(ray).getColor();
+				assertEquals(expected.getRed(), actual.getRed(), 1, "Wrong red");
+				assertEquals(expected.getGreen(), actual.getGreen(), 1, "Wrong green");
+				assertEquals(expected.getBlue(), actual.getBlue(), 1, "Wrong blue");
+			}
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Invalid cutoff
+		assertThrows(IllegalArgumentException.class, () -> new Scene("Bad").setLightCutoff(-1), "Negative cutoff");
+	}
+
+	/**
+	 * Builds a town of 4 far apart streets of attenuated lamps
+	 *
+	 * @param cutoff the light cutoff
+	 * @return the scene, prepared
+	 */
+	private static Scene town(double cutoff) {
+		Scene scene = new Scene("Night town").setLightCutoff(cutoff)
+				.setAmbientLight(new AmbientLight(new Color(WHITE), 0.02));
+		scene.geometries.add(new Plane(Point.ZERO, new Vector(0, 1, 0)).setMaterial(new Material().setKd(0.6)),
+				new Sphere(new Point(0, 40, -200), 40d).setEmission(new Color(20, 20, 40))
+						.setMaterial(new Material().setKd(0.5).setKs(0.3).setShininess(30)));
+		for (int street = 0; street < 4; ++street)
+			for (int z = -900; z <= 0; z += 100) {
+				Point lamp = new Point(street * 3000 + (z % 200 == 0 ? -100 : 100), 60, z);
+				scene.lights.add(new PointLight(new Color(400, 300, 150), lamp).setkQ(0.01));
+			}
+		return scene.prepare();
+	}
+}
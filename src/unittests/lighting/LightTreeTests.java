@@ -0,0 +1,119 @@
+package unittests.lighting;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing the light hierarchy and the many-light sampling
+ *
+ * @author Eti and Chavi
+ */
+class LightTreeTests {
+	/**
+	 * Generates random attenuated point lights above the floor
+	 *
+	 * @param count amount of lights
+	 * @return the lights
+	 */
+	private static List<LightSource> lamps(int count) {
+		Random random = new Random(17);
+		List<LightSource> lights = new ArrayList<>();
+		for (int i = 0; i < count; ++i)
+			lights.add(new PointLight(new Color(random.nextInt(1, 100), random.nextInt(1, 100), 50),
+					new Point(random.nextDouble(-300, 300), random.nextDouble(20, 100), random.nextDouble(-300, 300)))
+					.setkQ(0.001));
+		return lights;
+	}
+
+	/** Test method for {@link lighting.LightTree#sample(Point, double)}. */
+	@Test
+	void testSample() {
+		List<LightSource> lights = lamps(37);
+		LightSource sun = new DirectionalLight(new Color(50, 50, 50), new Vector(0, -1, 0));
+		lights.add(sun);
+		LightTree tree = new LightTree(lights);
+		Point point = new Point(10, 0, 20);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: The lights without a position are not sampled
+		assertEquals(List.of(sun), tree.getGlobalLights(), "Wrong global lights");
+		assertEquals(37, tree.size(), "Wrong amount of sampled lights");
+		// TC02: Every light has a positive probability, and they sum to 1
+		double sum = 0;
+		for (LightSource light : lights.subList(0, 37)) {
+			double p = tree.probability(light, point);
+			assertTrue(p > 0, "Light never sampled");
+			sum += p;
+		}
+		assertEquals(1, sum, 1e-12, "Probabilities do not sum to 1");
+		// TC03: The lights are sampled by their probabilities
+		int n = 100000;
+		int[] counts = new int[lights.size()];
+		for (int i = 0; i < n; ++i) {
+			LightTree.Sample sample = tree.sample(point, (i + 0.5) / n);
+			assertEquals(tree.probability(sample.light(), point), sample.probability(), 1e-12, "Wrong probability");
+			++counts[lights.indexOf(sample.light())];
+		}
+		for (int i = 0; i < 37; ++i)
+			assertEquals(tree.probability(lights.get(i), point), (double) counts[i] / n, 1e-3, "Wrong frequency");
+		// TC04: A near light is more probable than a far one of the same power
+		LightSource near = new PointLight(new Color(50, 50, 50), new Point(0, 10, 0));
+		LightSource far = new PointLight(new Color(50, 50, 50), new Point(0, 500, 0));
+		LightTree pair = new LightTree(List.of(near, far));
+		assertTrue(pair.probability(near, Point.ZERO) > pair.probability(far, Point.ZERO), "Wrong importance");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: A single light is always sampled
+		LightTree single = new LightTree(List.of(near));
+		assertEquals(new LightTree.Sample(near, 1), single.sample(point, 0.7), "Wrong single light sample");
+		// TC12: No lights to sample
+		assertNull(new LightTree(List.of(sun)).sample(point, 0.5), "Sampled a global light");
+		assertEquals(0, tree.probability(sun, point), "Global light sampled");
+	}
+
+	/** Test of the shading by many-light sampling */
+	@Test
+	void testLightSampling() {
+		Scene scene = new Scene("Lamps").setAmbientLight(new AmbientLight(new Color(WHITE), 0));
+		scene.geometries.add(new Plane(Point.ZERO, new Vector(0, 1, 0)).setMaterial(new Material().setKd(0.5)));
+		scene.lights.addAll(lamps(200));
+		scene.prepare();
+		RayTracerBase exhaustive = new RayTracerBasic(scene);
+		RayTracerBase sampled = new RayTracerBasic(scene).setLightSamples(4);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: The average of the samples of many rays (to about the same point)
+		// is the light of all the lights
+		Point eye = new Point(0, 100, 300);
+		Vector toPoint = new Point(20, 0, -40).subtract(eye);
+		Ray center = new Ray(eye, toPoint);
+		int n = 4000;
+		Color sum = Color.BLACK;
+		for (int i = 0; i < n; ++i)
+			sum = sum.add(sampled.traceRay(new Ray(eye, toPoint.add(new Vector(1e-7 * (i + 1), 0, 0)))));
+		java.awt.Color expected = exhaustive.traceRay(center).getColor();
+		java.awt.Color actual = sum.reduce(n).getColor();
+		assertEquals(expected.getRed(), actual.getRed(), 2, "Wrong red");
+		assertEquals(expected.getGreen(), actual.getGreen(), 2, "Wrong green");
+		assertEquals(expected.getBlue(), actual.getBlue(), 2, "Wrong blue");
+		// TC02: The same ray samples the same lights
+		assertEquals(sampled.traceRay(center).getColor(), sampled.traceRay(center).getColor(), "Not repeatable");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Invalid amount of samples
+		assertThrows(IllegalArgumentException.class, () -> new RayTracerBasic(scene).setLightSamples(-1),
+				"Negative samples");
+	}
+}
@@ -0,0 +1,160 @@
+package unittests.lighting;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing the shadow maps of spot and directional lights
+ *
+ * @author Eti and Chavi
+ */
+class ShadowMapTests {
+	/** The camera of the test scenes */
+	private final Camera camera = new Camera(new Point(0, 300, 500), new Vector(0, -0.6, -1), new Vector(0, 1, -0.6)) //
+			.setVPSize(300, 300).setVPDistance(400);
+
+	/**
+	 * Builds a scene of a floor and two spheres lit by a light
+	 *
+	 * @param light the light
+	 * @return the scene, prepared
+	 */
+	private static Scene balls(LightSource light) {
+		Scene scene = new Scene("Balls").setAmbientLight(new AmbientLight(new Color(WHITE), 0.05));
+		scene.geometries.add(new Plane(Point.ZERO, new Vector(0, 1, 0)).setMaterial(new Material().setKd(0.6)),
+				new Sphere(new Point(-40, 50, 0), 30d).setEmission(new Color(40, 0, 0))
+						.setMaterial(new Material().setKd(0.5).setKs(0.3).setShininess(30)),
+				new Sphere(new Point(60, 30, -40), 25d).setEmission(new Color(0, 0, 40))
+						.setMaterial(new Material().setKd(0.5).setKs(0.3).setShininess(30)));
+		scene.lights.add(light);
+		return scene.prepare();
+	}
+
+	/**
+	 * Compares the shading by a shadow map to the exact shading by shadow rays
+	 *
+	 * @param exact  the scene lit by a light without a shadow map
+	 * @param mapped the scene lit by the same light with a shadow map
+	 */
+	private void assertSameShading(Scene exact, Scene mapped) {
+		RayTracerBase rays = new RayTracerBasic(exact);
+		RayTracerBase map = new RayTracerBasic(mapped);
+		int n = 100, different = 0;
+		for (int i = 0; i < n; ++i)
+			for (int j = 0; j < n; ++j) {
+				Ray ray = camera.constructRay(n, n, j, i);
+				java.awt.Color expected = rays.traceRay(ray).getColor();
+				java.awt.Color actual = map.traceRay(ray).getColor();
+				if (Math.abs(expected.getRed() - actual.getRed()) > 2
+						|| Math.abs(expected.getGreen() - actual.getGreen()) > 2
+						|| Math.abs(expected.getBlue() - actual.getBlue()) > 2)
+					++different;
+			}
+		// only the pixels on the shadows' edges differ
+		assertTrue(different < n * n / 100, "Too many different pixels " + different);
+	}
+
+	/** Test method for {@link lighting.SpotLight#setShadowMap(int)}. */
+	@Test
+	void testSpotShadowMap() {
+		Point position = new Point(50, 250, 100);
+		Vector direction = new Vector(-0.2, -1, -0.4);
+		Scene mapped = balls(new SpotLight(new Color(600, 600, 600), position, direction).setShadowMap(512)
+				.setkL(0.001));
+		ShadowMap map = mapped.getShadowMap(mapped.lights.get(0));
+		Vector up = new Vector(0, 1, 0);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: A point far from the shadows is lit
+		Point floor = new Point(0, 0, 150);
+		assertEquals(Double3.ONE, map.visibility(floor, up, floor.subtract(position).normalize()), "Not lit");
+		// TC02: A point under a sphere is shadowed
+		Vector l = new Point(-40, 50, 0).subtract(position).normalize();
+		Point shadowed = new Point(-40, 50, 0).add(l.scale(50 / -l.getY()));
+		assertEquals(Double3.ZERO, map.visibility(shadowed, up, shadowed.subtract(position).normalize()),
+				"Not shadowed");
+		// TC03: The lit side of a sphere does not shadow itself
+		Point top = new Point(-40, 50, 0).add(l.scale(-30));
+		assertEquals(Double3.ONE, map.visibility(top, l.scale(-1), l), "Self shadowed");
+		// TC04: The shading is about the shading by shadow rays
+		assertSameShading(balls(new SpotLight(new Color(600, 600, 600), position, direction).setkL(0.001)), mapped);
+		// TC05: No shadow rays are traced
+		RenderReport report = camera.setImageWriter(new ImageWriter("spotShadowMap", 50, 50)) //
+				.setRayTracer(new RayTracerBasic(mapped)) //
+				.setStatistics(true) //
+				.renderImage() //
+				.getRenderReport();
+		assertEquals(0, report.shadowRays(), "Shadow rays traced");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Invalid resolution
+		assertThrows(IllegalArgumentException.class,
+				() -> new SpotLight(new Color(WHITE), position, direction).setShadowMap(-1), "Negative resolution");
+		// TC12: No map before the scene is prepared
+		Scene unprepared = new Scene("Unprepared");
+		unprepared.lights.add(new SpotLight(new Color(WHITE), position, direction).setShadowMap(64));
+		assertNull(unprepared.getShadowMap(unprepared.lights.get(0)), "Map before preparing");
+		// TC13: A point behind the spot is lit (its intensity is zero anyway)
+		Point behind = position.add(direction.scale(-50));
+		assertEquals(Double3.ONE, map.visibility(behind, up, behind.subtract(position).normalize()),
+				"Wrong visibility behind the spot");
+		// TC14: Zero resolution turns the map off
+		SpotLight off = new SpotLight(new Color(WHITE), position, direction).setShadowMap(64).setShadowMap(0);
+		assertNull(balls(off).getShadowMap(off), "Map turned off still rendered");
+	}
+
+	/** Test method for {@link lighting.DirectionalLight#setShadowMap(int)}. */
+	@Test
+	void testDirectionalShadowMap() {
+		Vector direction = new Vector(0.3, -1, -0.4).normalize();
+		Scene mapped = balls(new DirectionalLight(new Color(300, 300, 300), direction).setShadowMap(512));
+		LightSource light = mapped.lights.get(0);
+		ShadowMap map = mapped.getShadowMap(light);
+		Vector up = new Vector(0, 1, 0);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: A point far from the shadows is lit
+		assertEquals(Double3.ONE, map.visibility(new Point(0, 0, 150), up, direction), "Not lit");
+		// TC02: A point under a sphere is shadowed
+		Point shadowed = new Point(-40, 50, 0).add(direction.scale(50 / -direction.getY()));
+		assertEquals(Double3.ZERO, map.visibility(shadowed, up, direction), "Not shadowed");
+		// TC03: A point out of the map is lit
+		assertEquals(Double3.ONE, map.visibility(new Point(5000, 0, 0), up, direction), "Not lit out of the map");
+		// TC04: The shading is about the shading by shadow rays
+		assertSameShading(balls(new DirectionalLight(new Color(300, 300, 300), direction)), mapped);
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Invalid resolution
+		assertThrows(IllegalArgumentException.class,
+				() -> new DirectionalLight(new Color(WHITE), direction).setShadowMap(-1), "Negative resolution");
+		// TC12: No bounded geometries - the shadows are found by shadow rays
+		Scene plane = new Scene("Plane");
+		plane.geometries.add(new Plane(Point.ZERO, up));
+		plane.lights.add(new DirectionalLight(new Color(WHITE), direction).setShadowMap(64));
+		assertNull(plane.prepare().getShadowMap(plane.lights.get(0)), "Map of unbounded geometries");
+		// TC13: Scenes sharing a light keep their own maps
+		plane.lights.add(light);
+		assertNull(plane.prepare().getShadowMap(light), "Map of unbounded geometries");
+		assertSame(map, mapped.getShadowMap(light), "Map replaced by another scene");
+	}
+
+	/** Produce a picture of shadows by shadow maps */
+	@Test
+	void shadowMapRender() {
+		Scene scene = balls(new SpotLight(new Color(500, 400, 300), new Point(-150, 250, 150), new Vector(1, -1.5, -1))
+				.setShadowMap(1024).setkL(0.001));
+		scene.lights.add(new DirectionalLight(new Color(60, 80, 120), new Vector(0.3, -1, -0.4)).setShadowMap(1024));
+		camera.setImageWriter(new ImageWriter("shadowMap", 500, 500)) //
+				.setRayTracer(new RayTracerBasic(scene.prepare())) //
+				.renderImage() //
+				.writeToImage();
+	}
+}
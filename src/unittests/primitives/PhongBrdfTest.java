@@ -0,0 +1,73 @@
+package unittests.primitives;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import primitives.*;
+
+/**
+ * Unit tests for primitives.PhongBrdf class
+ *
+ * @author Eti and Chavi
+ */
+class PhongBrdfTest {
+	/**
+	 * Test method for {@link primitives.PhongBrdf#power(double, int)}.
+	 */
+	@Test
+	public void testPower() {
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Powers of cosines, as by Math.pow
+		for (int n = 1; n <= 1000; n += 37)
+			for (double x = 0.05; x < 1; x += 0.1)
+				assertEquals(Math.pow(x, n), PhongBrdf.power(x, n), Math.pow(x, n) * 1e-13, "Bad power " + n);
+		// TC02: Negative exponent
+		assertEquals(0.125, PhongBrdf.power(2, -3), 1e-15, "Bad negative power");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Zero exponent
+		assertEquals(1, PhongBrdf.power(0, 0), "Bad zero power of zero");
+		assertEquals(1, PhongBrdf.power(0.5, 0), "Bad zero power");
+		// TC12: Exponent 1
+		assertEquals(0.3, PhongBrdf.power(0.3, 1), "Bad first power");
+		// TC13: Lowest exponent
+		assertEquals(1, PhongBrdf.power(1, Integer.MIN_VALUE), "Bad lowest power of 1");
+		assertEquals(0, PhongBrdf.power(2, Integer.MIN_VALUE), "Bad lowest power");
+	}
+
+	/**
+	 * Test method for
+	 * {@link primitives.PhongBrdf#specular(Material, Vector, Vector, double, Vector)}.
+	 */
+	@Test
+	public void testSpecular() {
+		Material material = new Material().setKd(0.5).setKs(0.4).setShininess(20);
+		Vector normal = new Vector(0, 0, 1);
+		Vector l = new Vector(1, 0, -1).normalize();
+		double nl = normal.dotProduct(l);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Viewer near the reflected light
+		Vector v = new Vector(-1, 0.1, -1).normalize();
+		Vector r = l.subtract(normal.scale(2 * nl));
+		assertEquals(new Double3(0.4 * Math.pow(-v.dotProduct(r), 20)),
+				material.brdf.specular(material, normal, l, nl, v), "Bad specular");
+		// TC02: Viewer away from the reflected light
+		assertEquals(Double3.ZERO, material.brdf.specular(material, normal, l, nl, new Vector(1, 0, 1)),
+				"Bad specular away from the reflection");
+		// TC03: Diffuse reflection
+		assertEquals(new Double3(0.5 * Math.sqrt(0.5)), material.brdf.diffusive(material, nl), "Bad diffusive");
+		// TC04: The factors of primitive coefficients are the factors of the material
+		assertEquals(material.brdf.specular(material, normal, l, nl, v),
+				new Double3(0.4 * PhongBrdf.PHONG.specular(normal, l, nl, v, 20)), "Bad primitive specular");
+		assertEquals(material.brdf.diffusive(material, nl), new Double3(0.5 * PhongBrdf.PHONG.diffusive(nl)),
+				"Bad primitive diffusive");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Phong is the default model
+		assertSame(PhongBrdf.PHONG, new Material().brdf, "Wrong default model");
+		// TC12: No model
+		assertThrows(IllegalArgumentException.class, () -> new Material().setBrdf(null), "Null model");
+	}
+}
@@ -0,0 +1,69 @@
+package unittests.primitives;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import primitives.*;
+
+/**
+ * Unit tests for primitives.Transform class
+ *
+ * @author Eti and Chavi
+ */
+class TransformTest {
+	private Point p = new Point(1, 2, 3);
+
+	/**
+	 * Test method for {@link primitives.Transform#apply(primitives.Point)}.
+	 */
+	@Test
+	public void testApply() {
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Translation
+		assertEquals(new Point(2, 4, 6), Transform.translation(new Vector(1, 2, 3)).apply(p), "Bad translation");
+		// TC02: Scaling
+		assertEquals(new Point(2, 6, -3), Transform.scaling(2, 3, -1).apply(p), "Bad scaling");
+		// TC03: Rotation by 90 degrees around z
+		assertEquals(new Point(-2, 1, 3), Transform.rotation(new Vector(0, 0, 1), 90).apply(p), "Bad rotation");
+		// TC04: Composition - scale, then rotate, then translate
+		Transform t = Transform.scaling(2).then(Transform.rotation(new Vector(0, 0, 1), 90))
+				.then(Transform.translation(new Vector(0, 0, 1)));
+		assertEquals(new Point(-4, 2, 7), t.apply(p), "Bad composition");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Identity
+		assertEquals(p, Transform.IDENTITY.apply(p), "Identity moved the point");
+		// TC12: Zero scale factor
+		assertThrows(IllegalArgumentException.class, () -> Transform.scaling(0, 1, 1), "Zero scale factor");
+	}
+
+	/**
+	 * Test method for {@link primitives.Transform#applyInverse(primitives.Point)}.
+	 */
+	@Test
+	public void testApplyInverse() {
+		Transform t = Transform.scaling(2, 3, 4).then(Transform.rotation(new Vector(1, 1, 0), 30))
+				.then(Transform.translation(new Vector(5, -1, 2)));
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Inverse of a composed transformation
+		assertEquals(p, t.applyInverse(t.apply(p)), "Inverse does not restore the point");
+		// TC02: Inverse transformation object
+		assertEquals(p, t.inverse().apply(t.apply(p)), "Inverse transformation does not restore the point");
+	}
+
+	/**
+	 * Test method for {@link primitives.Transform#applyToNormal(primitives.Vector)}.
+	 */
+	@Test
+	public void testApplyToNormal() {
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Non uniform scaling - the normal stays orthogonal to the surface
+		Transform t = Transform.scaling(1, 4, 1);
+		Vector tangent = t.applyToVector(new Vector(1, -1, 0));
+		Vector normal = t.applyToNormal(new Vector(1, 1, 0));
+		assertEquals(0, tangent.dotProduct(normal), 0.0000001, "Transformed normal is not orthogonal");
+		assertEquals(1, normal.length(), 0.0000001, "Transformed normal is not normalized");
+	}
+}
@@ -0,0 +1,94 @@
+package unittests.renderer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import primitives.Color;
+import renderer.AsyncImageWriter;
+import renderer.ImageWriter;
+
+/**
+ * Testing the asynchronous image writer
+ *
+ * @author Eti and Chavi
+ */
+class AsyncImageWriterTest {
+	/**
+	 * Test method for
+	 * {@link renderer.AsyncImageWriter#submit(renderer.ImageWriter, String)}.
+	 * Frames are submitted from a single reused image writer - each frame must be
+	 * written with the pixels it had when it was submitted
+	 *
+	 * @throws IOException if a written frame cannot be read back
+	 */
+	@Test
+	void testSubmit() throws IOException {
+		ImageWriter imageWriter = new ImageWriter("asyncFrame", 100, 100);
+		Color[] colors = { new Color(255, 0, 0), new Color(0, 255, 0), new Color(0, 0, 255), new Color(255, 255, 0) };
+		List<CompletableFuture<Void>> written = new ArrayList<>();
+
+		// queue capacity smaller than frames count - exercises backpressure
+		try (AsyncImageWriter asyncWriter = new AsyncImageWriter(1, 2)) {
+			for (int frame = 0; frame < colors.length; ++frame) {
+				for (int j = 0; j < 100; ++j)
+					for (int i = 0; i < 100; ++i)
+						imageWriter.writePixel(j, i, colors[frame]);
+				written.add(asyncWriter.submit(imageWriter, "asyncFrame" + frame));
+			}
+			assertDoesNotThrow(() -> CompletableFuture.allOf(written.toArray(new CompletableFuture<?>[0])).join(),
+					"Frames were not written");
+
+			// ============ Equivalence Partitions Tests ==============
+			// TC01: every frame is written with the pixels it had when submitted
+			for (int frame = 0; frame < colors.length; ++frame) {
+				BufferedImage image = ImageIO
+						.read(new File(System.getProperty("user.dir") + "/images/asyncFrame" + frame + ".png"));
+				assertEquals(colors[frame].getColor().getRGB(), image.getRGB(0, 0), "Wrong first pixel of a frame");
+				assertEquals(colors[frame].getColor().getRGB(), image.getRGB(99, 99), "Wrong last pixel of a frame");
+			}
+			// TC02: writing to a missing folder fails the frame's future only
+			CompletableFuture<Void> bad = asyncWriter.submit(imageWriter, "missingFolder/asyncFrame");
+			assertThrows(RuntimeException.class, bad::join, "Failed write should complete exceptionally");
+			assertDoesNotThrow(() -> asyncWriter.submit(imageWriter, "asyncFrame0").join(), "Writer stopped");
+		}
+	}
+
+	/**
+	 * Test of an error (not an exception) while writing a frame - it must fail the
+	 * frame's future and the later submits instead of hanging them
+	 */
+	@Test
+	void testError() {
+		ImageWriter failing = new ImageWriter("asyncError", 10, 10) {
+			@Override
+			public ImageWriter snapshot(String imageName) {
+				return new ImageWriter(imageName, 10, 10) {
+					@Override
+					public void writeToImage() {
+						throw new OutOfMemoryError("Simulated");
+					}
+				};
+			}
+		};
+
+		try (AsyncImageWriter asyncWriter = new AsyncImageWriter(1)) {
+			// ============ Equivalence Partitions Tests ==============
+			// TC01: The failed frame completes exceptionally
+			CompletableFuture<Void> bad = asyncWriter.submit(failing, "asyncError");
+			assertThrows(RuntimeException.class, bad::join, "Error should complete the frame exceptionally");
+			// TC02: Later frames fail fast
+			assertThrows(IllegalStateException.class,
+					() -> asyncWriter.submit(new ImageWriter("asyncAfterError", 10, 10)), "Submit after an error");
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package unittests.renderer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import primitives.Point;
+import primitives.Vector;
+import renderer.CameraPath;
+import renderer.CameraPath.Keyframe;
+
+/**
+ * Testing the camera path interpolation
+ *
+ * @author Eti and Chavi
+ */
+class CameraPathTests {
+	/** Accuracy of the interpolated values */
+	private static final double DELTA = 0.000001;
+
+	/**
+	 * Test method for {@link renderer.CameraPath#keyframeAt(double)}.
+	 */
+	@Test
+	void testKeyframeAt() {
+		CameraPath path = new CameraPath() //
+				.addKeyframe(0, new Point(0, 0, 10), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.addKeyframe(2, new Point(10, 0, 0), new Vector(-1, 0, 0), new Vector(0, 1, 0));
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Halfway - position on the segment, direction turned by half the angle
+		Keyframe middle = path.keyframeAt(1);
+		assertEquals(new Point(5, 0, 5), middle.position(), "Wrong interpolated position");
+		assertEquals(-Math.sqrt(0.5), middle.vTo().getX(), DELTA, "Wrong interpolated direction");
+		assertEquals(-Math.sqrt(0.5), middle.vTo().getZ(), DELTA, "Wrong interpolated direction");
+		assertEquals(0, middle.vTo().dotProduct(middle.vUp()), DELTA, "Interpolated vectors not orthogonal");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: At a keyframe
+		assertEquals(new Point(10, 0, 0), path.keyframeAt(2).position(), "Wrong position at a keyframe");
+		// TC12: Before the first keyframe
+		assertEquals(new Point(0, 0, 10), path.keyframeAt(-1).position(), "Wrong position before the path");
+		// TC13: Keyframes out of order
+		assertThrows(IllegalArgumentException.class,
+				() -> path.addKeyframe(1, Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0)),
+				"Keyframe before the last one");
+	}
+
+	/**
+	 * Test method for
+	 * {@link renderer.CameraPath#orbit(Point, Point, Vector, double)}.
+	 */
+	@Test
+	void testOrbit() {
+		Point target = new Point(0, 0, -100);
+		CameraPath path = CameraPath.orbit(target, new Point(0, 0, 900), new Vector(0, 1, 0), 1);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: The camera stays (almost) on the circle and looks at the target
+		for (double t = 0; t <= 1; t += 0.05) {
+			Keyframe keyframe = path.keyframeAt(t);
+			assertEquals(1000, keyframe.position().distance(target), 0.5, "Camera left the orbit");
+			assertEquals(1, keyframe.vTo().dotProduct(target.subtract(keyframe.position()).normalize()), 0.0001,
+					"Camera does not look at the target");
+		}
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Start on the axis
+		assertThrows(IllegalArgumentException.class,
+				() -> CameraPath.orbit(target, new Point(0, 500, -100), new Vector(0, 1, 0), 1), "Start on the axis");
+		assertThrows(IllegalArgumentException.class, () -> CameraPath.orbit(target, target, new Vector(0, 1, 0), 1),
+				"Start at the target");
+	}
+}
@@ -0,0 +1,106 @@
+package unittests.renderer;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing the deferred (two phase) ray tracer
+ *
+ * @author Eti and Chavi
+ */
+class DeferredRayTracerTests {
+	/** Amount of pixel columns and rows */
+	private static final int NX = 80, NY = 60;
+
+	/**
+	 * Builds a scene with reflections, refractions, shadows and several kinds of
+	 * lights
+	 *
+	 * @param cutoff the light cutoff
+	 * @return the scene, prepared
+	 */
+	private static Scene scene(double cutoff) {
+		Scene scene = new Scene("Deferred").setLightCutoff(cutoff)
+				.setAmbientLight(new AmbientLight(new Color(WHITE), 0.1))
+				.setBackground(new Color(10, 20, 30));
+		scene.geometries.add( //
+				new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)).setEmission(new Color(30, 30, 30)) //
+						.setMaterial(new Material().setKd(0.5).setKs(0.2).setShininess(10).setkR(0.3)), //
+				new Sphere(new Point(0, 0, -100), 40d).setEmission(new Color(BLUE)) //
+						.setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(50).setkT(0.4)), //
+				new Sphere(new Point(0, 0, -100), 15d).setEmission(new Color(RED)) //
+						.setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(30)), //
+				new Triangle(new Point(-90, -50, -60), new Point(-40, -50, -60), new Point(-60, 30, -90))
+						.setEmission(new Color(0, 80, 0)).setMaterial(new Material().setKd(0.6).setKs(0.4)));
+		scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(60, 100, 0)).setkL(0.0001));
+		scene.lights.add(new SpotLight(new Color(400, 400, 600), new Point(-50, 80, 20), new Vector(1, -2, -2)));
+		scene.lights.add(new DirectionalLight(new Color(100, 100, 100), new Vector(-1, -1, -1)));
+		return scene.prepare();
+	}
+
+	/** Test method for {@link renderer.DeferredRayTracer#traceRays(Ray[], Color[])}. */
+	@Test
+	void testTraceRays() {
+		Scene scene = scene(0);
+		Camera camera = new Camera(new Point(0, 0, 200), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(200, 150).setVPDistance(200);
+		Ray[] rays = new Ray[NX * NY];
+		for (int i = 0; i < NY; ++i)
+			for (int j = 0; j < NX; ++j)
+				rays[i * NX + j] = camera.constructRay(NX, NY, j, i);
+		RayTracerBase basic = new RayTracerBasic(scene);
+		RayTracerBase deferred = new DeferredRayTracer(scene);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: A batch of rays has the same colors as by the basic ray tracer
+		Color[] colors = new Color[rays.length];
+		deferred.traceRays(rays, colors);
+		for (int r = 0; r < rays.length; ++r)
+			assertEquals(basic.traceRay(rays[r]).getColor(), colors[r].getColor(), "Wrong color of ray " + r);
+
+		// TC02: With a light cutoff, the lights are skipped as by the basic ray tracer
+		Scene cutoff = scene(20);
+		basic = new RayTracerBasic(cutoff);
+		colors = new Color[rays.length];
+		new DeferredRayTracer(cutoff).traceRays(rays, colors);
+		for (int r = 0; r < rays.length; ++r)
+			assertEquals(basic.traceRay(rays[r]).getColor(), colors[r].getColor(), "Wrong color of ray " + r);
+		// TC03: With light sampling, the lights are sampled as by the basic ray tracer
+		basic = new RayTracerBasic(scene).setLightSamples(1);
+		colors = new Color[rays.length];
+		new DeferredRayTracer(scene).setLightSamples(1).traceRays(rays, colors);
+		for (int r = 0; r < rays.length; ++r)
+			assertEquals(basic.traceRay(rays[r]).getColor(), colors[r].getColor(), "Wrong color of ray " + r);
+		basic = new RayTracerBasic(scene);
+
+		// =============== Boundary Values Tests ==================
+		// TC11: A single ray
+		Ray center = rays[NY / 2 * NX + NX / 2];
+		assertEquals(basic.traceRay(center).getColor(), deferred.traceRay(center).getColor(), "Wrong ray color");
+		// TC12: A ray missing the scene has the background color
+		Ray up = new Ray(new Point(0, 0, 200), new Vector(0, 1, 0));
+		assertEquals(new Color(10, 20, 30).getColor(), deferred.traceRay(up).getColor(), "Wrong background");
+		// TC13: An empty batch
+		deferred.traceRays(new Ray[0], new Color[0]);
+	}
+
+	/** Render the scene by tiles with the deferred ray tracer */
+	@Test
+	void deferredRender() {
+		new Camera(new Point(0, 0, 200), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(200, 150).setVPDistance(200) //
+				.setImageWriter(new ImageWriter("deferred", 400, 300)) //
+				.setRayTracer(new DeferredRayTracer(scene(0))) //
+				.setMultithreading(2) //
+				.renderImage() //
+				.writeToImage();
+	}
+}
@@ -0,0 +1,119 @@
+package unittests.renderer;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing rendering tiles by several worker processes (on the local host)
+ *
+ * @author Eti and Chavi
+ */
+class DistributedRenderTests {
+	/**
+	 * Builds the rendered scene
+	 *
+	 * @return the scene
+	 */
+	private static Scene scene() {
+		Scene scene = new Scene("Distributed").setAmbientLight(new AmbientLight(new Color(WHITE), 0.1));
+		scene.geometries.add( //
+				new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)).setEmission(new Color(30, 30, 30)) //
+						.setMaterial(new Material().setKd(0.5).setkR(0.3)), //
+				new Sphere(new Point(0, 0, -100), 40d).setEmission(new Color(BLUE)) //
+						.setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(50).setkT(0.4)));
+		scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(60, 100, 0)));
+		return scene;
+	}
+
+	/**
+	 * Constructs the rendering camera
+	 *
+	 * @param imageName the image name
+	 * @return the camera
+	 */
+	private static Camera camera(String imageName) {
+		return new Camera(new Point(0, 0, 200), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(200, 150).setVPDistance(200) //
+				.setImageWriter(new ImageWriter(imageName, 160, 120));
+	}
+
+	/**
+	 * Reads a written image
+	 *
+	 * @param imageName the image name
+	 * @return the image
+	 * @throws IOException if the image cannot be read
+	 */
+	private static BufferedImage read(String imageName) throws IOException {
+		return ImageIO.read(new File(System.getProperty("user.dir") + "/images/" + imageName + ".png"));
+	}
+
+	/**
+	 * Test of rendering by healthy, dead and stuck workers
+	 *
+	 * @throws IOException if the workers cannot be started
+	 */
+	@Test
+	void testDistributedRender() throws IOException {
+		camera("localTiles").setRayTracer(new RayTracerBasic(scene().prepare())).renderImage().writeToImage();
+
+		// a port nobody listens on
+		int deadPort;
+		try (ServerSocket dead = new ServerSocket(0)) {
+			deadPort = dead.getLocalPort();
+		}
+		Scene scene = scene();
+		try (TileWorker first = new TileWorker(scene, 0);
+				TileWorker second = new TileWorker(scene, 0);
+				ServerSocket stuck = new ServerSocket(0)) {
+			// a worker which accepts connections and reads them, but never answers
+			Thread stuckWorker = new Thread(() -> {
+				try (Socket connection = stuck.accept()) {
+					connection.setSoTimeout(10000);
+					connection.getInputStream().readAllBytes();
+				} catch (IOException ignore) {
+					// the test is over
+				}
+			});
+			stuckWorker.setDaemon(true);
+			stuckWorker.start();
+
+			// ============ Equivalence Partitions Tests ==============
+			// TC01: Tiles of failed workers are rendered by the others
+			new TileCoordinator(List.of(new InetSocketAddress("localhost", stuck.getLocalPort()),
+					new InetSocketAddress("localhost", deadPort), new InetSocketAddress("localhost", first.getPort()),
+					new InetSocketAddress("localhost", second.getPort()),
+					new InetSocketAddress("localhost", second.getPort()))) //
+					.setTileSize(16).setTimeout(500) //
+					.render(camera("distributedTiles")) //
+					.writeToImage();
+			BufferedImage local = read("localTiles");
+			BufferedImage distributed = read("distributedTiles");
+			for (int i = 0; i < local.getHeight(); ++i)
+				for (int j = 0; j < local.getWidth(); ++j)
+					assertEquals(local.getRGB(j, i), distributed.getRGB(j, i), "Wrong pixel " + j + "," + i);
+		}
+
+		// TC02: No worker is alive
+		TileCoordinator dead = new TileCoordinator(List.of(new InetSocketAddress("localhost", deadPort)));
+		assertThrows(IllegalStateException.class, () -> dead.render(camera("deadTiles")), "Image not rendered");
+	}
+}
@@ -0,0 +1,88 @@
+package unittests.renderer;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing the flight recorder events of rendering
+ *
+ * @author Eti and Chavi
+ */
+class FlightRecorderTests {
+	/**
+	 * Counts the recorded events of a type
+	 *
+	 * @param events the recorded events
+	 * @param name   the event type name
+	 * @return amount of the events
+	 */
+	private static long count(List<RecordedEvent> events, String name) {
+		return events.stream().filter(e -> e.getEventType().getName().equals(name)).count();
+	}
+
+	/**
+	 * Test of the events recorded while preparing a scene, rendering it and
+	 * writing the image
+	 *
+	 * @throws IOException if the recording cannot be written or read
+	 */
+	@Test
+	void testRenderEvents() throws IOException {
+		Scene scene = new Scene("Recorded").setAmbientLight(new AmbientLight(new Color(WHITE), 0.1));
+		scene.geometries.add(new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)).setEmission(new Color(30, 30, 30)),
+				new Sphere(new Point(0, 0, -100), 40d).setEmission(new Color(BLUE))
+						.setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)),
+				new Sphere(new Point(60, 0, -100), 10d).setEmission(new Color(RED)));
+		scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(60, 100, 0)));
+
+		Path file = Files.createTempFile("render", ".jfr");
+		List<RecordedEvent> events;
+		try (Recording recording = new Recording()) {
+			for (String name : List.of("ScenePrepare", "BVHBuild", "TileRender", "FrameRender", "ImageWrite"))
+				recording.enable("raytracer." + name);
+			recording.start();
+			new Camera(new Point(0, 0, 200), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+					.setVPSize(200, 150).setVPDistance(200) //
+					.setImageWriter(new ImageWriter("recordedRender", 100, 75)) //
+					.setRayTracer(new RayTracerBasic(scene.prepare())) //
+					.setTileSize(32).setMultithreading(2) //
+					.renderImage() //
+					.writeToImage();
+			recording.stop();
+			recording.dump(file);
+			events = RecordingFile.readAllEvents(file);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Scene preparation and its hierarchy build
+		assertEquals(1, count(events, "raytracer.ScenePrepare"), "Wrong amount of scene events");
+		assertEquals(1, count(events, "raytracer.BVHBuild"), "Wrong amount of hierarchy events");
+		// TC02: All the tiles (4 columns by 3 rows) with their rays
+		assertEquals(12, count(events, "raytracer.TileRender"), "Wrong amount of tile events");
+		assertEquals(100 * 75, events.stream().filter(e -> e.getEventType().getName().equals("raytracer.TileRender"))
+				.mapToLong(e -> e.getLong("rays")).sum(), "Wrong amount of tile rays");
+		// TC03: The frame and its image
+		assertEquals(1, count(events, "raytracer.FrameRender"), "Wrong amount of frame events");
+		RecordedEvent image = events.stream().filter(e -> e.getEventType().getName().equals("raytracer.ImageWrite"))
+				.findFirst().orElseThrow();
+		assertEquals("recordedRender", image.getString("image"), "Wrong image event");
+	}
+}
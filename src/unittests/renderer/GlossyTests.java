@@ -0,0 +1,173 @@
+package unittests.renderer;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing glossy reflections and blurry refractions
+ *
+ * @author Eti and Chavi
+ */
+class GlossyTests {
+	/** The origin of the test rays */
+	private static final Point EYE = new Point(0, 0, 200);
+
+	/**
+	 * Builds a scene of a mirror facing a wall behind the eye - red on the left
+	 * and blue on the right
+	 *
+	 * @param glossiness the glossiness of the mirror
+	 * @return the scene, prepared
+	 */
+	private static Scene mirror(double glossiness) {
+		Scene scene = new Scene("Glossy").setAmbientLight(new AmbientLight(new Color(WHITE), 0));
+		scene.geometries.add(
+				new Plane(new Point(0, 0, -100), new Vector(0, 0, 1))
+						.setMaterial(new Material().setkR(1).setGlossiness(glossiness)),
+				new Triangle(new Point(0, -1000, 400), new Point(0, 1000, 400), new Point(-1000, 0, 400))
+						.setEmission(new Color(RED)),
+				new Triangle(new Point(0, -1000, 400), new Point(0, 1000, 400), new Point(1000, 0, 400))
+						.setEmission(new Color(BLUE)));
+		return scene.prepare();
+	}
+
+	/**
+	 * Constructs a test ray towards a point of the mirror
+	 *
+	 * @param x the x coordinate of the point
+	 * @return the ray
+	 */
+	private static Ray toMirror(double x) {
+		return new Ray(EYE, new Vector(x, 0, -300));
+	}
+
+	/** Test method for glossy reflections of {@link renderer.RayTracerBasic#traceRay(Ray)}. */
+	@Test
+	void testGlossyReflection() {
+		RayTracerBase perfect = new RayTracerBasic(mirror(0));
+		RayTracerBase glossy = new RayTracerBasic(mirror(0.1));
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: A glossy reflection of a uniform area is the perfect reflection
+		assertEquals(perfect.traceRay(toMirror(50)).getColor(), glossy.traceRay(toMirror(50)).getColor(),
+				"Wrong uniform reflection");
+		// TC02: A glossy reflection of an edge blurs it
+		assertEquals(BLUE, perfect.traceRay(toMirror(1)).getColor(), "Wrong perfect reflection");
+		java.awt.Color blurred = glossy.traceRay(toMirror(1)).getColor();
+		assertTrue(blurred.getRed() > 0 && blurred.getBlue() > 0 && blurred.getBlue() < 255,
+				"Edge not blurred " + blurred);
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Without a budget the reflection is perfect
+		assertEquals(BLUE, new RayTracerBasic(mirror(0.1)).setBeamBudget(0).traceRay(toMirror(1)).getColor(),
+				"Wrong reflection without a budget");
+		// TC12: A beam of a single ray is the perfect reflection
+		assertEquals(BLUE, new RayTracerBasic(mirror(0.1)).setBeamSize(1).traceRay(toMirror(1)).getColor(),
+				"Wrong reflection of a single ray beam");
+		// TC13: Invalid settings
+		assertThrows(IllegalArgumentException.class, () -> new Material().setGlossiness(-1), "Negative glossiness");
+		assertThrows(IllegalArgumentException.class, () -> new Material().setBlur(-1), "Negative blur");
+		assertThrows(IllegalArgumentException.class, () -> new RayTracerBasic(mirror(0)).setBeamSize(0),
+				"Zero beam size");
+		assertThrows(IllegalArgumentException.class, () -> new RayTracerBasic(mirror(0)).setBeamBudget(-1),
+				"Negative budget");
+	}
+
+	/** Test method for blurry refractions of {@link renderer.RayTracerBasic#traceRay(Ray)}. */
+	@Test
+	void testBlurryRefraction() {
+		Scene scene = new Scene("Frosted").setAmbientLight(new AmbientLight(new Color(WHITE), 0));
+		scene.geometries.add(
+				new Plane(new Point(0, 0, 0), new Vector(0, 0, 1))
+						.setMaterial(new Material().setkT(1).setBlur(0.2)),
+				new Triangle(new Point(0, -1000, -100), new Point(0, 1000, -100), new Point(-1000, 0, -100))
+						.setEmission(new Color(RED)),
+				new Triangle(new Point(0, -1000, -100), new Point(0, 1000, -100), new Point(1000, 0, -100))
+						.setEmission(new Color(BLUE)));
+		scene.prepare();
+		RayTracerBase tracer = new RayTracerBasic(scene);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: A uniform area behind the glass is seen clearly
+		assertEquals(BLUE, tracer.traceRay(new Ray(EYE, new Vector(50, 0, -300))).getColor(), "Wrong clear color");
+		// TC02: An edge behind the glass is blurred
+		java.awt.Color blurred = tracer.traceRay(new Ray(EYE, new Vector(1, 0, -300))).getColor();
+		assertTrue(blurred.getRed() > 0 && blurred.getBlue() > 0, "Edge not blurred " + blurred);
+	}
+
+	/** Test method for the beams of {@link renderer.WavefrontRayTracer#traceRays(Ray[], Color[])}. */
+	@Test
+	void testWavefrontBeams() {
+		RayTracerBase perfect = new WavefrontRayTracer(mirror(0));
+		RayTracerBase glossy = new WavefrontRayTracer(mirror(0.1));
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: A glossy reflection of a uniform area is the perfect reflection
+		assertEquals(perfect.traceRay(toMirror(50)).getColor(), glossy.traceRay(toMirror(50)).getColor(),
+				"Wrong uniform reflection");
+		// TC02: A glossy reflection of an edge blurs it, about as by the basic ray
+		// tracer
+		assertEquals(BLUE, perfect.traceRay(toMirror(1)).getColor(), "Wrong perfect reflection");
+		java.awt.Color blurred = glossy.traceRay(toMirror(1)).getColor();
+		java.awt.Color basic = new RayTracerBasic(mirror(0.1)).traceRay(toMirror(1)).getColor();
+		assertTrue(blurred.getRed() > 0 && blurred.getBlue() > 0 && blurred.getBlue() < 255,
+				"Edge not blurred " + blurred);
+		assertTrue(Math.abs(blurred.getRed() - basic.getRed()) < 64, "Blurred unlike the basic ray tracer");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Without a budget the reflection is perfect
+		assertEquals(BLUE, new WavefrontRayTracer(mirror(0.1)).setBeamBudget(0).traceRay(toMirror(1)).getColor(),
+				"Wrong reflection without a budget");
+	}
+
+	/** Test of the beam rays budget of a pixel */
+	@Test
+	void testBudget() {
+		Camera camera = new Camera(EYE, new Vector(0, 0, -1), new Vector(0, 1, 0)).setVPSize(200, 200)
+				.setVPDistance(300);
+		RenderReport report = camera.setImageWriter(new ImageWriter("glossyBudget", 20, 20)) //
+				.setRayTracer(new RayTracerBasic(mirror(0.5)).setBeamSize(64).setBeamBudget(10)) //
+				.setStatistics(true) //
+				.renderImage() //
+				.getRenderReport();
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: No pixel traces more beam rays than its budget
+		assertTrue(report.reflectionRays() <= 20 * 20 * 10, "Budget exceeded " + report.reflectionRays());
+		assertTrue(report.reflectionRays() > 20 * 20, "No beams traced " + report.reflectionRays());
+	}
+
+	/** Produce a picture of brushed metal and frosted glass */
+	@Test
+	void glossyRender() {
+		Scene scene = new Scene("Brushed metal and frosted glass")
+				.setAmbientLight(new AmbientLight(new Color(WHITE), 0.1));
+		scene.geometries.add(
+				new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)).setEmission(new Color(20, 20, 20))
+						.setMaterial(new Material().setKd(0.3).setkR(0.6).setGlossiness(0.05)),
+				new Sphere(new Point(-50, 0, -50), 50d).setEmission(new Color(RED))
+						.setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(60)),
+				new Triangle(new Point(0, -50, 50), new Point(120, -50, 50), new Point(60, 80, 50))
+						.setEmission(new Color(0, 10, 20))
+						.setMaterial(new Material().setKs(0.2).setShininess(80).setkT(0.8).setBlur(0.08)),
+				new Sphere(new Point(60, 0, -80), 40d).setEmission(new Color(GREEN))
+						.setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(60)));
+		scene.lights.add(new SpotLight(new Color(700, 600, 500), new Point(0, 200, 300), new Vector(0, -1, -1.5))
+				.setkL(0.0005));
+		new Camera(new Point(0, 50, 600), new Vector(0, -0.1, -1), new Vector(0, 1, -0.1)) //
+				.setVPSize(200, 200).setVPDistance(500) //
+				.setImageWriter(new ImageWriter("glossy", 400, 400)) //
+				.setRayTracer(new RayTracerBasic(scene.prepare())) //
+				.setMultithreading(2) //
+				.renderImage() //
+				.writeToImage();
+	}
+}
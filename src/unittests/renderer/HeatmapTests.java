@@ -0,0 +1,82 @@
+package unittests.renderer;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing the per-pixel cost heatmap
+ *
+ * @author Eti and Chavi
+ */
+class HeatmapTests {
+	/** Test method for {@link renderer.Heatmap#falseColor(double)}. */
+	@Test
+	void testFalseColor() {
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: The cheapest cost is dark blue
+		java.awt.Color cheap = Heatmap.falseColor(0).getColor();
+		assertTrue(cheap.getBlue() > 0 && cheap.getRed() == 0 && cheap.getGreen() == 0, "Wrong cheapest colour");
+		// TC02: The most expensive cost is red
+		assertEquals(RED, Heatmap.falseColor(1).getColor(), "Wrong most expensive colour");
+		// TC03: Cost on a scale step has the step's colour
+		assertEquals(GREEN, Heatmap.falseColor(0.6).getColor(), "Wrong scale step colour");
+		// TC04: Cost between scale steps is blended
+		java.awt.Color blended = Heatmap.falseColor(0.5).getColor();
+		assertTrue(blended.getGreen() == 255 && blended.getBlue() > 0 && blended.getBlue() < 255,
+				"Wrong blended colour");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Costs out of the scale are clamped
+		assertEquals(Heatmap.falseColor(0).getColor(), Heatmap.falseColor(-0.5).getColor(), "Wrong low clamp");
+		assertEquals(RED, Heatmap.falseColor(7).getColor(), "Wrong high clamp");
+	}
+
+	/** Produce a heatmap of intersection tests of a glass sphere over a mirror */
+	@Test
+	void glassHeatmap() {
+		Scene scene = new Scene("Heatmap").setAmbientLight(new AmbientLight(new Color(WHITE), 0.1));
+		scene.geometries.add( //
+				new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)).setEmission(new Color(20, 20, 20)) //
+						.setMaterial(new Material().setKd(0.3).setKs(0.3).setShininess(20).setkR(0.6)), //
+				new Sphere(new Point(0, 0, -100), 40d).setEmission(new Color(BLUE)) //
+						.setMaterial(new Material().setKd(0.2).setKs(0.3).setShininess(50).setkT(0.7)), //
+				new Sphere(new Point(0, 0, -100), 20d).setEmission(new Color(RED)) //
+						.setMaterial(new Material().setKd(0.2).setKs(0.3).setShininess(50).setkT(0.5)));
+		scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(60, 100, 0)));
+
+		final int nX = 200, nY = 150;
+		Camera camera = new Camera(new Point(0, 0, 200), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(200, 150).setVPDistance(200) //
+				.setImageWriter(new ImageWriter("heatmapGlass", nX, nY)) //
+				.setRayTracer(new RayTracerBasic(scene.prepare())) //
+				.setHeatmap(Heatmap.Metric.INTERSECTIONS) //
+				.setMultithreading(2) //
+				.renderImage();
+		camera.writeToImage();
+
+		Heatmap heatmap = camera.getHeatmap();
+		// the sky corner is cheaper than the floor, which is cheaper than the glass
+		long sky = heatmap.getCost(0, 0);
+		long floor = heatmap.getCost(0, nY - 1);
+		long glass = heatmap.getCost(nX / 2, nY / 2);
+		assertTrue(sky > 0, "Intersection tests not counted");
+		assertTrue(sky < floor && floor < glass, "Wrong relative pixel costs");
+
+		// the heatmap counts exactly the intersection tests of its own render
+		RenderReport report = camera.setStatistics(true).renderImage().getRenderReport();
+		long total = 0;
+		for (int i = 0; i < nY; ++i)
+			for (int j = 0; j < nX; ++j)
+				total += camera.getHeatmap().getCost(j, i);
+		assertEquals(report.intersectionTests().values().stream().mapToLong(Long::longValue).sum(), total,
+				"Heatmap costs differ from the render's intersection tests");
+	}
+}
@@ -0,0 +1,57 @@
+package unittests.renderer;
+
+import static java.awt.Color.*;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing scenes built of many instances of shared models
+ *
+ * @author Eti and Chavi
+ */
+class InstancingTests {
+	/** Produce a picture of a forest - a grid of instances of a single tree model */
+	@Test
+	void forest() {
+		Material bark = new Material().setKd(0.6).setKs(0.1).setShininess(10);
+		Material leaves = new Material().setKd(0.6).setKs(0.3).setShininess(30);
+		Point top = new Point(0, 40, 0);
+		Point a = new Point(-4, 0, -4), b = new Point(4, 0, -4), c = new Point(4, 0, 4), d = new Point(-4, 0, 4);
+		Geometries tree = new Geometries( //
+				new Triangle(a, b, top).setEmission(new Color(60, 30, 10)).setMaterial(bark), //
+				new Triangle(b, c, top).setEmission(new Color(60, 30, 10)).setMaterial(bark), //
+				new Triangle(c, d, top).setEmission(new Color(60, 30, 10)).setMaterial(bark), //
+				new Triangle(d, a, top).setEmission(new Color(60, 30, 10)).setMaterial(bark), //
+				new Sphere(new Point(0, 45, 0), 18d).setEmission(new Color(10, 70, 20)).setMaterial(leaves));
+
+		Scene scene = new Scene("Forest").setAmbientLight(new AmbientLight(new Color(WHITE), 0.15));
+		scene.geometries.add(new Plane(Point.ZERO, new Vector(0, 1, 0)).setEmission(new Color(40, 40, 20)) //
+				.setMaterial(new Material().setKd(0.5)));
+		Material autumn = new Material().setKd(0.7).setKs(0.2).setShininess(20);
+		for (int i = 0; i < 15; ++i)
+			for (int j = 0; j < 15; ++j) {
+				Transform transform = Transform.scaling(0.7 + ((i * 7 + j * 3) % 5) * 0.15)
+						.then(Transform.rotation(new Vector(0, 1, 0), i * 37 + j * 11))
+						.then(Transform.translation(new Vector(i * 60 - 420, 0.001, -j * 60 - 10)));
+				Instance instance = new Instance(tree, transform);
+				if ((i + j) % 7 == 0)
+					instance.setMaterial(autumn);
+				scene.geometries.add(instance);
+			}
+		scene.lights.add(new DirectionalLight(new Color(250, 230, 190), new Vector(1, -1, -0.5)));
+
+		new Camera(new Point(0, 250, 600), new Vector(0, -0.3, -1), new Vector(0, 1, -0.3)) //
+				.setVPSize(200, 150).setVPDistance(200) //
+				.setImageWriter(new ImageWriter("instancedForest", 600, 450)) //
+				.setRayTracer(new RayTracerBasic(scene.prepare())) //
+				.setMultithreading(4) //
+				.renderImage() //
+				.writeToImage();
+	}
+}
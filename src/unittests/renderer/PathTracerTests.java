@@ -0,0 +1,105 @@
+package unittests.renderer;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing the Monte Carlo path tracer
+ *
+ * @author Eti and Chavi
+ */
+class PathTracerTests {
+	/** The camera looking at the scenes */
+	private final Camera camera = new Camera(new Point(0, 0, 200), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+			.setVPSize(200, 200).setVPDistance(200);
+
+	/**
+	 * Builds a room corner - a white floor and a red wall, lit by a point light
+	 *
+	 * @param ambient the ambient light intensity
+	 * @param wall    whether to put the red wall
+	 * @return the scene, prepared
+	 */
+	private static Scene corner(double ambient, boolean wall) {
+		Scene scene = new Scene("Corner").setAmbientLight(new AmbientLight(new Color(WHITE), ambient));
+		scene.geometries.add(new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)) //
+				.setMaterial(new Material().setKd(0.8).setKs(0.1).setShininess(20)));
+		if (wall)
+			scene.geometries.add(new Plane(new Point(-60, 0, 0), new Vector(1, 0, 0)) //
+					.setEmission(new Color(40, 0, 0)).setMaterial(new Material().setKd(new Double3(0.9, 0.1, 0.1))));
+		scene.lights.add(new PointLight(new Color(150, 150, 150), new Point(0, 100, 0)).setkL(0.001));
+		return scene.prepare();
+	}
+
+	/** Test method for {@link renderer.PathTracer#traceRay(Ray)}. */
+	@Test
+	void testTraceRay() {
+		Ray floor = camera.constructRay(100, 100, 40, 90);
+		Ray sky = camera.constructRay(100, 100, 50, 0);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Without bounced light the path tracer equals the basic ray tracer
+		// without the ambient light
+		Scene open = corner(0, false);
+		assertEquals(new RayTracerBasic(open).traceRay(floor).getColor(),
+				new PathTracer(open).setSamples(8).traceRay(floor).getColor(), "Wrong direct light");
+
+		// TC02: Light bounced from the red wall tints the floor
+		Scene corner = corner(0, true);
+		java.awt.Color direct = new RayTracerBasic(corner).traceRay(floor).getColor();
+		java.awt.Color global = new PathTracer(corner).setSamples(256).traceRay(floor).getColor();
+		assertTrue(global.getRed() - direct.getRed() > global.getBlue() - direct.getBlue(),
+				"No color bleeding: direct " + direct + ", global " + global);
+
+		// TC03: The same seed traces the same paths
+		assertEquals(global, new PathTracer(corner).setSamples(256).traceRay(floor).getColor(), "Paths not repeated");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: A primary ray missing the scene has the background color
+		assertEquals(BLACK, new PathTracer(corner).traceRay(sky).getColor(), "Wrong background");
+		// TC12: Invalid settings
+		PathTracer tracer = new PathTracer(corner);
+		assertThrows(IllegalArgumentException.class, () -> tracer.setSamples(0), "Zero samples");
+		assertThrows(IllegalArgumentException.class, () -> tracer.setMaxDepth(0), "Zero depth");
+	}
+
+	/** Test of mirrors and glass - the paths converge to the basic ray tracer */
+	@Test
+	void testSpecularConvergence() {
+		Scene scene = new Scene("Mirror").setAmbientLight(new AmbientLight(new Color(WHITE), 0));
+		scene.geometries.add(
+				new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)).setEmission(new Color(20, 20, 20))
+						.setMaterial(new Material().setKs(0.3).setShininess(20).setkR(0.5)),
+				new Sphere(new Point(0, 0, -100), 40d).setEmission(new Color(BLUE))
+						.setMaterial(new Material().setKs(0.3).setShininess(50).setkT(0.5)));
+		scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(60, 100, 0)));
+		scene.prepare();
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: The average of random specular paths is the recursive tracing color
+		Ray ray = camera.constructRay(100, 100, 50, 50);
+		java.awt.Color expected = new RayTracerBasic(scene).traceRay(ray).getColor();
+		java.awt.Color actual = new PathTracer(scene).setSamples(4000).traceRay(ray).getColor();
+		assertEquals(expected.getRed(), actual.getRed(), 4, "Wrong red");
+		assertEquals(expected.getGreen(), actual.getGreen(), 4, "Wrong green");
+		assertEquals(expected.getBlue(), actual.getBlue(), 4, "Wrong blue");
+	}
+
+	/** Render the room corner with global illumination */
+	@Test
+	void cornerRender() {
+		camera.setImageWriter(new ImageWriter("pathTracedCorner", 200, 200)) //
+				.setRayTracer(new PathTracer(corner(0, true)).setSamples(16)) //
+				.setMultithreading(2) //
+				.renderImage() //
+				.writeToImage();
+	}
+}
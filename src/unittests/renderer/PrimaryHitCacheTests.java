@@ -0,0 +1,161 @@
+package unittests.renderer;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing incremental re-renders by the primary hit cache
+ *
+ * @author Eti and Chavi
+ */
+class PrimaryHitCacheTests {
+	/** Amount of pixel columns and rows */
+	private static final int NX = 160, NY = 120;
+
+	/** The floor of the scene */
+	private final Geometry floor = new Plane(new Point(0, -50, 0), new Vector(0, 1, 0))
+			.setEmission(new Color(30, 30, 30)).setMaterial(new Material().setKd(0.5).setkR(0.3));
+	/** The small sphere of the scene, seen directly and in the floor */
+	private final Geometry ball = new Sphere(new Point(60, -30, -80), 20d).setEmission(new Color(RED))
+			.setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(50));
+	/** The gem model shared by the instances of the scene */
+	private final Geometry gem = new Sphere(Point.ZERO, 10d).setEmission(new Color(GREEN))
+			.setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(50));
+	/** An instance of the gem */
+	private final Instance leftGem = new Instance(gem, Transform.translation(new Vector(-70, -35, -60)));
+	/** The scene */
+	private final Scene scene = new Scene("Cache").setAmbientLight(new AmbientLight(new Color(WHITE), 0.1));
+
+	/**
+	 * Constructs the test scene
+	 */
+	PrimaryHitCacheTests() {
+		scene.geometries.add(floor, ball, new Sphere(new Point(-20, 0, -100), 40d).setEmission(new Color(BLUE)) //
+				.setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(50).setkT(0.4)), //
+				leftGem, new Instance(gem, Transform.translation(new Vector(20, -40, -20))));
+		scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(60, 100, 0)));
+		scene.prepare();
+	}
+
+	/**
+	 * Constructs the rendering camera
+	 *
+	 * @param imageName the image name
+	 * @return the camera
+	 */
+	private Camera camera(String imageName) {
+		return new Camera(new Point(0, 0, 200), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(200, 150).setVPDistance(200) //
+				.setImageWriter(new ImageWriter(imageName, NX, NY)) //
+				.setRayTracer(new RayTracerBasic(scene));
+	}
+
+	/**
+	 * Reads a written image
+	 *
+	 * @param imageName the image name
+	 * @return the image
+	 * @throws IOException if the image cannot be read
+	 */
+	private static BufferedImage read(String imageName) throws IOException {
+		return ImageIO.read(new File(System.getProperty("user.dir") + "/images/" + imageName + ".png"));
+	}
+
+	/**
+	 * Checks that an incremental render matches a full render of the same scene
+	 *
+	 * @param incremental the camera rendering incrementally
+	 * @param name        the name of the images
+	 * @throws IOException if the images cannot be read
+	 */
+	private void assertMatchesFullRender(Camera incremental, String name) throws IOException {
+		incremental.writeToImage();
+		camera(name + "Full").renderImage().writeToImage();
+		BufferedImage expected = read(name + "Full");
+		BufferedImage actual = read(name);
+		for (int i = 0; i < NY; ++i)
+			for (int j = 0; j < NX; ++j)
+				assertEquals(expected.getRGB(j, i), actual.getRGB(j, i), "Wrong pixel " + j + "," + i);
+	}
+
+	/**
+	 * Test method for {@link renderer.Camera#setPrimaryHitCache(PrimaryHitCache)}.
+	 *
+	 * @throws IOException if the images cannot be read
+	 */
+	@Test
+	void testIncrementalRender() throws IOException {
+		PrimaryHitCache cache = new PrimaryHitCache();
+		Camera camera = camera("hitCache").setPrimaryHitCache(cache).setMultithreading(2);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: The first render traces all the pixels, as a render without the cache
+		camera.renderImage();
+		assertEquals(NX * NY, cache.getTracedPixels(), "Wrong amount of traced pixels");
+		assertMatchesFullRender(camera, "hitCache");
+
+		// TC02: A render without edits renders nothing
+		camera.renderImage();
+		assertEquals(0, cache.getTracedPixels() + cache.getShadedPixels(), "Pixels rendered without edits");
+
+		// TC03: A material edit shades again only the pixels touching the geometry
+		ball.getMaterial().setKd(0.8);
+		cache.invalidate(ball);
+		camera.renderImage();
+		assertEquals(0, cache.getTracedPixels(), "Pixels traced after a material edit");
+		assertTrue(cache.getShadedPixels() > 0 && cache.getShadedPixels() < NX * NY / 4,
+				"Wrong amount of shaded pixels");
+		assertMatchesFullRender(camera, "hitCache");
+
+		// TC04: A light edit shades again all the pixels
+		scene.setAmbientLight(new AmbientLight(new Color(WHITE), 0.2));
+		cache.invalidateShading();
+		camera.renderImage();
+		assertEquals(0, cache.getTracedPixels(), "Pixels traced after a light edit");
+		assertEquals(NX * NY, cache.getShadedPixels(), "Wrong amount of shaded pixels");
+		assertMatchesFullRender(camera, "hitCache");
+
+		// TC05: Moving geometry traces all the pixels again
+		cache.clear();
+		camera.renderImage();
+		assertEquals(NX * NY, cache.getTracedPixels(), "Wrong amount of traced pixels");
+
+		// TC06: A shared geometry edit shades again the pixels of all its instances
+		gem.getMaterial().setKd(0.8);
+		cache.invalidate(gem);
+		camera.renderImage();
+		int bothGems = cache.getShadedPixels();
+		assertEquals(0, cache.getTracedPixels(), "Pixels traced after a shared material edit");
+		assertTrue(bothGems > 0 && bothGems < NX * NY / 4, "Wrong amount of shaded pixels");
+		assertMatchesFullRender(camera, "hitCache");
+
+		// TC07: An instance material edit shades again only the instance's pixels
+		leftGem.setMaterial(new Material().setKd(0.2).setKs(0.6).setShininess(20));
+		cache.invalidate(leftGem);
+		camera.renderImage();
+		assertEquals(0, cache.getTracedPixels(), "Pixels traced after an instance material edit");
+		assertTrue(cache.getShadedPixels() > 0 && cache.getShadedPixels() < bothGems,
+				"Wrong amount of shaded pixels");
+		assertMatchesFullRender(camera, "hitCache");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Invalidating a geometry no ray touches renders nothing
+		cache.invalidate(new Sphere(new Point(0, 0, 500), 1d));
+		camera.renderImage();
+		assertEquals(0, cache.getTracedPixels() + cache.getShadedPixels(), "Pixels rendered without edits");
+	}
+}
@@ -0,0 +1,170 @@
+package unittests.renderer;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing rendering regions of an image
+ *
+ * @author Eti and Chavi
+ */
+class RegionRenderTests {
+	/** Amount of pixel columns and rows */
+	private static final int NX = 160, NY = 120;
+
+	/**
+	 * Ray tracer counting the traced rays
+	 */
+	private static class CountingTracer extends RayTracerBase {
+		private final RayTracerBase tracer;
+		final AtomicInteger rays = new AtomicInteger();
+
+		/**
+		 * Constructs a counting tracer
+		 *
+		 * @param scene the scene
+		 */
+		CountingTracer(Scene scene) {
+			super(scene);
+			tracer = new RayTracerBasic(scene);
+		}
+
+		@Override
+		public Color traceRay(Ray ray) {
+			rays.incrementAndGet();
+			return tracer.traceRay(ray);
+		}
+	}
+
+	/**
+	 * Builds the rendered scene
+	 *
+	 * @param sphere the sphere's color
+	 * @return the scene, prepared
+	 */
+	private static Scene scene(java.awt.Color sphere) {
+		Scene scene = new Scene("Region").setAmbientLight(new AmbientLight(new Color(WHITE), 0.1));
+		scene.geometries.add( //
+				new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)).setEmission(new Color(30, 30, 30)) //
+						.setMaterial(new Material().setKd(0.5).setkR(0.3)), //
+				new Sphere(new Point(0, 0, -100), 40d).setEmission(new Color(sphere)) //
+						.setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(50).setkT(0.4)));
+		scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(60, 100, 0)));
+		return scene.prepare();
+	}
+
+	/**
+	 * Constructs the rendering camera
+	 *
+	 * @param imageWriter the image writer
+	 * @param tracer      the ray tracer
+	 * @return the camera
+	 */
+	private static Camera camera(ImageWriter imageWriter, RayTracerBase tracer) {
+		return new Camera(new Point(0, 0, 200), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(200, 150).setVPDistance(200) //
+				.setImageWriter(imageWriter).setRayTracer(tracer).setTileSize(16);
+	}
+
+	/**
+	 * Reads a written image
+	 *
+	 * @param imageName the image name
+	 * @return the image
+	 * @throws IOException if the image cannot be read
+	 */
+	private static BufferedImage read(String imageName) throws IOException {
+		return ImageIO.read(new File(System.getProperty("user.dir") + "/images/" + imageName + ".png"));
+	}
+
+	/**
+	 * Checks whether a pixel is in one of the regions
+	 *
+	 * @param regions the regions
+	 * @param x       the pixel column
+	 * @param y       the pixel row
+	 * @return true if the pixel is in a region
+	 */
+	private static boolean inside(List<Tile> regions, int x, int y) {
+		for (Tile region : regions)
+			if (x >= region.x() && x < region.x() + region.width() && y >= region.y()
+					&& y < region.y() + region.height())
+				return true;
+		return false;
+	}
+
+	/** Test method for {@link renderer.Tile#split(int)}. */
+	@Test
+	void testSplit() {
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: A tile is split into tiles at its own position, cut at its edges
+		assertEquals(List.of(new Tile(10, 20, 16, 16), new Tile(26, 20, 4, 16), new Tile(10, 36, 16, 2),
+				new Tile(26, 36, 4, 2)), new Tile(10, 20, 20, 18).split(16), "Wrong tiles");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: A tile smaller than the size is not split
+		assertEquals(List.of(new Tile(3, 4, 5, 6)), new Tile(3, 4, 5, 6).split(16), "Small tile split");
+	}
+
+	/**
+	 * Test method for {@link renderer.Camera#renderRegions(List)}.
+	 *
+	 * @throws IOException if the images cannot be read
+	 */
+	@Test
+	void testRenderRegions() throws IOException {
+		Scene blue = scene(BLUE);
+		camera(new ImageWriter("regionFull", NX, NY), new RayTracerBasic(blue)).renderImage().writeToImage();
+		BufferedImage full = read("regionFull");
+		List<Tile> regions = List.of(new Tile(50, 30, 40, 25), new Tile(0, 100, 17, 20));
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Only the regions are rendered, exactly as by a full render
+		CountingTracer tracer = new CountingTracer(blue);
+		camera(new ImageWriter("regionOnly", NX, NY), tracer).setMultithreading(2).renderRegions(regions)
+				.writeToImage();
+		assertEquals(40 * 25 + 17 * 20, tracer.rays.get(), "Pixels out of the regions rendered");
+		BufferedImage only = read("regionOnly");
+		for (int i = 0; i < NY; ++i)
+			for (int j = 0; j < NX; ++j)
+				assertEquals(inside(regions, j, i) ? full.getRGB(j, i) : BLACK.getRGB(), only.getRGB(j, i),
+						"Wrong pixel " + j + "," + i);
+
+		// TC02: The regions are composited into an existing image
+		camera(new ImageWriter("regionFull", NX, NY), new RayTracerBasic(blue)).renderImage().writeToImage();
+		camera(ImageWriter.read("regionFull"), new RayTracerBasic(scene(RED))).renderRegions(regions)
+				.writeToImage();
+		BufferedImage composite = read("regionFull");
+		assertNotEquals(full.getRGB(70, 42), composite.getRGB(70, 42), "Region not rendered");
+		for (int i = 0; i < NY; ++i)
+			for (int j = 0; j < NX; ++j)
+				if (!inside(regions, j, i))
+					assertEquals(full.getRGB(j, i), composite.getRGB(j, i), "Wrong pixel " + j + "," + i);
+
+		// =============== Boundary Values Tests ==================
+		// TC11: A region exceeding the image
+		Camera camera = camera(new ImageWriter("regionBad", NX, NY), new RayTracerBasic(blue));
+		assertThrows(IllegalArgumentException.class, () -> camera.renderRegions(List.of(new Tile(150, 0, 11, 10))),
+				"Region exceeding the image rendered");
+		// TC12: An empty list of regions renders nothing
+		tracer = new CountingTracer(blue);
+		camera(new ImageWriter("regionNone", NX, NY), tracer).renderRegions(List.of());
+		assertEquals(0, tracer.rays.get(), "Pixels rendered without regions");
+	}
+}
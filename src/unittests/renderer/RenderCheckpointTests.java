@@ -0,0 +1,195 @@
+package unittests.renderer;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing checkpoints and resumption of renders
+ *
+ * @author Eti and Chavi
+ */
+class RenderCheckpointTests {
+	/** Amount of pixel columns and rows */
+	private static final int NX = 160, NY = 120;
+	/** The tile size of the renders */
+	private static final int TILE = 16;
+
+	/**
+	 * Ray tracer counting the traced rays, failing after a given amount of rays
+	 */
+	private static class CountingTracer extends RayTracerBase {
+		private final RayTracerBase tracer;
+		private final int failAfter;
+		final AtomicInteger rays = new AtomicInteger();
+
+		/**
+		 * Constructs a counting tracer
+		 *
+		 * @param scene     the scene
+		 * @param failAfter amount of rays after which the tracing fails
+		 */
+		CountingTracer(Scene scene, int failAfter) {
+			super(scene);
+			tracer = new RayTracerBasic(scene);
+			this.failAfter = failAfter;
+		}
+
+		@Override
+		public Color traceRay(Ray ray) {
+			if (rays.incrementAndGet() > failAfter)
+				throw new IllegalStateException("Render preempted");
+			return tracer.traceRay(ray);
+		}
+	}
+
+	/**
+	 * Builds the rendered scene
+	 *
+	 * @return the scene, prepared
+	 */
+	private static Scene scene() {
+		Scene scene = new Scene("Checkpoint").setAmbientLight(new AmbientLight(new Color(WHITE), 0.1));
+		scene.geometries.add( //
+				new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)).setEmission(new Color(30, 30, 30)) //
+						.setMaterial(new Material().setKd(0.5).setkR(0.3)), //
+				new Sphere(new Point(0, 0, -100), 40d).setEmission(new Color(BLUE)) //
+						.setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(50).setkT(0.4)));
+		scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(60, 100, 0)));
+		return scene.prepare();
+	}
+
+	/**
+	 * Constructs the rendering camera
+	 *
+	 * @param imageName the image name
+	 * @param tracer    the ray tracer
+	 * @return the camera
+	 */
+	private static Camera camera(String imageName, RayTracerBase tracer) {
+		return new Camera(new Point(0, 0, 200), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(200, 150).setVPDistance(200) //
+				.setImageWriter(new ImageWriter(imageName, NX, NY)) //
+				.setRayTracer(tracer).setTileSize(TILE);
+	}
+
+	/**
+	 * Reads a written image
+	 *
+	 * @param imageName the image name
+	 * @return the image
+	 * @throws IOException if the image cannot be read
+	 */
+	private static BufferedImage read(String imageName) throws IOException {
+		return ImageIO.read(new File(System.getProperty("user.dir") + "/images/" + imageName + ".png"));
+	}
+
+	/**
+	 * Test method for {@link renderer.Camera#setCheckpoint(Path, long)}.
+	 *
+	 * @throws IOException if the images or the checkpoint cannot be accessed
+	 */
+	@Test
+	void testResume() throws IOException {
+		Scene scene = scene();
+		camera("checkpointFull", new RayTracerBasic(scene)).renderImage().writeToImage();
+		Path file = Files.createTempFile("render", ".checkpoint");
+		Files.delete(file);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: A failed render leaves a checkpoint of its completed tiles
+		final int tiles = 7;
+		CountingTracer failing = new CountingTracer(scene, tiles * TILE * TILE + TILE * TILE / 2);
+		Camera interrupted = camera("checkpointResumed", failing).setCheckpoint(file, 60000);
+		assertThrows(IllegalStateException.class, interrupted::renderImage, "Render not preempted");
+		assertTrue(Files.exists(file), "Checkpoint not written");
+		assertTrue(Files.size(file) < NX * NY * 4, "Checkpoint not compact");
+
+		// TC02: A resumed render renders only the missing tiles
+		CountingTracer resuming = new CountingTracer(scene, Integer.MAX_VALUE);
+		camera("checkpointResumed", resuming).setCheckpoint(file, 60000).renderImage().writeToImage();
+		assertEquals(NX * NY - tiles * TILE * TILE, resuming.rays.get(), "Wrong amount of rendered pixels");
+		assertFalse(Files.exists(file), "Checkpoint of a complete render not deleted");
+		BufferedImage full = read("checkpointFull");
+		BufferedImage resumed = read("checkpointResumed");
+		for (int i = 0; i < NY; ++i)
+			for (int j = 0; j < NX; ++j)
+				assertEquals(full.getRGB(j, i), resumed.getRGB(j, i), "Wrong pixel " + j + "," + i);
+
+		// =============== Boundary Values Tests ==================
+		// TC11: A checkpoint of another image size is ignored
+		failing = new CountingTracer(scene, tiles * TILE * TILE);
+		assertThrows(IllegalStateException.class,
+				camera("checkpointResumed", failing).setCheckpoint(file, 60000)::renderImage, "Render not preempted");
+		resuming = new CountingTracer(scene, Integer.MAX_VALUE);
+		new Camera(new Point(0, 0, 200), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(200, 150).setVPDistance(200) //
+				.setImageWriter(new ImageWriter("checkpointOther", NX / 2, NY / 2)) //
+				.setRayTracer(resuming).setTileSize(TILE).setCheckpoint(file, 60000) //
+				.renderImage();
+		assertEquals(NX / 2 * NY / 2, resuming.rays.get(), "Checkpoint of another image size used");
+		assertFalse(Files.exists(file), "Checkpoint of a complete render not deleted");
+
+		// TC12: A checkpoint interval which is not positive
+		Camera camera = camera("checkpointResumed", new RayTracerBasic(scene));
+		assertThrows(IllegalArgumentException.class, () -> camera.setCheckpoint(file, 0),
+				"Non-positive interval accepted");
+
+		// TC13: No checkpoints, whatever the interval
+		assertDoesNotThrow(() -> camera.setCheckpoint(null, 0),
+				"Turning checkpoints off failed");
+
+		// TC14: A corrupt checkpoint (a negative amount of tiles) is ignored
+		try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(file)))) {
+			for (int value : new int[] { 0x52434B31, NX, NY, TILE, -1 })
+				out.writeInt(value);
+		}
+		resuming = new CountingTracer(scene, Integer.MAX_VALUE);
+		camera("checkpointResumed", resuming).setCheckpoint(file, 60000).renderImage();
+		assertEquals(NX * NY, resuming.rays.get(), "Corrupt checkpoint used");
+	}
+
+	/**
+	 * Test of checkpoints written periodically by a multithreaded render
+	 *
+	 * @throws IOException if the checkpoint cannot be accessed
+	 */
+	@Test
+	void testMultithreadedResume() throws IOException {
+		Scene scene = scene();
+		Path file = Files.createTempFile("render", ".checkpoint");
+		Files.delete(file);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Tiles completed by a failed multithreaded render are not rendered
+		// again
+		CountingTracer failing = new CountingTracer(scene, NX * NY / 2);
+		assertThrows(RuntimeException.class,
+				camera("checkpointThreads", failing).setCheckpoint(file, 1).setMultithreading(3)::renderImage,
+				"Render not preempted");
+		assertTrue(Files.exists(file), "Checkpoint not written");
+		CountingTracer resuming = new CountingTracer(scene, Integer.MAX_VALUE);
+		camera("checkpointThreads", resuming).setCheckpoint(file, 1).setMultithreading(3).renderImage();
+		assertTrue(resuming.rays.get() < NX * NY, "Completed tiles rendered again");
+		assertTrue(resuming.rays.get() % (TILE * TILE) == 0, "Partial tiles restored");
+		assertFalse(Files.exists(file), "Checkpoint of a complete render not deleted");
+	}
+}
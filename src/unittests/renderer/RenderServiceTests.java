@@ -0,0 +1,181 @@
+package unittests.renderer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import renderer.RenderService;
+import renderer.RenderService.JobStatus;
+import renderer.RenderService.State;
+
+/**
+ * Testing the render service
+ *
+ * @author Eti and Chavi
+ */
+class RenderServiceTests {
+	/** Scene description of the rendered jobs */
+	private static final String SCENE = """
+			<scene background-color="20 20 40">
+			  <ambient-light color="255 255 255" ka="0.1"/>
+			  <geometries>
+			    <sphere center="0 0 -100" radius="40" emission="0 0 200" kd="0.5" ks="0.5" shininess="30"/>
+			    <plane point="0 -50 0" normal="0 1 0" emission="40 40 40" kd="0.5"/>
+			  </geometries>
+			  <lights>
+			    <point-light color="500 400 300" position="60 100 0" kl="0.0005" kq="0.00005"/>
+			  </lights>
+			</scene>
+			""";
+
+	/**
+	 * Job description
+	 *
+	 * @param scene    the scene file
+	 * @param image    the image name
+	 * @param priority the job priority
+	 * @return the job description
+	 */
+	private static String job(Path scene, String image, int priority) {
+		return "scene=" + scene.toString().replace("\\", "/") + "\nimage=" + image + """
+
+				position=0 0 200
+				to=0 0 -1
+				up=0 1 0
+				vp-size=200 150
+				vp-distance=200
+				resolution=80 60
+				priority=""" + priority + "\n";
+	}
+
+	/**
+	 * Test of rendering jobs submitted over HTTP
+	 *
+	 * @throws Exception if the service fails
+	 */
+	@Test
+	void testJobs() throws Exception {
+		Path scene = Files.createTempFile("serviceScene", ".xml");
+		Files.writeString(scene, SCENE);
+		HttpClient client = HttpClient.newHttpClient();
+		try (RenderService service = new RenderService(0, 2)) {
+			URI jobs = URI.create("http://localhost:" + service.getPort() + "/jobs");
+
+			// ============ Equivalence Partitions Tests ==============
+			// TC01: Jobs are rendered and their images written
+			long[] ids = new long[3];
+			for (int i = 0; i < ids.length; ++i) {
+				HttpResponse<String> response = client.send(HttpRequest.newBuilder(jobs)
+						.POST(HttpRequest.BodyPublishers.ofString(job(scene, "serviceRender" + i, i))).build(),
+						HttpResponse.BodyHandlers.ofString());
+				assertEquals(202, response.statusCode(), "Job not accepted");
+				ids[i] = Long.parseLong(response.body().trim());
+			}
+			for (long id : ids) {
+				JobStatus status = service.getCompletion(id).get(60, TimeUnit.SECONDS);
+				assertEquals(State.DONE, status.state(), "Job failed: " + status.message());
+			}
+			for (int i = 0; i < ids.length; ++i)
+				assertTrue(Files.exists(Path.of(System.getProperty("user.dir"), "images", "serviceRender" + i + ".png")),
+						"Image not written");
+
+			// TC02: Job status over HTTP
+			HttpResponse<String> status = client.send(HttpRequest.newBuilder(jobs.resolve("/jobs/" + ids[0])).build(),
+					HttpResponse.BodyHandlers.ofString());
+			assertEquals(200, status.statusCode(), "Status not found");
+			assertTrue(status.body().startsWith("DONE"), "Wrong status");
+
+			// TC03: Invalid job description
+			HttpResponse<String> invalid = client.send(
+					HttpRequest.newBuilder(jobs).POST(HttpRequest.BodyPublishers.ofString("image=x\n")).build(),
+					HttpResponse.BodyHandlers.ofString());
+			assertEquals(400, invalid.statusCode(), "Invalid job accepted");
+
+			// TC04: Job with a missing scene file fails
+			long missing = service.submit(renderer.RenderJob
+					.parse(properties(job(scene.resolveSibling("missingScene.xml"), "missing", 0))));
+			assertEquals(State.FAILED, service.getCompletion(missing).get(60, TimeUnit.SECONDS).state(),
+					"Job without a scene did not fail");
+
+			// TC05: Job writing its image out of the images folder
+			for (String image : new String[] { "../escaped", "sub/image", "sub\\\\image" }) {
+				HttpResponse<String> escaping = client.send(HttpRequest.newBuilder(jobs)
+						.POST(HttpRequest.BodyPublishers.ofString(job(scene, image, 0))).build(),
+						HttpResponse.BodyHandlers.ofString());
+				assertEquals(400, escaping.statusCode(), "Image name " + image + " accepted");
+			}
+
+			// TC06: Job with a huge resolution is rejected before it is queued
+			HttpResponse<String> huge = client.send(HttpRequest.newBuilder(jobs).POST(HttpRequest.BodyPublishers
+					.ofString(job(scene, "huge", 0).replace("resolution=80 60", "resolution=40000 40000"))).build(),
+					HttpResponse.BodyHandlers.ofString());
+			assertEquals(400, huge.statusCode(), "Huge resolution accepted");
+
+			// =============== Boundary Values Tests ==================
+			// TC11: Unknown job
+			assertNull(service.getStatus(12345), "Unknown job found");
+			assertEquals(404, client.send(HttpRequest.newBuilder(jobs.resolve("/jobs/12345")).build(),
+					HttpResponse.BodyHandlers.ofString()).statusCode(), "Unknown job found over HTTP");
+		} finally {
+			Files.deleteIfExists(scene);
+		}
+	}
+
+	/**
+	 * Test of forgetting old finished jobs
+	 *
+	 * @throws Exception if the service fails
+	 */
+	@Test
+	void testKeptJobs() throws Exception {
+		Path missingScene = Path.of(System.getProperty("java.io.tmpdir"), "missingScene.xml");
+		try (RenderService service = new RenderService(0, 1, 2)) {
+			long[] ids = new long[3];
+			for (int i = 0; i < ids.length; ++i) {
+				ids[i] = service.submit(renderer.RenderJob.parse(properties(job(missingScene, "kept" + i, 0))));
+				service.getCompletion(ids[i]).get(60, TimeUnit.SECONDS);
+			}
+
+			// ============ Equivalence Partitions Tests ==============
+			// TC01: The latest finished jobs are kept
+			assertEquals(State.FAILED, service.getStatus(ids[1]).state(), "Latest job forgotten");
+			assertEquals(State.FAILED, service.getStatus(ids[2]).state(), "Latest job forgotten");
+
+			// =============== Boundary Values Tests ==================
+			// TC11: The oldest finished job beyond the kept amount is forgotten
+			assertNull(service.getStatus(ids[0]), "Old job kept");
+		}
+
+		// TC12: Job submitted after the service is closed
+		RenderService closed = new RenderService(0, 1);
+		closed.close();
+		assertThrows(IllegalStateException.class,
+				() -> closed.submit(renderer.RenderJob.parse(properties(job(missingScene, "closed", 0)))),
+				"Job accepted by a closed service");
+
+		// TC13: No finished job is kept
+		assertThrows(IllegalArgumentException.class, () -> new RenderService(0, 1, 0), "No kept jobs accepted");
+	}
+
+	/**
+	 * Parses a job description
+	 *
+	 * @param text the job description
+	 * @return the job properties
+	 * @throws IOException if the description cannot be read
+	 */
+	private static java.util.Properties properties(String text) throws IOException {
+		java.util.Properties properties = new java.util.Properties();
+		properties.load(new java.io.StringReader(text));
+		return properties;
+	}
+}
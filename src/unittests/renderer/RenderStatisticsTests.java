@@ -0,0 +1,119 @@
+package unittests.renderer;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing the render statistics
+ *
+ * @author Eti and Chavi
+ */
+class RenderStatisticsTests {
+	/**
+	 * Builds a small scene with a reflecting plane, a transparent sphere and a
+	 * light
+	 *
+	 * @return the prepared scene
+	 */
+	private static Scene scene() {
+		Scene scene = new Scene("Statistics").setAmbientLight(new AmbientLight(new Color(WHITE), 0.1));
+		scene.geometries.add( //
+				new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)).setEmission(new Color(20, 20, 20)) //
+						.setMaterial(new Material().setKd(0.5).setKs(0.3).setShininess(20).setkR(0.4)), //
+				new Sphere(new Point(0, 0, -100), 40d).setEmission(new Color(BLUE)) //
+						.setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(50).setkT(0.5)));
+		scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(60, 100, 0)));
+		return scene.prepare();
+	}
+
+	/** Test method for {@link renderer.Camera#getRenderReport()}. */
+	@Test
+	void testRenderReport() {
+		final int nX = 40, nY = 30;
+		Camera camera = new Camera(new Point(0, 0, 200), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(200, 150).setVPDistance(200) //
+				.setImageWriter(new ImageWriter("statistics", nX, nY)) //
+				.setRayTracer(new RayTracerBasic(scene()));
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Statistics are off by default
+		assertNull(camera.renderImage().getRenderReport(), "Report without statistics");
+
+		// TC02: Single threaded render
+		RenderReport report = camera.setStatistics(true).renderImage().getRenderReport();
+		assertEquals(nX * nY, report.primaryRays(), "Wrong amount of primary rays");
+		assertTrue(report.reflectionRays() > 0, "Reflected rays not counted");
+		assertTrue(report.refractionRays() > 0, "Refracted rays not counted");
+		assertTrue(report.shadowRays() > 0, "Shadow rays not counted");
+		assertTrue(report.intersectionTests().get("Sphere") > 0, "Sphere intersection tests not counted");
+		assertTrue(report.intersectionTests().get("Plane") > 0, "Plane intersection tests not counted");
+		assertTrue(report.averageTreeDepth() > 0 && report.averageTreeDepth() < 10, "Wrong average tree depth");
+		assertTrue(report.closestHitNanos() > 0 && report.shadowNanos() > 0, "Stage times not measured");
+
+		// TC03: Multithreaded render counts the same rays
+		RenderReport parallel = camera.setMultithreading(3).renderImage().getRenderReport();
+		assertEquals(report.totalRays(), parallel.totalRays(), "Wrong amount of rays in parallel render");
+		assertEquals(report.intersectionTests(), parallel.intersectionTests(),
+				"Wrong amount of intersection tests in parallel render");
+		assertEquals(report.averageTreeDepth(), parallel.averageTreeDepth(), 1e-10,
+				"Wrong average tree depth in parallel render");
+
+		// TC04: Renders sharing a ray tracer at the same time count separately
+		RayTracerBase shared = new RayTracerBasic(scene());
+		Camera[] cameras = new Camera[3];
+		for (int c = 0; c < cameras.length; ++c)
+			cameras[c] = new Camera(new Point(0, 0, 200), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+					.setVPSize(200, 150).setVPDistance(200) //
+					.setImageWriter(new ImageWriter("statistics" + c, nX, nY)) //
+					.setRayTracer(shared).setStatistics(true);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<CompletableFuture<Camera>> renders = new ArrayList<>();
+			for (Camera overlapping : cameras)
+				renders.add(overlapping.renderImageAsync(pool));
+			for (CompletableFuture<Camera> render : renders) {
+				RenderReport overlapping = render.join().getRenderReport();
+				assertEquals(report.totalRays(), overlapping.totalRays(), "Wrong amount of rays in overlapping render");
+				assertEquals(report.intersectionTests(), overlapping.intersectionTests(),
+						"Wrong amount of intersection tests in overlapping render");
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/** Test method for {@link renderer.RenderReport#intersectionTests()}. */
+	@Test
+	void testCompositeIntersectionTests() {
+		Scene scene = new Scene("Composite statistics");
+		scene.geometries.add(new Instance(new Sphere(new Point(0, 0, 0), 40d).setEmission(new Color(BLUE)),
+				Transform.translation(new Vector(0, 0, -100))));
+		scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(60, 100, 0)));
+		RenderReport report = new Camera(new Point(0, 0, 200), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(200, 150).setVPDistance(200) //
+				.setImageWriter(new ImageWriter("compositeStatistics", 20, 15)) //
+				.setRayTracer(new RayTracerBasic(scene.prepare())).setStatistics(true) //
+				.renderImage().getRenderReport();
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: The tests of an instance's body are counted along with the instance's
+		Long instanceTests = report.intersectionTests().get("Instance");
+		assertNotNull(instanceTests, "Instance intersection tests not counted");
+		assertEquals(instanceTests, report.intersectionTests().get("Sphere"),
+				"Every instance test tests its sphere once");
+	}
+}
@@ -0,0 +1,113 @@
+package unittests.renderer;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing the rendering of animation sequences
+ *
+ * @author Eti and Chavi
+ */
+class SequenceRendererTests {
+	/** Produce a turntable of spheres on a plane lighted by a spot light */
+	@Test
+	void turntable() {
+		Scene scene = new Scene("Turntable scene").setAmbientLight(new AmbientLight(new Color(WHITE), 0.1));
+		scene.geometries.add( //
+				new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)).setEmission(new Color(20, 20, 20)) //
+						.setMaterial(new Material().setKd(0.5).setKs(0.3).setShininess(20)), //
+				new Sphere(new Point(0, 0, 0), 50d).setEmission(new Color(BLUE)) //
+						.setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(100).setkT(0.3)), //
+				new Sphere(new Point(80, -20, 40), 30d).setEmission(new Color(RED)) //
+						.setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(100).setkR(0.3)));
+		scene.lights.add(new SpotLight(new Color(1000, 600, 0), new Point(-100, 100, 200), new Vector(1, -1, -2)) //
+				.setkL(0.0004).setkQ(0.0000006));
+
+		CameraPath path = CameraPath.orbit(Point.ZERO, new Point(0, 100, 1000), new Vector(0, 1, 0), 1);
+		SequenceRenderer.SequenceReport report = new SequenceRenderer(scene, new RayTracerBasic(scene), path) //
+				.setVPSize(200, 200).setVPDistance(1000) //
+				.setResolution(200, 200) //
+				.setImageName("turntable") //
+				.setMultithreading(4) //
+				.render(8);
+		assertEquals(8, report.frames(), "Wrong amount of rendered frames");
+	}
+
+	/** Produce a fly-through of a sphere moving between the frames */
+	@Test
+	void movingSphere() {
+		Scene scene = new Scene("Moving scene").setAmbientLight(new AmbientLight(new Color(WHITE), 0.1));
+		for (int i = -3; i <= 3; ++i)
+			scene.geometries.add(new Sphere(new Point(i * 40, -40, -100), 15d).setEmission(new Color(0, 80, 0)) //
+					.setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)));
+		Geometry[] ball = { new Sphere(new Point(-120, 20, -100), 20d).setEmission(new Color(RED)) };
+		scene.geometries.add(ball[0]);
+		scene.lights.add(new DirectionalLight(new Color(500, 500, 500), new Vector(1, -1, -1)));
+
+		CameraPath path = new CameraPath() //
+				.addKeyframe(0, new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.addKeyframe(1, new Point(0, 100, 800), new Vector(0, -0.1, -1), new Vector(0, 1, -0.1));
+		SequenceRenderer.SequenceReport report = new SequenceRenderer(scene, new RayTracerBasic(scene), path) //
+				.setVPSize(300, 200).setVPDistance(1000) //
+				.setResolution(300, 200) //
+				.setImageName("movingSphere") //
+				.setFrameUpdater((frame, time) -> {
+					Geometry moved = new Sphere(new Point(-120 + 240 * time, 20, -100), 20d)
+							.setEmission(new Color(RED));
+					scene.geometries.replace(ball[0], moved);
+					ball[0] = moved;
+				}) //
+				.render(5);
+		assertEquals(4, report.refits().size(), "Wrong amount of refit timings (the first frame is prepared)");
+	}
+
+	/** Test of the shadow maps updated for the bodies moved between the frames */
+	@Test
+	void movingShadow() {
+		Scene scene = new Scene("Moving shadow").setAmbientLight(new AmbientLight(new Color(WHITE), 0.1));
+		Geometry floor = new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)).setMaterial(new Material().setKd(0.5));
+		Geometry[] ball = { new Sphere(new Point(-100, 0, -100), 20d).setMaterial(new Material().setKd(0.5)) };
+		scene.geometries.add(floor, ball[0], new Sphere(new Point(0, 0, -300), 5d));
+		DirectionalLight light = new DirectionalLight(new Color(500, 500, 500), new Vector(0, -1, 0)).setShadowMap(256);
+		scene.lights.add(light);
+		CameraPath path = new CameraPath() //
+				.addKeyframe(0, new Point(0, 0, 500), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.addKeyframe(1, new Point(0, 0, 500), new Vector(0, 0, -1), new Vector(0, 1, 0));
+		SequenceRenderer renderer = new SequenceRenderer(scene, new RayTracerBasic(scene), path) //
+				.setVPSize(300, 200).setVPDistance(500) //
+				.setResolution(30, 20) //
+				.setImageName("movingShadow") //
+				.setFrameUpdater((frame, time) -> {
+					Geometry moved = new Sphere(new Point(-100 + 200 * time, 0, -100), 20d)
+							.setMaterial(ball[0].getMaterial());
+					scene.geometries.replace(ball[0], moved);
+					ball[0] = moved;
+				});
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: The shadow follows the moved ball
+		renderer.render(3);
+		Vector down = new Vector(0, -1, 0);
+		Vector up = new Vector(0, 1, 0);
+		assertEquals(Double3.ZERO, scene.getShadowMap(light).visibility(new Point(100, -50, -100), up, down),
+				"No shadow under the moved ball");
+		assertEquals(Double3.ONE, scene.getShadowMap(light).visibility(new Point(-100, -50, -100), up, down),
+				"Shadow where the ball was");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: A compiled snapshot cannot follow the moved bodies
+		assertThrows(IllegalStateException.class,
+				() -> new SequenceRenderer(scene, new RayTracerBasic(scene.compile()), path)
+						.setFrameUpdater((frame, time) -> {
+						}).render(1),
+				"Sequence of moving bodies traced in a snapshot");
+	}
+}
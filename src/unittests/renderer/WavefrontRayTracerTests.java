@@ -0,0 +1,148 @@
+package unittests.renderer;
+
+import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+/**
+ * Testing the wavefront (queue based) ray tracer
+ *
+ * @author Eti and Chavi
+ */
+class WavefrontRayTracerTests {
+	/** Amount of pixel columns and rows */
+	private static final int NX = 80, NY = 60;
+
+	/**
+	 * Builds a scene whose pixels finish at different depths - an opaque triangle
+	 * ends at the first wave and the rays reflected out of the scene end early,
+	 * while a mirror ball, a reflecting floor and back wall and nested glass balls
+	 * around an opaque core keep spawning reflected and refracted waves for
+	 * several levels
+	 *
+	 * @param cutoff the light cutoff
+	 * @return the scene, prepared
+	 */
+	private static Scene scene(double cutoff) {
+		Scene scene = new Scene("Wavefront").setLightCutoff(cutoff)
+				.setAmbientLight(new AmbientLight(new Color(WHITE), 0.1))
+				.setBackground(new Color(10, 20, 30));
+		scene.geometries.add( //
+				new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)).setEmission(new Color(30, 30, 30)) //
+						.setMaterial(new Material().setKd(0.5).setKs(0.2).setShininess(10).setkR(0.3)), //
+				new Plane(new Point(0, 0, -250), new Vector(0, 0, 1)).setEmission(new Color(20, 30, 20)) //
+						.setMaterial(new Material().setKd(0.4).setKs(0.2).setShininess(10).setkR(0.5)), //
+				new Sphere(new Point(20, 0, -100), 40d).setEmission(new Color(0, 0, 60)) //
+						.setMaterial(new Material().setKd(0.2).setKs(0.3).setShininess(50).setkT(0.7)), //
+				new Sphere(new Point(20, 0, -100), 22d).setEmission(new Color(40, 0, 40)) //
+						.setMaterial(new Material().setKd(0.2).setKs(0.3).setShininess(30).setkT(0.6).setkR(0.2)), //
+				new Sphere(new Point(20, 0, -100), 8d).setEmission(new Color(RED)) //
+						.setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(30)), //
+				new Sphere(new Point(-55, -20, -140), 28d).setEmission(new Color(10, 10, 10)) //
+						.setMaterial(new Material().setKd(0.1).setKs(0.4).setShininess(80).setkR(0.8)), //
+				new Triangle(new Point(-90, -50, -60), new Point(-40, -50, -60), new Point(-60, 30, -90))
+						.setEmission(new Color(0, 80, 0)).setMaterial(new Material().setKd(0.6).setKs(0.4)));
+		scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(60, 100, 0)).setkL(0.0001));
+		scene.lights.add(new SpotLight(new Color(400, 400, 600), new Point(-50, 80, 20), new Vector(1, -2, -2)));
+		scene.lights.add(new DirectionalLight(new Color(100, 100, 100), new Vector(-1, -1, -1)));
+		return scene.prepare();
+	}
+
+	/**
+	 * Checks that two colors are equal up to rounding
+	 *
+	 * @param expected the expected color
+	 * @param actual   the actual color
+	 * @param message  the failure message
+	 */
+	private static void assertColor(Color expected, Color actual, String message) {
+		java.awt.Color e = expected.getColor();
+		java.awt.Color a = actual.getColor();
+		assertTrue(Math.abs(e.getRed() - a.getRed()) <= 1 && Math.abs(e.getGreen() - a.getGreen()) <= 1
+				&& Math.abs(e.getBlue() - a.getBlue()) <= 1, message + ": expected " + e + " but was " + a);
+	}
+
+	/** Test method for {@link renderer.WavefrontRayTracer#traceRays(Ray[], Color[])}. */
+	@Test
+	void testTraceRays() {
+		Scene scene = scene(0);
+		Camera camera = new Camera(new Point(0, 0, 200), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(200, 150).setVPDistance(200);
+		Ray[] rays = new Ray[NX * NY];
+		for (int i = 0; i < NY; ++i)
+			for (int j = 0; j < NX; ++j)
+				rays[i * NX + j] = camera.constructRay(NX, NY, j, i);
+		RayTracerBase basic = new RayTracerBasic(scene);
+		RayTracerBase wavefront = new WavefrontRayTracer(scene);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: A batch of rays has the same colors as by the basic ray tracer (up to
+		// rounding)
+		Color[] colors = new Color[rays.length];
+		wavefront.traceRays(rays, colors);
+		for (int r = 0; r < rays.length; ++r)
+			assertColor(basic.traceRay(rays[r]), colors[r], "Wrong color of ray " + r);
+
+		// TC02: With a light cutoff, the lights are skipped as by the basic ray tracer
+		Scene cutoff = scene(20);
+		basic = new RayTracerBasic(cutoff);
+		colors = new Color[rays.length];
+		new WavefrontRayTracer(cutoff).traceRays(rays, colors);
+		for (int r = 0; r < rays.length; ++r)
+			assertColor(basic.traceRay(rays[r]), colors[r], "Wrong color of ray " + r);
+		// TC03: With light sampling, the lights of the primary hits are sampled as by
+		// the basic ray tracer (the hits of opaque geometries have no reflections and
+		// refractions)
+		Scene opaque = new Scene("Opaque").setAmbientLight(new AmbientLight(new Color(WHITE), 0.1));
+		opaque.geometries.add(new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)) //
+				.setMaterial(new Material().setKd(0.5).setKs(0.2).setShininess(10)), //
+				new Sphere(new Point(0, 0, -100), 40d).setEmission(new Color(BLUE)) //
+						.setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(50)));
+		opaque.lights.addAll(scene.lights);
+		opaque.prepare();
+		basic = new RayTracerBasic(opaque).setLightSamples(1);
+		colors = new Color[rays.length];
+		new WavefrontRayTracer(opaque).setLightSamples(1).traceRays(rays, colors);
+		for (int r = 0; r < rays.length; ++r)
+			assertColor(basic.traceRay(rays[r]), colors[r], "Wrong color of ray " + r);
+		basic = new RayTracerBasic(scene);
+		// TC04: The waves trace the same reflected and refracted rays, down to the
+		// same depths, as the basic ray tracer
+		RenderReport expected = camera.setImageWriter(new ImageWriter("wavefrontDepths", NX, NY)).setRayTracer(basic)
+				.setStatistics(true).renderImage().getRenderReport();
+		RenderReport actual = camera.setRayTracer(wavefront).renderImage().getRenderReport();
+		assertTrue(expected.averageTreeDepth() > 1.5, "The scene is too shallow to test the waves " + expected);
+		assertEquals(expected.reflectionRays(), actual.reflectionRays(), "Wrong amount of reflected rays");
+		assertEquals(expected.refractionRays(), actual.refractionRays(), "Wrong amount of refracted rays");
+		assertEquals(expected.averageTreeDepth(), actual.averageTreeDepth(), 1e-10, "Wrong average tree depth");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: A single ray
+		Ray center = rays[NY / 2 * NX + NX / 2];
+		assertColor(basic.traceRay(center), wavefront.traceRay(center), "Wrong ray color");
+		// TC12: A ray missing the scene has the background color
+		Ray up = new Ray(new Point(0, 0, 200), new Vector(0, 1, 0));
+		assertEquals(new Color(10, 20, 30).getColor(), wavefront.traceRay(up).getColor(), "Wrong background");
+		// TC13: An empty batch
+		wavefront.traceRays(new Ray[0], new Color[0]);
+	}
+
+	/** Render the scene by tiles with the wavefront ray tracer */
+	@Test
+	void wavefrontRender() {
+		new Camera(new Point(0, 0, 200), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(200, 150).setVPDistance(200) //
+				.setImageWriter(new ImageWriter("wavefront", 400, 300)) //
+				.setRayTracer(new WavefrontRayTracer(scene(0))) //
+				.setMultithreading(2) //
+				.renderImage() //
+				.writeToImage();
+	}
+}
@@ -0,0 +1,129 @@
+package unittests.scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.CompiledScene;
+import scene.Scene;
+import scene.SceneGenerator;
+
+/**
+ * Testing the immutable compiled scene snapshots
+ *
+ * @author Eti and Chavi
+ */
+class CompiledSceneTests {
+	/** The camera of the test scenes */
+	private final Camera camera = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+			.setVPSize(SceneGenerator.SIZE, SceneGenerator.SIZE).setVPDistance(-SceneGenerator.DEPTH / 2);
+
+	/** Test method for {@link scene.Scene#compile()}. */
+	@Test
+	void testCompile() {
+		Scene scene = new SceneGenerator(7).setSpheres(30).setTriangles(20).setLights(4).setReflectiveFraction(0.2)
+				.setTransparentFraction(0.2).generate("Generated");
+		CompiledScene compiled = scene.compile();
+		RayTracerBase live = new RayTracerBasic(scene.prepare());
+		RayTracerBase snapshot = new RayTracerBasic(compiled);
+		int n = 40;
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: The snapshot renders as the scene
+		assertEquals(scene.name, compiled.getName(), "Wrong name");
+		assertEquals(4, compiled.getLights().size(), "Wrong amount of lights");
+		assertEquals(scene.getMaterialTable().size(), compiled.getMaterialTable().size(), "Wrong materials");
+		Color[] expected = new Color[n * n];
+		for (int i = 0; i < n * n; ++i) {
+			Ray ray = camera.constructRay(n, n, i % n, i / n);
+			expected[i] = live.traceRay(ray);
+			assertEquals(expected[i].getColor(), snapshot.traceRay(ray).getColor(), "Wrong color");
+		}
+		// TC02: The snapshot is shared by many threads
+		Color[] parallel = new Color[n * n];
+		IntStream.range(0, n * n).parallel()
+				.forEach(i -> parallel[i] = snapshot.traceRay(camera.constructRay(n, n, i % n, i / n)));
+		for (int i = 0; i < n * n; ++i)
+			assertEquals(expected[i].getColor(), parallel[i].getColor(), "Wrong color of a parallel render");
+		// TC03: Later edits of the scene do not change the snapshot
+		Ray center = camera.constructRay(n, n, n / 2, n / 2);
+		java.awt.Color before = snapshot.traceRay(center).getColor();
+		scene.geometries.add(new Sphere(new Point(0, 0, -SceneGenerator.DEPTH / 2 - 1), 10d)
+				.setEmission(new Color(255, 0, 255)));
+		scene.lights.clear();
+		scene.setBackground(new Color(0, 255, 0));
+		assertEquals(before, snapshot.traceRay(center).getColor(), "Snapshot changed by the scene");
+		assertEquals(4, compiled.getLights().size(), "Snapshot lights changed by the scene");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: The lights of the snapshot cannot be changed
+		assertThrows(UnsupportedOperationException.class,
+				() -> compiled.getLights().add(new DirectionalLight(new Color(1, 1, 1), new Vector(0, -1, 0))),
+				"Lights changed");
+		// TC12: An empty scene
+		CompiledScene empty = new Scene("Empty").setBackground(new Color(10, 20, 30)).compile();
+		assertEquals(new Color(10, 20, 30).getColor(), new RayTracerBasic(empty).traceRay(center).getColor(),
+				"Wrong background of an empty scene");
+	}
+
+	/** Test of a snapshot isolated from preparing and compiling its scene again */
+	@Test
+	void testIsolation() {
+		Scene scene = new Scene("Isolated").setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.05));
+		Geometry floor = new Plane(Point.ZERO, new Vector(0, 1, 0)).setMaterial(new Material().setKd(0.6));
+		Geometry ball = new Sphere(new Point(0, 50, -100), 30d).setMaterial(new Material().setKd(0.5));
+		scene.geometries.add(floor, ball);
+		scene.lights.add(new SpotLight(new Color(600, 600, 600), new Point(0, 250, -100), new Vector(0, -1, 0))
+				.setShadowMap(256).setkL(0.001));
+		CompiledScene compiled = scene.compile();
+		RayTracerBase snapshot = new RayTracerBasic(compiled);
+		Camera view = new Camera(new Point(0, 100, 200), new Vector(0, -1, -3), new Vector(0, 3, -1))
+				.setVPSize(200, 200).setVPDistance(200);
+		int n = 30;
+		java.awt.Color[] before = new java.awt.Color[n * n];
+		for (int i = 0; i < n * n; ++i)
+			before[i] = snapshot.traceRay(view.constructRay(n, n, i % n, i / n)).getColor();
+		int ballId = compiled.getMaterialTable().getId(ball);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Preparing and compiling the scene again with other bodies changes
+		// neither the snapshot's shadows nor its material ids
+		scene.setGeometries(
+				new Geometries(ball, new Sphere(new Point(0, 200, -100), 40d).setMaterial(ball.getMaterial())));
+		scene.prepare();
+		scene.compile();
+		for (int i = 0; i < n * n; ++i)
+			assertEquals(before[i], snapshot.traceRay(view.constructRay(n, n, i % n, i / n)).getColor(),
+					"Snapshot changed by preparing the scene");
+		assertEquals(ballId, compiled.getMaterialTable().getId(ball), "Snapshot's material id changed");
+		assertEquals(0, scene.getMaterialTable().getId(ball), "Wrong material id of the scene");
+	}
+
+	/** Test of a snapshot reused by cameras */
+	@Test
+	void testCameras() {
+		CompiledScene compiled = new SceneGenerator(11).setSpheres(20).setLights(2).generate("Shared").compile();
+		RayTracerBase tracer = new RayTracerBasic(compiled);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Two cameras render the snapshot at the same time
+		Camera left = new Camera(new Point(-50, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(SceneGenerator.SIZE, SceneGenerator.SIZE).setVPDistance(-SceneGenerator.DEPTH / 2) //
+				.setImageWriter(new ImageWriter("compiledLeft", 50, 50)) //
+				.setRayTracer(tracer).setMultithreading(2);
+		Camera right = new Camera(new Point(50, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+				.setVPSize(SceneGenerator.SIZE, SceneGenerator.SIZE).setVPDistance(-SceneGenerator.DEPTH / 2) //
+				.setImageWriter(new ImageWriter("compiledRight", 50, 50)) //
+				.setRayTracer(new DeferredRayTracer(compiled)).setMultithreading(2);
+		IntStream.range(0, 2).parallel().forEach(i -> (i == 0 ? left : right).renderImage());
+		Ray ray = left.constructRay(50, 50, 25, 25);
+		assertEquals(new RayTracerBasic(compiled).traceRay(ray).getColor(), tracer.traceRay(ray).getColor(),
+				"Wrong color of a shared snapshot");
+	}
+}
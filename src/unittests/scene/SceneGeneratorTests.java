@@ -0,0 +1,53 @@
+package unittests.scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import scene.Scene;
+import scene.SceneGenerator;
+
+/**
+ * Testing the synthetic scene generator
+ *
+ * @author Eti and Chavi
+ */
+class SceneGeneratorTests {
+	/** Test method for {@link scene.SceneGenerator#generate(String)}. */
+	@Test
+	void testGenerate() {
+		SceneGenerator generator = new SceneGenerator(42).setSpheres(30).setTriangles(20).setLights(3)
+				.setReflectiveFraction(0.5).setTransparentFraction(0.5);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Requested content (and a floor)
+		Scene scene = generator.generate("Generated");
+		List<Intersectable> bodies = scene.geometries.getBodies();
+		assertEquals(51, bodies.size(), "Wrong amount of bodies");
+		assertEquals(30, bodies.stream().filter(Sphere.class::isInstance).count(), "Wrong amount of spheres");
+		assertEquals(20, bodies.stream().filter(Triangle.class::isInstance).count(), "Wrong amount of triangles");
+		assertEquals(3, scene.lights.size(), "Wrong amount of lights");
+		// all the bodies are either reflective or transparent
+		assertTrue(bodies.stream().filter(b -> !(b instanceof Plane)).map(b -> ((Geometry) b).getMaterial())
+				.allMatch(m -> !m.kR.equals(m.kT)), "Wrong materials");
+
+		// TC02: Same seed produces the same scene
+		List<Intersectable> again = generator.generate("Again").geometries.getBodies();
+		for (int i = 0; i < bodies.size(); ++i)
+			if (bodies.get(i) instanceof Sphere sphere)
+				assertEquals(sphere.getCenter(), ((Sphere) again.get(i)).getCenter(), "Scene is not reproducible");
+
+		// TC03: Different seed produces a different scene
+		Sphere first = (Sphere) new SceneGenerator(43).setSpheres(1).generate("Other").geometries.getBodies().get(1);
+		assertNotEquals(((Sphere) bodies.get(1)).getCenter(), first.getCenter(), "Seed is ignored");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Material fractions sum to more than 1
+		assertThrows(IllegalArgumentException.class,
+				() -> new SceneGenerator(1).setReflectiveFraction(0.6).setTransparentFraction(0.5).generate("Bad"),
+				"Fractions above 1 accepted");
+	}
+}
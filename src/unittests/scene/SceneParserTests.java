@@ -0,0 +1,89 @@
+package unittests.scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import scene.Scene;
+import scene.SceneParser;
+
+/**
+ * Testing the scene description parser
+ *
+ * @author Eti and Chavi
+ */
+class SceneParserTests {
+	/**
+	 * Parses a scene description given as text
+	 *
+	 * @param xml the scene description
+	 * @return the scene
+	 * @throws IOException if the description cannot be read
+	 */
+	private static Scene parse(String xml) throws IOException {
+		return SceneParser.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), "Default");
+	}
+
+	/**
+	 * Test method for {@link scene.SceneParser#parse(java.io.InputStream, String)}.
+	 *
+	 * @throws IOException if the description cannot be read
+	 */
+	@Test
+	void testParse() throws IOException {
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Scene with all kinds of elements
+		Scene scene = parse("""
+				<scene name="Parsed" background-color="10 20 30">
+				  <ambient-light color="255 255 255" ka="0.2"/>
+				  <geometries>
+				    <sphere center="0 0 -100" radius="50" emission="0 0 255" kd="0.5" ks="0.5" shininess="30" kt="0.4"/>
+				    <triangle p0="-100 0 -100" p1="100 0 -100" p2="0 100 -100" kr="0.3"/>
+				    <polygon p0="0 0 0" p1="1 0 0" p2="1 1 0" p3="0 1 0"/>
+				    <plane point="0 -50 0" normal="0 1 0"/>
+				    <tube axis-point="0 0 0" axis-direction="0 1 0" radius="5"/>
+				  </geometries>
+				  <lights>
+				    <point-light color="500 300 0" position="0 100 0" kl="0.001" kq="0.0001"/>
+				    <spot-light color="500 300 0" position="0 100 0" direction="0 -1 0" narrow-beam="10"/>
+				    <directional-light color="100 100 100" direction="1 -1 -1"/>
+				  </lights>
+				</scene>
+				""");
+		assertEquals("Parsed", scene.name, "Wrong scene name");
+		assertEquals(new Color(10, 20, 30).getColor(), scene.background.getColor(), "Wrong background");
+		assertEquals(5, scene.geometries.getBodies().size(), "Wrong amount of geometries");
+		Sphere sphere = (Sphere) scene.geometries.getBodies().get(0);
+		assertEquals(new Point(0, 0, -100), sphere.getCenter(), "Wrong sphere center");
+		assertEquals(new Double3(0.4), sphere.getMaterial().kT, "Wrong sphere material");
+		assertEquals(new Color(0, 0, 255).getColor(), sphere.getEmission().getColor(), "Wrong sphere emission");
+		assertEquals(3, scene.lights.size(), "Wrong amount of lights");
+		assertTrue(scene.lights.get(1) instanceof SpotLight, "Wrong light type");
+
+		// TC02: Minimal scene gets the defaults
+		Scene empty = parse("<scene/>");
+		assertEquals("Default", empty.name, "Wrong default name");
+		assertTrue(empty.geometries.getBodies().isEmpty() && empty.lights.isEmpty(), "Minimal scene not empty");
+
+		// TC03: Unknown element
+		assertThrows(IllegalArgumentException.class,
+				() -> parse("<scene><geometries><cube/></geometries></scene>"), "Unknown geometry accepted");
+		// TC04: Missing attribute
+		assertThrows(IllegalArgumentException.class,
+				() -> parse("<scene><geometries><sphere radius=\"3\"/></geometries></scene>"),
+				"Sphere without center accepted");
+		// TC05: Malformed value
+		assertThrows(IllegalArgumentException.class,
+				() -> parse("<scene><geometries><sphere center=\"1 2\" radius=\"3\"/></geometries></scene>"),
+				"Malformed point accepted");
+		// TC06: Not a scene description
+		assertThrows(IllegalArgumentException.class, () -> parse("<image/>"), "Wrong root accepted");
+	}
+}
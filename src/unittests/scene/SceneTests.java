@@ -0,0 +1,84 @@
+package unittests.scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import geometries.Intersectable.GeoPoint;
+import primitives.*;
+import scene.Scene;
+
+/**
+ * Testing the preparation of a scene for rendering
+ *
+ * @author Eti and Chavi
+ */
+class SceneTests {
+	/**
+	 * Finds the body closest to the origin along a ray going down the z axis
+	 *
+	 * @param scene the scene
+	 * @param x     the x coordinate of the ray
+	 * @return the closest body, or null if the ray misses the scene
+	 */
+	private static Geometry hit(Scene scene, double x) {
+		Ray ray = new Ray(new Point(x, 0, 0), new Vector(0, 0, -1));
+		List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(ray);
+		return intersections == null ? null : ray.findClosestGeoPoint(intersections).geometry;
+	}
+
+	/** Test method for {@link scene.Scene#prepare()}. */
+	@Test
+	void testPrepare() {
+		Scene scene = new Scene("Prepared");
+		Geometry[] spheres = new Geometry[8];
+		for (int i = 0; i < spheres.length; ++i)
+			spheres[i] = new Sphere(new Point(i * 10, 0, -100), 4d);
+		Geometries group = new Geometries(spheres[6], spheres[7]);
+		scene.geometries.add(spheres[0], spheres[1], spheres[2], spheres[3], spheres[4], spheres[5], group);
+		List<Intersectable> built = List.copyOf(scene.geometries.getBodies());
+		scene.prepare();
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: The geometries stay as built, the hierarchy is kept apart
+		assertEquals(built, scene.geometries.getBodies(), "Geometries reorganized by the preparation");
+		assertEquals(List.of(spheres[6], spheres[7]), group.getBodies(), "Nested collection flattened");
+		assertFalse(scene.geometries == scene.getGeometries(), "Hierarchy not built");
+		// TC02: The hierarchy finds the bodies, including the nested ones
+		for (int i = 0; i < spheres.length; ++i)
+			assertSame(spheres[i], hit(scene, i * 10), "Wrong body hit");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: An unprepared scene traces its geometries as they are
+		assertSame(scene.geometries, new Scene("Unprepared").setGeometries(scene.geometries).getGeometries(),
+				"Unprepared scene traced in a hierarchy");
+	}
+
+	/** Test method for {@link scene.Scene#refit(double)}. */
+	@Test
+	void testRefit() {
+		Scene scene = new Scene("Refitted");
+		Geometry[] spheres = new Geometry[8];
+		for (int i = 0; i < spheres.length; ++i)
+			spheres[i] = new Sphere(new Point(i * 10, 0, -100), 4d);
+		scene.geometries.add(spheres);
+		scene.prepare();
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: A body replaced in the geometries is moved in the hierarchy
+		Geometry moved = new Sphere(new Point(-30, 0, -100), 4d);
+		scene.geometries.replace(spheres[0], moved);
+		scene.refit(Geometries.DEFAULT_REBUILD_THRESHOLD);
+		assertSame(moved, hit(scene, -30), "Replaced body not moved");
+		assertNull(hit(scene, 0), "Replaced body still hit");
+		// TC02: A body added to the geometries is added to the hierarchy
+		Geometry added = new Sphere(new Point(100, 0, -100), 4d);
+		scene.geometries.add(added);
+		assertNull(hit(scene, 100), "Added body traced before the refit");
+		assertEquals(1, scene.refit(Geometries.DEFAULT_REBUILD_THRESHOLD).rebuiltNodes(), "Hierarchy not rebuilt");
+		assertSame(added, hit(scene, 100), "Added body not hit");
+	}
+}